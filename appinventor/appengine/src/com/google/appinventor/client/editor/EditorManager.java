@@ -16,11 +16,15 @@ import com.google.appinventor.client.editor.youngandroid.YaBlocksEditor;
 import com.google.appinventor.client.explorer.project.Project;
 import com.google.appinventor.client.settings.project.ProjectSettings;
 import com.google.appinventor.shared.rpc.BlocksTruncatedException;
+import com.google.appinventor.shared.rpc.project.ChecksumedFileException;
+import com.google.appinventor.shared.rpc.project.ChecksumedLoadFile;
+import com.google.appinventor.shared.rpc.project.FileDelta;
 import com.google.appinventor.shared.rpc.project.FileDescriptorWithContent;
 import com.google.appinventor.shared.rpc.project.ProjectRootNode;
 import com.google.common.collect.Maps;
 import com.google.gwt.user.client.Command;
 import com.google.gwt.user.client.Timer;
+import com.google.gwt.user.client.rpc.AsyncCallback;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -54,6 +58,10 @@ public final class EditorManager {
   // TODO(user): Make this configurable.
   private static final int AUTO_SAVE_FORCED_TIMEOUT = 30000;
 
+  // A delta is only sent if it is smaller than this fraction of the full
+  // content. Otherwise the full content is saved.
+  private static final double MAX_DELTA_RATIO = 0.5;
+
   // Fields used for saving and auto-saving.
   private final Set<ProjectSettings> dirtyProjectSettings;
   private final Set<FileEditor> dirtyFileEditors;
@@ -62,6 +70,20 @@ public final class EditorManager {
   private boolean autoSaveIsScheduled;
   private long autoSaveRequestTime;
 
+  // Content (and its checksum) last known to be stored on the server, keyed by
+  // projectId:fileId. Used as the base version when saving deltas.
+  private final Map<String, SavedContent> lastSavedContent;
+
+  private static class SavedContent {
+    final String content;
+    final String checksum;
+
+    SavedContent(String content, String checksum) {
+      this.content = content;
+      this.checksum = checksum;
+    }
+  }
+
   private class DateHolder {
     long date;
     long projectId;
@@ -76,6 +98,7 @@ public final class EditorManager {
     dirtyProjectSettings = new HashSet<ProjectSettings>();
     dirtyFileEditors = new HashSet<FileEditor>();
     pendingFileEditors = new HashMap<String,FileEditor>();
+    lastSavedContent = new HashMap<String, SavedContent>();
 
     autoSaveTimer = new Timer() {
       @Override
@@ -153,6 +176,7 @@ public final class EditorManager {
         if (fileEditor != null) {
           dirtyFileEditors.remove(fileEditor);
         }
+        lastSavedContent.remove(projectId + ":" + fileId);
       }
       projectEditor.closeFileEditors(fileIds);
     }
@@ -172,6 +196,8 @@ public final class EditorManager {
     ProjectSettings projectSettings = project.getSettings();
     dirtyProjectSettings.remove(projectSettings);
     openProjectEditors.remove(projectId);
+    String prefix = projectId + ":";
+    lastSavedContent.keySet().removeIf(key -> key.startsWith(prefix));
   }
 
   /**
@@ -202,6 +228,20 @@ public final class EditorManager {
     scheduleAutoSaveTimer();
   }
 
+  /**
+   * Records the content of a file as it was loaded from the server, so that
+   * the next auto-save of that file can be sent as a delta.
+   *
+   * @param projectId  project ID
+   * @param fileId  file ID
+   * @param content  the file content as stored on the server
+   * @param checksum  the checksum of content
+   */
+  public void recordLoadedContent(long projectId, String fileId, String content,
+      String checksum) {
+    lastSavedContent.put(projectId + ":" + fileId, new SavedContent(content, checksum));
+  }
+
   /**
    * Check whether there is an open project editor.
    *
@@ -396,10 +436,13 @@ public final class EditorManager {
         final String fileId = fileDescriptor.getFileId();
         final String content = fileDescriptor.getContent();
         Ode.CLog("Saving fileId " + fileId + " for projectId " + projectId);
-        Ode.getInstance().getProjectService().save2(Ode.getInstance().getSessionId(),
-          projectId, fileId, false, content, new OdeAsyncCallback<Long>(MESSAGES.saveErrorMultipleFiles()) {
+        final String checksum = computeChecksum(content);
+        final OdeAsyncCallback<Long> callback = new OdeAsyncCallback<Long>(MESSAGES.saveErrorMultipleFiles()) {
             @Override
             public void onSuccess(Long date) {
+              if (checksum != null) {
+                lastSavedContent.put(projectId + ":" + fileId, new SavedContent(content, checksum));
+              }
               if (dateHolder.date != 0) {
                 // This sets the project modification time to that of one of
                 // the successful file saves. It doesn't really matter which
@@ -438,8 +481,66 @@ public final class EditorManager {
                 afterSavingFiles.execute();   // of files saved (or not in this case)
               }
             }
-          });
+          };
+        FileDelta delta = computeDelta(projectId, fileId, content, checksum);
+        if (delta == null) {
+          Ode.getInstance().getProjectService().save2(Ode.getInstance().getSessionId(),
+              projectId, fileId, false, content, callback);
+        } else {
+          Ode.getInstance().getProjectService().saveDelta(Ode.getInstance().getSessionId(),
+              projectId, fileId, false, delta, new AsyncCallback<Long>() {
+                @Override
+                public void onSuccess(Long date) {
+                  callback.onSuccess(date);
+                }
+
+                @Override
+                public void onFailure(Throwable caught) {
+                  if (caught instanceof ChecksumedFileException) {
+                    // The server's copy is not the version we computed the delta
+                    // against (or the patch did not verify). Send everything.
+                    LOG.info("Delta save of " + fileId + " rejected, saving full content");
+                    lastSavedContent.remove(projectId + ":" + fileId);
+                    Ode.getInstance().getProjectService().save2(Ode.getInstance().getSessionId(),
+                        projectId, fileId, false, content, callback);
+                  } else {
+                    callback.onFailure(caught);
+                  }
+                }
+              });
+        }
       }
     }
   }
+
+  /**
+   * Computes the checksum of content, or returns null if it cannot be computed,
+   * in which case no delta will be based on this content.
+   */
+  private static String computeChecksum(String content) {
+    try {
+      return ChecksumedLoadFile.computeChecksum(content);
+    } catch (ChecksumedFileException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Computes a delta from the last content saved for the given file, if we have
+   * one and the delta is small enough to be worth sending.
+   *
+   * @return the delta, or null if the full content should be saved
+   */
+  private FileDelta computeDelta(long projectId, String fileId, String content,
+      String checksum) {
+    SavedContent saved = lastSavedContent.get(projectId + ":" + fileId);
+    if (saved == null || checksum == null) {
+      return null;
+    }
+    FileDelta delta = FileDelta.compute(saved.content, saved.checksum, content, checksum);
+    if (delta.size() > content.length() * MAX_DELTA_RATIO) {
+      return null;
+    }
+    return delta;
+  }
 }
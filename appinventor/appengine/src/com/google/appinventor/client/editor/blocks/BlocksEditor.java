@@ -242,6 +242,8 @@ public abstract class BlocksEditor<S extends SourceNode, T extends DesignerEdito
           this.onFailure(e);
           return;
         }
+        Ode.getInstance().getEditorManager().recordLoadedContent(projectId, fileId,
+            blkFileContent, result.getChecksum());
         String designerJson = designer.getJson();
         try {
           blocksArea.loadBlocksContent(designerJson, blkFileContent, upgrade);
@@ -436,6 +436,8 @@ public abstract class DesignerEditor<S extends SourceNode, T extends MockDesigne
           this.onFailure(e);
           return;
         }
+        Ode.getInstance().getEditorManager().recordLoadedContent(projectId, fileId,
+            contents, result.getChecksum());
         final FileContentHolder fileContentHolder = new FileContentHolder(contents);
         upgradeFile(fileContentHolder, new Command() {
           @Override
@@ -341,6 +341,9 @@ public abstract class MockComponent extends Composite implements PropertyChangeL
   private MouseListenerCollection mouseListeners = new MouseListenerCollection();
   private HandlerManager handlers;
 
+  // Preferred size measured during a previous layout pass (see markLayoutDirty()).
+  final PreferredSizeCache preferredSize = new PreferredSizeCache();
+
   /**
    * Creates a new instance of the component.
    *
@@ -1164,6 +1167,7 @@ public abstract class MockComponent extends Composite implements PropertyChangeL
    *
    */
   final void refreshForm(boolean force) {
+    markLayoutDirty();
     if (isAttached()) {
       if (getContainer() != null || isForm()) {
         if (force) {
@@ -1185,6 +1189,7 @@ public abstract class MockComponent extends Composite implements PropertyChangeL
 
   @Override
   public void onPropertyChange(String propertyName, String newValue) {
+    markLayoutDirty();
     if (propertyName.equals(PROPERTY_NAME_NAME)) {
       setTitle(newValue);
     } else if (getContainer() != null || isForm()) {
@@ -1220,19 +1225,70 @@ public abstract class MockComponent extends Composite implements PropertyChangeL
   // Layout
 
   LayoutInfo createLayoutInfo(Map<MockComponent, LayoutInfo> layoutInfoMap) {
+    final PreferredSizeCache.Measurer measurer = new PreferredSizeCache.Measurer() {
+      @Override
+      public int measureWidth() {
+        return getPreferredWidth();
+      }
+
+      @Override
+      public int measureHeight() {
+        return getPreferredHeight();
+      }
+    };
     return new LayoutInfo(layoutInfoMap, this) {
       @Override
       int calculateAutomaticWidth() {
-        return getPreferredWidth();
+        return preferredSize.getWidth(measurer);
       }
 
       @Override
       int calculateAutomaticHeight() {
-        return getPreferredHeight();
+        return preferredSize.getHeight(measurer);
       }
     };
   }
 
+  /**
+   * Marks this component as changed so that it is measured again the next
+   * time the form is laid out. Changes to the form itself (theme, sizing,
+   * preview style) can affect the size of any component, so for the form the
+   * whole tree is marked.
+   */
+  final void markLayoutDirty() {
+    if (isForm()) {
+      markSubtreeLayoutDirty();
+    } else {
+      preferredSize.invalidate();
+    }
+  }
+
+  /**
+   * Marks this component and all of its descendants as changed.
+   */
+  final void markSubtreeLayoutDirty() {
+    preferredSize.invalidate();
+    for (MockComponent child : getChildren()) {
+      child.markSubtreeLayoutDirty();
+    }
+  }
+
+  /**
+   * Returns true if this component or any of its showing descendants has
+   * changed since the last layout pass and needs to be measured again.
+   */
+  final boolean needsMeasurement() {
+    if (preferredSize.isDirty()) {
+      return true;
+    }
+    for (MockComponent child : getShowingVisibleChildren()) {
+      if (child.needsMeasurement()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /** Upgrading MockComponent
    *
    * When extensions are upgraded, the MockComponents might need to undergo changes.
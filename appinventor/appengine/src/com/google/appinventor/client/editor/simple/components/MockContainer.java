@@ -184,6 +184,8 @@ public abstract class MockContainer extends MockVisibleComponent implements Drop
 
     // Set the container to be the parent of the component
     component.setContainer(this);
+    // The component's size may depend on its surroundings, so measure it again
+    component.markSubtreeLayoutDirty();
 
     // Add the component as a child component of the container
     if (beforeIndex == -1) {
@@ -225,6 +227,7 @@ public abstract class MockContainer extends MockVisibleComponent implements Drop
     }
 
     component.setContainer(this);
+    component.markSubtreeLayoutDirty();
     children.add(beforeActualIndex, component);
 
     if (component.isVisibleComponent()) {
@@ -23,12 +23,12 @@ import com.google.appinventor.client.widgets.properties.NonNegativeIntegerProper
 import com.google.appinventor.components.common.ComponentConstants;
 import com.google.appinventor.components.common.PropertyTypeConstants;
 import com.google.appinventor.shared.settings.SettingsConstants;
+import com.google.gwt.animation.client.AnimationScheduler;
 import com.google.gwt.dom.client.DivElement;
 import com.google.gwt.dom.client.Document;
 import com.google.gwt.dom.client.Element;
 import com.google.gwt.dom.client.NativeEvent;
 import com.google.gwt.dom.client.Style;
-import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.Window;
 import com.google.gwt.user.client.ui.AbsolutePanel;
 import com.google.gwt.user.client.ui.Button;
@@ -1156,27 +1156,33 @@ public final class MockForm extends MockDesignerRoot implements DesignerRootComp
    * one project that was this big and reasonable!).  -Jeff Schiller
    * (jis@mit.edu).
    *
+   * The pending refresh runs on the next animation frame, so however many
+   * property changes happen while the user drags or types, the form is laid
+   * out at most once per frame. Each pass only measures the components that
+   * were marked dirty (see MockComponent.markLayoutDirty) since the last one.
+   *
    */
 
-  private Timer refreshTimer = null;
+  private AnimationScheduler.AnimationHandle refreshHandle = null;
+
   public final void refresh() {
-    if (refreshTimer != null) return;
-    refreshTimer = new Timer() {
-      @Override
-      public void run() {
-        doRefresh();
-        refreshTimer = null;
-      }
-    };
-    refreshTimer.schedule(0);
+    if (refreshHandle != null) return;
+    refreshHandle = AnimationScheduler.get().requestAnimationFrame(
+        new AnimationScheduler.AnimationCallback() {
+          @Override
+          public void execute(double timestamp) {
+            refreshHandle = null;
+            doRefresh();
+          }
+        });
   }
 
   public void refresh(boolean force) {
     if (force) {
-      // If we are forcing a refresh, cancel any pending refresh timer.
-      if (refreshTimer != null) {
-        refreshTimer.cancel();
-        refreshTimer = null;
+      // If we are forcing a refresh, cancel any pending refresh.
+      if (refreshHandle != null) {
+        refreshHandle.cancel();
+        refreshHandle = null;
       }
       doRefresh();
     } else {
@@ -1203,7 +1209,10 @@ public final class MockForm extends MockDesignerRoot implements DesignerRootComp
     rootPanel.setPixelSize(formLayoutInfo.width,
         Math.max(formLayoutInfo.height, usableScreenHeight));
 
+    // Containers ask for the sizes of their fill parent children while laying
+    // them out, so components stay dirty until the whole pass has finished.
     for (LayoutInfo layoutInfo : layoutInfoMap.values()) {
+      layoutInfo.component.preferredSize.layoutFinished(layoutInfo.component.isAttached());
       layoutInfo.cleanUp();
     }
     layoutInfoMap.clear();
@@ -1232,10 +1241,14 @@ public final class MockForm extends MockDesignerRoot implements DesignerRootComp
         // If the container is its normal size (or perhaps the default empty
         // size), then the browser won't give us anything bigger than that
         // when we ask for a child's size.
-        if (component.isForm()) {
-          ((MockForm) component).rootPanel.setPixelSize(1000, 1000);
-        } else {
-          component.setPixelSize(1000, 1000);
+        // If nothing below this container changed, the children's sizes are all
+        // cached, and resizing would only cause an unnecessary reflow.
+        if (component.needsMeasurement()) {
+          if (component.isForm()) {
+            ((MockForm) component).rootPanel.setPixelSize(1000, 1000);
+          } else {
+            component.setPixelSize(1000, 1000);
+          }
         }
 
         // Show children that should be shown and collect their layoutInfos.
@@ -1281,6 +1294,7 @@ public final class MockForm extends MockDesignerRoot implements DesignerRootComp
    * Triggers the DesignChangePreviewChange listeners
    */
   protected void fireDesignPreviewChange() {
+    markSubtreeLayoutDirty();
     for (DesignPreviewChangeListener listener : designPreviewChangeListeners) {
       listener.onDesignPreviewChanged();
     }
@@ -0,0 +1,77 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.client.editor.simple.components;
+
+/**
+ * The preferred size of a mock component, measured during a layout pass and
+ * kept for later passes until the component changes. Measuring requires a
+ * browser reflow, so for large forms we only want to do it for the components
+ * that actually changed since the last pass.
+ *
+ * <p>A size is measured the first time it is asked for after a change, by
+ * whichever part of the layout asks first. For a component whose width or
+ * height is fill parent, that is its container. Sizes are measured while the
+ * containers around the component are enlarged, so they do not depend on the
+ * size of the container and stay valid when only the container changes.
+ */
+final class PreferredSizeCache {
+
+  /**
+   * Measures a component's preferred size in the browser.
+   */
+  interface Measurer {
+    int measureWidth();
+
+    int measureHeight();
+  }
+
+  private int width = -1;
+  private int height = -1;
+  private boolean dirty = true;
+
+  /**
+   * Forgets the measured size. Called when the component changes.
+   */
+  void invalidate() {
+    width = -1;
+    height = -1;
+    dirty = true;
+  }
+
+  /**
+   * Returns true if the component changed since the last layout pass.
+   */
+  boolean isDirty() {
+    return dirty;
+  }
+
+  int getWidth(Measurer measurer) {
+    if (width < 0) {
+      width = measurer.measureWidth();
+    }
+    return width;
+  }
+
+  int getHeight(Measurer measurer) {
+    if (height < 0) {
+      height = measurer.measureHeight();
+    }
+    return height;
+  }
+
+  /**
+   * Called once a layout pass, including the layout of the component's
+   * container, has finished. Sizes measured while the component was not
+   * attached are not trustworthy, so they are measured again next time.
+   */
+  void layoutFinished(boolean attached) {
+    if (attached) {
+      dirty = false;
+    } else {
+      invalidate();
+    }
+  }
+}
@@ -35,7 +35,9 @@ import com.google.appinventor.client.utils.Promise;
 import com.google.appinventor.components.common.YaVersion;
 import com.google.appinventor.shared.properties.json.JSONUtil;
 import com.google.appinventor.shared.rpc.RpcResult;
+import com.google.appinventor.shared.rpc.project.ChecksumedFileException;
 import com.google.appinventor.shared.rpc.project.ChecksumedLoadFile;
+import com.google.appinventor.shared.rpc.project.FileDelta;
 import com.google.appinventor.shared.rpc.project.FileDescriptor;
 import com.google.appinventor.shared.rpc.project.FileDescriptorWithContent;
 import com.google.appinventor.shared.rpc.project.NewProjectParameters;
@@ -463,6 +465,25 @@ public class LocalProjectService implements ProjectServiceAsync {
     callback.onSuccess(System.currentTimeMillis());
   }
 
+  @Override
+  public void saveDelta(String sessionId, long projectId, String fileId, boolean force,
+      FileDelta delta, AsyncCallback<Long> callback) {
+    ArrayBuffer buffer = contents.get(projectId + ":" + fileId);
+    if (buffer == null) {
+      callback.onFailure(new ChecksumedFileException("File not found"));
+      return;
+    }
+    TextDecoder decoder = new TextDecoder("utf-8");
+    String content;
+    try {
+      content = delta.apply(decoder.decode(buffer));
+    } catch (ChecksumedFileException e) {
+      callback.onFailure(e);
+      return;
+    }
+    save2(sessionId, projectId, fileId, force, content, callback);
+  }
+
   @Override
   public void save(String sessionId, List<FileDescriptorWithContent> filesAndContent,
       AsyncCallback<Long> callback) {
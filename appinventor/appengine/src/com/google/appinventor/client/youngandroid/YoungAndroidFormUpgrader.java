@@ -573,6 +573,12 @@ public final class YoungAndroidFormUpgrader {
       // No properties need to be modified to upgrade to version 2.
       srcCompVersion = 2;
     }
+    if (srcCompVersion < 3) {
+      // The WatchChartData, WatchDataSource and StopWatching methods, the AnomalyDetected event
+      // and the WindowSize property were added.
+      // No properties need to be modified to upgrade to version 3.
+      srcCompVersion = 3;
+    }
     return srcCompVersion;
   }
 
@@ -656,6 +662,11 @@ public final class YoungAndroidFormUpgrader {
       // No properties need to be modified to upgrade to version 8.
       srcCompVersion = 8;
     }
+    if (srcCompVersion < 9) {
+      // Methods, an event and properties for receiving frames in the background were added.
+      // No properties need to be modified to upgrade to version 9.
+      srcCompVersion = 9;
+    }
     return srcCompVersion;
   }
 
@@ -682,6 +693,11 @@ public final class YoungAndroidFormUpgrader {
       // No properties need to be modified to upgrade to version 5.
       srcCompVersion = 5;
     }
+    if (srcCompVersion < 6) {
+      // Methods, an event and properties for receiving frames in the background were added.
+      // No properties need to be modified to upgrade to version 6.
+      srcCompVersion = 6;
+    }
     return srcCompVersion;
   }
   private static int upgradeSliderProperties(Map<String, JSONValue> componentProperties,
@@ -1758,6 +1774,11 @@ public final class YoungAndroidFormUpgrader {
       // added an add sheet block and a delete sheet block
       srcCompVersion = 3;
     }
+    if (srcCompVersion < 4) {
+      // The BatchWrites, BatchInterval, BatchSize and ReadCacheDuration properties and the
+      // FlushWrites method were added.
+      srcCompVersion = 4;
+    }
     return srcCompVersion;
   }
 
@@ -1791,6 +1812,11 @@ public final class YoungAndroidFormUpgrader {
       // Added Property: GetEntries
       srcCompVersion = 3;
     }
+
+    if (srcCompVersion < 4) {
+      // Added Property: WriteInBackground
+      srcCompVersion = 4;
+    }
     return srcCompVersion;
   }
 
@@ -2035,6 +2061,18 @@ public final class YoungAndroidFormUpgrader {
       // Properties related to this component have now been upgraded to version 9
       srcCompVersion = 9;
     }
+    if (srcCompVersion < 10) {
+      // The ResponseCacheSize, ResponseCacheHits, ResponseCacheMisses and
+      // ResponseCacheRevalidations properties were added.
+      // The ClearResponseCache method was added.
+      // No properties need to be modified to upgrade to version 10.
+      srcCompVersion = 10;
+    }
+    if (srcCompVersion < 11) {
+      // The MaxRequestsPerHost and DropStaleResponses properties were added.
+      // No properties need to be modified to upgrade to version 11.
+      srcCompVersion = 11;
+    }
     return srcCompVersion;
   }
 
@@ -2106,6 +2144,18 @@ public final class YoungAndroidFormUpgrader {
       // Adds CustomUrl (MapType 4).
       srcCompVersion = 7;
     }
+    if (srcCompVersion < 8) {
+      // Adds ClusterMarkers property.
+      srcCompVersion = 8;
+    }
+    if (srcCompVersion < 9) {
+      // Adds FeaturesWithinDistance, FeaturesContainingPoint and NearestFeature methods.
+      srcCompVersion = 9;
+    }
+    if (srcCompVersion < 10) {
+      // Adds SimplifyGeometry property and LoadProgress event.
+      srcCompVersion = 10;
+    }
     return srcCompVersion;
   }
 
@@ -2185,6 +2235,11 @@ public final class YoungAndroidFormUpgrader {
       // The GotGeoJSON and GeoJSONError events were renamed in the blocks editor.
       srcCompVersion = 2;
     }
+    if (srcCompVersion < 3) {
+      // Version 3
+      // The SimplifyGeometry property and LoadProgress event were added.
+      srcCompVersion = 3;
+    }
     return srcCompVersion;
   }
 
@@ -2205,6 +2260,11 @@ public final class YoungAndroidFormUpgrader {
       // UpdateDone event and ProvideUpdateDone property were added
       srcCompVersion = 2;
     }
+    if (srcCompVersion < 3) {
+      // Version 3
+      // The CacheValues property was added
+      srcCompVersion = 3;
+    }
     return srcCompVersion;
   }
 
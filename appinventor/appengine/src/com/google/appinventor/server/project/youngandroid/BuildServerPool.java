@@ -0,0 +1,351 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.server.project.youngandroid;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.CharStreams;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A set of interchangeable build servers. The pool periodically polls each
+ * server's /buildserver/health and /buildserver/vars pages and orders the
+ * servers so that builds go to the least loaded healthy one first, then to
+ * servers that are still turning on. Servers that are draining, shutting
+ * down or unreachable are only used when no other server is left, in which
+ * case the original configuration order is kept and the build server itself
+ * reports the problem to the user.
+ *
+ * Polls are made without holding the pool's lock. A caller that finds a
+ * server's status out of date polls it, while other callers carry on with
+ * the status last recorded.
+ *
+ * A pool with a single host behaves exactly like using that host directly
+ * and never polls.
+ */
+final class BuildServerPool {
+
+  private static final Logger LOG = Logger.getLogger(BuildServerPool.class.getName());
+
+  // Timeout (in ms) for the status requests. These are made while the user
+  // waits for the build to be submitted, so they must be short.
+  private static final int PROBE_TIMEOUT = 2000;
+
+  private static final Pattern VAR_PATTERN = Pattern.compile("<b>([^<]+)</b> ([^<]*)<br>");
+
+  /**
+   * The state of a build server as far as the pool knows. UP, TURNING,
+   * DRAINING and SHUTTING correspond to the states reported by the build
+   * server; DOWN covers both a server that says it is down and one that
+   * cannot be reached.
+   */
+  enum State { UNKNOWN, UP, TURNING, DRAINING, SHUTTING, DOWN }
+
+  /**
+   * Fetches status from a build server. Replaced in tests.
+   */
+  interface Prober {
+    /**
+     * Returns the HTTP response code and body of GET /buildserver/{page} on host.
+     */
+    Response get(String host, String page) throws IOException;
+  }
+
+  static final class Response {
+    final int code;
+    final String body;
+
+    Response(int code, String body) {
+      this.code = code;
+      this.body = body;
+    }
+  }
+
+  static final class Endpoint {
+    final String host;
+    State state = State.UNKNOWN;
+    int activeTasks;
+    int maxTasks;  // 0 means unlimited
+    long lastPolled;
+
+    Endpoint(String host) {
+      this.host = host;
+    }
+
+    /**
+     * Returns the fraction of the server's capacity in use. Servers without a
+     * limit are compared by their number of active tasks.
+     */
+    double load() {
+      return maxTasks > 0 ? (double) activeTasks / maxTasks : activeTasks;
+    }
+  }
+
+  private final List<Endpoint> endpoints;
+  private final long pollInterval;
+  private final Prober prober;
+
+  BuildServerPool(List<String> hosts, long pollInterval) {
+    this(hosts, pollInterval, new HttpProber());
+  }
+
+  @VisibleForTesting
+  BuildServerPool(List<String> hosts, long pollInterval, Prober prober) {
+    this.endpoints = new ArrayList<Endpoint>();
+    for (String host : hosts) {
+      endpoints.add(new Endpoint(host));
+    }
+    this.pollInterval = pollInterval;
+    this.prober = prober;
+  }
+
+  /**
+   * Creates a pool from a primary host and a comma separated list of
+   * additional hosts, either of which may be empty.
+   */
+  static BuildServerPool fromFlags(String primaryHost, String additionalHosts,
+      long pollInterval) {
+    List<String> hosts = new ArrayList<String>();
+    if (!primaryHost.isEmpty()) {
+      hosts.add(primaryHost);
+    }
+    for (String host : additionalHosts.split(",")) {
+      host = host.trim();
+      if (!host.isEmpty() && !hosts.contains(host)) {
+        hosts.add(host);
+      }
+    }
+    return new BuildServerPool(hosts, pollInterval);
+  }
+
+  /**
+   * Returns the hosts in the order in which a build should be offered to
+   * them: healthy servers by increasing load, then servers that are turning
+   * on, followed by the others in configuration order.
+   */
+  List<String> getCandidates() {
+    for (Endpoint endpoint : claimPolls()) {
+      poll(endpoint);
+    }
+    return order();
+  }
+
+  /**
+   * Returns the servers whose status is out of date, marking them as polled
+   * so that concurrent callers do not poll them too.
+   */
+  private synchronized List<Endpoint> claimPolls() {
+    List<Endpoint> due = new ArrayList<Endpoint>();
+    if (endpoints.size() > 1) {
+      long now = System.currentTimeMillis();
+      for (Endpoint endpoint : endpoints) {
+        if (now - endpoint.lastPolled >= pollInterval) {
+          endpoint.lastPolled = now;
+          due.add(endpoint);
+        }
+      }
+    }
+    return due;
+  }
+
+  private synchronized List<String> order() {
+    List<Endpoint> healthy = new ArrayList<Endpoint>();
+    List<Endpoint> turning = new ArrayList<Endpoint>();
+    List<Endpoint> others = new ArrayList<Endpoint>();
+    for (Endpoint endpoint : endpoints) {
+      if (endpoint.state == State.UP || endpoint.state == State.UNKNOWN) {
+        healthy.add(endpoint);
+      } else if (endpoint.state == State.TURNING) {
+        turning.add(endpoint);
+      } else {
+        others.add(endpoint);
+      }
+    }
+    // Stable sort, so equally loaded servers keep their configured order.
+    Comparator<Endpoint> byLoad = new Comparator<Endpoint>() {
+      @Override
+      public int compare(Endpoint a, Endpoint b) {
+        return Double.compare(a.load(), b.load());
+      }
+    };
+    Collections.sort(healthy, byLoad);
+    Collections.sort(turning, byLoad);
+    List<String> hosts = new ArrayList<String>(endpoints.size());
+    for (Endpoint endpoint : healthy) {
+      hosts.add(endpoint.host);
+    }
+    for (Endpoint endpoint : turning) {
+      hosts.add(endpoint.host);
+    }
+    for (Endpoint endpoint : others) {
+      hosts.add(endpoint.host);
+    }
+    return hosts;
+  }
+
+  /**
+   * Records that host turned down a build because it was busy. The server is
+   * treated as draining until it is polled again.
+   */
+  synchronized void markRejected(String host) {
+    if (mark(host, State.DRAINING)) {
+      LOG.info("Build server " + host + " rejected a build, routing to other servers");
+    }
+  }
+
+  /**
+   * Records that host could not be reached when a build was sent to it. The
+   * server is treated as down until it is polled again.
+   */
+  synchronized void markDown(String host) {
+    if (mark(host, State.DOWN)) {
+      LOG.info("Build server " + host + " is unreachable, routing to other servers");
+    }
+  }
+
+  /**
+   * Returns the state last recorded for host, or null if it is not in the
+   * pool.
+   */
+  synchronized State getState(String host) {
+    for (Endpoint endpoint : endpoints) {
+      if (endpoint.host.equals(host)) {
+        return endpoint.state;
+      }
+    }
+    return null;
+  }
+
+  private boolean mark(String host, State state) {
+    boolean found = false;
+    for (Endpoint endpoint : endpoints) {
+      if (endpoint.host.equals(host)) {
+        endpoint.state = state;
+        endpoint.lastPolled = System.currentTimeMillis();
+        found = true;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Records that a build was submitted to host, so that the next build goes
+   * elsewhere if another server is equally loaded.
+   */
+  synchronized void markSubmitted(String host) {
+    for (Endpoint endpoint : endpoints) {
+      if (endpoint.host.equals(host)) {
+        endpoint.activeTasks++;
+      }
+    }
+  }
+
+  /**
+   * Polls a server without holding the lock, then records its status.
+   */
+  private void poll(Endpoint endpoint) {
+    State state;
+    int activeTasks = 0;
+    int maxTasks = 0;
+    try {
+      Response health = prober.get(endpoint.host, "health");
+      Map<String, String> vars = parseVars(prober.get(endpoint.host, "vars").body);
+      state = parseState(health.code, vars.get("state"));
+      activeTasks = parseInt(vars.get("active-build-tasks"), 0);
+      maxTasks = parseInt(vars.get("maximum-simultaneous-build-tasks-allowed"), 0);
+    } catch (IOException e) {
+      LOG.info("Build server " + endpoint.host + " is unreachable: " + e.getMessage());
+      state = State.DOWN;
+    }
+    synchronized (this) {
+      endpoint.state = state;
+      endpoint.activeTasks = activeTasks;
+      endpoint.maxTasks = maxTasks;
+    }
+  }
+
+  @VisibleForTesting
+  static State parseState(int healthCode, String state) {
+    if (healthCode == HttpURLConnection.HTTP_OK) {
+      return State.UP;
+    }
+    if ("DRAINING".equals(state)) {
+      return State.DRAINING;
+    } else if ("TURNING".equals(state)) {
+      return State.TURNING;
+    } else if ("SHUTTING".equals(state)) {
+      return State.SHUTTING;
+    }
+    return State.DOWN;
+  }
+
+  /**
+   * Parses the HTML produced by the build server's vars page, which is a
+   * sequence of {@code <b>name</b> value<br>} entries.
+   */
+  @VisibleForTesting
+  static Map<String, String> parseVars(String html) {
+    Map<String, String> vars = new LinkedHashMap<String, String>();
+    if (html != null) {
+      Matcher matcher = VAR_PATTERN.matcher(html);
+      while (matcher.find()) {
+        vars.put(matcher.group(1), matcher.group(2));
+      }
+    }
+    return vars;
+  }
+
+  private static int parseInt(String value, int defaultValue) {
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      return defaultValue;  // e.g., "unlimited"
+    }
+  }
+
+  private static class HttpProber implements Prober {
+    @Override
+    public Response get(String host, String page) throws IOException {
+      URL url = new URL("http://" + host + "/buildserver/" + page);
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      connection.setConnectTimeout(PROBE_TIMEOUT);
+      connection.setReadTimeout(PROBE_TIMEOUT);
+      try {
+        int code = connection.getResponseCode();
+        InputStream stream = code == HttpURLConnection.HTTP_OK
+            ? connection.getInputStream() : connection.getErrorStream();
+        String body = "";
+        if (stream != null) {
+          InputStreamReader reader = new InputStreamReader(stream, "UTF-8");
+          try {
+            body = CharStreams.toString(reader);
+          } finally {
+            reader.close();
+          }
+        }
+        return new Response(code, body);
+      } finally {
+        connection.disconnect();
+      }
+    }
+  }
+}
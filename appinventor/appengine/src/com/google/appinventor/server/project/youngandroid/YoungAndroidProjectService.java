@@ -132,6 +132,21 @@ public final class YoungAndroidProjectService extends CommonProjectService {
       Flag.createFlag("ios.build.server.host", "");
   private static final Flag<String> appengineHost =
       Flag.createFlag("appengine.host", "");
+  // Comma separated host[:port] lists of additional, interchangeable build servers for each of
+  // the build server flags above. Builds are routed to the least loaded healthy server.
+  private static final Flag<String> buildServerPool =
+      Flag.createFlag("build.server.pool", "");
+  private static final Flag<String> buildServerPool2 =
+      Flag.createFlag("build2.server.pool", "");
+  private static final Flag<String> iosBuildServerPool =
+      Flag.createFlag("ios.build.server.pool", "");
+  // Interval (in ms) between status polls of each build server in a pool
+  private static final Flag<Integer> buildServerPoolPollInterval =
+      Flag.createFlag("build.server.pool.poll.interval", 10000);
+
+  private static BuildServerPool primaryPool;
+  private static BuildServerPool secondPool;
+  private static BuildServerPool iosPool;
   private static final boolean DEBUG = Flag.createFlag("appinventor.debugging", false).get();
 
   private static final String galleryLocation = Flag.createFlag("gallery.location", "http://localhost:9001").get();
@@ -544,19 +559,6 @@ public final class YoungAndroidProjectService extends CommonProjectService {
     URL buildServerUrl = null;
     ProjectSourceZip zipFile = null;
     try {
-      buildServerUrl = new URL(getBuildServerUrlStr(
-          user.getUserEmail(),
-          userId,
-          projectId,
-          secondBuildserver,
-          outputFileDir,
-          isAab, foriOS, forAppStore));
-      HttpURLConnection connection = (HttpURLConnection) buildServerUrl.openConnection();
-      setBuildServerPassword(connection, secondBuildserver);
-      connection.setDoOutput(true);
-      connection.setRequestMethod("POST");
-
-      BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(connection.getOutputStream());
       FileExporter fileExporter = new FileExporterImpl();
       zipFile = fileExporter.exportProjectSourceZip(userId, projectId, false,
           /* includeAndroidKeystore */ true,
@@ -572,54 +574,99 @@ public final class YoungAndroidProjectService extends CommonProjectService {
       if (zipFile.getContent().length > MAX_PROJECT_SIZE.get() * MB) {
         return fileTooBigResult(zipFile.getContent().length);
       }
-      bufferedOutputStream.write(zipFile.getContent());
-      bufferedOutputStream.flush();
-      bufferedOutputStream.close();
 
-      int responseCode = 0;
-      responseCode = connection.getResponseCode();
-      if (responseCode != HttpURLConnection.HTTP_OK) {
-        // Put the HTTP response code into the RpcResult so the client code in BuildCommand.java
-        // can provide an appropriate error message to the user.
-        // NOTE(lizlooney) - There is some weird bug/problem with HttpURLConnection. When the
-        // responseCode is 503, connection.getResponseMessage() returns "OK", but it should return
-        // "Service Unavailable". If I make the request with curl and look at the headers, they
-        // have the expected error message.
-        // For now, the moral of the story is: don't use connection.getResponseMessage().
-        String error = "Build server responded with response code " + responseCode + ".";
+      BuildServerPool pool = getBuildServerPool(secondBuildserver, foriOS);
+      List<String> hosts = pool.getCandidates();
+      if (hosts.isEmpty()) {
+        return new RpcResult(false, "", "No build server is configured.");
+      }
+      for (int i = 0; i < hosts.size(); i++) {
+        String host = hosts.get(i);
+        boolean lastHost = i == hosts.size() - 1;
+        buildServerUrl = new URL(getBuildServerUrlStr(
+            host,
+            user.getUserEmail(),
+            userId,
+            projectId,
+            outputFileDir,
+            isAab, foriOS, forAppStore));
+        HttpURLConnection connection = (HttpURLConnection) buildServerUrl.openConnection();
+        setBuildServerPassword(connection, secondBuildserver);
+        connection.setDoOutput(true);
+        connection.setRequestMethod("POST");
+
+        int responseCode = 0;
         try {
-          String content = readContent(connection.getInputStream());
-          if (content != null && !content.isEmpty()) {
-            error += "\n" + content;
+          BufferedOutputStream bufferedOutputStream =
+              new BufferedOutputStream(connection.getOutputStream());
+          bufferedOutputStream.write(zipFile.getContent());
+          bufferedOutputStream.flush();
+          bufferedOutputStream.close();
+          responseCode = connection.getResponseCode();
+        } catch (ConnectException e) {
+          if (lastHost) {
+            throw e;
           }
-        } catch (IOException e) {
-          // No content. That's ok.
+          // This server is gone. Offer the build to the next one.
+          pool.markDown(host);
+          continue;
         }
-        try {
-          String errorContent = readContent(connection.getErrorStream());
-          if (errorContent != null && !errorContent.isEmpty()) {
-            error += "\n" + errorContent;
+        if (responseCode == HttpURLConnection.HTTP_UNAVAILABLE && !lastHost) {
+          // The server is busy (its executor rejected the build). Offer the build to the next
+          // one rather than returning the error to the user.
+          pool.markRejected(host);
+          try {
+            readContent(connection.getErrorStream());
+          } catch (IOException e) {
+            // No error content. That's ok.
           }
-        } catch (IOException e) {
-          // No error content. That's ok.
-        }
-        if (responseCode == HttpURLConnection.HTTP_CONFLICT) {
-          // The build server is not compatible with this App Inventor instance. Log this as severe
-          // so the owner of the app engine instance will know about it.
-          LOG.severe(error);
+          continue;
         }
+        if (responseCode != HttpURLConnection.HTTP_OK) {
+          // Put the HTTP response code into the RpcResult so the client code in BuildCommand.java
+          // can provide an appropriate error message to the user.
+          // NOTE(lizlooney) - There is some weird bug/problem with HttpURLConnection. When the
+          // responseCode is 503, connection.getResponseMessage() returns "OK", but it should return
+          // "Service Unavailable". If I make the request with curl and look at the headers, they
+          // have the expected error message.
+          // For now, the moral of the story is: don't use connection.getResponseMessage().
+          String error = "Build server responded with response code " + responseCode + ".";
+          try {
+            String content = readContent(connection.getInputStream());
+            if (content != null && !content.isEmpty()) {
+              error += "\n" + content;
+            }
+          } catch (IOException e) {
+            // No content. That's ok.
+          }
+          try {
+            String errorContent = readContent(connection.getErrorStream());
+            if (errorContent != null && !errorContent.isEmpty()) {
+              error += "\n" + errorContent;
+            }
+          } catch (IOException e) {
+            // No error content. That's ok.
+          }
+          if (responseCode == HttpURLConnection.HTTP_CONFLICT) {
+            // The build server is not compatible with this App Inventor instance. Log this as
+            // severe so the owner of the app engine instance will know about it.
+            LOG.severe(error);
+          }
 
-        return new RpcResult(responseCode, "", StringUtils.escape(error));
-      } else {
-        // We get here if all went well and we sent the job to the
-        // buildserver. Below we read the response, but throw it away.
-        // We don't really care what was said. But we need to empty out
-        // the TCP Stream or App Engine will abort the connection by
-        // sending a RST packet instead of re-using it or closing it
-        // cleanly (by sending a FIN packet). Aborting connections can
-        // have a negative effect on some buildserver infrastructures,
-        // particularly those based on docker swarm (as of 2018).
-        readContent(connection.getInputStream());
+          return new RpcResult(responseCode, "", StringUtils.escape(error));
+        } else {
+          // We get here if all went well and we sent the job to the
+          // buildserver. Below we read the response, but throw it away.
+          // We don't really care what was said. But we need to empty out
+          // the TCP Stream or App Engine will abort the connection by
+          // sending a RST packet instead of re-using it or closing it
+          // cleanly (by sending a FIN packet). Aborting connections can
+          // have a negative effect on some buildserver infrastructures,
+          // particularly those based on docker swarm (as of 2018).
+          readContent(connection.getInputStream());
+          pool.markSubmitted(host);
+          break;
+        }
       }
     } catch (MalformedURLException e) {
       CrashReport.createAndLogError(LOG, null,
@@ -800,15 +847,13 @@ public final class YoungAndroidProjectService extends CommonProjectService {
   // Note that this is a function rather than just a constant because we assume it will get
   // a little more complicated when we want to get the URL from an App Engine config file or
   // command line argument.
-  private String getBuildServerUrlStr(String userName, String userId,
-      long projectId, boolean secondBuildserver, String fileName, boolean isAab,
+  private String getBuildServerUrlStr(String host, String userName, String userId,
+      long projectId, String fileName, boolean isAab,
       boolean foriOS, boolean forAppStore)
       throws EncryptionException {
     if (forAppStore && !foriOS) {
       throw new IllegalArgumentException("App Store build is only for iOS");
     }
-    String host = foriOS ? iosBuildServer.get() :
-        secondBuildserver ? buildServerHost2.get() : buildServerHost.get();
     UriBuilder uriBuilder = new UriBuilder(
         "http://" + host + "/buildserver/build-all-from-zip-async"
     )
@@ -825,6 +870,34 @@ public final class YoungAndroidProjectService extends CommonProjectService {
     return uriBuilder.build();
   }
 
+  /**
+   * Returns the pool of build servers to use for the given kind of build. The pools are created
+   * lazily from the flags the first time they are needed.
+   */
+  private static synchronized BuildServerPool getBuildServerPool(boolean secondBuildserver,
+      boolean foriOS) {
+    long pollInterval = buildServerPoolPollInterval.get();
+    if (foriOS) {
+      if (iosPool == null) {
+        iosPool = BuildServerPool.fromFlags(iosBuildServer.get(), iosBuildServerPool.get(),
+            pollInterval);
+      }
+      return iosPool;
+    } else if (secondBuildserver) {
+      if (secondPool == null) {
+        secondPool = BuildServerPool.fromFlags(buildServerHost2.get(), buildServerPool2.get(),
+            pollInterval);
+      }
+      return secondPool;
+    } else {
+      if (primaryPool == null) {
+        primaryPool = BuildServerPool.fromFlags(buildServerHost.get(), buildServerPool.get(),
+            pollInterval);
+      }
+      return primaryPool;
+    }
+  }
+
   private void setBuildServerPassword(HttpURLConnection connection, boolean secondBuildserver) {
     final String buildServerPassword = secondBuildserver
             ? YoungAndroidProjectService.buildServerPassword2.get()
@@ -0,0 +1,125 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.shared.rpc.project;
+
+import java.io.Serializable;
+
+/**
+ * Describes a change to a text file (in particular .bky and .scm files) as
+ * a single splice relative to a base version of the file. The base version
+ * is identified by its checksum as computed by
+ * {@link ChecksumedLoadFile#computeChecksum(String)}, and the checksum of
+ * the resulting content is carried along so that the server can verify that
+ * it reconstructed exactly what the client has.
+ *
+ * Edits in the designer and blocks editor typically touch one small region
+ * of a file, so sending the common prefix and suffix lengths together with
+ * the replaced text is much smaller than sending the whole file.
+ *
+ */
+public final class FileDelta implements Serializable {
+
+  // For serialization
+  private static final long serialVersionUID = 4102275537950116813L;
+
+  private String baseChecksum;
+  private String resultChecksum;
+  private int offset;
+  private int removeLength;
+  private String insertion;
+
+  /**
+   * Default constructor (for serialization only).
+   */
+  @SuppressWarnings("unused")
+  private FileDelta() {
+  }
+
+  private FileDelta(String baseChecksum, String resultChecksum, int offset, int removeLength,
+      String insertion) {
+    this.baseChecksum = baseChecksum;
+    this.resultChecksum = resultChecksum;
+    this.offset = offset;
+    this.removeLength = removeLength;
+    this.insertion = insertion;
+  }
+
+  /**
+   * Computes the delta that transforms {@code base} into {@code content}.
+   *
+   * @param base  the content the receiver is known to have
+   * @param baseChecksum  the checksum of base
+   * @param content  the new content
+   * @param contentChecksum  the checksum of content
+   * @return a delta which, applied to base, yields content
+   */
+  public static FileDelta compute(String base, String baseChecksum, String content,
+      String contentChecksum) {
+    int baseLength = base.length();
+    int contentLength = content.length();
+    int maxCommon = Math.min(baseLength, contentLength);
+
+    int prefix = 0;
+    while (prefix < maxCommon && base.charAt(prefix) == content.charAt(prefix)) {
+      prefix++;
+    }
+    // Never split a surrogate pair, so that the insertion is always valid UTF-16.
+    if (prefix > 0 && Character.isHighSurrogate(content.charAt(prefix - 1))) {
+      prefix--;
+    }
+
+    int suffix = 0;
+    while (suffix < maxCommon - prefix
+        && base.charAt(baseLength - 1 - suffix) == content.charAt(contentLength - 1 - suffix)) {
+      suffix++;
+    }
+    if (suffix > 0 && Character.isLowSurrogate(content.charAt(contentLength - suffix))) {
+      suffix--;
+    }
+
+    return new FileDelta(baseChecksum, contentChecksum, prefix, baseLength - prefix - suffix,
+        content.substring(prefix, contentLength - suffix));
+  }
+
+  /**
+   * Applies this delta to {@code base}.
+   *
+   * @param base  the content to apply the delta to
+   * @return the new content
+   * @throws ChecksumedFileException if base is not the version this delta was
+   *     computed against, or if the result does not match the expected checksum
+   */
+  public String apply(String base) throws ChecksumedFileException {
+    if (!baseChecksum.equals(ChecksumedLoadFile.computeChecksum(base))) {
+      throw new ChecksumedFileException("Base checksum doesn't match " + baseChecksum);
+    }
+    if (offset < 0 || removeLength < 0 || offset + removeLength > base.length()) {
+      throw new ChecksumedFileException("Delta out of range " + offset + " " + removeLength);
+    }
+    String result = base.substring(0, offset) + insertion
+        + base.substring(offset + removeLength);
+    if (!resultChecksum.equals(ChecksumedLoadFile.computeChecksum(result))) {
+      throw new ChecksumedFileException("Result checksum doesn't match " + resultChecksum);
+    }
+    return result;
+  }
+
+  public String getBaseChecksum() {
+    return baseChecksum;
+  }
+
+  public String getResultChecksum() {
+    return resultChecksum;
+  }
+
+  /**
+   * Returns the approximate number of characters this delta occupies on the
+   * wire, for deciding whether sending it beats sending the full content.
+   */
+  public int size() {
+    return insertion.length() + baseChecksum.length() + resultChecksum.length();
+  }
+}
@@ -0,0 +1,112 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.client.editor.simple.components;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests PreferredSizeCache.java.
+ */
+public class PreferredSizeCacheTest extends TestCase {
+
+  /**
+   * Stands in for a component whose width is fill parent, so that only its
+   * container asks for its preferred width.
+   */
+  private static class FillParentChild implements PreferredSizeCache.Measurer {
+    final PreferredSizeCache preferredSize = new PreferredSizeCache();
+    int preferredWidth;
+    int measurements = 0;
+
+    FillParentChild(int preferredWidth) {
+      this.preferredWidth = preferredWidth;
+    }
+
+    /**
+     * Changes the child, as a property change does.
+     */
+    void setPreferredWidth(int preferredWidth) {
+      this.preferredWidth = preferredWidth;
+      preferredSize.invalidate();
+    }
+
+    @Override
+    public int measureWidth() {
+      measurements++;
+      return preferredWidth;
+    }
+
+    @Override
+    public int measureHeight() {
+      measurements++;
+      return 20;
+    }
+  }
+
+  /**
+   * Lays out a VerticalArrangement whose width is automatic, as MockForm and
+   * MockHVLayoutBase do: the children's own dimensions are gathered first,
+   * which measures nothing for fill parent children, then the arrangement
+   * asks for their automatic widths, and only then is the pass finished.
+   *
+   * @return the width of the arrangement
+   */
+  private static int layOut(FillParentChild... children) {
+    int width = 0;
+    for (FillParentChild child : children) {
+      width = Math.max(width, child.preferredSize.getWidth(child));
+    }
+    for (FillParentChild child : children) {
+      child.preferredSize.layoutFinished(true);
+    }
+    return width;
+  }
+
+  public void testChangedFillParentChildIsMeasuredAgain() {
+    FillParentChild child = new FillParentChild(50);
+    FillParentChild other = new FillParentChild(30);
+    assertEquals(50, layOut(child, other));
+    assertFalse(child.preferredSize.isDirty());
+
+    // The arrangement grows with the child, rather than keeping its old width.
+    child.setPreferredWidth(80);
+    assertTrue(child.preferredSize.isDirty());
+    assertEquals(80, layOut(child, other));
+    // And shrinks again when the child changes back.
+    child.setPreferredWidth(20);
+    assertEquals(30, layOut(child, other));
+    assertEquals(3, child.measurements);
+  }
+
+  public void testUnchangedChildIsNotMeasuredAgain() {
+    FillParentChild child = new FillParentChild(50);
+    FillParentChild sibling = new FillParentChild(30);
+    layOut(child, sibling);
+    // The arrangement's size changes because of a sibling.
+    sibling.setPreferredWidth(100);
+    assertEquals(100, layOut(child, sibling));
+    assertEquals(1, child.measurements);
+    assertEquals(2, sibling.measurements);
+  }
+
+  public void testSizeIsMeasuredOncePerPass() {
+    FillParentChild child = new FillParentChild(50);
+    assertEquals(50, child.preferredSize.getWidth(child));
+    assertEquals(50, child.preferredSize.getWidth(child));
+    assertEquals(20, child.preferredSize.getHeight(child));
+    assertEquals(2, child.measurements);
+  }
+
+  public void testDetachedSizeIsMeasuredAgain() {
+    FillParentChild child = new FillParentChild(0);
+    child.preferredSize.getWidth(child);
+    child.preferredSize.layoutFinished(false);
+    assertTrue(child.preferredSize.isDirty());
+    child.preferredWidth = 50;
+    assertEquals(50, layOut(child));
+    assertEquals(2, child.measurements);
+  }
+}
@@ -0,0 +1,181 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.server.project.youngandroid;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link BuildServerPool}.
+ */
+public class BuildServerPoolTest extends TestCase {
+
+  private static String vars(String state, int active, String max) {
+    return "<html><body><tt><b>state</b> " + state + "<br>"
+        + "<b>maximum-simultaneous-build-tasks-allowed</b> " + max + "<br>"
+        + "<b>active-build-tasks</b> " + active + "<br></tt></body></html>";
+  }
+
+  private static class FakeProber implements BuildServerPool.Prober {
+    final Map<String, String> states = new HashMap<String, String>();
+    final Map<String, Integer> active = new HashMap<String, Integer>();
+    int polls = 0;
+
+    @Override
+    public BuildServerPool.Response get(String host, String page) throws IOException {
+      polls++;
+      String state = states.get(host);
+      if (state == null) {
+        throw new ConnectException("Connection refused");
+      }
+      if (page.equals("health")) {
+        return new BuildServerPool.Response("UP".equals(state) ? 200 : 403, "");
+      }
+      return new BuildServerPool.Response(200, vars(state, active.get(host), "30"));
+    }
+  }
+
+  public void testParseVars() {
+    Map<String, String> vars = BuildServerPool.parseVars(vars("UP", 4, "unlimited"));
+    assertEquals("UP", vars.get("state"));
+    assertEquals("4", vars.get("active-build-tasks"));
+    assertEquals("unlimited", vars.get("maximum-simultaneous-build-tasks-allowed"));
+  }
+
+  public void testParseState() {
+    assertEquals(BuildServerPool.State.UP, BuildServerPool.parseState(200, "UP"));
+    assertEquals(BuildServerPool.State.DRAINING, BuildServerPool.parseState(403, "DRAINING"));
+    assertEquals(BuildServerPool.State.SHUTTING, BuildServerPool.parseState(403, "SHUTTING"));
+    assertEquals(BuildServerPool.State.TURNING, BuildServerPool.parseState(403, "TURNING"));
+    assertEquals(BuildServerPool.State.DOWN, BuildServerPool.parseState(403, "DOWN"));
+  }
+
+  public void testRoutesToLeastLoadedHealthyServer() {
+    FakeProber prober = new FakeProber();
+    prober.states.put("a", "UP");
+    prober.active.put("a", 10);
+    prober.states.put("b", "UP");
+    prober.active.put("b", 2);
+    prober.states.put("c", "DRAINING");
+    prober.active.put("c", 0);
+    // "d" is unreachable
+    BuildServerPool pool = new BuildServerPool(Arrays.asList("a", "b", "c", "d"), 60000, prober);
+    assertEquals(Arrays.asList("b", "a", "c", "d"), pool.getCandidates());
+  }
+
+  public void testTurningServerIsTriedAfterHealthyServers() {
+    FakeProber prober = new FakeProber();
+    prober.states.put("a", "SHUTTING");
+    prober.active.put("a", 0);
+    prober.states.put("b", "TURNING");
+    prober.active.put("b", 0);
+    prober.states.put("c", "UP");
+    prober.active.put("c", 5);
+    BuildServerPool pool = new BuildServerPool(Arrays.asList("a", "b", "c"), 60000, prober);
+    assertEquals(Arrays.asList("c", "b", "a"), pool.getCandidates());
+  }
+
+  public void testRejectedServerIsTriedLast() {
+    FakeProber prober = new FakeProber();
+    prober.states.put("a", "UP");
+    prober.active.put("a", 0);
+    prober.states.put("b", "UP");
+    prober.active.put("b", 1);
+    BuildServerPool pool = new BuildServerPool(Arrays.asList("a", "b"), 60000, prober);
+    assertEquals(Arrays.asList("a", "b"), pool.getCandidates());
+    pool.markRejected("a");
+    assertEquals(Arrays.asList("b", "a"), pool.getCandidates());
+    assertEquals(BuildServerPool.State.DRAINING, pool.getState("a"));
+  }
+
+  public void testUnreachableServerIsTriedLast() {
+    FakeProber prober = new FakeProber();
+    prober.states.put("a", "UP");
+    prober.active.put("a", 0);
+    prober.states.put("b", "UP");
+    prober.active.put("b", 1);
+    BuildServerPool pool = new BuildServerPool(Arrays.asList("a", "b"), 60000, prober);
+    assertEquals(Arrays.asList("a", "b"), pool.getCandidates());
+    pool.markDown("a");
+    assertEquals(Arrays.asList("b", "a"), pool.getCandidates());
+    assertEquals(BuildServerPool.State.DOWN, pool.getState("a"));
+  }
+
+  public void testPollsAtMostOncePerInterval() {
+    FakeProber prober = new FakeProber();
+    prober.states.put("a", "UP");
+    prober.active.put("a", 0);
+    prober.states.put("b", "UP");
+    prober.active.put("b", 0);
+    BuildServerPool pool = new BuildServerPool(Arrays.asList("a", "b"), 60000, prober);
+    pool.getCandidates();
+    int polls = prober.polls;
+    pool.getCandidates();
+    assertEquals(polls, prober.polls);
+  }
+
+  public void testSlowPollDoesNotBlockOtherCallers() throws Exception {
+    final CountDownLatch polling = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    FakeProber prober = new FakeProber() {
+      @Override
+      public BuildServerPool.Response get(String host, String page) throws IOException {
+        if (host.equals("b")) {
+          polling.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            throw new IOException(e);
+          }
+        }
+        return super.get(host, page);
+      }
+    };
+    prober.states.put("a", "UP");
+    prober.active.put("a", 5);
+    prober.states.put("b", "UP");
+    prober.active.put("b", 0);
+    final BuildServerPool pool = new BuildServerPool(Arrays.asList("a", "b"), 60000, prober);
+    Callable<List<String>> getCandidates = new Callable<List<String>>() {
+      @Override
+      public List<String> call() {
+        return pool.getCandidates();
+      }
+    };
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<List<String>> slow = executor.submit(getCandidates);
+      assertTrue(polling.await(10, TimeUnit.SECONDS));
+      // "b" is still being polled, so it is ordered by what was known before the poll.
+      assertEquals(Arrays.asList("b", "a"),
+          executor.submit(getCandidates).get(10, TimeUnit.SECONDS));
+      release.countDown();
+      assertEquals(Arrays.asList("b", "a"), slow.get(10, TimeUnit.SECONDS));
+    } finally {
+      release.countDown();
+      executor.shutdown();
+    }
+  }
+
+  public void testSingleServerIsNeverPolled() {
+    FakeProber prober = new FakeProber();
+    BuildServerPool pool = new BuildServerPool(Arrays.asList("a"), 0, prober);
+    assertEquals(Arrays.asList("a"), pool.getCandidates());
+    assertEquals(0, prober.polls);
+  }
+}
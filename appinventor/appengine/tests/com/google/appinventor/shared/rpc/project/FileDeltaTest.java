@@ -0,0 +1,63 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.shared.rpc.project;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link FileDelta}.
+ */
+public class FileDeltaTest extends TestCase {
+
+  private static FileDelta delta(String base, String content) throws ChecksumedFileException {
+    return FileDelta.compute(base, ChecksumedLoadFile.computeChecksum(base),
+        content, ChecksumedLoadFile.computeChecksum(content));
+  }
+
+  private static void assertRoundTrip(String base, String content)
+      throws ChecksumedFileException {
+    assertEquals(content, delta(base, content).apply(base));
+  }
+
+  public void testRoundTrip() throws ChecksumedFileException {
+    assertRoundTrip("", "");
+    assertRoundTrip("", "<xml></xml>");
+    assertRoundTrip("<xml></xml>", "");
+    assertRoundTrip("<xml><block/></xml>", "<xml><block/><block/></xml>");
+    assertRoundTrip("<xml><block/><block/></xml>", "<xml><block/></xml>");
+    assertRoundTrip("aaaa", "aaaaaa");
+    assertRoundTrip("abcabc", "abc");
+    assertRoundTrip("Title: Screen1", "Title: Screen2");
+  }
+
+  public void testSurrogatePairsAreNotSplit() throws ChecksumedFileException {
+    // U+1F600 and U+1F601 share the same high surrogate.
+    assertRoundTrip("x\uD83D\uDE00y", "x\uD83D\uDE01y");
+    assertRoundTrip("\uD83D\uDE00", "\uD83D\uDE00\uD83D\uDE00");
+  }
+
+  public void testDeltaIsSmallForLocalEdit() throws ChecksumedFileException {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      sb.append("<block type=\"text\" id=\"").append(i).append("\"/>");
+    }
+    String base = sb.toString();
+    String content = base.replace("id=\"5000\"", "id=\"5000\" x=\"12\"");
+    FileDelta delta = delta(base, content);
+    assertTrue(delta.size() < 100);
+    assertEquals(content, delta.apply(base));
+  }
+
+  public void testBaseMismatch() throws ChecksumedFileException {
+    FileDelta delta = delta("version one", "version two");
+    try {
+      delta.apply("version three");
+      fail("Expected ChecksumedFileException");
+    } catch (ChecksumedFileException e) {
+      // expected
+    }
+  }
+}
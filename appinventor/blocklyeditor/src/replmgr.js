@@ -525,9 +525,19 @@ Blockly.ReplMgr.putYail = (function() {
                 webrtcisopen = true;
                 top.ConnectProgressBar_setProgress(30, Blockly.Msg.DIALOG_SECURE_ESTABLISHED);
                 console.log('webrtc data connection open!');
+                var parts = [];
                 webrtcdata.onmessage = function(ev) {
                     console.log("webrtc(onmessage): " + ev.data);
                     var json = goog.json.parse(ev.data);
+                    if (json.status == 'PART') {
+                        // Results too large for one message arrive in order, in parts
+                        parts[json.part] = json.data;
+                        if (json.part < json.parts - 1) {
+                            return;
+                        }
+                        json = goog.json.parse(parts.join(''));
+                        parts = [];
+                    }
                     if (json.status == 'OK') {
                         context.processRetvals(json.values);
                     }
@@ -1152,7 +1162,8 @@ Blockly.ReplMgr.processRetvals = function(responses) {
             runtimeerr(escapeHTML(r.value) + Blockly.Msg.REPL_NO_ERROR_FIVE_SECONDS);
             break;
         case "log":
-            top.ConsolePanel_addLog(r.level, r.item);
+            // Repeated messages are sent once, with a count
+            top.ConsolePanel_addLog(r.level, r.repeat > 1 ? r.item + ' (' + r.repeat + ')' : r.item);
             console.log("processRetVals: Log level = " + r.level);
             console.log("processRetVals: Log content = " + r.item);
         }
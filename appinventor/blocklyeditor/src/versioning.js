@@ -1604,7 +1604,11 @@ Blockly.Versioning.AllUpgradeMaps =
   "AnomalyDetection": {
     // AI2: The AnomalyDetection.DetectAnomaliesInChartData method was added.
     // No blocks need to be modified to upgrade to version 2.
-    2: "noUpgrade"
+    2: "noUpgrade",
+
+    // AI2: Methods, an event and a property for watching a data source for anomalies were added.
+    // No blocks need to be modified to upgrade to version 3.
+    3: "noUpgrade"
   }, // End AnomalyDetection upgraders
 
   "Ball": {
@@ -1688,7 +1692,11 @@ Blockly.Versioning.AllUpgradeMaps =
 
     // The BluetoothClient.NoLocationNeeded property was added.
     // No blocks need to be modified to upgrade to version 8.
-    8: "noUpgrade"
+    8: "noUpgrade",
+
+    // Methods, an event and properties for receiving frames in the background were added.
+    // No blocks need to be modified to upgrade to version 9.
+    9: "noUpgrade"
 
   }, // End BluetoothClient upgraders
 
@@ -1714,7 +1722,11 @@ Blockly.Versioning.AllUpgradeMaps =
 
     // The BluetoothServer.Secure property was added.
     // No blocks need to be modified to upgrade to version 5.
-    5: "noUpgrade"
+    5: "noUpgrade",
+
+    // Methods, an event and properties for receiving frames in the background were added.
+    // No blocks need to be modified to upgrade to version 6.
+    6: "noUpgrade"
 
   }, // End BluetoothServer upgraders
 
@@ -1917,7 +1929,10 @@ Blockly.Versioning.AllUpgradeMaps =
     // This is initial version. Placeholder for future upgrades
     1: "noUpgrade",
     // UpdateDone event was added.
-    2: "noUpgrade"
+    2: "noUpgrade",
+
+    // AI2: The CacheValues property was added.
+    3: "noUpgrade"
 
   },
 
@@ -2006,7 +2021,11 @@ Blockly.Versioning.AllUpgradeMaps =
       Blockly.Versioning.changeEventName('FeatureCollection', 'GeoGeoJSON', 'GotFeatures'),
       Blockly.Versioning.changeEventName('FeatureCollection', 'ErrorLoadingFeatureCollection', 'LoadError'),
       Blockly.Versioning.changeEventName('FeatureCollection', 'LoadedFeatureCollection', 'GotFeatures')
-    ]
+    ],
+
+    // AI2:
+    // - The SimplifyGeometry property and LoadProgress event were added.
+    3: "noUpgrade"
   },
 
   "File": {
@@ -2522,7 +2541,19 @@ Blockly.Versioning.AllUpgradeMaps =
 
     // AI2:
     // - Adds CustomUrl (MapType 4).
-    7: "noUpgrade"
+    7: "noUpgrade",
+
+    // AI2:
+    // - Adds ClusterMarkers property.
+    8: "noUpgrade",
+
+    // AI2:
+    // - Adds FeaturesWithinDistance, FeaturesContainingPoint and NearestFeature methods.
+    9: "noUpgrade",
+
+    // AI2:
+    // - Adds SimplifyGeometry property and LoadProgress event.
+    10: "noUpgrade"
 
   }, // End Map upgraders
 
@@ -3175,8 +3206,12 @@ Blockly.Versioning.AllUpgradeMaps =
       Blockly.Versioning.changeEventParameterName("Spreadsheet", "GotColumnData", "colDataList", "columnData")
     ],
 
-    3: "noUpgrade"
-    
+    3: "noUpgrade",
+
+    // AI2: Added BatchWrites, BatchInterval, BatchSize and ReadCacheDuration properties and
+    // FlushWrites method
+    4: "noUpgrade"
+
   },
 
   "TableArrangement": {
@@ -3299,7 +3334,10 @@ Blockly.Versioning.AllUpgradeMaps =
     2: "noUpgrade",
 
     //Added blocks GetEntries
-    3: "noUpgrade"
+    3: "noUpgrade",
+
+    //Added Property: WriteInBackground
+    4: "noUpgrade"
 
   }, // End TinyDB upgraders
 
@@ -3481,7 +3519,14 @@ Blockly.Versioning.AllUpgradeMaps =
     8: "noUpgrade",
 
     // AI2: Added ResponseTextEncoding property
-    9: "noUpgrade"
+    9: "noUpgrade",
+
+    // AI2: Added ResponseCacheSize, ResponseCacheHits, ResponseCacheMisses and
+    // ResponseCacheRevalidations properties and ClearResponseCache method
+    10: "noUpgrade",
+
+    // AI2: Added MaxRequestsPerHost and DropStaleResponses properties
+    11: "noUpgrade"
 
   }, // End Web upgraders
 
@@ -19,13 +19,13 @@ import com.google.common.io.Files;
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.BufferedOutputStream;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.lang.management.ManagementFactory;
@@ -41,7 +41,12 @@ import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 import java.util.zip.ZipEntry;
@@ -81,14 +86,122 @@ public class BuildServer {
     // We create a ProgressReporter instance which is handed off to the
     // project builder and compiler. It is called to report the progress
     // of the build. The reporting is done by calling the callback URL
-    // and putting the status inside a "build.status" file. This isn't
-    // particularly efficient, but this is the version 0.9 implementation
-    String callbackUrlStr;
+    // and putting the status inside a "build.status" file.
+    //
+    // The compiler reports progress for every task, so posting each value
+    // synchronously would stall the build on the network. Instead report()
+    // only records the latest value and a background thread posts it, at
+    // most once per reporting interval. Values superseded before they are
+    // sent are dropped, and a failed post is only logged. Closing the
+    // reporter drops the value waiting to be sent and aborts a post in
+    // flight rather than waiting for it.
+    //
+    // A shared timer waits out the interval, but the posts run on a pool
+    // that grows with the number of builds, so that a slow callback URL
+    // only delays the progress of its own build. Each reporter has at most
+    // one post waiting and one running.
+    private static final ThreadFactory PROGRESS_THREADS = new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "progress-reporter-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    };
+    private static final ScheduledExecutorService PROGRESS_TIMER =
+        Executors.newSingleThreadScheduledExecutor(PROGRESS_THREADS);
+    private static final ExecutorService PROGRESS_POSTER =
+        Executors.newCachedThreadPool(PROGRESS_THREADS);
+
+    final String callbackUrlStr;
+    private final long minInterval;
+    // Held while a status is being posted, so that posts are made one at a time.
+    private final Object sendLock = new Object();
+    // The fields below are guarded by this.
+    private int pendingProgress = -1;
+    private boolean scheduled = false;
+    private boolean closed = false;
+    private long lastSent = 0;
+    private HttpURLConnection inFlight = null;
+
     ProgressReporter(String callbackUrlStr) {
+      this(callbackUrlStr, commandLineOptions.progressReportIntervalMs);
+    }
+
+    ProgressReporter(String callbackUrlStr, long minInterval) {
       this.callbackUrlStr = callbackUrlStr;
+      this.minInterval = minInterval;
     }
 
+    /**
+     * Records the current progress of the build. This never blocks on the
+     * network.
+     *
+     * @param progress the build progress, from 0 to 100
+     */
     public void report(int progress) {
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        pendingProgress = progress;
+        if (scheduled) {
+          return;  // The pending post will pick up the new value
+        }
+        scheduled = true;
+        long delay = Math.max(0, lastSent + minInterval - System.currentTimeMillis());
+        final Runnable send = new Runnable() {
+          @Override
+          public void run() {
+            sendPending();
+          }
+        };
+        PROGRESS_TIMER.schedule(new Runnable() {
+          @Override
+          public void run() {
+            PROGRESS_POSTER.execute(send);
+          }
+        }, delay, TimeUnit.MILLISECONDS);
+      }
+    }
+
+    /**
+     * Stops reporting without waiting for the network. Progress that has not
+     * been posted yet is dropped, and a post in flight is aborted, so that
+     * the build result is not held up by a slow callback URL.
+     */
+    public void close() {
+      HttpURLConnection connection;
+      synchronized (this) {
+        closed = true;
+        pendingProgress = -1;
+        connection = inFlight;
+        inFlight = null;
+      }
+      if (connection != null) {
+        connection.disconnect();
+      }
+    }
+
+    private void sendPending() {
+      synchronized (sendLock) {
+        int progress;
+        synchronized (this) {
+          scheduled = false;
+          if (closed || pendingProgress < 0) {
+            return;
+          }
+          progress = pendingProgress;
+          pendingProgress = -1;
+          lastSent = System.currentTimeMillis();
+        }
+        post(progress);
+      }
+    }
+
+    void post(int progress) {
       try {
         ByteArrayOutputStream output = new ByteArrayOutputStream();
         ZipOutputStream zipoutput = new ZipOutputStream(output);
@@ -98,9 +211,14 @@ public class BuildServer {
         pout.flush();
         zipoutput.flush();
         zipoutput.close();
-        ByteArrayInputStream zipinput = new ByteArrayInputStream(output.toByteArray());
         URL callbackUrl = new URL(callbackUrlStr);
         HttpURLConnection connection = (HttpURLConnection) callbackUrl.openConnection();
+        synchronized (this) {
+          if (closed) {
+            return;
+          }
+          inFlight = connection;
+        }
         connection.setDoOutput(true);
         connection.setRequestMethod("POST");
         // Make sure we aren't misinterpreted as
@@ -110,21 +228,37 @@ public class BuildServer {
         connection.setReadTimeout(5000);
         BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(connection.getOutputStream());
         try {
-          BufferedInputStream bufferedInputStream = new BufferedInputStream(zipinput);
-          try {
-            ByteStreams.copy(bufferedInputStream,bufferedOutputStream);
-            bufferedOutputStream.flush();
-          } finally {
-            bufferedInputStream.close();
-          }
+          output.writeTo(bufferedOutputStream);
+          bufferedOutputStream.flush();
         } finally {
           bufferedOutputStream.close();
         }
-        if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
-          LOG.severe("Bad Response Code! (sending status): "+ connection.getResponseCode());
+        int responseCode = connection.getResponseCode();
+        if (responseCode != HttpURLConnection.HTTP_OK) {
+          LOG.severe("Bad Response Code! (sending status): "+ responseCode);
+        }
+        // Read the response to the end and close it (rather than disconnecting) so that
+        // HttpURLConnection can reuse the keep-alive connection for the next report.
+        InputStream response = responseCode < 400 ? connection.getInputStream()
+            : connection.getErrorStream();
+        if (response != null) {
+          try {
+            ByteStreams.copy(response, ByteStreams.nullOutputStream());
+          } finally {
+            response.close();
+          }
         }
       } catch (IOException e) {
+        synchronized (this) {
+          if (closed) {
+            return;  // Aborted by close()
+          }
+        }
         LOG.severe("IOException during progress report!");
+      } finally {
+        synchronized (this) {
+          inFlight = null;
+        }
       }
     }
   }
@@ -172,6 +306,10 @@ public class BuildServer {
         usage = "Enables iOS builds for the buildserver")
     boolean ios = false;
 
+    @Option(name = "--progressReportInterval",
+        usage = "Minimum time in ms between two build progress reports sent to App Inventor.")
+    long progressReportIntervalMs = 1000;
+
   }
 
   private static final CommandLineOptions commandLineOptions = new CommandLineOptions();
@@ -650,7 +788,12 @@ public class BuildServer {
             try {
               LOG.info("START NEW BUILD " + count);
               checkMemory();
-              buildAndCreateZip(userName, inputZipFile, ext, new ProgressReporter(callbackUrlStr));
+              ProgressReporter reporter = new ProgressReporter(callbackUrlStr);
+              try {
+                buildAndCreateZip(userName, inputZipFile, ext, reporter);
+              } finally {
+                reporter.close();
+              }
               // Send zip back to the callbackUrl
               LOG.info("CallbackURL: " + callbackUrlStr);
               URL callbackUrl = new URL(callbackUrlStr);
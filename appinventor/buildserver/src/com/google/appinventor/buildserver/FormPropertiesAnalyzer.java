@@ -88,8 +88,16 @@ public class FormPropertiesAnalyzer {
    * Returns the Set of component types used in the given form file source.
    */
   public static Set<String> getComponentTypesFromFormFile(String source) {
+    return getComponentTypes(parseSourceFile(source));
+  }
+
+  /**
+   * Returns the Set of component types used in the given parsed form file.
+   *
+   * @param propertiesObject the result of {@link #parseSourceFile(String)}
+   */
+  public static Set<String> getComponentTypes(JSONObject propertiesObject) {
     Set<String> componentTypes = new HashSet<String>();
-    JSONObject propertiesObject = parseSourceFile(source);
     try {
       collectComponentTypes(propertiesObject.getJSONObject("Properties"), componentTypes);
     } catch (JSONException e) {
@@ -122,8 +130,18 @@ public class FormPropertiesAnalyzer {
    * @return A mapping of component type names to sets of blocks used
    */
   public static Map<String, Set<String>> getComponentBlocksFromSchemeFile(String source) {
+    return getComponentBlocks(parseSourceFile(source));
+  }
+
+  /**
+   * Extracts a mapping from component to set of blocks used from a parsed
+   * Scheme (.scm) file.
+   *
+   * @param propertiesObject the result of {@link #parseSourceFile(String)}
+   * @return A mapping of component type names to sets of blocks used
+   */
+  public static Map<String, Set<String>> getComponentBlocks(JSONObject propertiesObject) {
     Map<String, Set<String>> result = new HashMap<>();
-    JSONObject propertiesObject = parseSourceFile(source);
     try {
       Queue<JSONObject> toProcess = new LinkedList<JSONObject>();
       toProcess.add(propertiesObject.getJSONObject("Properties"));
@@ -443,7 +461,17 @@ public class FormPropertiesAnalyzer {
    * @throws JSONException if the form's properties field is missing
    */
   public static String getFormOrientation(String source) throws JSONException {
-    JSONObject propertiesObject = parseSourceFile(source);
+    return getFormOrientation(parseSourceFile(source));
+  }
+
+  /**
+   * Returns the desired orientation set by the user in a parsed form file.
+   *
+   * @param propertiesObject the result of {@link #parseSourceFile(String)}
+   * @return the screen orientation
+   * @throws JSONException if the form's properties field is missing
+   */
+  public static String getFormOrientation(JSONObject propertiesObject) throws JSONException {
     JSONObject props = propertiesObject.getJSONObject("Properties");
     return props.optString("ScreenOrientation", "unspecified");
   }
@@ -0,0 +1,331 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.buildserver;
+
+import static com.google.appinventor.common.constants.YoungAndroidStructureConstants.BLOCKLY_SOURCE_EXTENSION;
+import static com.google.appinventor.common.constants.YoungAndroidStructureConstants.FORM_PROPERTIES_EXTENSION;
+
+import com.google.appinventor.buildserver.FormPropertiesAnalyzer.ComponentBlocksExtractor;
+import com.google.appinventor.buildserver.FormPropertiesAnalyzer.PermissionBlockExtractor;
+import com.google.appinventor.buildserver.FormPropertiesAnalyzer.ScopeBlockExtractor;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import com.google.common.io.Resources;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+/**
+ * The result of analyzing the sources of a project before compilation: the
+ * component types used, the blocks and designer properties used for each
+ * component type, the permissions requested by blocks and the orientation of
+ * each screen.
+ *
+ * <p>Each .scm file is read and parsed once, and each .bky file is read and
+ * parsed once. Projects with many screens have their files analyzed in
+ * parallel. The analysis is immutable once created.
+ */
+final class ProjectAnalysis {
+
+  // Projects with at least this many source files are analyzed in parallel.
+  private static final int PARALLEL_THRESHOLD = 8;
+
+  private static final int MAX_THREADS = Runtime.getRuntime().availableProcessors();
+
+  // The name to type map of the built-in components, which is the same for every build.
+  private static Map<String, String> simpleComponentTypes;
+
+  private final Set<String> componentTypes;
+  private final Map<String, Set<String>> componentBlocks;
+  private final Set<String> blockPermissions;
+  private final Set<String> scopes;
+  private final Map<String, String> formOrientations;
+
+  private ProjectAnalysis(Set<String> componentTypes, Map<String, Set<String>> componentBlocks,
+      Set<String> blockPermissions, Set<String> scopes, Map<String, String> formOrientations) {
+    this.componentTypes = Collections.unmodifiableSet(componentTypes);
+    for (Map.Entry<String, Set<String>> entry : componentBlocks.entrySet()) {
+      entry.setValue(Collections.unmodifiableSet(entry.getValue()));
+    }
+    this.componentBlocks = Collections.unmodifiableMap(componentBlocks);
+    this.blockPermissions = Collections.unmodifiableSet(blockPermissions);
+    this.scopes = Collections.unmodifiableSet(scopes);
+    this.formOrientations = Collections.unmodifiableMap(formOrientations);
+  }
+
+  /**
+   * Returns the fully qualified types of the components used in the project.
+   */
+  Set<String> getComponentTypes() {
+    return componentTypes;
+  }
+
+  /**
+   * Returns a mapping of component type names to the blocks of each type used
+   * in the project. Properties specified in the designer are considered blocks
+   * for the purposes of this operation.
+   */
+  Map<String, Set<String>> getComponentBlocks() {
+    return componentBlocks;
+  }
+
+  /**
+   * Returns the permissions requested by Permission helper blocks, together
+   * with the storage permissions needed by the FileScope helper blocks used.
+   */
+  Set<String> getBlockPermissions() {
+    return blockPermissions;
+  }
+
+  /**
+   * Returns the file scopes named by FileScope helper blocks.
+   */
+  Set<String> getScopes() {
+    return scopes;
+  }
+
+  /**
+   * Returns a mapping from form name to the orientation set by the user.
+   */
+  Map<String, String> getFormOrientations() {
+    return formOrientations;
+  }
+
+  /**
+   * The contribution of a single source file to the analysis.
+   */
+  private static class FileResult {
+    String formName;
+    String orientation;
+    Set<String> componentNames = Collections.emptySet();
+    Map<String, Set<String>> componentBlocks = Collections.emptyMap();
+    Set<String> permissions = Collections.emptySet();
+    Set<String> scopes = Collections.emptySet();
+  }
+
+  /**
+   * Analyzes the given project files.
+   *
+   * @param files the files contained in the project
+   * @param assetsDir the project's assets directory, which holds any extensions
+   * @return the analysis
+   * @throws IOException if a file cannot be read
+   * @throws JSONException if a form or extension descriptor is malformed
+   */
+  static ProjectAnalysis analyze(List<String> files, File assetsDir)
+      throws IOException, JSONException {
+    List<Callable<FileResult>> tasks = new ArrayList<>();
+    for (final String f : files) {
+      if (f.endsWith(FORM_PROPERTIES_EXTENSION)) {
+        tasks.add(new Callable<FileResult>() {
+          @Override
+          public FileResult call() throws Exception {
+            return analyzeFormFile(f, Files.toString(new File(f), StandardCharsets.UTF_8));
+          }
+        });
+      } else if (f.endsWith(BLOCKLY_SOURCE_EXTENSION)) {
+        tasks.add(new Callable<FileResult>() {
+          @Override
+          public FileResult call() throws Exception {
+            return analyzeBlocksFile(Files.toString(new File(f), StandardCharsets.UTF_8));
+          }
+        });
+      }
+    }
+    List<FileResult> results = run(tasks);
+
+    Map<String, String> nameTypeMap = createNameTypeMap(assetsDir);
+    Set<String> componentTypes = new HashSet<>();
+    Map<String, Set<String>> componentBlocks = new HashMap<>();
+    Set<String> permissions = new HashSet<>();
+    Set<String> scopes = new HashSet<>();
+    Map<String, String> formOrientations = new HashMap<>();
+    for (FileResult result : results) {
+      for (String name : result.componentNames) {
+        componentTypes.add(nameTypeMap.get(name));
+      }
+      for (Map.Entry<String, Set<String>> entry : result.componentBlocks.entrySet()) {
+        Set<String> blocks = componentBlocks.get(entry.getKey());
+        if (blocks == null) {
+          componentBlocks.put(entry.getKey(), new HashSet<>(entry.getValue()));
+        } else {
+          blocks.addAll(entry.getValue());
+        }
+      }
+      permissions.addAll(result.permissions);
+      scopes.addAll(result.scopes);
+      if (result.formName != null) {
+        formOrientations.put(result.formName, result.orientation);
+      }
+    }
+    for (String scope : scopes) {
+      switch (scope) {
+        case "Shared":
+          permissions.add("android.permission.READ_MEDIA_AUDIO");
+          permissions.add("android.permission.READ_MEDIA_IMAGES");
+          permissions.add("android.permission.READ_MEDIA_VIDEO");
+          permissions.add("android.permission.READ_EXTERNAL_STORAGE");
+          permissions.add("android.permission.WRITE_EXTERNAL_STORAGE");
+          break;
+        case "Legacy":
+          permissions.add("android.permission.READ_EXTERNAL_STORAGE");
+          permissions.add("android.permission.WRITE_EXTERNAL_STORAGE");
+          break;
+        default:
+          break;
+      }
+    }
+    return new ProjectAnalysis(componentTypes, componentBlocks, permissions, scopes,
+        formOrientations);
+  }
+
+  /**
+   * Runs the tasks, in parallel if there are enough of them to be worth it,
+   * and returns their results in order.
+   */
+  private static List<FileResult> run(List<Callable<FileResult>> tasks)
+      throws IOException, JSONException {
+    List<FileResult> results = new ArrayList<>(tasks.size());
+    try {
+      if (tasks.size() < PARALLEL_THRESHOLD || MAX_THREADS < 2) {
+        for (Callable<FileResult> task : tasks) {
+          results.add(task.call());
+        }
+        return results;
+      }
+      ExecutorService executor =
+          Executors.newFixedThreadPool(Math.min(MAX_THREADS, tasks.size()));
+      try {
+        for (Future<FileResult> future : executor.invokeAll(tasks)) {
+          results.add(future.get());
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+      return results;
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof JSONException) {
+        throw (JSONException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IllegalStateException(cause);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while analyzing project", e);
+    } catch (IOException | JSONException | RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static FileResult analyzeFormFile(String path, String source) throws JSONException {
+    JSONObject properties = FormPropertiesAnalyzer.parseSourceFile(source);
+    FileResult result = new FileResult();
+    result.formName = path.substring(path.lastIndexOf(File.separator) + 1,
+        path.length() - FORM_PROPERTIES_EXTENSION.length());
+    result.orientation = FormPropertiesAnalyzer.getFormOrientation(properties);
+    result.componentNames = FormPropertiesAnalyzer.getComponentTypes(properties);
+    result.componentBlocks = FormPropertiesAnalyzer.getComponentBlocks(properties);
+    return result;
+  }
+
+  private static FileResult analyzeBlocksFile(String source) {
+    // The extractors keep parser state, so each file gets its own.
+    ComponentBlocksExtractor componentBlocksExtractor = new ComponentBlocksExtractor();
+    PermissionBlockExtractor permissionBlockExtractor = new PermissionBlockExtractor();
+    ScopeBlockExtractor scopeBlockExtractor = new ScopeBlockExtractor();
+    FormPropertiesAnalyzer.analyzeBlocks(source, componentBlocksExtractor,
+        permissionBlockExtractor, scopeBlockExtractor);
+    FileResult result = new FileResult();
+    result.componentBlocks = componentBlocksExtractor.getResult();
+    result.permissions = permissionBlockExtractor.getResult();
+    result.scopes = scopeBlockExtractor.getResult();
+    return result;
+  }
+
+  private static synchronized Map<String, String> getSimpleComponentTypes()
+      throws IOException, JSONException {
+    if (simpleComponentTypes == null) {
+      Map<String, String> nameTypeMap = new HashMap<>();
+      JSONArray simpleCompsJson = new JSONArray(Resources.toString(ProjectAnalysis.
+          class.getResource("/files/simple_components.json"), Charsets.UTF_8));
+      for (int i = 0; i < simpleCompsJson.length(); ++i) {
+        JSONObject simpleCompJson = simpleCompsJson.getJSONObject(i);
+        nameTypeMap.put(simpleCompJson.getString("name"),
+            simpleCompJson.getString("type"));
+      }
+      simpleComponentTypes = Collections.unmodifiableMap(nameTypeMap);
+    }
+    return simpleComponentTypes;
+  }
+
+  /**
+   * In ode code, component names are used to identify a component though the
+   * variables storing component names appear to be "type". While there's no
+   * harm in ode, here in build server, they need to be separated.
+   * This method returns a name-type map, mapping the component names used in
+   * ode to the corresponding type, aka fully qualified name. The type will be
+   * used to build apk.
+   */
+  private static Map<String, String> createNameTypeMap(File assetsDir)
+      throws IOException, JSONException {
+    File extCompsDir = new File(assetsDir, "external_comps");
+    if (!extCompsDir.exists()) {
+      return getSimpleComponentTypes();
+    }
+
+    Map<String, String> nameTypeMap = new HashMap<>(getSimpleComponentTypes());
+    for (File extCompDir : extCompsDir.listFiles()) {
+      if (!extCompDir.isDirectory()) {
+        continue;
+      }
+
+      File extCompJsonFile = new File(extCompDir, "component.json");
+      if (extCompJsonFile.exists()) {
+        JSONObject extCompJson = new JSONObject(Resources.toString(
+            extCompJsonFile.toURI().toURL(), Charsets.UTF_8));
+        nameTypeMap.put(extCompJson.getString("name"),
+            extCompJson.getString("type"));
+      } else {  // multi-extension package
+        extCompJsonFile = new File(extCompDir, "components.json");
+        if (extCompJsonFile.exists()) {
+          JSONArray extCompJson = new JSONArray(Resources.toString(
+              extCompJsonFile.toURI().toURL(), Charsets.UTF_8));
+          for (int i = 0; i < extCompJson.length(); i++) {
+            JSONObject extCompDescriptor = extCompJson.getJSONObject(i);
+            nameTypeMap.put(extCompDescriptor.getString("name"),
+                extCompDescriptor.getString("type"));
+          }
+        }
+      }
+    }
+
+    return nameTypeMap;
+  }
+}
@@ -132,11 +132,19 @@
   (set! *init-thunk-environment* (gnu.mapping.Environment:make 'init-thunk-environment)))
 
 ;;; (get-component comp1)
-;;; ==> (lookup-in-current-form-environment 'comp1)
+;;; ==> (lookup-in-current-form-environment 'comp1)    in the REPL
+;;; ==> comp1                                          in a compiled app
+;;; In a compiled app add-component declares a field on the form for each
+;;; component, and $define stores the component there, so the reference is
+;;; a field access rather than a lookup in the form environment. The REPL
+;;; replaces components as the user edits, so it keeps using the environment.
 (define-syntax get-component
   (syntax-rules ()
     ((_ component-name)
-     (lookup-in-current-form-environment 'component-name))))
+     (if *this-is-the-repl*
+         (lookup-in-current-form-environment 'component-name)
+         (try-catch component-name
+           (exception gnu.mapping.UnboundLocationException #f))))))
 
 ;;; (get-all-components comptype)
 ;;; ==> (filter-type-in-current-form-environment 'comptype)
@@ -241,21 +249,35 @@
 
 ;;; Global variables
 
+;;; In a compiled app def declares each global variable and procedure as a
+;;; field of the form, so get-var and set-var! are field accesses. The REPL
+;;; keeps globals in the form's global-var-environment so that they can be
+;;; redefined as the user edits blocks.
+
 ;;; (get-var var1)
-;;; ==> (lookup-global-var-in-current-form-environment 'var1)
+;;; ==> (lookup-global-var-in-current-form-environment 'var1)    in the REPL
+;;; ==> var1                                                     in a compiled app
 (define-syntax get-var
   (syntax-rules ()
     ((_ var-name)
      ;; unbound global variables default to *the-null-value*
-     (lookup-global-var-in-current-form-environment 'var-name *the-null-value*))))
+     (if *this-is-the-repl*
+         (lookup-global-var-in-current-form-environment 'var-name *the-null-value*)
+         (try-catch var-name
+           (exception gnu.mapping.UnboundLocationException *the-null-value*))))))
 
 ;;; (set-var! var1 10)
-;;; ==> (add-global-var-to-current-form-environment 'var1 10)
+;;; ==> (add-global-var-to-current-form-environment 'var1 10)    in the REPL
+;;; ==> (set! var1 10)                                           in a compiled app
 ;;; note that set-var! will create the binding if it doesn't exist
 (define-syntax set-var!
   (syntax-rules ()
     ((_ var-name value)
-     (add-global-var-to-current-form-environment 'var-name value))))
+     (if *this-is-the-repl*
+         (add-global-var-to-current-form-environment 'var-name value)
+         (begin
+           (set! var-name value)
+           *the-null-value*)))))
 
 ;;; Lexical variables
 ;;; A lexical variable is looked up in the current environment
@@ -390,10 +412,11 @@
        ;; List of global variables to be initialized in the $define method.
        (define global-vars-to-create  :: gnu.lists.LList '())
 
-       ;; Add to the list of global variable to create.
-       (define (add-to-global-vars var val-thunk)
+       ;; Add to the list of global variable to create. If a setter is given
+       ;; the value is stored with it, otherwise in the global-var-environment.
+       (define (add-to-global-vars var val-thunk #!optional (setter #f))
          (set! global-vars-to-create
-               (cons (list var val-thunk)
+               (cons (list var val-thunk setter)
                      global-vars-to-create)))
 
 
@@ -556,13 +579,16 @@
                         (cdr event-info)))
                      events))
 
-         ;; Add the initial global variable bindings to the global variable environment
+         ;; Assign the initial values of the global variables
          (define (init-global-variables var-val-pairs)
            ;; (android-log-form (format #f "initializing global vars: ~A" var-val-pairs))
            (for-each (lambda (var-val)
                        (let ((var (car var-val))
-                             (val-thunk (cadr var-val)))
-                         (add-to-global-var-environment var (val-thunk))))
+                             (val-thunk (cadr var-val))
+                             (setter (caddr var-val)))
+                         (if setter
+                             (setter (val-thunk))
+                             (add-to-global-var-environment var (val-thunk)))))
                      var-val-pairs))
 
          ;; Create each component and set its corresponding field
@@ -774,24 +800,30 @@
 
 ;;; def
 ;;; (def var1 ...) ==> (define var1 ...)
+;;; The define gives compiled forms a field for the variable (see get-var);
+;;; its value is assigned when the form's $define method runs.
 (define-syntax def
   (syntax-rules ()
     ;; There's some Kawa bug that gets exposed if you change the clause ordering here
     ;; and put the var def rule before the func def rule.
     ((_ (func-name args ...) body ...)
      (begin
+       (define func-name #!null)
        (if *this-is-the-repl*
            (add-global-var-to-current-form-environment 'func-name
                                             (lambda (args ...) body ...))
            (add-to-global-vars 'func-name
                                (lambda ()
-                                 (lambda (args ...) body ...))))))
+                                 (lambda (args ...) body ...))
+                               (lambda (value) (set! func-name value))))))
     ((_ var-name value)
      (begin
+       (define var-name #!null)
        (if *this-is-the-repl*
            (add-global-var-to-current-form-environment 'var-name value)
            (add-to-global-vars 'var-name
-                               (lambda () value)))))))
+                               (lambda () value)
+                               (lambda (val) (set! var-name val))))))))
 
 
 ;;; Arrange for a sequence of expressions to be evaluated after the
@@ -1045,6 +1077,8 @@
 (define-alias YailList <com.google.appinventor.components.runtime.util.YailList>)
 (define-alias YailDictionary <com.google.appinventor.components.runtime.util.YailDictionary>)
 (define-alias YailNumberToString <com.google.appinventor.components.runtime.util.YailNumberToString>)
+(define-alias YailListSorter <com.google.appinventor.components.runtime.util.YailListSorter>)
+(define-alias YailListIndex <com.google.appinventor.components.runtime.util.YailListIndex>)
 
 (define-alias JavaCollection <java.util.Collection>)
 (define-alias JavaIterator <java.util.Iterator>)
@@ -1864,6 +1898,19 @@
         #f
         nx)))
 
+;;; Return a key such that atoms that are yail-equal? have equal keys, so
+;;; that YailListIndex can hash list elements.  Numbers and numeric
+;;; strings map to the same double, and other strings to themselves.
+;;; Returns #!null for values that must be compared with yail-equal?,
+;;; such as lists, dictionaries and enums.
+(define (yail-equal-hash-key x)
+  (cond ((boolean? x) x)
+        ((number? x) (if (real? x) (+ (exact->inexact x) 0.0) #!null))
+        ((string? x)
+         (let ((nx (as-number x)))
+           (if nx (yail-equal-hash-key nx) (*:toString x))))
+        (else #!null)))
+
 (define (yail-not-equal? x1 x2)
   (not (yail-equal? x1 x2)))
 
@@ -2392,6 +2439,7 @@ list, use the make-yail-list constructor with no arguments.
   (cdr yail-list))
 
 (define (set-yail-list-contents! yail-list contents)
+  (YailListIndex:invalidate yail-list)
   (set-cdr! yail-list contents))
 
 
@@ -2524,11 +2572,15 @@ list, use the make-yail-list constructor with no arguments.
 ;; Implements the Blocks index in list operation
 ;; returns the 1-based index of the object in the list
 ;; returns 0 if object not in list
+;; Lists that are searched repeatedly are indexed by YailListIndex
 (define (yail-list-index object yail-list)
-  (let loop ((i 1) (list (yail-list-contents yail-list)))
-    (cond ((null? list) 0)
-          ((yail-equal? object (car list)) i)
-          (else (loop (+ i 1) (cdr list))))))
+  (let ((indexed (YailListIndex:indexOf yail-list object yail-equal-hash-key yail-equal?)))
+    (if (= indexed YailListIndex:NOT_INDEXED)
+        (let loop ((i 1) (list (yail-list-contents yail-list)))
+          (cond ((null? list) 0)
+                ((yail-equal? object (car list)) i)
+                (else (loop (+ i 1) (cdr list)))))
+        indexed)))
 
 ;; Implements the Blocks get list item operation
 (define (yail-list-get-item yail-list index)
@@ -2565,6 +2617,7 @@ list, use the make-yail-list constructor with no arguments.
                  len
                  (get-display-representation yail-list))
          "List index too large")))
+  (YailListIndex:invalidate yail-list)
   (set-car! (list-tail (yail-list-contents yail-list) (- index 1)) value))
 
 
@@ -2597,6 +2650,7 @@ list, use the make-yail-list constructor with no arguments.
                    (get-display-representation yail-list))
            "List index too large"))
       (let ((pair-pointing-to-deletion (list-tail yail-list (- index2 1))))
+        (YailListIndex:invalidate yail-list)
         (set-cdr! pair-pointing-to-deletion (cddr pair-pointing-to-deletion))))))
 
 
@@ -2630,6 +2684,7 @@ list, use the make-yail-list constructor with no arguments.
         (if (= index2 1)
             (set-yail-list-contents! yail-list (cons item contents))
             (let ((at-item (list-tail contents (- index2 2))))
+              (YailListIndex:invalidate yail-list)
               (set-cdr! at-item (cons item (cdr at-item)))))))))
 
 ;; Extends list A by appending the elements of list B to it
@@ -2646,6 +2701,7 @@ list, use the make-yail-list constructor with no arguments.
     (cons (car l) (list-copy (cdr l)))))
   ;; We have to operate on the yail-list itself, not the contents, because
   ;; the contents might be empty
+  (YailListIndex:appended yail-list-A)
   (set-cdr! (list-tail yail-list-A (length (yail-list-contents yail-list-A)))
         (list-copy (yail-list-contents yail-list-B))))
 
@@ -2662,8 +2718,7 @@ list, use the make-yail-list constructor with no arguments.
 ;; Implements the blocks member? operation
 ;; This returns true or false (unlike Scheme's member primitive)
 (define (yail-list-member? object yail-list)
-  (let ((result (member object (yail-list-contents yail-list) yail-equal?)))
-    (if result #t #f)))
+  (> (yail-list-index object yail-list) 0))
 
 
 ;; Returns an element chosen at random from the list
@@ -2885,45 +2940,25 @@ list, use the make-yail-list constructor with no arguments.
     xs
     (yail-drop (- n 1) (cdr xs))))
 
-;; Merge sort
-(define (yail-merge lessthan? lst1 lst2)
-  (cond ((null? lst1) lst2)
-    ((null? lst2) lst1)
-    ((lessthan? (car lst1) (car lst2)) (cons (car lst1) (yail-merge lessthan? (cdr lst1) lst2)))
-    (else (cons (car lst2) (yail-merge lessthan? lst1 (cdr lst2))))))
-
-(define (yail-mergesort lessthan? lst)
-  (cond ((null? lst) lst)
-    ((null? (cdr lst)) lst)
-    (else (yail-merge lessthan? (yail-mergesort lessthan? (yail-take (quotient (length lst) 2) lst))
-            (yail-mergesort lessthan? (yail-drop (quotient (length lst) 2) lst))))))
-
+;; The sort blocks copy the list into an array and sort it in Java with a
+;; stable merge sort, which neither recurses per element nor conses. See
+;; YailListSorter for how the "less than" procedure is turned into a comparator.
 (define (yail-list-sort y1)
   (cond ((yail-list-empty? y1) (make YailList))
     ((not (pair? y1)) y1)
-    (else (kawa-list->yail-list (yail-mergesort is-leq? (yail-list-contents y1))))))
+    (else (kawa-list->yail-list (YailListSorter:sort (yail-list-contents y1) is-leq?)))))
 
 (define (yail-list-sort-comparator lessthan? y1)
   (cond ((yail-list-empty? y1) (make YailList))
     ((not (pair? y1)) y1)
-    (else (kawa-list->yail-list (yail-mergesort lessthan? (yail-list-contents y1))))))
-
-(define (merge-key lessthan? key lst1 lst2)
-  (cond ((null? lst1) lst2)
-    ((null? lst2) lst1)
-    ((lessthan? (key (car lst1)) (key (car lst2))) (cons (car lst1) (merge-key lessthan? key (cdr lst1) lst2)))
-    (else (cons (car lst2) (merge-key lessthan? key lst1 (cdr lst2))))))
-
-(define (mergesort-key lessthan? key lst)
-  (cond ((null? lst) lst)
-    ((null? (cdr lst)) lst)
-    (else (merge-key lessthan? key (mergesort-key lessthan? key (yail-take (quotient (length lst) 2) lst))
-            (mergesort-key lessthan? key (yail-drop (quotient (length lst) 2) lst))))))
+    (else (kawa-list->yail-list (YailListSorter:sort (yail-list-contents y1) lessthan?)))))
 
+;; The key procedure is applied once per element rather than at every comparison.
 (define (yail-list-sort-key key y1)
   (cond ((yail-list-empty? y1) (make YailList))
     ((not (pair? y1)) y1)
-    (else (kawa-list->yail-list (mergesort-key is-leq? key (yail-list-contents y1))))))
+    (else (kawa-list->yail-list
+           (YailListSorter:sortByKey (yail-list-contents y1) key is-leq?)))))
 
 (define (list-number-only lst)
   (cond ((null? lst) '())
@@ -3091,18 +3126,23 @@ list, use the make-yail-list constructor with no arguments.
 ;;; JSON objects and whether jsonutils.decode.
 
 (define (yail-alist-lookup key yail-list-of-pairs default)
-  (android-log
-   (format #f "List alist lookup key is  ~A and table is ~A" key yail-list-of-pairs))
-  (let loop ((pairs-to-check (yail-list-contents yail-list-of-pairs)))
-    (cond ((null? pairs-to-check) default)
-          ((not (pair-ok? (car pairs-to-check)))
-           (signal-runtime-error
-            (format #f "Lookup in pairs: the list ~A is not a well-formed list of pairs"
-                    (get-display-representation yail-list-of-pairs))
-            "Invalid list of pairs"))
-          ((yail-equal? key (car (yail-list-contents (car pairs-to-check))))
-           (cadr (yail-list-contents (car pairs-to-check))))
-          (else (loop (cdr pairs-to-check))))))
+  (when *debug*
+    (android-log
+     (format #f "List alist lookup key is  ~A and table is ~A" key yail-list-of-pairs)))
+  (let ((found (YailListIndex:findPair yail-list-of-pairs key yail-equal-hash-key yail-equal?)))
+    (cond ((eq? found YailListIndex:NOT_FOUND_IN_INDEX)
+           (let loop ((pairs-to-check (yail-list-contents yail-list-of-pairs)))
+             (cond ((null? pairs-to-check) default)
+                   ((not (pair-ok? (car pairs-to-check)))
+                    (signal-runtime-error
+                     (format #f "Lookup in pairs: the list ~A is not a well-formed list of pairs"
+                             (get-display-representation yail-list-of-pairs))
+                     "Invalid list of pairs"))
+                   ((yail-equal? key (car (yail-list-contents (car pairs-to-check))))
+                    (cadr (yail-list-contents (car pairs-to-check))))
+                   (else (loop (cdr pairs-to-check))))))
+          ((eq? found #f) default)
+          (else (cadr (yail-list-contents found))))))
 
 (define (pair-ok? candidate-pair)
   (and (yail-list? candidate-pair)
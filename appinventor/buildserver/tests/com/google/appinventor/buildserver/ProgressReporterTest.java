@@ -0,0 +1,139 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+package com.google.appinventor.buildserver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests BuildServer.ProgressReporter.
+ */
+public class ProgressReporterTest extends TestCase {
+
+  /**
+   * A reporter that records the values it would post instead of posting them.
+   * Each post waits until the release latch is opened.
+   */
+  private static class RecordingReporter extends BuildServer.ProgressReporter {
+    final List<Integer> posted = new ArrayList<Integer>();
+    final CountDownLatch release;
+    final CountDownLatch firstPost = new CountDownLatch(1);
+
+    RecordingReporter(long interval, CountDownLatch release) {
+      super("http://localhost/unused", interval);
+      this.release = release;
+    }
+
+    @Override
+    void post(int progress) {
+      firstPost.countDown();
+      try {
+        release.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        // ignored
+      }
+      synchronized (posted) {
+        posted.add(progress);
+        posted.notifyAll();
+      }
+    }
+
+    void awaitPosted(int value) throws InterruptedException {
+      long deadline = System.currentTimeMillis() + 10000;
+      synchronized (posted) {
+        while (!posted.contains(value) && System.currentTimeMillis() < deadline) {
+          posted.wait(100);
+        }
+      }
+    }
+  }
+
+  public void testReportDoesNotBlockOnSlowCallback() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    RecordingReporter reporter = new RecordingReporter(0, release);
+    reporter.report(10);
+    assertTrue(reporter.firstPost.await(10, TimeUnit.SECONDS));
+    // The first post is stuck; further reports must return immediately.
+    long start = System.currentTimeMillis();
+    for (int i = 11; i <= 100; i++) {
+      reporter.report(i);
+    }
+    assertTrue(System.currentTimeMillis() - start < 1000);
+    release.countDown();
+    reporter.awaitPosted(100);
+    synchronized (reporter.posted) {
+      // The values reported while the first post was stuck are coalesced into the latest one.
+      assertEquals(2, reporter.posted.size());
+      assertEquals(Integer.valueOf(10), reporter.posted.get(0));
+      assertEquals(Integer.valueOf(100), reporter.posted.get(1));
+    }
+  }
+
+  public void testSlowCallbackDoesNotDelayOtherBuilds() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    List<RecordingReporter> stuck = new ArrayList<RecordingReporter>();
+    for (int i = 0; i < 4; i++) {
+      RecordingReporter reporter = new RecordingReporter(0, release);
+      reporter.report(1);
+      assertTrue(reporter.firstPost.await(10, TimeUnit.SECONDS));
+      stuck.add(reporter);
+    }
+    // Every other build's callback is stuck, but this one's progress is still posted.
+    RecordingReporter reporter = new RecordingReporter(0, new CountDownLatch(0));
+    reporter.report(50);
+    reporter.awaitPosted(50);
+    synchronized (reporter.posted) {
+      assertEquals(1, reporter.posted.size());
+    }
+    release.countDown();
+    for (RecordingReporter r : stuck) {
+      r.close();
+    }
+  }
+
+  public void testReportsAreRateLimited() throws Exception {
+    CountDownLatch release = new CountDownLatch(0);
+    RecordingReporter reporter = new RecordingReporter(60000, release);
+    reporter.report(1);
+    reporter.awaitPosted(1);
+    reporter.report(2);
+    reporter.report(3);
+    Thread.sleep(200);
+    synchronized (reporter.posted) {
+      // The second report has to wait for the interval to pass.
+      assertEquals(1, reporter.posted.size());
+    }
+    reporter.close();
+  }
+
+  public void testCloseDoesNotWaitForPost() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    RecordingReporter reporter = new RecordingReporter(0, release);
+    reporter.report(10);
+    assertTrue(reporter.firstPost.await(10, TimeUnit.SECONDS));
+    long start = System.currentTimeMillis();
+    reporter.close();
+    assertTrue(System.currentTimeMillis() - start < 1000);
+    release.countDown();
+  }
+
+  public void testNothingIsPostedAfterClose() throws Exception {
+    CountDownLatch release = new CountDownLatch(0);
+    RecordingReporter reporter = new RecordingReporter(100, release);
+    reporter.report(1);
+    reporter.awaitPosted(1);
+    reporter.report(2);
+    reporter.close();
+    reporter.report(3);
+    Thread.sleep(300);
+    synchronized (reporter.posted) {
+      assertEquals(1, reporter.posted.size());
+    }
+  }
+}
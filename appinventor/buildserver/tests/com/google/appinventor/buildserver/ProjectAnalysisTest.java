@@ -0,0 +1,121 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.buildserver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.io.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProjectAnalysisTest {
+
+  private static final String FORM_TYPE = "com.google.appinventor.components.runtime.Form";
+  private static final String BUTTON_TYPE = "com.google.appinventor.components.runtime.Button";
+
+  private File projectDir;
+  private List<String> files;
+
+  @Before
+  public void setUp() {
+    projectDir = Files.createTempDir();
+    files = new ArrayList<>();
+  }
+
+  @After
+  public void tearDown() {
+    FileUtils.deleteQuietly(projectDir);
+  }
+
+  private void addScreen(String name, String orientation, String buttonProperty, String bky)
+      throws IOException {
+    String scm = "#|\n$JSON\n{\"Properties\":{\"$Type\":\"Form\",\"$Name\":\"" + name + "\","
+        + "\"ScreenOrientation\":\"" + orientation + "\",\"$Components\":["
+        + "{\"$Type\":\"Button\",\"$Name\":\"Button1\",\"" + buttonProperty + "\":\"1\"}]}}\n|#\n";
+    File scmFile = new File(projectDir, name + ".scm");
+    File bkyFile = new File(projectDir, name + ".bky");
+    Files.write(scm, scmFile, StandardCharsets.UTF_8);
+    Files.write(bky, bkyFile, StandardCharsets.UTF_8);
+    files.add(scmFile.getPath());
+    files.add(bkyFile.getPath());
+  }
+
+  private static String eventBlock(String eventName, boolean disabled) {
+    return "<xml><block type=\"component_event\"" + (disabled ? " disabled=\"true\"" : "") + ">"
+        + "<mutation component_type=\"Button\" instance_name=\"Button1\" event_name=\""
+        + eventName + "\"></mutation></block></xml>";
+  }
+
+  private static String scopeBlock(String scope) {
+    return "<xml><block type=\"helpers_dropdown\"><mutation key=\"FileScope\"></mutation>"
+        + "<field name=\"OPTION\">" + scope + "</field></block></xml>";
+  }
+
+  @Test
+  public void testAnalyze() throws Exception {
+    addScreen("Screen1", "portrait", "Text", eventBlock("Click", false));
+    addScreen("Screen2", "landscape", "Width", scopeBlock("Legacy"));
+    ProjectAnalysis analysis = ProjectAnalysis.analyze(files, projectDir);
+
+    Set<String> types = analysis.getComponentTypes();
+    assertEquals(2, types.size());
+    assertTrue(types.contains(FORM_TYPE));
+    assertTrue(types.contains(BUTTON_TYPE));
+
+    assertEquals("portrait", analysis.getFormOrientations().get("Screen1"));
+    assertEquals("landscape", analysis.getFormOrientations().get("Screen2"));
+
+    // Designer properties from all screens are merged with the blocks used.
+    Set<String> buttonBlocks = analysis.getComponentBlocks().get("Button");
+    assertTrue(buttonBlocks.contains("Click"));
+    assertTrue(buttonBlocks.contains("Text"));
+    assertTrue(buttonBlocks.contains("Width"));
+
+    assertTrue(analysis.getScopes().contains("Legacy"));
+    assertTrue(analysis.getBlockPermissions()
+        .contains("android.permission.WRITE_EXTERNAL_STORAGE"));
+  }
+
+  @Test
+  public void testDisabledBlocksAreIgnored() throws Exception {
+    addScreen("Screen1", "unspecified", "Text", eventBlock("LongClick", true));
+    ProjectAnalysis analysis = ProjectAnalysis.analyze(files, projectDir);
+    assertFalse(analysis.getComponentBlocks().get("Button").contains("LongClick"));
+  }
+
+  @Test
+  public void testAnalyzeManyScreens() throws Exception {
+    // Enough screens that they are analyzed in parallel.
+    for (int i = 1; i <= 20; i++) {
+      addScreen("Screen" + i, "sensor", "Property" + i, eventBlock("Event" + i, false));
+    }
+    ProjectAnalysis analysis = ProjectAnalysis.analyze(files, projectDir);
+    assertEquals(20, analysis.getFormOrientations().size());
+    Set<String> buttonBlocks = analysis.getComponentBlocks().get("Button");
+    for (int i = 1; i <= 20; i++) {
+      assertTrue(buttonBlocks.contains("Property" + i));
+      assertTrue(buttonBlocks.contains("Event" + i));
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testAnalysisIsImmutable() throws Exception {
+    addScreen("Screen1", "portrait", "Text", eventBlock("Click", false));
+    ProjectAnalysis.analyze(files, projectDir).getComponentBlocks().get("Button").add("Foo");
+  }
+}
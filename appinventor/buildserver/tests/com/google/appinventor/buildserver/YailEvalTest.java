@@ -125,6 +125,10 @@ public class YailEvalTest extends TestCase {
      assertTrue((Boolean) scheme.eval("(testTailRecursion)"));
    }
 
+   public void testWrappedReplDefinitions() throws Throwable {
+     assertTrue((Boolean) scheme.eval("(testWrappedReplDefinitions)"));
+   }
+
    public void testLookupInPairs1() throws Throwable {
      assertTrue((Boolean) scheme.eval("(testLookupInPairs1)"));
    }
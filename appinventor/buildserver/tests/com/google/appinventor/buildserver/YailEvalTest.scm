@@ -1,7 +1,9 @@
 ;;; Redefine add-to-global-vars so it doesn't require any of the define-form stuff
 (define add-to-global-vars
-  (lambda (name :: gnu.mapping.Symbol thunk)
-    (gnu.mapping.Environment:put *test-global-var-environment* name (thunk))))
+  (lambda (name :: gnu.mapping.Symbol thunk #!optional (setter #f))
+    (if setter
+        (setter (thunk))
+        (gnu.mapping.Environment:put *test-global-var-environment* name (thunk)))))
 
 (define (stringTest1)
   (and
@@ -80,6 +82,29 @@
     (equal? test-input unconverted)))
 
 
+;; Test that definitions wrapped in thunks, as the companion keeps them
+;; between reloads, define the same event handlers, variables and
+;; procedures as when they are evaluated directly
+(define (testWrappedReplDefinitions)
+  (set! *this-is-the-repl* #t)
+  (let ((thunks (vector
+                 (lambda ()
+                   (define-event ReplButton Click ()
+                     "clicked"))
+                 (lambda ()
+                   (def replCount 3))
+                 (lambda ()
+                   (def (replDouble x)
+                     (* x 2))))))
+    ;; Run them twice, as happens when the editor sends them again
+    (for-each (lambda (thunk) (thunk)) (vector->list thunks))
+    (for-each (lambda (thunk) (thunk)) (vector->list thunks))
+    (set! *this-is-the-repl* #f)
+    (and (equal? "clicked" ((lookup-in-current-form-environment 'ReplButton$Click)))
+         (equal? 3 (lookup-global-var-in-current-form-environment 'replCount))
+         (equal? 6 ((lookup-global-var-in-current-form-environment 'replDouble) 3)))))
+
+
 ;; Support for testing repl communication
 
 
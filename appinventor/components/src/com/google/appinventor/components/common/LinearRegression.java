@@ -45,7 +45,6 @@ public class LinearRegression implements TrendlineCalculator {
 
     double xxmean = 0.0;
     double xymean = 0.0;
-    List<Double> predictions = new ArrayList<>();
     for (int i = 0; i < n; i++) {
       xxmean += (x.get(i) - xmean) * (x.get(i) - xmean);
       xymean += (x.get(i) - xmean) * (y.get(i) - ymean);
@@ -53,15 +52,35 @@ public class LinearRegression implements TrendlineCalculator {
     double slope = xymean / xxmean;
     double intercept = ymean - slope * xmean;
 
+    // use formula for calculating correlation coefficient.
+    final double corr = (n * sumXY - sumx * sumy)
+        / (Math.sqrt((n * squareSumX - sumx * sumx) * (n * squareSumY - sumy * sumy)));
+
+    return results(slope, intercept, corr, x);
+  }
+
+  @Override
+  public RunningRegression newRunningRegression() {
+    return new RunningRegression(1, false, false);
+  }
+
+  @Override
+  public Map<String, Object> compute(RunningRegression sums, List<Double> x) {
+    if (sums.getCount() == 0) {
+      throw new IllegalStateException("List must have at least one element");
+    }
+    double[] coefficients = sums.getCoefficients();
+    return results(coefficients[1], coefficients[0], sums.getCorrelation(), x);
+  }
+
+  private static Map<String, Object> results(double slope, double intercept, double corr,
+      List<Double> x) {
+    List<Double> predictions = new ArrayList<>(x.size());
     for (Double value : x) {
       double prediction = slope * value + intercept;
       predictions.add(prediction);
     }
 
-    // use formula for calculating correlation coefficient.
-    final double corr = (n * sumXY - sumx * sumy)
-        / (Math.sqrt((n * squareSumX - sumx * sumx) * (n * squareSumY - sumy * sumy)));
-
     Map<String, Object> resultDic = new HashMap<>();
     resultDic.put("slope", slope);
     resultDic.put("Yintercept", intercept);
@@ -0,0 +1,210 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.common;
+
+import java.util.Arrays;
+
+/**
+ * Running sums of the points of a least squares regression, from which the regression can be
+ * computed without visiting the points again. Points are added and removed in constant time.
+ *
+ * <p>The model is a polynomial of degree 1 or 2 in t fitted to v, where t is either x or ln x and
+ * v is either y or ln y. The sums are taken relative to the first point added, which keeps them
+ * well conditioned while the data stays near that point. Removing points accumulates rounding
+ * error and can leave the data far from that first point, so a caller that removes points should
+ * {@link #clear()} the sums and add the remaining points again from time to time.
+ *
+ * <p>RunningRegression is not thread safe.
+ */
+public final class RunningRegression {
+  // Pivots smaller than this relative to the diagonal of the normal equations mean that the
+  // points do not determine the polynomial.
+  private static final double SINGULAR_THRESHOLD = 1e-12;
+
+  private final int degree;
+  private final boolean logX;
+  private final boolean logY;
+
+  private int count = 0;
+  // The point the sums are taken relative to.
+  private double t0;
+  private double v0;
+  // powerSums[k] is the sum of u^k, where u = t - t0.
+  private final double[] powerSums;
+  // productSums[k] is the sum of u^k * w, where w = v - v0.
+  private final double[] productSums;
+  // The sum of w^2.
+  private double squareSum;
+
+  /**
+   * Creates an empty RunningRegression.
+   *
+   * @param degree the degree of the polynomial, 1 or 2
+   * @param logX true to fit the polynomial to ln x rather than x
+   * @param logY true to fit the polynomial to ln y rather than y
+   * @throws IllegalArgumentException if degree is not 1 or 2
+   */
+  public RunningRegression(int degree, boolean logX, boolean logY) {
+    if (degree != 1 && degree != 2) {
+      throw new IllegalArgumentException("Unsupported degree " + degree);
+    }
+    this.degree = degree;
+    this.logX = logX;
+    this.logY = logY;
+    powerSums = new double[2 * degree + 1];
+    productSums = new double[degree + 1];
+  }
+
+  /**
+   * Adds the point (x, y).
+   */
+  public void add(double x, double y) {
+    double t = logX ? Math.log(x) : x;
+    double v = logY ? Math.log(y) : y;
+    if (count == 0) {
+      t0 = t;
+      v0 = v;
+    }
+    count++;
+    update(t - t0, v - v0, 1);
+  }
+
+  /**
+   * Removes the point (x, y), which must have been added before.
+   */
+  public void remove(double x, double y) {
+    if (count <= 1) {
+      clear();
+      return;
+    }
+    double t = logX ? Math.log(x) : x;
+    double v = logY ? Math.log(y) : y;
+    count--;
+    update(t - t0, v - v0, -1);
+  }
+
+  /**
+   * Removes all of the points.
+   */
+  public void clear() {
+    count = 0;
+    squareSum = 0;
+    for (int i = 0; i < powerSums.length; i++) {
+      powerSums[i] = 0;
+    }
+    for (int i = 0; i < productSums.length; i++) {
+      productSums[i] = 0;
+    }
+  }
+
+  /**
+   * Returns the number of points.
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the coefficients of the fitted polynomial, starting with the constant term. The
+   * coefficients are NaN if the points do not determine the polynomial, for example if there are
+   * fewer points than coefficients.
+   */
+  public double[] getCoefficients() {
+    double[] c = solve();
+    if (degree == 1) {
+      return new double[] { v0 + c[0] - c[1] * t0, c[1] };
+    } else {
+      return new double[] {
+          v0 + c[0] - c[1] * t0 + c[2] * t0 * t0,
+          c[1] - 2 * c[2] * t0,
+          c[2]
+      };
+    }
+  }
+
+  /**
+   * Returns the correlation coefficient of t and v.
+   */
+  public double getCorrelation() {
+    double tt = powerSums[2] - powerSums[1] * powerSums[1] / count;
+    double tv = productSums[1] - powerSums[1] * productSums[0] / count;
+    double vv = squareSum - productSums[0] * productSums[0] / count;
+    return tv / Math.sqrt(tt * vv);
+  }
+
+  /**
+   * Returns the coefficient of determination of the fitted polynomial relative to the sum of the
+   * squares of v, rather than of their deviations from the mean. This is the value reported for
+   * a regression whose terms include the constant, as here, but that is not told it has an
+   * intercept.
+   */
+  public double getUncenteredRSquared() {
+    double[] c = solve();
+    double residuals = squareSum;
+    for (int i = 0; i <= degree; i++) {
+      residuals -= c[i] * productSums[i];
+    }
+    double total = squareSum + v0 * (2 * productSums[0] + count * v0);
+    return 1 - Math.max(residuals, 0) / total;
+  }
+
+  private void update(double u, double w, int sign) {
+    double term = sign;
+    for (int k = 0; k < powerSums.length; k++) {
+      powerSums[k] += term;
+      if (k < productSums.length) {
+        productSums[k] += term * w;
+      }
+      term *= u;
+    }
+    squareSum += sign * w * w;
+  }
+
+  /**
+   * Solves the normal equations for the coefficients of the polynomial in u fitted to w, using
+   * Gaussian elimination with partial pivoting.
+   */
+  private double[] solve() {
+    int n = degree + 1;
+    double[][] a = new double[n][n + 1];
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < n; j++) {
+        a[i][j] = powerSums[i + j];
+      }
+      a[i][n] = productSums[i];
+    }
+    double[] c = new double[n];
+    for (int col = 0; col < n; col++) {
+      int pivot = col;
+      for (int row = col + 1; row < n; row++) {
+        if (Math.abs(a[row][col]) > Math.abs(a[pivot][col])) {
+          pivot = row;
+        }
+      }
+      if (count < n || Math.abs(a[pivot][col]) <= SINGULAR_THRESHOLD * powerSums[2 * col]) {
+        Arrays.fill(c, Double.NaN);
+        return c;
+      }
+      double[] swap = a[pivot];
+      a[pivot] = a[col];
+      a[col] = swap;
+      for (int row = col + 1; row < n; row++) {
+        double factor = a[row][col] / a[col][col];
+        for (int k = col; k <= n; k++) {
+          a[row][k] -= factor * a[col][k];
+        }
+      }
+    }
+    for (int i = n - 1; i >= 0; i--) {
+      double sum = a[i][n];
+      for (int j = i + 1; j < n; j++) {
+        sum -= a[i][j] * c[j];
+      }
+      c[i] = sum / a[i][i];
+    }
+    return c;
+  }
+}
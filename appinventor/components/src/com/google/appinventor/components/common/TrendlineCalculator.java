@@ -23,6 +23,24 @@ public interface TrendlineCalculator {
    */
   Map<String, Object> compute(List<Double> x, List<Double> y);
 
+  /**
+   * Create empty running sums for this model, to which points can be added and removed one at a
+   * time and from which {@link #compute(RunningRegression, List)} computes the trendline.
+   *
+   * @return new running sums for this model
+   */
+  RunningRegression newRunningRegression();
+
+  /**
+   * Compute the trendline from running sums of the data points. The result is the same as that
+   * of {@link #compute(List, List)} given the points added to the sums.
+   *
+   * @param sums the running sums, created by {@link #newRunningRegression()}
+   * @param x the list of x values of the points added to the sums
+   * @return a map containing the results of the computation
+   */
+  Map<String, Object> compute(RunningRegression sums, List<Double> x);
+
   /**
    * Compute an Android canvas compatible float array that contains the points of the trendline
    * to be drawn on a Chart. The result is a float array containing the x and y coordinates of
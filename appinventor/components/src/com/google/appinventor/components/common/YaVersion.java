@@ -610,7 +610,29 @@ public class YaVersion {
   // - CHART_COMPONENT_VERSION was incremented to 4
   // For YOUNG_ANDROID_VERSION 233:
   // - CHATBOT_COMPONENT_VERSION was incremented to 4
-  public static final int YOUNG_ANDROID_VERSION = 233;
+  // For YOUNG_ANDROID_VERSION 234:
+  // - BLUETOOTHCLIENT_COMPONENT_VERSION was incremented to 9
+  // - BLUETOOTHSERVER_COMPONENT_VERSION was incremented to 6
+  // For YOUNG_ANDROID_VERSION 235:
+  // - ANOMALY_COMPONENT_VERSION was incremented to 3
+  // For YOUNG_ANDROID_VERSION 236:
+  // - WEB_COMPONENT_VERSION was incremented to 10
+  // For YOUNG_ANDROID_VERSION 237:
+  // - WEB_COMPONENT_VERSION was incremented to 11
+  // For YOUNG_ANDROID_VERSION 238:
+  // - SPREADSHEET_COMPONENT_VERSION was incremented to 4
+  // For YOUNG_ANDROID_VERSION 239:
+  // - CLOUDDB_COMPONENT_VERSION was incremented to 3
+  // For YOUNG_ANDROID_VERSION 240:
+  // - MAP_COMPONENT_VERSION was incremented to 8
+  // For YOUNG_ANDROID_VERSION 241:
+  // - MAP_COMPONENT_VERSION was incremented to 9
+  // For YOUNG_ANDROID_VERSION 242:
+  // - FEATURE_COLLECTION_COMPONENT_VERSION was incremented to 3
+  // - MAP_COMPONENT_VERSION was incremented to 10
+  // For YOUNG_ANDROID_VERSION 243:
+  // - TINYDB_COMPONENT_VERSION was incremented to 4
+  public static final int YOUNG_ANDROID_VERSION = 243;
 
   // ............................... Blocks Language Version Number ...............................
 
@@ -780,7 +802,10 @@ public class YaVersion {
 
   // For ANOMALY_COMPONENT_VERSION 2:
   // - The DetectAnomaliesInChartData method was added.
-  public static final int ANOMALY_COMPONENT_VERSION = 2;
+  // For ANOMALY_COMPONENT_VERSION 3:
+  // - The WatchChartData, WatchDataSource and StopWatching methods, the AnomalyDetected event
+  //   and the WindowSize property were added.
+  public static final int ANOMALY_COMPONENT_VERSION = 3;
 
   // For BALL_COMPONENT_VERSION 2:
   // - The PointTowards method was added (for all sprites)
@@ -817,7 +842,11 @@ public class YaVersion {
   // - The BluetoothClient.PollingRate property was added.
   // For BLUETOOTHCLIENT_COMPONENT_VERSION 8:
   // - The BluetoothClient.NoLocationNeeded property was added.
-  public static final int BLUETOOTHCLIENT_COMPONENT_VERSION = 8;
+  // For BLUETOOTHCLIENT_COMPONENT_VERSION 9:
+  // - The ReceiveFramesByDelimiter, ReceiveFramesOfLength, ReceiveFramesWithLengthPrefix and
+  //   StopReceivingFrames methods, the FrameReceived event, and the ReceivingFrames,
+  //   FramesDiscarded and FramesDelayed properties were added.
+  public static final int BLUETOOTHCLIENT_COMPONENT_VERSION = 9;
 
   // For BLUETOOTHSERVER_COMPONENT_VERSION 2:
   // - The BluetoothServer.Enabled property was added.
@@ -827,7 +856,11 @@ public class YaVersion {
   // - The BluetoothServer.DelimiterByte property was added.
   // For BLUETOOTHSERVER_COMPONENT_VERSION 5:
   // - The BluetoothServer.Secure property was added.
-  public static final int BLUETOOTHSERVER_COMPONENT_VERSION = 5;
+  // For BLUETOOTHSERVER_COMPONENT_VERSION 6:
+  // - The ReceiveFramesByDelimiter, ReceiveFramesOfLength, ReceiveFramesWithLengthPrefix and
+  //   StopReceivingFrames methods, the FrameReceived event, and the ReceivingFrames,
+  //   FramesDiscarded and FramesDelayed properties were added.
+  public static final int BLUETOOTHSERVER_COMPONENT_VERSION = 6;
 
   // For BUTTON_COMPONENT_VERSION 2:
   // - The Alignment property was renamed to TextAlignment.
@@ -979,7 +1012,9 @@ public class YaVersion {
   // - GotGeoJSON event was renamed to GotFeatures
   // - ErrorLoadingFeatureCollection event was removed
   // - LoadedFeatureCollection event was removed
-  public static final int FEATURE_COLLECTION_COMPONENT_VERSION = 2;
+  // For FEATURE_COLLECTION_COMPONENT_VERSION 3:
+  // - Added SimplifyGeometry property and LoadProgress event
+  public static final int FEATURE_COLLECTION_COMPONENT_VERSION = 3;
 
   // For FILE_COMPONENT_VERSION 2:
   // - The AfterFileSaved event was added.
@@ -1237,7 +1272,13 @@ public class YaVersion {
   // - Adds ScaleUnits and MapType dropdowns.
   // For MAP_COMPONENT_VERSION 7:
   // - Adds CustomUrl (MapType 4).
-  public static final int MAP_COMPONENT_VERSION = 7;
+  // For MAP_COMPONENT_VERSION 8:
+  // - Added ClusterMarkers property
+  // For MAP_COMPONENT_VERSION 9:
+  // - Added FeaturesWithinDistance, FeaturesContainingPoint and NearestFeature methods
+  // For MAP_COMPONENT_VERSION 10:
+  // - Added SimplifyGeometry property and LoadProgress event
+  public static final int MAP_COMPONENT_VERSION = 10;
 
   // For MARKER_COMPONENT_VERSION 1:
   // - Initial Marker implementation using OpenStreetMap
@@ -1438,8 +1479,11 @@ public class YaVersion {
   // - Added the FinishedAddSheet event
   // - Added the DeleteSheet block
   // - Added the FinishedDeleteSheet event
+  // For SPREADSHEET_COMPONENT_VERSION 4:
+  // - Added properties BatchWrites, BatchInterval, BatchSize and ReadCacheDuration
+  // - Added method FlushWrites
 
-  public static final int SPREADSHEET_COMPONENT_VERSION = 3;
+  public static final int SPREADSHEET_COMPONENT_VERSION = 4;
 
   // For SWITCH_COMPONENT_VERSION 1
   //  - Initial Version
@@ -1510,7 +1554,9 @@ public class YaVersion {
   // - Added Property: Namespace
   // For TINYDB_COMPONENT_VERSION 3:
   // - Added GetEntries method
-  public static final int TINYDB_COMPONENT_VERSION = 3;
+  // For TINYDB_COMPONENT_VERSION 4:
+  // - Added WriteInBackground property
+  public static final int TINYDB_COMPONENT_VERSION = 4;
 
   // For TINYWEBDB_COMPONENT_VERSION 2:
   // - The TinyWebDB.ShowAlert method was removed. Notifier.ShowAlert should be used instead.
@@ -1530,7 +1576,9 @@ public class YaVersion {
   // For CLOUDDB_COMPONENT_VERSION 2:
   // - Added the UpdateDone event
   //   to control its use
-  public static final int CLOUDDB_COMPONENT_VERSION = 2;
+  // For CLOUDDB_COMPONENT_VERSION 3:
+  // - Added the CacheValues property
+  public static final int CLOUDDB_COMPONENT_VERSION = 3;
 
   // For TRENDLINE_COMPONENT_VERSION 1:
   // - Initial implementation
@@ -1617,7 +1665,13 @@ public class YaVersion {
   // - PATCH methods added (PatchText, PatchTextWithEncoding, and PatchFile).
   // For WEB_COMPONENT_VERSION 9:
   // - Added property ResponseTextEncoding
-  public static final int WEB_COMPONENT_VERSION = 9;
+  // For WEB_COMPONENT_VERSION 10:
+  // - Added properties ResponseCacheSize, ResponseCacheHits, ResponseCacheMisses and
+  //   ResponseCacheRevalidations
+  // - Added method ClearResponseCache
+  // For WEB_COMPONENT_VERSION 11:
+  // - Added properties MaxRequestsPerHost and DropStaleResponses
+  public static final int WEB_COMPONENT_VERSION = 11;
 
   // For WEBVIEWER_COMPONENT_VERSION 2:
   // - The CanGoForward and CanGoBack methods were added
@@ -7,10 +7,17 @@ package com.google.appinventor.components.runtime;
 
 import com.github.mikephil.charting.data.Entry;
 import com.google.appinventor.components.annotations.DesignerComponent;
+import com.google.appinventor.components.annotations.DesignerProperty;
+import com.google.appinventor.components.annotations.PropertyCategory;
+import com.google.appinventor.components.annotations.SimpleEvent;
 import com.google.appinventor.components.annotations.SimpleFunction;
 import com.google.appinventor.components.annotations.SimpleObject;
+import com.google.appinventor.components.annotations.SimpleProperty;
 import com.google.appinventor.components.common.ComponentCategory;
+import com.google.appinventor.components.common.PropertyTypeConstants;
 import com.google.appinventor.components.common.YaVersion;
+import com.google.appinventor.components.runtime.util.ErrorMessages;
+import com.google.appinventor.components.runtime.util.RollingStatistics;
 import com.google.appinventor.components.runtime.util.YailList;
 import gnu.lists.LList;
 import java.util.ArrayList;
@@ -32,6 +39,17 @@ import java.util.List;
 @SimpleObject
 @SuppressWarnings("checkstyle:JavadocParagraph")
 public final class AnomalyDetection extends DataCollection<ComponentContainer, DataModel<?>> {
+  private static final int DEFAULT_WINDOW_SIZE = 50;
+
+  // State of the streaming detector, guarded by this.
+  private RollingStatistics statistics = new RollingStatistics(DEFAULT_WINDOW_SIZE);
+  private double streamThreshold;
+  private ChartData2D watchedChartData;
+  private ObservableDataSource<?, ?> watchedSource;
+  private String watchedKey;
+  private Object lastEntry;
+  private int sampleCount;
+
   /**
    * Creates a new Anomaly Detection component.
    */
@@ -39,6 +57,29 @@ public final class AnomalyDetection extends DataCollection<ComponentContainer, D
     super(container);
   }
 
+  /**
+   * The number of most recent values that new values are compared against by
+   * {@link #WatchChartData(ChartData2D, double)} and
+   * {@link #WatchDataSource(Component, String, double)}. Changing the window size discards the
+   * values seen so far.
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_INTEGER,
+      defaultValue = "50")
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR)
+  public synchronized void WindowSize(int size) {
+    if (size < 2) {
+      size = 2;
+    }
+    if (size != statistics.getSize()) {
+      statistics = new RollingStatistics(size);
+    }
+  }
+
+  @SimpleProperty
+  public synchronized int WindowSize() {
+    return statistics.getSize();
+  }
+
   /**
    * Calculates the mean and standard deviation of the data, and then checks each data point's
    * Z-score against the threshold. If a data point's Z-score is greater than the threshold,
@@ -115,6 +156,104 @@ public final class AnomalyDetection extends DataCollection<ComponentContainer, D
     return anomalies;
   }
 
+  /**
+   * Watches the given chart data for new entries. Each new entry's Y value is compared with the
+   * mean and standard deviation of the Y values of the {@link #WindowSize()} entries before it,
+   * and the AnomalyDetected event is raised if its Z-score is greater than the threshold. The
+   * entries already in the chart data fill the window but are not checked. If the entries are
+   * replaced, the window is filled again from the new entries.
+   *
+   * @param chartData the ChartData2D to watch
+   * @param threshold the threshold for the z-score to indicate an anomaly
+   */
+  @SimpleFunction(description = "Watches the chart data for new entries and raises the "
+      + "AnomalyDetected event when the Z-score of an entry's y value, compared with the entries "
+      + "before it in the window, is greater than the threshold.")
+  public void WatchChartData(ChartData2D chartData, double threshold) {
+    StopWatching();
+    synchronized (this) {
+      streamThreshold = threshold;
+      watchedChartData = chartData;
+      checkNewEntries(chartData.getDataValue(null), null);
+    }
+    chartData.addDataSourceChangeListener(this);
+  }
+
+  /**
+   * Watches the value with the given key of a data source, such as a sensor, CloudDB or TinyDB.
+   * Each new value is compared with the mean and standard deviation of the {@link #WindowSize()}
+   * values before it, and the AnomalyDetected event is raised if its Z-score is greater than the
+   * threshold. The x value reported for an anomaly is the number of values received from the
+   * source, starting from 1. The Screen's ErrorOccurred event is raised if the component is not a
+   * data source.
+   *
+   * @param source the data source component to watch
+   * @param key the key of the value to watch, such as X for an AccelerometerSensor
+   * @param threshold the threshold for the z-score to indicate an anomaly
+   */
+  @SimpleFunction(description = "Watches the value with the given key of a data source, such as "
+      + "a sensor, and raises the AnomalyDetected event when the Z-score of a new value, compared "
+      + "with the values before it in the window, is greater than the threshold.")
+  public void WatchDataSource(Component source, String key, double threshold) {
+    if (source instanceof ChartData2D) {
+      WatchChartData((ChartData2D) source, threshold);
+      return;
+    }
+    if (!(source instanceof ObservableDataSource)) {
+      container.$form().dispatchErrorOccurredEvent(this, "WatchDataSource",
+          ErrorMessages.ERROR_ANOMALY_DETECTION_INVALID_SOURCE, source.getClass().getSimpleName());
+      return;
+    }
+    StopWatching();
+    ObservableDataSource<?, ?> observable = (ObservableDataSource<?, ?>) source;
+    synchronized (this) {
+      streamThreshold = threshold;
+      watchedSource = observable;
+      watchedKey = key;
+    }
+    observable.addDataObserver(this);
+  }
+
+  /**
+   * Stops watching the chart data or data source given to
+   * {@link #WatchChartData(ChartData2D, double)} or
+   * {@link #WatchDataSource(Component, String, double)}, and discards the values seen so far.
+   */
+  @SimpleFunction(description = "Stops watching for anomalies.")
+  public void StopWatching() {
+    ChartData2D chartData;
+    ObservableDataSource<?, ?> source;
+    synchronized (this) {
+      chartData = watchedChartData;
+      source = watchedSource;
+      watchedChartData = null;
+      watchedSource = null;
+      watchedKey = null;
+      lastEntry = null;
+      sampleCount = 0;
+      statistics.clear();
+    }
+    if (chartData != null) {
+      chartData.removeDataSourceChangeListener(this);
+    }
+    if (source != null) {
+      source.removeDataObserver(this);
+    }
+  }
+
+  /**
+   * Event raised when a value of the chart data or data source being watched is an anomaly.
+   *
+   * @param x the x value of the chart entry, or the number of the value received from the source
+   * @param y the value
+   * @param zScore the number of standard deviations the value is from the mean of the window
+   */
+  @SimpleEvent(description = "Raised when a new value of the chart data or data source being "
+      + "watched is an anomaly.")
+  public void AnomalyDetected(double x, double y, double zScore) {
+    EventDispatcher.dispatchEvent(this, "AnomalyDetected", x, y, zScore);
+  }
+
   /**
    * Given a single anomaly: [(anomaly index, anomaly value)]
    *
@@ -274,4 +413,108 @@ public final class AnomalyDetection extends DataCollection<ComponentContainer, D
   public void onDataChange() {
 
   }
+
+  @Override
+  public void onDataSourceValueChange(DataSource<?, ?> component, String key, Object newValue) {
+    super.onDataSourceValueChange(component, key, newValue);
+    List<double[]> anomalies = new ArrayList<>();
+    synchronized (this) {
+      if (component == watchedChartData) {
+        checkNewEntries(watchedChartData.getDataValue(null), anomalies);
+      } else if (component == watchedSource && isWatchedKey(key)) {
+        checkValue(newValue, anomalies);
+      }
+    }
+    reportAnomalies(anomalies);
+  }
+
+  @Override
+  public void onReceiveValue(RealTimeDataSource<?, ?> component, String key, Object value) {
+    super.onReceiveValue(component, key, value);
+    List<double[]> anomalies = new ArrayList<>();
+    synchronized (this) {
+      if (component == watchedSource && isWatchedKey(key)) {
+        checkValue(value, anomalies);
+      }
+    }
+    reportAnomalies(anomalies);
+  }
+
+  private boolean isWatchedKey(String key) {
+    return watchedKey == null || watchedKey.isEmpty() || watchedKey.equals(key);
+  }
+
+  /**
+   * Checks the entries added since the last entry seen, adding any anomalies to the list, or
+   * only fills the window if anomalies is null. The entries are searched from the end, so this
+   * takes time proportional to the number of new entries.
+   */
+  private void checkNewEntries(List<?> entries, List<double[]> anomalies) {
+    int start = 0;
+    if (lastEntry != null) {
+      start = -1;
+      for (int i = entries.size() - 1; i >= 0; i--) {
+        if (entries.get(i) == lastEntry) {
+          start = i + 1;
+          break;
+        }
+      }
+      if (start < 0) {
+        // The entries were replaced, so fill the window again from the new ones.
+        statistics.clear();
+        start = 0;
+        anomalies = null;
+      }
+    }
+    for (int i = start; i < entries.size(); i++) {
+      Object o = entries.get(i);
+      if (o instanceof Entry) {
+        Entry entry = (Entry) o;
+        check(entry.getX(), entry.getY(), anomalies);
+      }
+      lastEntry = o;
+    }
+  }
+
+  private void checkValue(Object value, List<double[]> anomalies) {
+    double y;
+    if (value instanceof Number) {
+      y = ((Number) value).doubleValue();
+    } else {
+      try {
+        y = Double.parseDouble(String.valueOf(value));
+      } catch (NumberFormatException e) {
+        return;  // Not a number, so it cannot be checked
+      }
+    }
+    check(++sampleCount, y, anomalies);
+  }
+
+  private void check(double x, double y, List<double[]> anomalies) {
+    if (anomalies != null && statistics.getCount() >= 2) {
+      double zScore = statistics.zScore(y);
+      if (zScore > streamThreshold) {
+        anomalies.add(new double[] { x, y, zScore });
+      }
+    }
+    statistics.add(y);
+  }
+
+  /**
+   * Raises AnomalyDetected on the UI thread for each anomaly. This must not be called while
+   * holding the lock, since the event handlers may change the data being watched.
+   */
+  private void reportAnomalies(final List<double[]> anomalies) {
+    if (anomalies.isEmpty()) {
+      return;
+    }
+    container.$form().runOnUiThread(new Runnable() {
+      @Override
+      public void run() {
+        for (double[] anomaly : anomalies) {
+          AnomalyDetected(anomaly[0], anomaly[1], anomaly[2]);
+        }
+      }
+    });
+  }
 }
@@ -82,12 +82,15 @@ public class BarChartDataModel
       if (x < entries.size()) {
         // Use x value as index and update the entry in that position
         entries.set(x, entry);
+        entriesReplaced();
       } else {
         // To ensure that the x value would correspond to
         // the index, missing values up until the x value
         // need to be filled (with 0 values)
         while (entries.size() < x) {
-          entries.add(new BarEntry(entries.size(), 0));
+          BarEntry filler = new BarEntry(entries.size(), 0);
+          entries.add(filler);
+          entryAdded(entries.size() - 1, filler);
         }
 
         // Add the entry to the Data Series; Since we
@@ -95,6 +98,7 @@ public class BarChartDataModel
         // that the x value corresponds to the last index of
         // the Data Series (equal to entryCount - 1)
         entries.add(entry);
+        entryAdded(entries.size() - 1, entry);
       }
     }
   }
@@ -160,13 +164,14 @@ public class BarChartDataModel
       // If the index of the Entry to remove is the last Entry,
       // we can simply remove the Entry from the Data Series' values.
       if (index == entries.size() - 1) {
-        entries.remove(index);
+        entryRemoved(entries.remove(index));
       } else {
         // If the Entry to be removed is not the last Entry, we
         // have to instead set the Y value of the Entry to be
         // removed to 0 in order to preserve the Bar Chart Data
         // properties (x values sorted and correspond to indexes)
         entries.get(index).setY(0f);
+        entriesReplaced();
       }
     }
   }
@@ -183,10 +188,12 @@ public class BarChartDataModel
     // If the entry count of the Data Series entries exceeds
     // the maximum allowed time entries, then remove the first one
     if (entries.size() >= maximumTimeEntries) {
-      entries.remove(0);
+      entryRemoved(entries.remove(0));
     }
 
-    entries.add((BarEntry)getEntryFromTuple(tuple));
+    BarEntry entry = (BarEntry) getEntryFromTuple(tuple);
+    entries.add(entry);
+    entryAdded(entries.size() - 1, entry);
   }
 
   @Override
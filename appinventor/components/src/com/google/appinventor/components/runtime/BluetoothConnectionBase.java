@@ -21,19 +21,23 @@ import com.google.appinventor.components.annotations.SimpleProperty;
 import com.google.appinventor.components.common.PropertyTypeConstants;
 
 import com.google.appinventor.components.runtime.util.ErrorMessages;
+import com.google.appinventor.components.runtime.util.FrameAssembler;
 import com.google.appinventor.components.runtime.util.SUtil;
 import com.google.appinventor.components.runtime.util.YailList;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Semaphore;
 
 /**
  * An abstract base class for the BluetoothClient and BluetoothServer
@@ -56,10 +60,20 @@ public abstract class BluetoothConnectionBase extends AndroidNonvisibleComponent
   protected boolean secure;
   protected final BluetoothAdapter adapter;
 
+  // The number of bytes the frame reader can hold while waiting for a complete frame.
+  private static final int FRAME_BUFFER_CAPACITY = 8192;
+  // The number of FrameReceived events that may be waiting to run before the frame reader
+  // stops reading from the connection.
+  private static final int MAX_PENDING_FRAMES = 16;
+
   private BluetoothSocket socket;
-  private InputStream inputStream;
+  private volatile InputStream inputStream;
   private OutputStream outputStream;
 
+  private FrameReader frameReader;
+  private volatile int framesDiscarded;
+  private volatile int framesDelayed;
+
   /**
    * Creates a new BluetoothConnectionBase.
    */
@@ -174,6 +188,7 @@ public abstract class BluetoothConnectionBase extends AndroidNonvisibleComponent
    */
   @SimpleFunction(description = "Disconnect from the connected Bluetooth device.")
   public final void Disconnect() {
+    StopReceivingFrames();
     if (socket != null) {
       fireBeforeDisconnectEvent();
       try {
@@ -776,6 +791,11 @@ public abstract class BluetoothConnectionBase extends AndroidNonvisibleComponent
           ErrorMessages.ERROR_BLUETOOTH_NOT_CONNECTED_TO_DEVICE);
       return new byte[0];
     }
+    if (frameReader != null) {
+      bluetoothError(functionName,
+          ErrorMessages.ERROR_BLUETOOTH_RECEIVING_FRAMES);
+      return new byte[0];
+    }
 
     ByteArrayOutputStream buffer = new ByteArrayOutputStream();
 
@@ -832,6 +852,383 @@ public abstract class BluetoothConnectionBase extends AndroidNonvisibleComponent
     return buffer.toByteArray();
   }
 
+  /**
+   * Starts receiving frames that end with the {@link #DelimiterByte(int)} in the background.
+   * The FrameReceived event is raised for each frame, without the delimiter.
+   */
+  @SimpleFunction(description = "Start receiving frames that end with the delimiter byte in " +
+      "the background. The FrameReceived event is raised for each frame received, and the " +
+      "delimiter byte is not included in the frame.")
+  public void ReceiveFramesByDelimiter() {
+    startReceivingFrames("ReceiveFramesByDelimiter",
+        FrameAssembler.forDelimiter(delimiter, FRAME_BUFFER_CAPACITY));
+  }
+
+  /**
+   * Starts receiving frames of frameLength bytes in the background. The FrameReceived event is
+   * raised for each frame.
+   *
+   * @param frameLength the number of bytes in each frame
+   */
+  @SimpleFunction(description = "Start receiving frames of frameLength bytes in the " +
+      "background. The FrameReceived event is raised for each frame received.")
+  public void ReceiveFramesOfLength(int frameLength) {
+    String functionName = "ReceiveFramesOfLength";
+    if (frameLength <= 0 || frameLength > FRAME_BUFFER_CAPACITY) {
+      bluetoothError(functionName,
+          ErrorMessages.ERROR_BLUETOOTH_INVALID_FRAME_SIZE, frameLength);
+      return;
+    }
+    startReceivingFrames(functionName,
+        FrameAssembler.forFixedLength(frameLength, FRAME_BUFFER_CAPACITY));
+  }
+
+  /**
+   * Starts receiving frames that start with their length, as an unsigned number of prefixSize
+   * bytes, in the background. The {@link #HighByteFirst(boolean)} property gives the byte
+   * order of the length. The FrameReceived event is raised for each frame, without the length.
+   *
+   * @param prefixSize the number of bytes in the length: 1, 2 or 4
+   */
+  @SimpleFunction(description = "Start receiving frames that start with their length in the " +
+      "background. The length is an unsigned number of prefixSize bytes, which must be 1, 2, " +
+      "or 4. The FrameReceived event is raised for each frame received, and the length is " +
+      "not included in the frame.")
+  public void ReceiveFramesWithLengthPrefix(int prefixSize) {
+    String functionName = "ReceiveFramesWithLengthPrefix";
+    if (prefixSize != 1 && prefixSize != 2 && prefixSize != 4) {
+      bluetoothError(functionName,
+          ErrorMessages.ERROR_BLUETOOTH_INVALID_FRAME_SIZE, prefixSize);
+      return;
+    }
+    startReceivingFrames(functionName, FrameAssembler.forLengthPrefix(prefixSize,
+        byteOrder == ByteOrder.BIG_ENDIAN, FRAME_BUFFER_CAPACITY));
+  }
+
+  /**
+   * Stops receiving frames in the background. Bytes received after the last complete frame
+   * can be read with the Receive functions.
+   */
+  @SimpleFunction(description = "Stop receiving frames in the background. Bytes received " +
+      "after the last complete frame can be read with the Receive functions.")
+  public void StopReceivingFrames() {
+    if (frameReader != null) {
+      // The reader may be blocked reading from the connection, and a socket read is not
+      // interrupted. Whoever reads next gets the bytes it reads, and those it held, first.
+      HandoffInputStream handoff = new HandoffInputStream(frameReader.in);
+      inputStream = handoff;
+      frameReader.stop(handoff);
+      frameReader = null;
+    }
+  }
+
+  /**
+   * Returns `true`{:.logic.block} if frames are being received in the background.
+   */
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR)
+  public boolean ReceivingFrames() {
+    return frameReader != null;
+  }
+
+  /**
+   * Returns the number of frames discarded since frames were last started to be received,
+   * because they were too long to hold.
+   */
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR,
+      description = "The number of frames discarded because they were too long, since " +
+      "frames were last started to be received.")
+  public int FramesDiscarded() {
+    return framesDiscarded;
+  }
+
+  /**
+   * Returns the number of times, since frames were last started to be received, that reading
+   * paused because earlier FrameReceived events had not yet been handled.
+   */
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR,
+      description = "The number of times reading paused because earlier FrameReceived " +
+      "events had not yet been handled, since frames were last started to be received.")
+  public int FramesDelayed() {
+    return framesDelayed;
+  }
+
+  /**
+   * Indicates that a frame has been received in the background.
+   *
+   * @param bytes the unsigned byte values of the frame
+   * @param text the frame converted to text using the CharacterEncoding
+   */
+  @SimpleEvent(description = "Indicates that a frame has been received in the background. " +
+      "bytes is the list of unsigned byte values in the frame, and text is the frame " +
+      "converted to text.")
+  public void FrameReceived(List<Integer> bytes, String text) {
+    EventDispatcher.dispatchEvent(this, "FrameReceived", bytes, text);
+  }
+
+  private void startReceivingFrames(String functionName, FrameAssembler assembler) {
+    if (!IsConnected()) {
+      bluetoothError(functionName,
+          ErrorMessages.ERROR_BLUETOOTH_NOT_CONNECTED_TO_DEVICE);
+      return;
+    }
+    if (frameReader != null) {
+      bluetoothError(functionName,
+          ErrorMessages.ERROR_BLUETOOTH_RECEIVING_FRAMES);
+      return;
+    }
+    framesDiscarded = 0;
+    framesDelayed = 0;
+    frameReader = new FrameReader(functionName, assembler, inputStream);
+    frameReader.thread.start();
+  }
+
+  /**
+   * Runs a task posted by the frame reader on the UI thread.
+   */
+  void runOnUiThread(Runnable task) {
+    form.runOnUiThread(task);
+  }
+
+  /**
+   * Reads from the connection on a background thread and posts a FrameReceived event for each
+   * frame. When MAX_PENDING_FRAMES events are waiting to run, the reader stops reading until
+   * they have run, so that the device's flow control slows the sender rather than frames
+   * accumulating in memory.
+   */
+  private class FrameReader implements Runnable {
+    private final String functionName;
+    private final FrameAssembler assembler;
+    private final InputStream in;
+    private final Semaphore pendingFrames = new Semaphore(MAX_PENDING_FRAMES);
+    private final Thread thread;
+    private volatile boolean stopped = false;
+    private HandoffInputStream handoff = null;
+    private boolean finished = false;
+
+    FrameReader(String functionName, FrameAssembler assembler, InputStream in) {
+      this.functionName = functionName;
+      this.assembler = assembler;
+      this.in = in;
+      this.thread = new Thread(this, logTag + " frame reader");
+    }
+
+    synchronized void stop(HandoffInputStream handoff) {
+      this.handoff = handoff;
+      stopped = true;
+      if (finished) {
+        handoff.handOver(new byte[0]);
+      }
+      // Wakes the reader if it is waiting for events to run. A blocked socket read ends when
+      // more bytes arrive or the socket is closed.
+      thread.interrupt();
+    }
+
+    @Override
+    public void run() {
+      try {
+        readFrames();
+      } finally {
+        // Lets whoever reads next continue if the reader failed, even before being stopped.
+        synchronized (this) {
+          finished = true;
+          handOver(new byte[0]);
+        }
+      }
+    }
+
+    private void readFrames() {
+      byte[] bytes = new byte[1024];
+      while (!stopped) {
+        int n;
+        try {
+          n = in.read(bytes);
+        } catch (IOException e) {
+          if (!stopped) {
+            Log.e(logTag, "IO Exception during Reading " + e.getMessage());
+            fail(ErrorMessages.ERROR_BLUETOOTH_UNABLE_TO_READ, e.getMessage());
+            return;
+          }
+          break;
+        }
+        if (n == -1) {
+          if (!stopped) {
+            fail(ErrorMessages.ERROR_BLUETOOTH_END_OF_STREAM);
+            return;
+          }
+          break;
+        }
+        if (stopped) {
+          handOver(concat(assembler.drain(), bytes, n));
+          return;
+        }
+        int offset = 0;
+        while (offset < n) {
+          offset += assembler.write(bytes, offset, n - offset);
+          framesDiscarded = assembler.getOverflowCount();
+          byte[] frame;
+          while ((frame = assembler.nextFrame()) != null) {
+            post(frame);
+          }
+          framesDiscarded = assembler.getOverflowCount();
+        }
+      }
+      handOver(assembler.drain());
+    }
+
+    private void post(final byte[] frame) {
+      if (!pendingFrames.tryAcquire()) {
+        framesDelayed++;
+        try {
+          if (!stopped) {
+            pendingFrames.acquire();
+          }
+        } catch (InterruptedException e) {
+          // Stopped: frames already received are still delivered.
+        }
+      }
+      runOnUiThread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            List<Integer> list = new ArrayList<Integer>(frame.length);
+            for (byte b : frame) {
+              list.add(b & 0xFF);
+            }
+            String text;
+            try {
+              text = new String(frame, encoding);
+            } catch (UnsupportedEncodingException e) {
+              Log.w(logTag, "UnsupportedEncodingException: " + e.getMessage());
+              text = new String(frame);
+            }
+            FrameReceived(list, text);
+          } finally {
+            pendingFrames.release();
+          }
+        }
+      });
+    }
+
+    private void fail(final int errorNumber, final Object... messageArgs) {
+      runOnUiThread(new Runnable() {
+        @Override
+        public void run() {
+          if (frameReader == FrameReader.this) {
+            frameReader = null;
+          }
+          if (disconnectOnError) {
+            Disconnect();
+          }
+          bluetoothError(functionName, errorNumber, messageArgs);
+        }
+      });
+    }
+
+    /**
+     * Makes the bytes the reader held when it stopped available to whoever reads next.
+     */
+    private synchronized void handOver(byte[] unread) {
+      if (handoff != null) {
+        handoff.handOver(unread);
+      }
+    }
+  }
+
+  private static byte[] concat(byte[] first, byte[] second, int secondLength) {
+    byte[] result = new byte[first.length + secondLength];
+    System.arraycopy(first, 0, result, 0, first.length);
+    System.arraycopy(second, 0, result, first.length, secondLength);
+    return result;
+  }
+
+  /**
+   * The connection's input after a frame reader is stopped. Reads wait until the reader hands
+   * over the bytes it read but had not made into frames, which are returned before the rest of
+   * the connection's input. Until then no bytes are available, so a caller that checks
+   * BytesAvailableToReceive first does not wait.
+   */
+  private static class HandoffInputStream extends FilterInputStream {
+    private byte[] unread = null;
+    private int position = 0;
+
+    HandoffInputStream(InputStream in) {
+      super(in);
+    }
+
+    synchronized void handOver(byte[] bytes) {
+      if (unread == null) {
+        unread = bytes;
+        notifyAll();
+      }
+    }
+
+    private synchronized int awaitHandover() throws IOException {
+      while (unread == null) {
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException();
+        }
+      }
+      return unread.length - position;
+    }
+
+    @Override
+    public int read() throws IOException {
+      synchronized (this) {
+        if (awaitHandover() > 0) {
+          return unread[position++] & 0xFF;
+        }
+      }
+      return super.read();
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+      synchronized (this) {
+        int remaining = awaitHandover();
+        if (remaining > 0) {
+          int n = Math.min(length, remaining);
+          System.arraycopy(unread, position, bytes, offset, n);
+          position += n;
+          return n;
+        }
+      }
+      return super.read(bytes, offset, length);
+    }
+
+    @Override
+    public int available() throws IOException {
+      synchronized (this) {
+        if (unread == null) {
+          return 0;
+        } else if (position < unread.length) {
+          return unread.length - position + super.available();
+        }
+      }
+      return super.available();
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      synchronized (this) {
+        int remaining = awaitHandover();
+        if (remaining > 0) {
+          int skipped = (int) Math.min(n, remaining);
+          position += skipped;
+          return skipped;
+        }
+      }
+      return super.skip(n);
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+  }
+
   // OnDestroyListener implementation
 
   @Override
@@ -847,6 +1244,7 @@ public abstract class BluetoothConnectionBase extends AndroidNonvisibleComponent
   }
 
   private void prepareToDie() {
+    StopReceivingFrames();
     if (socket != null) {
       Disconnect();
     }
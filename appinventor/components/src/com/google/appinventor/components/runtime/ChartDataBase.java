@@ -270,8 +270,13 @@ public abstract class ChartDataBase extends DataCollection<Chart, ChartDataModel
     // Update the Chart with the Chart Data Model's current
     // data and refresh the Chart itself.
     container.getChartView().refresh((ChartDataModel) dataModel);
-    for (DataSourceChangeListener listener : listeners) {
-      listener.onDataSourceValueChange(this, null, null);
+    // The listeners are told of the changes while the Data Series is locked, so that changes
+    // taken on different threads reach them in the order they were made.
+    synchronized (dataModel) {
+      DataModel.EntryChanges<?> changes = dataModel.takeChanges();
+      for (DataSourceChangeListener listener : listeners) {
+        listener.onDataSourceValueChange(this, null, changes);
+      }
     }
   }
 
@@ -208,7 +208,7 @@ public abstract class ChartDataModel<
   public void removeEntry(int index) {
     // Entry exists; remove it
     if (index >= 0) {
-      entries.remove(index);
+      entryRemoved(entries.remove(index));
     }
   }
 
@@ -359,6 +359,7 @@ public abstract class ChartDataModel<
    */
   public void clearEntries() {
     entries.clear();
+    entriesReplaced();
   }
 
   /**
@@ -373,7 +374,7 @@ public abstract class ChartDataModel<
     // If the entry count of the Data Series entries exceeds
     // the maximum allowed time entries, then remove the first one
     if (entries.size() >= maximumTimeEntries) {
-      entries.remove(0);
+      entryRemoved(entries.remove(0));
     }
 
     // Add entry from the specified tuple
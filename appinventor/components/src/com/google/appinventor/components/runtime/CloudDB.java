@@ -11,9 +11,6 @@ import static android.Manifest.permission.INTERNET;
 import android.Manifest;
 import android.app.Activity;
 
-import android.database.Cursor;
-import android.database.sqlite.SQLiteDatabase;
-
 import android.net.ConnectivityManager;
 import android.net.NetworkInfo;
 
@@ -38,6 +35,8 @@ import com.google.appinventor.components.common.YaVersion;
 import com.google.appinventor.components.runtime.errors.YailRuntimeError;
 
 import com.google.appinventor.components.runtime.util.BulkPermissionRequest;
+import com.google.appinventor.components.runtime.util.CloudDBBatch;
+import com.google.appinventor.components.runtime.util.CloudDBCache;
 import com.google.appinventor.components.runtime.util.CloudDBJedisListener;
 import com.google.appinventor.components.runtime.util.FileUtil;
 import com.google.appinventor.components.runtime.util.JsonUtil;
@@ -55,8 +54,11 @@ import java.security.cert.X509Certificate;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
@@ -77,7 +79,6 @@ import redis.clients.jedis.JedisShardInfo;
 import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.jedis.exceptions.JedisDataException;
 import redis.clients.jedis.exceptions.JedisException;
-import redis.clients.jedis.exceptions.JedisNoScriptException;
 
 /**
  * The `CloudDB` component is a Non-visible component that allows you to store data on a Internet
@@ -249,6 +250,21 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
   // iterates over the queue until it is drained.
   private final List<storedValue> storeQueue = Collections.synchronizedList(new ArrayList());
 
+  // GetValue can also be called many times in a row, for example to load the
+  // values of many tags when the app starts. Requests made one after another are
+  // sent together with a single MGET. openGets holds the requests that are waiting
+  // to be sent. A write submitted to the background executor closes it, so that
+  // a GetValue made after a write is not sent before it.
+  private final Object getQueueLock = new Object();
+  private List<pendingGet> openGets = null;
+
+  // The values of tags, kept on the device while CacheValues is true. The cache
+  // is only used while the listener is subscribed, since the changes it receives
+  // are what keep the cache up to date.
+  private final CloudDBCache valueCache = new CloudDBCache();
+  private volatile boolean cacheValues = false;
+  private volatile boolean listening = false;
+
   private ConnectivityManager cm;
 
   // Set of observers
@@ -271,6 +287,15 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
     }
   }
 
+  private static class pendingGet {
+    private final String tag;
+    private final Object valueIfTagNotThere;
+    pendingGet(String tag, Object valueIfTagNotThere) {
+      this.tag = tag;
+      this.valueIfTagNotThere = valueIfTagNotThere;
+    }
+  }
+
   /**
    * Creates a new CloudDB component.
    * @param container the Form that this component is contained in.
@@ -317,6 +342,39 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
       currentListener = null;
       listenerRunning = false;
     }
+    stopCaching();
+  }
+
+  // Called when the listener can no longer keep the cache up to date
+  private void stopCaching() {
+    listening = false;
+    valueCache.clear();
+  }
+
+  /**
+   * Called by the listener once it has subscribed to the project's channel.
+   */
+  public void listenerSubscribed() {
+    valueCache.clear();
+    listening = true;
+  }
+
+  /**
+   * Called by the listener when the value of a tag has changed.
+   *
+   * @param tag the tag that changed
+   * @param valueList the values stored under the tag, ending with the
+   *     current one, or an empty list if the tag was cleared
+   */
+  public void tagChanged(String tag, List<Object> valueList) {
+    if (!cacheValues) {
+      return;
+    }
+    if (valueList.isEmpty()) {
+      valueCache.update(tag, null);
+    } else {
+      valueCache.update(tag, String.valueOf(valueList.get(valueList.size() - 1)));
+    }
   }
 
   /*
@@ -391,6 +449,7 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
               Log.d(LOG_TAG, "Woke up! (2)");
             }
           }
+          stopCaching();          // Changes are missed until we resubscribe
           listenerRunning = false;
           if (!dead && !shutdown) {
             startListener();
@@ -561,6 +620,32 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
     return useSSL;
   }
 
+  /**
+   * Set to `true`{:.logic.block} to keep the values of tags on the device. A tag whose value
+   * is kept is not fetched from the server again by {@link #GetValue(String, Object)}. Kept
+   * values are updated whenever the tag changes, on this device or any other, so they are
+   * never out of date. Values are only kept while the device is connected to the server.
+   *
+   * @param cacheValues true if the values of tags should be kept on the device
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN,
+      defaultValue = "False")
+  @SimpleProperty
+  public void CacheValues(boolean cacheValues) {
+    this.cacheValues = cacheValues;
+    if (!cacheValues) {
+      valueCache.clear();
+    }
+  }
+
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR,
+      description = "If true, the values of tags are kept on the device and GetValue only "
+          + "fetches them from the server the first time. Kept values are updated whenever "
+          + "a tag changes.")
+  public boolean CacheValues() {
+    return cacheValues;
+  }
+
   private static final String SET_SUB_SCRIPT =
     "local key = KEYS[1];" +
     "local value = ARGV[1];" +
@@ -629,91 +714,64 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
         storedValue work  = new storedValue(tag, valueList);
         storeQueue.add(work);
         if (kickit) {
-          background.submit(new Runnable() {
+          submitWrite(new Runnable() {
               public void run() {
-                JSONArray pendingValueList = null;
-                String pendingTag = null;
-                String pendingValue = null;
                 try {
-                  storedValue work;
                   if (DEBUG) {
                     Log.d(LOG_TAG, "store background task running.");
                   }
                   while (true) {
+                    // Take everything that is queued, combining the values for each
+                    // tag, and send it in one round trip.
+                    Map<String, JSONArray> pending = new LinkedHashMap<String, JSONArray>();
                     synchronized(storeQueue) {
                       if (DEBUG) {
-                        Log.d(LOG_TAG, "store: In background synchronized block");
+                        Log.d(LOG_TAG, "store: storeQueue.size() == " + storeQueue.size());
                       }
-                      int size = storeQueue.size();
-                      if (size == 0) {
-                        if (DEBUG) {
-                          Log.d(LOG_TAG, "store background task exiting.");
-                        }
-                        work = null;
-                      } else {
-                        if (DEBUG) {
-                          Log.d(LOG_TAG, "store: storeQueue.size() == " + size);
-                        }
-                        work = storeQueue.remove(0);
-                        if (DEBUG) {
-                          Log.d(LOG_TAG, "store: got work.");
+                      while (!storeQueue.isEmpty()) {
+                        storedValue work = storeQueue.remove(0);
+                        JSONArray valueList = pending.get(work.getTag());
+                        if (valueList == null) {
+                          pending.put(work.getTag(), work.getValueList());
+                        } else {
+                          valueList.put(work.getValueList().getString(0));
                         }
                       }
                     }
-                    if (DEBUG) {
-                      Log.d(LOG_TAG, "store: left synchronized block");
-                    }
-                    if (work == null) {
-                      try {
-                        if (pendingTag != null) {
-                          String jsonValueList = pendingValueList.toString();
-                          if (DEBUG) {
-                            Log.d(LOG_TAG, "Workqueue empty, sending pendingTag, valueListLength = " + pendingValueList.length());
-                          }
-                          jEval(SET_SUB_SCRIPT, SET_SUB_SCRIPT_SHA1, 1, pendingTag, pendingValue, jsonValueList, projectID);
-                          UpdateDone(pendingTag, "StoreValue");
-                        }
-                      } catch (JedisException e) {
-                        CloudDBError(e.getMessage());
-                        flushJedis(true);
+                    if (pending.isEmpty()) {
+                      if (DEBUG) {
+                        Log.d(LOG_TAG, "store background task exiting.");
                       }
                       return;
                     }
-
-                    String tag = work.getTag();
-                    JSONArray valueList = work.getValueList();
-                    if (tag == null || valueList == null) {
+                    List<CloudDBBatch.Write> writes = new ArrayList<CloudDBBatch.Write>();
+                    for (Map.Entry<String, JSONArray> entry : pending.entrySet()) {
+                      JSONArray valueList = entry.getValue();
+                      writes.add(new CloudDBBatch.Write(entry.getKey(),
+                          valueList.getString(valueList.length() - 1), valueList.toString()));
+                    }
+                    try {
                       if (DEBUG) {
-                        Log.d(LOG_TAG, "Either tag or value is null!");
+                        Log.d(LOG_TAG, "store: sending " + writes.size() + " tags");
                       }
-                    } else {
-                      if (DEBUG) {
-                        Log.d(LOG_TAG, "Got Work: tag = " + tag + " value = " + valueList.get(0));
+                      if (writes.size() == 1) {
+                        CloudDBBatch.Write write = writes.get(0);
+                        jEval(SET_SUB_SCRIPT, SET_SUB_SCRIPT_SHA1, 1, write.getTag(),
+                            write.getValue(), write.getValueList(), projectID);
+                      } else {
+                        CloudDBBatch.storeValues(getJedis(), projectID, writes);
                       }
+                    } catch (JedisException e) {
+                      CloudDBError(e.getMessage());
+                      flushJedis(true);
+                      storeQueue.clear(); // Flush pending changes, we are in
+                      return;             // an error state
                     }
-                    if (pendingTag == null) { // First time through this invocation
-                      pendingTag = tag;
-                      pendingValueList = valueList;
-                      pendingValue = valueList.getString(0);
-                    } else if (pendingTag.equals(tag)) { // work is for the same tag
-                      pendingValue = valueList.getString(0);
-                      pendingValueList.put(pendingValue);
-                    } else {    // Work is for a different tag, send what we have
-                      try {     // and add the new tag,incoming valuelist for the next round
-                        String jsonValueList = pendingValueList.toString();
-                        if (DEBUG) {
-                          Log.d(LOG_TAG, "pendingTag changed sending pendingTag, valueListLength = " + pendingValueList.length());
-                        }
-                        jEval(SET_SUB_SCRIPT, SET_SUB_SCRIPT_SHA1, 1, pendingTag, pendingValue, jsonValueList, projectID);
-                      } catch (JedisException e) {
-                        CloudDBError(e.getMessage());
-                        flushJedis(true);
-                        storeQueue.clear(); // Flush pending changes, we are in
-                        return;             // an error state
+                    for (CloudDBBatch.Write write : writes) {
+                      if (cacheValues) {
+                        valueCache.update(write.getTag(), write.getValue());
                       }
-                      pendingTag = tag;
-                      pendingValueList = valueList;
-                      pendingValue = valueList.getString(0);
+                      UpdateDone(write.getTag(), "StoreValue");
                     }
                   }
                 } catch (Exception e) {
@@ -746,32 +804,29 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
       Log.d(LOG_TAG, "getting value ... for tag: " + tag);
     }
     checkProjectIDNotBlank();
-    final AtomicReference<Object> value = new AtomicReference<Object>();
-    Cursor cursor = null;
-    SQLiteDatabase db = null;
     NetworkInfo networkInfo = cm.getActiveNetworkInfo();
     boolean isConnected = networkInfo != null && networkInfo.isConnected();
 
     if (isConnected) {
-      // Set value to either the JSON from the CloudDB
-      // or the JSON representation of valueIfTagNotThere
+      final List<pendingGet> gets;
+      synchronized (getQueueLock) {
+        if (openGets != null) {
+          // A request is already waiting to be sent, so this one goes with it
+          openGets.add(new pendingGet(tag, valueIfTagNotThere));
+          return;
+        }
+        gets = new ArrayList<pendingGet>();
+        gets.add(new pendingGet(tag, valueIfTagNotThere));
+        openGets = gets;
+      }
       background.submit(new Runnable() {
           public void run() {
-            final AtomicReference<Object> value = getValueByTag(tag, valueIfTagNotThere);
-
-            // Value stored is null; Return
-            if (value.get() == null) {
-              return;
+            synchronized (getQueueLock) {
+              if (openGets == gets) {
+                openGets = null;
+              }
             }
-
-            androidUIHandler.post(new Runnable() {
-                public void run() {
-                  // Signal an event to indicate that the value was
-                  // received.  We post this to run in the Application's main
-                  // UI thread.
-                  GotValue(tag, value.get());
-                }
-              });
+            sendGets(gets);
           }
         });
     } else {
@@ -796,6 +851,13 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
   private AtomicReference<Object> getValueByTag(final String tag, final Object valueIfTagNotThere) {
     AtomicReference<Object> value = new AtomicReference<Object>();
 
+    boolean useCache = cacheValues && listening;
+    CloudDBCache.Entry cached = useCache ? valueCache.get(tag) : null;
+    if (cached != null) {
+      value.set(toGotValue(tag, cached.value, valueIfTagNotThere));
+      return value;
+    }
+    long generation = valueCache.getGeneration();
     Jedis jedis = getJedis();
     try {
       if (DEBUG) {
@@ -805,22 +867,10 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
       if (DEBUG) {
         Log.d(LOG_TAG, "finished call jedis.get()");
       }
-      if (returnValue != null) {
-        String val = JsonUtil.getJsonRepresentationIfValueFileName(form, returnValue);
-        if (val != null) {
-          value.set(val);
-        } else {
-          value.set(returnValue);
-        }
-      } else {
-        if (DEBUG) {
-          Log.d(CloudDB.LOG_TAG,"Value retrieved is null");
-        }
-        value.set(JsonUtil.getJsonRepresentation(valueIfTagNotThere));
+      if (useCache) {
+        valueCache.putIfUnchanged(tag, returnValue, generation);
       }
-    } catch (JSONException e) {
-      CloudDBError("JSON conversion error for " + tag);
-      value.set(null);
+      value.set(toGotValue(tag, returnValue, valueIfTagNotThere));
     } catch (NullPointerException e) {
       CloudDBError("System Error getting tag " + tag);
       flushJedis(true);
@@ -834,6 +884,102 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
 
     return value;
   }
+
+  /**
+   * Sends GetValue requests in one round trip, answering those whose tags are
+   * cached without asking the server, and signals GotValue for each request
+   * in order.
+   */
+  private void sendGets(List<pendingGet> gets) {
+    boolean useCache = cacheValues && listening;
+    Map<String, String> values = new HashMap<String, String>();
+    List<String> tags = new ArrayList<String>();
+    for (pendingGet get : gets) {
+      if (values.containsKey(get.tag) || tags.contains(get.tag)) {
+        continue;
+      }
+      CloudDBCache.Entry cached = useCache ? valueCache.get(get.tag) : null;
+      if (cached != null) {
+        values.put(get.tag, cached.value);
+      } else {
+        tags.add(get.tag);
+      }
+    }
+    if (!tags.isEmpty()) {
+      long generation = valueCache.getGeneration();
+      try {
+        if (DEBUG) {
+          Log.d(LOG_TAG, "about to get " + tags.size() + " tags");
+        }
+        Jedis jedis = getJedis();
+        if (jedis == null) {
+          CloudDBError("System Error getting tags " + tags);
+          return;
+        }
+        List<String> fetched = CloudDBBatch.getValues(jedis, projectID, tags);
+        for (int i = 0; i < tags.size(); i++) {
+          values.put(tags.get(i), fetched.get(i));
+          if (useCache) {
+            valueCache.putIfUnchanged(tags.get(i), fetched.get(i), generation);
+          }
+        }
+      } catch (JedisException e) {
+        Log.e(LOG_TAG, "Exception in GetValue", e);
+        CloudDBError(e.getMessage());
+        flushJedis(true);
+        return;
+      }
+    }
+    for (final pendingGet get : gets) {
+      final Object value = toGotValue(get.tag, values.get(get.tag), get.valueIfTagNotThere);
+      // The value could not be converted; the error has been signalled
+      if (value == null) {
+        continue;
+      }
+      androidUIHandler.post(new Runnable() {
+          public void run() {
+            // Signal an event to indicate that the value was
+            // received.  We post this to run in the Application's main
+            // UI thread.
+            GotValue(get.tag, value);
+          }
+        });
+    }
+  }
+
+  /**
+   * Converts a value returned by the server into the value given to GotValue,
+   * or returns null after signalling an error if it cannot be converted.
+   *
+   * @param returnValue the value returned by the server, or null if the tag
+   *                    is not there
+   */
+  private Object toGotValue(String tag, String returnValue, Object valueIfTagNotThere) {
+    try {
+      if (returnValue != null) {
+        String val = JsonUtil.getJsonRepresentationIfValueFileName(form, returnValue);
+        return val != null ? val : returnValue;
+      }
+      if (DEBUG) {
+        Log.d(CloudDB.LOG_TAG,"Value retrieved is null");
+      }
+      return JsonUtil.getJsonRepresentation(valueIfTagNotThere);
+    } catch (JSONException e) {
+      CloudDBError("JSON conversion error for " + tag);
+      return null;
+    }
+  }
+
+  /**
+   * Submits work that changes the stored values to the background executor.
+   * GetValue requests made after this are sent after it.
+   */
+  private void submitWrite(Runnable work) {
+    synchronized (getQueueLock) {
+      openGets = null;
+    }
+    background.submit(work);
+  }
  
   /**
    * Returns `true`{:.logic.block} if we are on the network and will likely be able to connect to
@@ -923,11 +1069,14 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
 
     final String key = tag;
 
-    background.submit(new Runnable() {
+    submitWrite(new Runnable() {
         public void run() {
           Jedis jedis = getJedis();
           try {
-            FirstRemoved(jEval(POP_FIRST_SCRIPT, POP_FIRST_SCRIPT_SHA1, 1, key, projectID));
+            Object removed = jEval(POP_FIRST_SCRIPT, POP_FIRST_SCRIPT_SHA1, 1, key, projectID);
+            // The new value is published, but is not returned
+            valueCache.remove(key);
+            FirstRemoved(removed);
           } catch (JedisException e) {
             CloudDBError(e.getMessage());
             flushJedis(true);
@@ -981,11 +1130,14 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
     final String item = (String) itemObject;
     final String key = tag;
 
-    background.submit(new Runnable() {
+    submitWrite(new Runnable() {
         public void run() {
           Jedis jedis = getJedis();
           try {
-            jEval(APPEND_SCRIPT, APPEND_SCRIPT_SHA1, 1, key, item, projectID);
+            Object newValue = jEval(APPEND_SCRIPT, APPEND_SCRIPT_SHA1, 1, key, item, projectID);
+            if (cacheValues) {
+              valueCache.update(key, (String) newValue);
+            }
             UpdateDone(key, "AppendValueToList");
           } catch(JedisException e) {
             CloudDBError(e.getMessage());
@@ -1031,6 +1183,15 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
     EventDispatcher.dispatchEvent(this, "GotValue", tag, value);
   }
 
+  private static final String CLEAR_SCRIPT =
+      "local key = KEYS[1];" +
+      "local project = ARGV[1];" +
+      "redis.call('del', project .. \":\" .. key);" +
+      "redis.call(\"publish\", project, ARGV[2]);" +
+      "return 1;";
+
+  private static final String CLEAR_SCRIPT_SHA1 = "bc292b9d8c203178fc08f30e376d374d433e8ebd";
+
   /**
    * Remove the tag from CloudDB.
    *
@@ -1042,11 +1203,16 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
   @SimpleFunction(description = "Remove the tag from CloudDB.")
   public void ClearTag(final String tag) {
     checkProjectIDNotBlank();
-    background.submit(new Runnable() {
+    submitWrite(new Runnable() {
         public void run() {
           try {
-            Jedis jedis = getJedis();
-            jedis.del(projectID + ":" + tag);
+            // Publish the tag with no values so that the caches of other
+            // devices forget it
+            String cleared = new JSONArray().put(tag).put(new JSONArray()).toString();
+            jEval(CLEAR_SCRIPT, CLEAR_SCRIPT_SHA1, 1, tag, projectID, cleared);
+            if (cacheValues) {
+              valueCache.update(tag, null);
+            }
             // Notify all the Data Source observers of the change
             notifyDataObservers(tag, null);
             UpdateDone(tag, "ClearTag");
@@ -1291,6 +1457,9 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
             Log.d(LOG_TAG, "Killing background executor, returned tasks = " + tasks);
           }
           background = Executors.newSingleThreadExecutor();
+          synchronized (getQueueLock) {
+            openGets = null;    // Its task was killed with the executor
+          }
         }
       });
 
@@ -1351,17 +1520,7 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
   }
 
   public Object jEval(String script, String scriptsha1, int argcount, String... args) throws JedisException {
-    Jedis jedis = getJedis();
-    try {
-      return jedis.evalsha(scriptsha1, argcount, args);
-    } catch (JedisNoScriptException e) {
-      if (DEBUG) {
-        Log.d(LOG_TAG, "Got a JedisNoScriptException for " + scriptsha1);
-      }
-      // This happens if the server doesn't have the script loaded
-      // So we use regular eval, which should then cache the script
-      return jedis.eval(script, argcount, args);
-    }
+    return CloudDBBatch.eval(getJedis(), script, scriptsha1, argcount, args);
   }
 
   // We are synchronized because we are called simultaneously from two
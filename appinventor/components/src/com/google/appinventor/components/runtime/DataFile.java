@@ -19,10 +19,17 @@ import com.google.appinventor.components.common.PropertyTypeConstants;
 import com.google.appinventor.components.common.YaVersion;
 
 import com.google.appinventor.components.runtime.util.ChartDataSourceUtil;
+import com.google.appinventor.components.runtime.util.CsvTable;
 import com.google.appinventor.components.runtime.util.CsvUtil;
+import com.google.appinventor.components.runtime.util.IOUtils;
 import com.google.appinventor.components.runtime.util.JsonUtil;
 import com.google.appinventor.components.runtime.util.YailList;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
 import java.util.ArrayList;
 
 import java.util.concurrent.Callable;
@@ -54,6 +61,9 @@ import org.json.JSONException;
 @SimpleObject
 public class DataFile extends FileBase implements DataSource<YailList, Future<YailList>> {
 
+  // The parsed CSV file, or null if the file was JSON. The rows and columns
+  // of a CSV file are only built when they are first requested.
+  private CsvTable csvTable;
   private YailList rows;
   private YailList columns;
   private YailList columnNames; // Elements of the first column
@@ -86,6 +96,9 @@ public class DataFile extends FileBase implements DataSource<YailList, Future<Ya
     return getYailListPropertyHelper(new Callable<YailList>() {
       @Override
       public YailList call() {
+        if (rows == null) {
+          rows = csvTable.getRows();
+        }
         return rows;
       }
     });
@@ -103,6 +116,9 @@ public class DataFile extends FileBase implements DataSource<YailList, Future<Ya
     return getYailListPropertyHelper(new Callable<YailList>() {
       @Override
       public YailList call() {
+        if (columns == null) {
+          columns = csvTable.getColumns();
+        }
         return columns;
       }
     });
@@ -207,6 +223,12 @@ public class DataFile extends FileBase implements DataSource<YailList, Future<Ya
    * @return YailList of elements in the column
    */
   public YailList getColumn(String column) {
+    if (csvTable != null && columns == null) {
+      // Build only the requested column.
+      int index = csvTable.indexOfColumn(column);
+      return index < 0 ? new YailList() : csvTable.getColumn(index);
+    }
+
     // Get the index of the column (first row - column names)
     // 1 is subtracted from the index since YailList indexOf
     // returns an index that is 1-based.
@@ -220,6 +242,35 @@ public class DataFile extends FileBase implements DataSource<YailList, Future<Ya
     return (YailList) columns.getObject(index);
   }
 
+  @Override
+  protected void afterRead(Reader reader) throws IOException {
+    BufferedReader in = new BufferedReader(IOUtils.normalizeNewLines(reader));
+    in.mark(1);
+    int first = in.read();
+    in.reset();
+    if (first == '{') {
+      // Assume JSON
+      afterRead(IOUtils.readReader(in));
+    } else if (first != -1) {
+      // Assume CSV otherwise, and parse it as it is read.
+      try {
+        setCsvTable(CsvUtil.readCsvTable(in));
+      } catch (Exception e) {
+        Log.e(this.getClass().getName(), "Unable to parse DataFile",  e);
+      }
+    } else {
+      Log.e(this.getClass().getName(), "Unable to parse DataFile: the file is empty");
+    }
+  }
+
+  private void setCsvTable(CsvTable table) {
+    csvTable = table;
+    // Rows and columns are built when first requested.
+    rows = null;
+    columns = null;
+    columnNames = (table.getRowCount() > 0) ? table.getRow(0) : new YailList();
+  }
+
   @Override
   protected void afterRead(final String result) {
     try {
@@ -234,21 +285,22 @@ public class DataFile extends FileBase implements DataSource<YailList, Future<Ya
       if (result.charAt(0) == '{') {
         try {
           // Parse columns from the result
-          columns = JsonUtil.getColumnsFromJson(result);
+          YailList jsonColumns = JsonUtil.getColumnsFromJson(result);
 
           // Construct row lists from columns
-          rows = ChartDataSourceUtil.getTranspose(columns);
+          YailList jsonRows = ChartDataSourceUtil.getTranspose(jsonColumns);
+
+          csvTable = null;
+          columns = jsonColumns;
+          rows = jsonRows;
         } catch (JSONException e) {
           // JSON parsing failed; Fallback to CSV
-          rows = CsvUtil.fromCsvTable(result);
-          columns = ChartDataSourceUtil.getTranspose(rows);
+          setCsvTable(CsvUtil.readCsvTable(new StringReader(result)));
+          return;
         }
       } else { // Assume CSV otherwise
-        // Parse rows from the result
-        rows = CsvUtil.fromCsvTable(result);
-
-        // Construct column lists from rows
-        columns = ChartDataSourceUtil.getTranspose(rows);
+        setCsvTable(CsvUtil.readCsvTable(new StringReader(result)));
+        return;
       }
 
       // If rows size is non-zero, set column names to first row. Otherwise,
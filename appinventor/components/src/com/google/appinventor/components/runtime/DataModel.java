@@ -11,6 +11,7 @@ import com.google.appinventor.components.runtime.util.YailList;
 import gnu.mapping.Symbol;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 public abstract class DataModel<E> {
@@ -30,6 +31,12 @@ public abstract class DataModel<E> {
    */
   protected int maximumTimeEntries = 200;
 
+  /**
+   * The entries added and removed since the changes were last taken, so that observers of the
+   * Data Series can follow it without comparing all of its entries. Guarded by this.
+   */
+  private EntryChanges<E> changes = new EntryChanges<>();
+
   /**
    * Enum used to specify the criterion to use for entry filtering/comparing.
    */
@@ -39,6 +46,39 @@ public abstract class DataModel<E> {
     YValue
   }
 
+  /**
+   * The entries added to and removed from a DataModel, in the order the changes were made.
+   * Changes that cannot be described that way, such as entries inserted before others or
+   * changed in place, replace the entries as a whole.
+   *
+   * @param <E> type of the entries
+   */
+  public static final class EntryChanges<E> {
+    private final List<E> changed = new ArrayList<>();
+    private final BitSet removals = new BitSet();
+    private boolean replaced = false;
+
+    /**
+     * Returns true if the entries must be read again as a whole, in which case there are no
+     * individual changes.
+     */
+    public boolean isReplaced() {
+      return replaced;
+    }
+
+    public int size() {
+      return changed.size();
+    }
+
+    public E getEntry(int index) {
+      return changed.get(index);
+    }
+
+    public boolean isRemoval(int index) {
+      return removals.get(index);
+    }
+  }
+
   /**
    * Initializes a new DataModel object instance.
    */
@@ -46,6 +86,53 @@ public abstract class DataModel<E> {
     entries = new ArrayList<>();
   }
 
+  /**
+   * Returns the changes made to the entries since the last call, and starts recording anew.
+   *
+   * @return the changes to the entries
+   */
+  public synchronized EntryChanges<E> takeChanges() {
+    EntryChanges<E> taken = changes;
+    changes = new EntryChanges<>();
+    return taken;
+  }
+
+  /**
+   * Records that an entry was added at the given index. Only entries added at the end are
+   * recorded individually.
+   *
+   * @param index the index of the entry in the entries
+   * @param entry the entry added
+   */
+  protected synchronized void entryAdded(int index, E entry) {
+    if (index != entries.size() - 1) {
+      entriesReplaced();
+    } else if (entry != null && !changes.replaced) {
+      changes.changed.add(entry);
+    }
+  }
+
+  /**
+   * Records that an entry was removed.
+   *
+   * @param entry the entry removed
+   */
+  protected synchronized void entryRemoved(E entry) {
+    if (entry != null && !changes.replaced) {
+      changes.removals.set(changes.changed.size());
+      changes.changed.add(entry);
+    }
+  }
+
+  /**
+   * Records that the entries were changed in a way that is not recorded entry by entry.
+   */
+  protected synchronized void entriesReplaced() {
+    changes.replaced = true;
+    changes.changed.clear();
+    changes.removals.clear();
+  }
+
   /**
    * Adds an entry from a specified tuple.
    *
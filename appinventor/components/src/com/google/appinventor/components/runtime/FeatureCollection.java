@@ -14,13 +14,14 @@ import com.google.appinventor.components.annotations.SimpleProperty;
 import com.google.appinventor.components.common.ComponentCategory;
 import com.google.appinventor.components.common.PropertyTypeConstants;
 import com.google.appinventor.components.common.YaVersion;
+import com.google.appinventor.components.runtime.util.AsynchUtil;
 import com.google.appinventor.components.runtime.util.ErrorMessages;
 import com.google.appinventor.components.runtime.util.MapFactory;
 import com.google.appinventor.components.runtime.util.MapFactory.MapFeatureCollection;
 import com.google.appinventor.components.runtime.util.YailList;
 
 import android.view.View;
-import org.json.JSONException;
+import java.io.StringReader;
 
 /**
  * A `FeatureCollection` groups one or more map features together. Any events that occur on a
@@ -48,7 +49,9 @@ public class FeatureCollection extends MapFeatureContainerBase implements MapFea
   /**
    * Populates the feature collection from a string containing GeoJSON content. Given the size of
    * such strings, it is recommended to load the feature collection from assets or the web using
-   * the {@link #Source(String)} property.
+   * the {@link #Source(String)} property. The string is read on a background thread, and the
+   * {@link #GotFeatures(String, YailList)} event is run with url = `<string>` once it has been
+   * read.
    *
    * @param geojson
    */
@@ -58,13 +61,20 @@ public class FeatureCollection extends MapFeatureContainerBase implements MapFea
       "string is not valid GeoJSON, the ErrorLoadingFeatureCollection error will be run with " +
       "url = <string>.",
       category = PropertyCategory.APPEARANCE)
-  public void FeaturesFromGeoJSON(String geojson) {
-    try {
-      processGeoJSON("<string>", geojson);
-    } catch(JSONException e) {
-      $form().dispatchErrorOccurredEvent(this, "FeaturesFromGeoJSON",
-          ErrorMessages.ERROR_INVALID_GEOJSON, e.getMessage());
-    }
+  public void FeaturesFromGeoJSON(final String geojson) {
+    final double tolerance = simplificationTolerance();
+    AsynchUtil.runAsynchronously(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          processGeoJSON("<string>", new StringReader(geojson), geojson.length(), tolerance);
+        } catch (Exception e) {
+          // Both JSONException and IOException, which is thrown for truncated documents
+          $form().dispatchErrorOccurredEvent(FeatureCollection.this, "FeaturesFromGeoJSON",
+              ErrorMessages.ERROR_INVALID_GEOJSON, e.getMessage());
+        }
+      }
+    });
   }
 
   /**
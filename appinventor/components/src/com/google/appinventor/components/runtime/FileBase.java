@@ -24,6 +24,8 @@ import com.google.appinventor.components.runtime.util.IOUtils;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 
 /**
  * Base class for File-based components.
@@ -101,6 +103,12 @@ public abstract class FileBase extends AndroidNonvisibleComponent implements Com
   protected void readFromFile(final String fileName) {
     try {
       new FileStreamReadOperation(form, this, "ReadFrom", fileName, scope, true) {
+        @Override
+        protected boolean process(InputStreamReader reader) throws IOException {
+          afterRead(reader);
+          return true;
+        }
+
         @Override
         public boolean process(String contents) {
           final String text = IOUtils.normalizeNewLines(contents);
@@ -133,4 +141,17 @@ public abstract class FileBase extends AndroidNonvisibleComponent implements Com
    * @param result  the contents of the file that was read
    */
   protected abstract void afterRead(String result);
+
+  /**
+   * Reads the contents of the specified file from a reader. The default
+   * implementation reads the whole file into a String, with Windows-style
+   * line endings replaced, and passes it to {@link #afterRead(String)}.
+   * Subclasses may override this to process the file as it is read.
+   *
+   * @param reader  the reader for the file, which is closed by the caller
+   * @throws IOException if the file cannot be read
+   */
+  protected void afterRead(Reader reader) throws IOException {
+    afterRead(IOUtils.normalizeNewLines(IOUtils.readReader(reader)));
+  }
 }
@@ -24,6 +24,7 @@ import com.google.appinventor.components.runtime.util.AsynchUtil;
 import com.google.appinventor.components.runtime.util.GameInstance;
 import com.google.appinventor.components.runtime.util.JsonUtil;
 import com.google.appinventor.components.runtime.util.PlayerListDelta;
+import com.google.appinventor.components.runtime.util.RequestScheduler;
 import com.google.appinventor.components.runtime.util.WebServiceUtil;
 import com.google.appinventor.components.runtime.util.YailList;
 
@@ -128,6 +129,8 @@ public class GameClient extends AndroidNonvisibleComponent
   private String gameId;
   private GameInstance instance;
   private Handler androidUIHandler;
+  private final RequestScheduler scheduler =
+      new RequestScheduler(RequestScheduler.DEFAULT_MAX_REQUESTS_PER_HOST);
   private Activity activityContext;
 
   private String userEmailAddress = "";
@@ -705,13 +708,24 @@ public class GameClient extends AndroidNonvisibleComponent
   @SimpleFunction(
       description = "Retrieves messages of the specified type.")
   public void GetMessages(final String type, final int count) {
-    AsynchUtil.runAsynchronously(new Runnable() {
-      public void run() { postGetMessages(type, count); }});
+    // A GetMessages call made while an identical one is in progress would fetch the same
+    // messages, so it is answered by the call in progress rather than sending another request.
+    scheduler.submit(RequestScheduler.hostOf(ServiceUrl()),
+        ServiceUrl() + '\n' + GameId() + '\n' + InstanceId() + '\n' + type + '\n' + count,
+        null, new RequestScheduler.Task() {
+          @Override
+          public void run(RequestScheduler.Request request) {
+            postGetMessages(type, count, request);
+          }
+        });
   }
 
-  private void postGetMessages(final String requestedType, final int count) {
+  private void postGetMessages(final String requestedType, final int count,
+      final RequestScheduler.Request request) {
     AsyncCallbackPair<JSONObject> myCallback = new AsyncCallbackPair<JSONObject>() {
       public void onSuccess(final JSONObject result) {
+        // Calls made from here on need the messages after these.
+        request.finish();
         try {
           int count = result.getInt(COUNT_KEY);
           JSONArray messages = result.getJSONArray(MESSAGES_LIST_KEY);
@@ -738,6 +752,7 @@ public class GameClient extends AndroidNonvisibleComponent
       }
 
       public void onFailure(String message) {
+        request.finish();
         WebServiceError("GetMessages", message);
       }
     };
@@ -84,6 +84,7 @@ public abstract class LineChartBaseDataModel<V extends LineChartViewBase<V>>
       }
 
       entries.add(index, entry);
+      entryAdded(index, entry);
 
       List<Integer> defaultColors = ((LineDataSet) dataset).getCircleColors();
       defaultColors.add(index, dataset.getColor());
@@ -5,6 +5,9 @@
 
 package com.google.appinventor.components.runtime;
 
+import android.os.Handler;
+import android.os.Looper;
+
 import android.view.View;
 import android.view.ViewGroup;
 
@@ -15,9 +18,11 @@ import androidx.cardview.widget.CardView;
 
 import androidx.core.view.ViewCompat;
 
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.google.appinventor.components.runtime.util.YailDictionary;
+import com.google.appinventor.components.runtime.util.AsynchUtil;
+import com.google.appinventor.components.runtime.util.ListSearchIndex;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -31,59 +36,137 @@ public abstract class ListAdapterWithRecyclerView
   protected int backgroundColor;
   protected int selectionColor;
   protected float radius;
-  protected List<Object> items = new ArrayList<>();
+  protected volatile List<Object> items = new ArrayList<>();
   protected List<Object> originalItems = new ArrayList<>();
   protected List<Integer> originalPositions = new ArrayList<>();
   protected ComponentContainer container;
   protected List<Integer> selectedItems = new ArrayList<>();
-  protected String lastQuery = "";
+  protected volatile String lastQuery = "";
+
+  /**
+   * Changes to lists with more items than this, before and after the change together, are worked
+   * out off the UI thread.
+   */
+  private static final int ASYNC_DIFF_THRESHOLD = 500;
+
+  /**
+   * The search index of the current data, which is built again whenever the data changes.
+   */
+  private volatile ListSearchIndex searchIndex;
+
+  /**
+   * Counts the changes to the displayed items, so that a change worked out off the UI thread is
+   * dropped if another one was displayed in the meantime.
+   */
+  private int generation = 0;
+
+  /**
+   * True while a change worked out off the UI thread has not been displayed yet. The rows
+   * displayed then no longer match the ListView's items, so clicks on them are ignored.
+   */
+  private boolean updatePending = false;
+
+  /**
+   * The result of filtering: the items to display and the changes from the previous ones.
+   */
+  private static final class FilteredItems {
+    final ListSearchIndex index;
+    final List<Object> items;
+    final List<Integer> positions;
+    final List<Object> previous;
+    final DiffUtil.DiffResult diff;
+
+    FilteredItems(ListSearchIndex index, List<Object> items, List<Integer> positions,
+        List<Object> previous, DiffUtil.DiffResult diff) {
+      this.index = index;
+      this.items = items;
+      this.positions = positions;
+      this.previous = previous;
+      this.diff = diff;
+    }
+  }
+
+  /**
+   * Compares two lists of items for DiffUtil. Items are strings or dictionaries, which are equal
+   * when they display the same.
+   */
+  private static final class ItemDiff extends DiffUtil.Callback {
+    private final List<Object> oldItems;
+    private final List<Object> newItems;
+
+    ItemDiff(List<Object> oldItems, List<Object> newItems) {
+      this.oldItems = oldItems;
+      this.newItems = newItems;
+    }
+
+    @Override
+    public int getOldListSize() {
+      return oldItems.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+      return newItems.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldPosition, int newPosition) {
+      Object oldItem = oldItems.get(oldPosition);
+      Object newItem = newItems.get(newPosition);
+      return oldItem == null ? newItem == null : oldItem.equals(newItem);
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldPosition, int newPosition) {
+      return true;
+    }
+  }
 
   protected final Filter filter = new Filter() {
     @Override
     protected FilterResults performFiltering(CharSequence charSequence) {
-      lastQuery = charSequence.toString().toLowerCase();
-      FilterResults results = new FilterResults();
-      List<Object> filteredList = new ArrayList<>();
-      originalPositions = new ArrayList<>();
-      if (lastQuery == null || lastQuery.length() == 0) {
-        filteredList = new ArrayList<>(originalItems);
-        items = new ArrayList<>(originalItems);
+      lastQuery = charSequence == null ? "" : charSequence.toString().toLowerCase();
+      ListSearchIndex index = searchIndex;
+      List<Object> filteredList;
+      List<Integer> positions = new ArrayList<>();
+      if (lastQuery.length() == 0) {
+        filteredList = new ArrayList<>(index.size());
+        for (int i = 0; i < index.size(); i++) {
+          filteredList.add(index.get(i));
+        }
       } else {
-        for (int index = 0; index < originalItems.size(); index++) {
-          Object item = originalItems.get(index);
-          String filterString;
-          if (item instanceof YailDictionary) {
-            if (((YailDictionary) item).containsKey(Component.LISTVIEW_KEY_MAIN_TEXT)) {
-              Object o = ((YailDictionary) item).get(Component.LISTVIEW_KEY_DESCRIPTION);
-              filterString = ((YailDictionary) item).get(Component.LISTVIEW_KEY_MAIN_TEXT).toString();
-              if (o != null) {
-                filterString += " " + o.toString();
-              }
-            } else {
-              filterString = item.toString();
-            }
-          } else {
-            filterString = item.toString();
-          }
-          if (filterString.toLowerCase().contains(lastQuery)) {
-            filteredList.add(item);
-            originalPositions.add(index);
-          }
+        int[] matches = index.search(lastQuery);
+        filteredList = new ArrayList<>(matches.length);
+        for (int position : matches) {
+          filteredList.add(index.get(position));
+          positions.add(position);
         }
       }
+      // Work out the changes to the displayed rows here, off the UI thread
+      List<Object> previous = items;
+      FilterResults results = new FilterResults();
       results.count = filteredList.size();
-      results.values = filteredList;
+      results.values = new FilteredItems(index, filteredList, positions, previous,
+          DiffUtil.calculateDiff(new ItemDiff(previous, filteredList), false));
       return results;
     }
 
     @Override
     protected void publishResults(CharSequence charSequence, FilterResults filterResults) {
-      items = new ArrayList<>((List<Object>) filterResults.values);
-      clearSelections();
-      notifyDataSetChanged();
-      // We store the original data in the originalItems variable
+      FilteredItems result = (FilteredItems) filterResults.values;
+      if (result.index != searchIndex) {
+        // The data changed while filtering
+        filter.filter(lastQuery);
+        return;
+      }
       // We store the original item indexes in the originalPositions variable
-      // We have eliminated hiding/showing CardView to improve performance
+      clearSelections();
+      originalPositions = result.positions;
+      if (result.previous == items) {
+        showItems(result.items, result.diff);
+      } else {
+        showItems(result.items, null);
+      }
     }
   };
 
@@ -93,17 +176,69 @@ public abstract class ListAdapterWithRecyclerView
     this.backgroundColor = backgroundColor;
     this.radius = radius;
     this.selectionColor = selectionColor;
-    updateData(data);
-}
+    this.originalItems = data;
+    this.searchIndex = new ListSearchIndex(data);
+    this.items = new ArrayList<>(data);
+  }
 
+  /**
+   * Replaces the data, updating only the rows that changed. Changes to large lists are worked out
+   * off the UI thread, as is filtering.
+   */
   public void updateData(List<Object> newItems) {
+    clearSelections();
     this.originalItems = newItems;
-    if (originalPositions.isEmpty()) {
-      this.items = new ArrayList<>(newItems);
-    } else {
+    this.searchIndex = new ListSearchIndex(newItems);
+    if (lastQuery.length() > 0) {
       filter.filter(lastQuery);
+      return;
+    }
+    originalPositions = new ArrayList<>();
+    final List<Object> previous = items;
+    final List<Object> next = new ArrayList<>(newItems);
+    if (previous.isEmpty() || next.isEmpty()
+        || previous.size() + next.size() <= ASYNC_DIFF_THRESHOLD) {
+      showItems(next, null);
+      return;
+    }
+    final int expected = ++generation;
+    updatePending = true;
+    final DiffUtil.DiffResult[] diff = new DiffUtil.DiffResult[1];
+    AsynchUtil.runAsynchronously(new Handler(Looper.getMainLooper()), new Runnable() {
+      @Override
+      public void run() {
+        diff[0] = DiffUtil.calculateDiff(new ItemDiff(previous, next), false);
+      }
+    }, new Runnable() {
+      @Override
+      public void run() {
+        if (generation == expected) {
+          showItems(next, diff[0]);
+        }
+      }
+    });
+  }
+
+  /**
+   * Displays new items. Without a diff, the changes are worked out here if the lists are small,
+   * and otherwise every row is bound again.
+   */
+  private void showItems(List<Object> newItems, DiffUtil.DiffResult diff) {
+    List<Object> previous = items;
+    generation++;
+    updatePending = false;
+    items = newItems;
+    if (diff != null) {
+      diff.dispatchUpdatesTo(this);
+    } else if (previous.isEmpty()) {
+      notifyItemRangeInserted(0, newItems.size());
+    } else if (newItems.isEmpty()) {
+      notifyItemRangeRemoved(0, previous.size());
+    } else if (previous.size() + newItems.size() <= ASYNC_DIFF_THRESHOLD) {
+      DiffUtil.calculateDiff(new ItemDiff(previous, newItems), false).dispatchUpdatesTo(this);
+    } else {
+      notifyDataSetChanged();
     }
-    clearSelections();
   }
 
   protected CardView createCardView(ViewGroup parent) {
@@ -167,8 +302,17 @@ public abstract class ListAdapterWithRecyclerView
     notifyItemChanged(position);
   }
 
+  /**
+   * Deselects every item, redrawing only the rows that were selected.
+   */
   public void clearSelections() {
+    List<Integer> previous = new ArrayList<>(selectedItems);
     selectedItems.clear();
+    for (int position : previous) {
+      if (position >= 0 && position < items.size()) {
+        notifyItemChanged(position);
+      }
+    }
   }
 
   abstract class RvViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
@@ -180,7 +324,9 @@ public abstract class ListAdapterWithRecyclerView
     @Override
     public void onClick(View v) {
       int position = getAdapterPosition();
-      
+      if (position == RecyclerView.NO_POSITION || updatePending) {
+        return;
+      }
       if (!originalPositions.isEmpty()) {
         position = originalPositions.get(position);
       }
@@ -336,7 +336,6 @@ public final class ListView extends AndroidViewComponent {
   public void Elements(List<Object> itemsList) {
     items = new ArrayList<>(itemsList);
     updateAdapterData();
-    listAdapterWithRecyclerView.notifyDataSetChanged();
   }
 
   /**
@@ -367,7 +366,6 @@ public final class ListView extends AndroidViewComponent {
   public void ElementsFromString(String itemstring) {
     items = new ArrayList<Object>(ElementsUtil.elementsListFromString(itemstring));
     updateAdapterData();
-    listAdapterWithRecyclerView.notifyDataSetChanged();
   }
 
   /**
@@ -415,7 +413,6 @@ public final class ListView extends AndroidViewComponent {
     } else {
       selection = "";
       listAdapterWithRecyclerView.clearSelections();
-      listAdapterWithRecyclerView.notifyDataSetChanged();
     }
   }
 
@@ -886,7 +883,6 @@ public final class ListView extends AndroidViewComponent {
   public void MultiSelect(boolean multi) {
     if (selectionIndex > 0) {
       listAdapterWithRecyclerView.clearSelections();
-      listAdapterWithRecyclerView.notifyDataSetChanged();
     }
     this.multiSelect = multi;
   }
@@ -972,7 +968,6 @@ public final class ListView extends AndroidViewComponent {
         container.$form().dispatchErrorOccurredEvent(this, "ListView.ListData", ErrorMessages.ERROR_DEFAULT, e.getMessage());
       }
       updateAdapterData();
-      listAdapterWithRecyclerView.notifyDataSetChanged();
     }
   }
 
@@ -1160,7 +1155,6 @@ public final class ListView extends AndroidViewComponent {
     }
     items.remove(index - 1);
     updateAdapterData();
-    listAdapterWithRecyclerView.notifyItemRemoved(index - 1);
   }
 
   /**
@@ -1187,7 +1181,6 @@ public final class ListView extends AndroidViewComponent {
       }
     }
     updateAdapterData();
-    listAdapterWithRecyclerView.notifyItemChanged(listAdapterWithRecyclerView.getItemCount() - 1);
   }
 
   /**
@@ -1196,11 +1189,8 @@ public final class ListView extends AndroidViewComponent {
   @SimpleFunction(description = "Add new Items to list at the end.")
   public void AddItems(List<Object> itemsList) {
     if (!itemsList.isEmpty()) {
-      int positionStart = items.size();
-      int itemCount = itemsList.size();
       items.addAll(itemsList);
       updateAdapterData();
-      listAdapterWithRecyclerView.notifyItemRangeChanged(positionStart, itemCount);
     }
   }
 
@@ -1233,7 +1223,6 @@ public final class ListView extends AndroidViewComponent {
       }
     }
     updateAdapterData();
-    listAdapterWithRecyclerView.notifyItemInserted(index - 1);
   }
 
   /**
@@ -1247,11 +1236,8 @@ public final class ListView extends AndroidViewComponent {
       return;
     }
     if (!itemsList.isEmpty()) {
-      int positionStart = index - 1;
-      int itemCount = itemsList.size();
-      items.addAll(positionStart, itemsList);
+      items.addAll(index - 1, itemsList);
       updateAdapterData();
-      listAdapterWithRecyclerView.notifyItemRangeChanged(positionStart, itemCount);
     }
   }
 
@@ -1294,7 +1280,8 @@ public final class ListView extends AndroidViewComponent {
   }
 
   /**
-   * Deselect the item and update the data in adapter.
+   * Deselect the item and update the data in adapter. The adapter works out which rows changed,
+   * so callers do not need to notify it.
    */
   public void updateAdapterData() {
     SelectionIndex(0);
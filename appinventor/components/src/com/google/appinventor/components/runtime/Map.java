@@ -35,6 +35,7 @@ import com.google.appinventor.components.runtime.LocationSensor.LocationSensorLi
 
 import com.google.appinventor.components.runtime.util.AsynchUtil;
 import com.google.appinventor.components.runtime.util.ErrorMessages;
+import com.google.appinventor.components.runtime.util.FeatureIndex;
 import com.google.appinventor.components.runtime.util.FileUtil;
 import com.google.appinventor.components.runtime.util.FileWriteOperation;
 import com.google.appinventor.components.runtime.util.GeoJSONUtil;
@@ -44,6 +45,7 @@ import com.google.appinventor.components.runtime.util.MapFactory.MapCircle;
 import com.google.appinventor.components.runtime.util.MapFactory.MapController;
 import com.google.appinventor.components.runtime.util.MapFactory.MapEventListener;
 import com.google.appinventor.components.runtime.util.MapFactory.MapFeature;
+import com.google.appinventor.components.runtime.util.MapFactory.MapFeatureVisitor;
 import com.google.appinventor.components.runtime.util.MapFactory.MapLineString;
 import com.google.appinventor.components.runtime.util.MapFactory.MapMarker;
 import com.google.appinventor.components.runtime.util.MapFactory.MapPolygon;
@@ -57,7 +59,9 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.locationtech.jts.geom.Geometry;
 import org.osmdroid.util.BoundingBox;
+import org.osmdroid.util.GeoPoint;
 
 /**
  * A two-dimensional container that renders map tiles in the background and allows for multiple
@@ -107,6 +111,59 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
 
   private LocationSensor sensor = null;
 
+  /**
+   * Computes the distance in meters from the edge of a feature to the {@link GeoPoint} passed as
+   * its argument.
+   */
+  private static final MapFeatureVisitor<Double> EDGE_DISTANCE = new MapFeatureVisitor<Double>() {
+    @Override
+    public Double visit(MapMarker marker, Object... arguments) {
+      return GeometryUtil.distanceBetween(marker, (GeoPoint) arguments[0]);
+    }
+
+    @Override
+    public Double visit(MapLineString lineString, Object... arguments) {
+      return GeometryUtil.distanceBetweenEdges(lineString, (GeoPoint) arguments[0]);
+    }
+
+    @Override
+    public Double visit(MapPolygon polygon, Object... arguments) {
+      return GeometryUtil.distanceBetweenEdges(polygon, (GeoPoint) arguments[0]);
+    }
+
+    @Override
+    public Double visit(MapCircle circle, Object... arguments) {
+      return GeometryUtil.distanceBetweenEdges(circle, (GeoPoint) arguments[0]);
+    }
+
+    @Override
+    public Double visit(MapRectangle rectangle, Object... arguments) {
+      return GeometryUtil.distanceBetweenEdges(rectangle, (GeoPoint) arguments[0]);
+    }
+  };
+
+  /**
+   * Spatial index of every feature on the map, including those in feature collections, used to
+   * answer distance and containment queries without measuring every feature.
+   */
+  private final FeatureIndex<MapFeature> featureIndex = new FeatureIndex<MapFeature>(
+      new FeatureIndex.Measure<MapFeature>() {
+        @Override
+        public Geometry getGeometry(MapFeature feature) {
+          return feature.getGeometry();
+        }
+
+        @Override
+        public double getRadius(MapFeature feature) {
+          return feature instanceof MapCircle ? ((MapCircle) feature).Radius() : 0;
+        }
+
+        @Override
+        public double distanceTo(MapFeature feature, double latitude, double longitude) {
+          return feature.accept(EDGE_DISTANCE, new GeoPoint(latitude, longitude));
+        }
+      });
+
   /**
    * Construct a new map to be rendered within the given container.
    *
@@ -598,6 +655,25 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
     mapController.setScaleUnitsAbstract(units);
   }
 
+  /**
+   * Draws the {@link Marker}s on the `Map` in clusters. Markers that would be drawn close together
+   * are shown as a single circle with the number of markers it holds, which zooms in on them when
+   * tapped. Only the markers inside the visible part of the map are drawn, which keeps panning
+   * and zooming smooth on maps with thousands of markers.
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "False")
+  @SimpleProperty
+  public void ClusterMarkers(boolean cluster) {
+    mapController.setMarkerClusteringEnabled(cluster);
+  }
+
+  @SimpleProperty(category = PropertyCategory.APPEARANCE,
+      description = "Draws markers that are close together as a single cluster, and only draws "
+          + "the markers in the visible part of the map.")
+  public boolean ClusterMarkers() {
+    return mapController.isMarkerClusteringEnabled();
+  }
+
   @SimpleProperty(category = PropertyCategory.BEHAVIOR,
       description = "Returns the user's latitude if ShowUser is enabled.")
   public double UserLatitude() {
@@ -616,6 +692,52 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
     mapController.panTo(latitude, longitude, zoom, 1);
   }
 
+  /**
+   * Returns the features on the `Map`, including those in {@link FeatureCollection}s, whose edges
+   * are within the given `distance`, in meters, of the point at `latitude` and `longitude`. The
+   * nearest feature is first in the list.
+   *
+   * @param latitude Latitude of the point
+   * @param longitude Longitude of the point
+   * @param distance Distance from the point, in meters
+   * @return a list of features, nearest first
+   */
+  @SimpleFunction(description = "Returns the features whose edges are within the given distance, "
+      + "in meters, of the point, with the nearest feature first.")
+  public YailList FeaturesWithinDistance(double latitude, double longitude, double distance) {
+    return YailList.makeList(featureIndex.withinDistance(latitude, longitude, distance));
+  }
+
+  /**
+   * Returns the features on the `Map`, including those in {@link FeatureCollection}s, that
+   * contain the point at `latitude` and `longitude`. A point on the edge of a feature is
+   * contained by it. {@link Marker}s and {@link LineString}s only contain points exactly on them.
+   *
+   * @param latitude Latitude of the point
+   * @param longitude Longitude of the point
+   * @return a list of features
+   */
+  @SimpleFunction(description = "Returns the features that contain the point.")
+  public YailList FeaturesContainingPoint(double latitude, double longitude) {
+    return YailList.makeList(featureIndex.containing(latitude, longitude));
+  }
+
+  /**
+   * Returns the feature on the `Map`, including those in {@link FeatureCollection}s, whose edge
+   * is nearest to the point at `latitude` and `longitude`, or the empty string if the `Map` has no
+   * features.
+   *
+   * @param latitude Latitude of the point
+   * @param longitude Longitude of the point
+   * @return the nearest feature, or the empty string
+   */
+  @SimpleFunction(description = "Returns the feature whose edge is nearest to the point, or the "
+      + "empty string if there are no features.")
+  public Object NearestFeature(double latitude, double longitude) {
+    MapFeature feature = featureIndex.nearest(latitude, longitude);
+    return feature == null ? "" : feature;
+  }
+
   /**
    * Creates a new {@link Marker} on the `Map` at the specified `latitude` and `longitude`.
    *
@@ -874,6 +996,7 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
     features.add(marker);
     marker.setMap(this);
     mapController.addFeature(marker);
+    featureIndex.add(marker);
   }
 
   @Override
@@ -881,6 +1004,7 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
     features.add(lineString);
     lineString.setMap(this);
     mapController.addFeature(lineString);
+    featureIndex.add(lineString);
   }
 
   @Override
@@ -888,6 +1012,7 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
     features.add(polygon);
     polygon.setMap(this);
     mapController.addFeature(polygon);
+    featureIndex.add(polygon);
   }
 
   @Override
@@ -895,6 +1020,7 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
     features.add(rectangle);
     rectangle.setMap(this);
     mapController.addFeature(rectangle);
+    featureIndex.add(rectangle);
   }
 
   @Override
@@ -902,11 +1028,27 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
     features.add(circle);
     circle.setMap(this);
     mapController.addFeature(circle);
+    featureIndex.add(circle);
   }
 
   @Override
   public void removeFeature(MapFeature feature) {
     features.remove(feature);
     mapController.removeFeature(feature);
+    featureIndex.remove(feature);
+  }
+
+  /**
+   * Tells the spatial index that a feature has moved or changed shape.
+   */
+  void updateFeatureIndex(MapFeature feature) {
+    featureIndex.update(feature);
+  }
+
+  /**
+   * Removes a feature from the spatial index after it has been removed from the map.
+   */
+  void removeFromFeatureIndex(MapFeature feature) {
+    featureIndex.remove(feature);
   }
 }
@@ -121,6 +121,7 @@ public abstract class MapFeatureBase implements MapFeature, HasStroke {
   @Override
   public void removeFromMap() {
     map.getController().removeFeature(this);
+    map.removeFromFeatureIndex(this);
   }
 
   @SuppressWarnings("squid:S00100")
@@ -434,9 +435,16 @@ public abstract class MapFeatureBase implements MapFeature, HasStroke {
   }
 
   @SuppressWarnings("WeakerAccess")
-  protected final synchronized void clearGeometry() {
-    centroid = null;
-    geometry = null;
+  protected final void clearGeometry() {
+    synchronized (this) {
+      centroid = null;
+      geometry = null;
+    }
+    // The map's index computes the geometry while holding its own lock, so it is told about the
+    // change after this feature's lock is released.
+    if (map != null) {
+      map.updateFeatureIndex(this);
+    }
   }
 
   protected abstract Geometry computeGeometry();
@@ -6,14 +6,19 @@
 package com.google.appinventor.components.runtime;
 
 import android.app.Activity;
+import android.os.Handler;
+import android.os.SystemClock;
 import android.util.Log;
+import com.google.appinventor.components.annotations.DesignerProperty;
 import com.google.appinventor.components.annotations.PropertyCategory;
 import com.google.appinventor.components.annotations.SimpleEvent;
 import com.google.appinventor.components.annotations.SimpleFunction;
 import com.google.appinventor.components.annotations.SimpleObject;
 import com.google.appinventor.components.annotations.SimpleProperty;
+import com.google.appinventor.components.common.PropertyTypeConstants;
 import com.google.appinventor.components.runtime.util.AsynchUtil;
 import com.google.appinventor.components.runtime.util.ErrorMessages;
+import com.google.appinventor.components.runtime.util.GeoJSONReader;
 import com.google.appinventor.components.runtime.util.MapFactory;
 import com.google.appinventor.components.runtime.util.MapFactory.MapFeature;
 import com.google.appinventor.components.runtime.util.YailList;
@@ -21,9 +26,10 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
+import java.io.FilterReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -34,8 +40,6 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.concurrent.CopyOnWriteArrayList;
 
-import static com.google.appinventor.components.runtime.util.GeoJSONUtil.getGeoJSONFeatures;
-import static com.google.appinventor.components.runtime.util.GeoJSONUtil.getGeoJSONType;
 import static com.google.appinventor.components.runtime.util.GeoJSONUtil.processGeoJSONFeature;
 
 @SimpleObject
@@ -50,10 +54,18 @@ public abstract class MapFeatureContainerBase extends AndroidViewComponent imple
   private static final String ERROR_IO_EXCEPTION = "Unable to download content from URL";
   private static final String ERROR_MALFORMED_GEOJSON = "Malformed GeoJSON response. Expected FeatureCollection as root element.";
   private static final String ERROR_UNKNOWN_TYPE = "Unrecognized/invalid type in JSON object";
-  private static final String GEOJSON_TYPE = "type";
   private static final String GEOJSON_FEATURECOLLECTION = "FeatureCollection";
   private static final String GEOJSON_GEOMETRYCOLLECTION = "GeometryCollection";
-  private static final String GEOJSON_FEATURES = "features";
+
+  /**
+   * The time in milliseconds that creating features may take on the UI thread before it is given
+   * back to draw a frame.
+   */
+  private static final long FRAME_BUDGET = 8;
+
+  private final Handler androidUIHandler = new Handler();
+
+  private boolean simplifyGeometry = false;
 
   /**
    * <p>List of {@link MapFactory.MapFeature features} associated with this map, including those that are
@@ -119,6 +131,26 @@ public abstract class MapFeatureContainerBase extends AndroidViewComponent imple
     getMap().getView().invalidate();
   }
 
+  /**
+   * Specifies whether the line strings and polygons loaded from GeoJSON are simplified. When
+   * `true`{:.logic.block}, points that would be drawn less than a pixel apart at the `Map`'s
+   * zoom level at the time of loading are left out. This makes large documents load and draw
+   * faster, at the cost of detail when zooming in further.
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN,
+      defaultValue = "False")
+  @SimpleProperty
+  public void SimplifyGeometry(boolean simplify) {
+    simplifyGeometry = simplify;
+  }
+
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR,
+      description = "Leaves out the points of lines and polygons loaded from GeoJSON that would be "
+          + "drawn less than a pixel apart at the map's current zoom level.")
+  public boolean SimplifyGeometry() {
+    return simplifyGeometry;
+  }
+
   /**
    * Gets the list of features attached to the `%type%` (without regard to the value of the
    * feature's `Visible`{:.getter.block} property). This list also includes any features created on
@@ -229,9 +261,10 @@ public abstract class MapFeatureContainerBase extends AndroidViewComponent imple
       "LoadError event will be raised with any applicable HTTP response code and error " +
       "message.</p>")
   public void LoadFromURL(final String url) {
+    final double tolerance = simplificationTolerance();
     AsynchUtil.runAsynchronously(new Runnable() {
       public void run() {
-        performGet(url);
+        performGet(url, tolerance);
       }
     });
   }
@@ -287,10 +320,28 @@ public abstract class MapFeatureContainerBase extends AndroidViewComponent imple
   public void GotFeatures(String url, YailList features) {
     if (!EventDispatcher.dispatchEvent(this, "GotFeatures", url, features)) {
       // If the app inventor hasn't defined GotFeatures, we by default create the features for them
-      Iterator it = features.iterator();
+      Iterator<?> it = features.iterator();
       it.next();  // skip *list* symbol
-      while (it.hasNext()) {
-        FeatureFromDescription((YailList) it.next());
+      createFeatures(it);
+    }
+  }
+
+  /**
+   * Creates features from the descriptions until the frame budget is used up, and then continues
+   * after the next frame has been drawn, so that the app stays responsive while a large feature
+   * collection is created.
+   */
+  private void createFeatures(final Iterator<?> descriptions) {
+    long deadline = SystemClock.uptimeMillis() + FRAME_BUDGET;
+    while (descriptions.hasNext()) {
+      FeatureFromDescription((YailList) descriptions.next());
+      if (descriptions.hasNext() && SystemClock.uptimeMillis() >= deadline) {
+        androidUIHandler.post(new Runnable() {
+          public void run() {
+            createFeatures(descriptions);
+          }
+        });
+        return;
       }
     }
   }
@@ -317,6 +368,21 @@ public abstract class MapFeatureContainerBase extends AndroidViewComponent imple
       }
     }
   }
+  /**
+   * The `LoadProgress` event is run while a feature collection document is read from the given
+   * `url`{:.variable.block}. The `count`{:.variable.block} parameter is the number of features
+   * read so far and the `percent`{:.variable.block} parameter is about how much of the document
+   * has been read, or -1 if the size of the document is not known. The
+   * {@link #GotFeatures(String, YailList)} event is run once the whole document has been read.
+   */
+  @SimpleEvent(description = "Features are being read from the GeoJSON document at the given "
+      + "url. The count parameter is the number of features read so far, and the percent "
+      + "parameter is about how much of the document has been read, or -1 if its size is not "
+      + "known.")
+  public void LoadProgress(String url, int count, int percent) {
+    EventDispatcher.dispatchEvent(this, "LoadProgress", url, count, percent);
+  }
+
 
   @Override
   public Activity $context() {
@@ -393,21 +459,7 @@ public abstract class MapFeatureContainerBase extends AndroidViewComponent imple
     feature.accept(featureAdder);
   }
 
-  private void performGet(final String url) {
-    try {
-      String jsonContent = loadUrl(url);
-      if (jsonContent == null) {
-        return;
-      }
-      processGeoJSON(url, jsonContent);
-    } catch(Exception e) {
-      Log.e(TAG, "Exception retreiving GeoJSON", e);
-      $form().dispatchErrorOccurredEvent(this, "LoadFromURL", ERROR_CODE_UNKNOWN_TYPE,
-          e.toString());
-    }
-  }
-
-  private String loadUrl(final String url) {
+  private void performGet(final String url, double tolerance) {
     try {
       URLConnection connection = new URL(url).openConnection();
       connection.connect();
@@ -422,19 +474,11 @@ public abstract class MapFeatureContainerBase extends AndroidViewComponent imple
             }
           });
           conn.disconnect();
-          return null;
+          return;
         }
       }
-      BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(),
-            "UTF-8"));
-      StringBuilder content = new StringBuilder();
-      String line;
-      while ((line = reader.readLine()) != null) {
-        content.append(line);
-        content.append("\n");
-      }
-      reader.close();
-      return content.toString();
+      processGeoJSON(url, new InputStreamReader(connection.getInputStream(), "UTF-8"),
+          connection.getContentLength(), tolerance);
     } catch(MalformedURLException e) {
       $form().runOnUiThread(new Runnable() {
         public void run() {
@@ -449,13 +493,61 @@ public abstract class MapFeatureContainerBase extends AndroidViewComponent imple
               ERROR_IO_EXCEPTION);
         }
       });
+    } catch(Exception e) {
+      Log.e(TAG, "Exception retreiving GeoJSON", e);
+      $form().dispatchErrorOccurredEvent(this, "LoadFromURL", ERROR_CODE_UNKNOWN_TYPE,
+          e.toString());
     }
-    return null;
   }
 
+  /**
+   * Returns the tolerance for simplifying the geometry of loaded features, in degrees, or 0 if
+   * they are not simplified. This needs to be called on the UI thread.
+   */
+  @SuppressWarnings("WeakerAccess")
+  protected double simplificationTolerance() {
+    return simplifyGeometry ? GeoJSONReader.toleranceForZoom(getMap().ZoomLevel()) : 0;
+  }
+
+  /**
+   * Reads a GeoJSON document, which should be done on a background thread. The
+   * {@link #LoadProgress(String, int, int)} event is run as batches of features are read, and then
+   * either the {@link #GotFeatures(String, YailList)} or the
+   * {@link #LoadError(String, int, String)} event is run on the UI thread.
+   *
+   * @param url the url of the document, passed to the events
+   * @param content the document, which is closed once read
+   * @param length the length of the document in characters, or -1 if not known
+   * @param tolerance the tolerance for simplifying geometry, in degrees, or 0
+   * @throws JSONException if the document is not valid JSON
+   * @throws IOException if the document cannot be read
+   */
   @SuppressWarnings("WeakerAccess")
-  protected void processGeoJSON(final String url, final String content) throws JSONException {
-    String type = getGeoJSONType(content, GEOJSON_TYPE);
+  protected void processGeoJSON(final String url, Reader content, final long length,
+      double tolerance) throws IOException, JSONException {
+    final CountingReader counter = new CountingReader(content);
+    final List<YailList> yailFeatures = new ArrayList<YailList>();
+    GeoJSONReader reader = new GeoJSONReader(TAG, counter);
+    reader.setTolerance(tolerance);
+    String type;
+    try {
+      type = reader.read(new GeoJSONReader.FeatureHandler() {
+        @Override
+        public void onFeatures(List<YailList> batch) {
+          yailFeatures.addAll(batch);
+          final int count = yailFeatures.size();
+          final int percent = length > 0
+              ? (int) Math.min(100, counter.getCount() * 100 / length) : -1;
+          $form().runOnUiThread(new Runnable() {
+            public void run() {
+              MapFeatureContainerBase.this.LoadProgress(url, count, percent);
+            }
+          });
+        }
+      });
+    } finally {
+      reader.close();
+    }
     if (!GEOJSON_FEATURECOLLECTION.equals(type) && !GEOJSON_GEOMETRYCOLLECTION.equals(type)) {
       $form().runOnUiThread(new Runnable() {
         public void run() {
@@ -465,11 +557,43 @@ public abstract class MapFeatureContainerBase extends AndroidViewComponent imple
       });
       return;
     }
-    final List<YailList> yailFeatures = getGeoJSONFeatures(TAG, content);
     $form().runOnUiThread(new Runnable() {
       public void run() {
         MapFeatureContainerBase.this.GotFeatures(url, YailList.makeList(yailFeatures));
       }
     });
   }
+
+  /**
+   * Counts the characters read, to report loading progress.
+   */
+  private static class CountingReader extends FilterReader {
+    private volatile long count = 0;
+
+    CountingReader(Reader in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int c = super.read();
+      if (c >= 0) {
+        count++;
+      }
+      return c;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+      int n = super.read(buffer, offset, length);
+      if (n > 0) {
+        count += n;
+      }
+      return n;
+    }
+
+    long getCount() {
+      return count;
+    }
+  }
 }
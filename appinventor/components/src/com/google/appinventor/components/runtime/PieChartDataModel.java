@@ -68,6 +68,7 @@ public class PieChartDataModel
 
     if (entry != null) {
       this.entries.add(entry);
+      entryAdded(entries.size() - 1, entry);
 
       // Construct a new Legend Entry
       LegendEntry legendEntry = new LegendEntry();
@@ -100,7 +101,7 @@ public class PieChartDataModel
   public void removeEntry(int index) {
     // Entry exists; remove it
     if (index >= 0) {
-      entries.remove(index);
+      entryRemoved(entries.remove(index));
 
       // Remove the corresponding Legend entry (same index as Data Set index)
       LegendEntry removedEntry = legendEntries.remove(index);
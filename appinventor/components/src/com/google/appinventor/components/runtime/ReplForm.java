@@ -37,6 +37,7 @@ import com.google.appinventor.components.runtime.util.AppInvHTTPD;
 import com.google.appinventor.components.runtime.util.ErrorMessages;
 import com.google.appinventor.components.runtime.util.OnInitializeListener;
 import com.google.appinventor.components.runtime.util.QUtil;
+import com.google.appinventor.components.runtime.util.ReplEvalCache;
 import com.google.appinventor.components.runtime.util.RetValManager;
 import com.google.appinventor.components.runtime.util.WebRTCNativeMgr;
 
@@ -44,6 +45,8 @@ import dalvik.system.DexClassLoader;
 
 import gnu.expr.Language;
 
+import gnu.mapping.Procedure;
+
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -99,6 +102,27 @@ public class ReplForm extends Form {
   public class SchemeInterface {
     Language scheme = Scheme.getInstance("scheme");
 
+    /**
+     * Keeps the definitions received from the blocks editor, so that they are not read again
+     * when the editor sends them unchanged after a reload.
+     */
+    final ReplEvalCache evalCache = new ReplEvalCache(new ReplEvalCache.Interpreter() {
+      @Override
+      public Object eval(String expression) throws Throwable {
+        return scheme.eval(expression);
+      }
+
+      @Override
+      public void apply(Object procedure, Object[] args) throws Throwable {
+        ((Procedure) procedure).applyN(args);
+      }
+
+      @Override
+      public void evaluated(String blockid, int forms, int reused, long millis) {
+        RetValManager.appendEvalTiming(blockid, forms, reused, millis);
+      }
+    });
+
     public SchemeInterface() {
       gnu.expr.ModuleExp.mustNeverCompile();
     }
@@ -112,20 +136,27 @@ public class ReplForm extends Form {
     }
 
     public void eval(final String sexp) {
-      runOnUiThread(new Runnable() {
-          @Override public void run() {
-            try {
-              adoptMainThreadClassLoader();
-              if (sexp.equals("#DONE#")) {
-                ReplForm.this.finish();
-                return;
+      if (sexp.equals("#DONE#")) {
+        runOnUiThread(new Runnable() {
+            @Override public void run() {
+              ReplForm.this.finish();
+            }
+          });
+        return;
+      }
+      // Each step is run separately so that reading a large project does not block the UI
+      for (final ReplEvalCache.Step step : evalCache.prepare(sexp)) {
+        runOnUiThread(new Runnable() {
+            @Override public void run() {
+              try {
+                adoptMainThreadClassLoader();
+                step.run();
+              } catch (Throwable e) {
+                Log.e(LOG_TAG, "Exception in scheme processing", e);
               }
-              scheme.eval(sexp);
-            } catch (Throwable e) {
-              Log.e(LOG_TAG, "Exception in scheme processing", e);
             }
-          }
-        });
+          });
+      }
     }
   }
 
@@ -493,6 +524,8 @@ public class ReplForm extends Form {
     Log.d(LOG_TAG, Thread.currentThread().toString());
     Log.d(LOG_TAG, Looper.getMainLooper().getThread().toString());
     Looper.getMainLooper().getThread().setContextClassLoader(dexCloader);
+    // Definitions read before may refer to classes that could not be found then
+    schemeInterface.evalCache.clear();
   }
 
   @Override
@@ -525,6 +558,13 @@ public class ReplForm extends Form {
     schemeInterface.eval(sexp);
   }
 
+  /**
+   * Returns the cache of the definitions received from the blocks editor.
+   */
+  public ReplEvalCache getEvalCache() {
+    return schemeInterface.evalCache;
+  }
+
   @Override
   public String getAssetPath(String asset) {
     return "file://" + replAssetDir + asset;
@@ -83,6 +83,7 @@ public class ScatterChartDataModel extends PointChartDataModel<
       }
 
       entries.add(index, entry);
+      entryAdded(index, entry);
     }
   }
 
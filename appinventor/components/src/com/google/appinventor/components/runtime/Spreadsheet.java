@@ -12,6 +12,7 @@ import static android.Manifest.permission.READ_EXTERNAL_STORAGE;
 import static android.Manifest.permission.WRITE_EXTERNAL_STORAGE;
 
 import android.app.Activity;
+import android.os.Handler;
 import android.util.Log;
 import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
 import com.google.api.client.googleapis.json.GoogleJsonResponseException;
@@ -48,12 +49,15 @@ import com.google.appinventor.components.annotations.androidmanifest.IntentFilte
 import com.google.appinventor.components.common.ComponentCategory;
 import com.google.appinventor.components.common.PropertyTypeConstants;
 import com.google.appinventor.components.common.YaVersion;
+import com.google.appinventor.components.runtime.errors.IllegalArgumentError;
 import com.google.appinventor.components.runtime.util.AsynchUtil;
 import com.google.appinventor.components.runtime.util.ChartDataSourceUtil;
 import com.google.appinventor.components.runtime.util.CsvUtil;
 import com.google.appinventor.components.runtime.util.ErrorMessages;
 import com.google.appinventor.components.runtime.util.IOUtils;
 import com.google.appinventor.components.runtime.util.MediaUtil;
+import com.google.appinventor.components.runtime.util.SheetValuesCache;
+import com.google.appinventor.components.runtime.util.SheetsWriteBatch;
 import com.google.appinventor.components.runtime.util.YailList;
 import gnu.lists.LList;
 import gnu.math.DFloNum;
@@ -150,6 +154,8 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
   private static final String LOG_TAG = "SPREADSHEET";
 
   private static final Pattern INTEGER = Pattern.compile("^[0-9]+$");
+  // The number of ranges whose values are kept while ReadCacheDuration is set
+  private static final int MAX_CACHED_RANGES = 32;
   private static final String WEBVIEW_ACTIVITY_CLASS = WebViewActivity.class
       .getName();
   private int requestCode;
@@ -177,6 +183,26 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
 
   private final Map<String, Integer> sheetIdMap = new HashMap<>();
 
+  // Values of recently read ranges, kept for ReadCacheDuration milliseconds
+  private final SheetValuesCache valuesCache = new SheetValuesCache(MAX_CACHED_RANGES, 0);
+
+  // Writes buffered while BatchWrites is true
+  private final SheetsWriteBatch writeBatch = new SheetsWriteBatch(valuesCache);
+  private boolean batchWrites = false;
+  private int batchInterval = 1000;
+  private int batchSize = 50;
+
+  // Flushes the buffered writes once BatchInterval has passed. Only used on the UI thread.
+  private final Handler androidUIHandler = new Handler();
+  private boolean flushScheduled = false;
+  private final Runnable flushTimer = new Runnable() {
+    @Override
+    public void run() {
+      flushScheduled = false;
+      FlushWrites();
+    }
+  };
+
   /**
    * Construct a new Spreadsheet component.
    *
@@ -188,38 +214,46 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     this.activity = componentContainer.$context();
   }
 
-  private synchronized void updateSheetID(String sheetName, int sheetId) {
-    sheetIdMap.put(sheetName, sheetId);
+  private void updateSheetID(String sheetName, int sheetId) {
+    synchronized (sheetIdMap) {
+      sheetIdMap.put(sheetName, sheetId);
+    }
   }
 
-  private synchronized void removeSheetID(String sheetName) {
-    sheetIdMap.remove(sheetName);
+  private void removeSheetID(String sheetName) {
+    synchronized (sheetIdMap) {
+      sheetIdMap.remove(sheetName);
+    }
   }
 
-  private synchronized int getSheetID(Sheets sheetsSvcParam, String sheetName) {
-    if (sheetIdMap.containsKey(sheetName)) {
-      return sheetIdMap.get(sheetName);
-    } else {
-      try {
-        Sheets.Spreadsheets.Get getSheetRequest = sheetsSvcParam.spreadsheets().get(spreadsheetID);
-        List<String> ranges = new ArrayList<>();
-        ranges.add(sheetName);
-        getSheetRequest.setRanges(ranges);
-        getSheetRequest.setIncludeGridData(false);
-        com.google.api.services.sheets.v4.model.Spreadsheet testSheet = getSheetRequest.execute();
-        if (testSheet.size() == 0) {
-          return -1;
-        }
-        int sheetID = testSheet.getSheets().get(0).getProperties().getSheetId();
-        sheetIdMap.put(sheetName, sheetID);
+  // The lock is not held while the spreadsheet metadata is fetched, so that a slow fetch does
+  // not hold up operations on sheets whose IDs are already known.
+  private int getSheetID(Sheets sheetsSvcParam, String sheetName) {
+    synchronized (sheetIdMap) {
+      Integer sheetID = sheetIdMap.get(sheetName);
+      if (sheetID != null) {
         return sheetID;
-      } catch (java.io.IOException e) {
-        ErrorOccurred("getSheetID: IOException - " + e.getMessage());
-        return -1;
-      } catch (Exception e) {
-        ErrorOccurred("getSheetID: Unknown Exception - " + e.getMessage());
+      }
+    }
+    try {
+      Sheets.Spreadsheets.Get getSheetRequest = sheetsSvcParam.spreadsheets().get(spreadsheetID);
+      List<String> ranges = new ArrayList<>();
+      ranges.add(sheetName);
+      getSheetRequest.setRanges(ranges);
+      getSheetRequest.setIncludeGridData(false);
+      com.google.api.services.sheets.v4.model.Spreadsheet testSheet = getSheetRequest.execute();
+      if (testSheet.size() == 0) {
         return -1;
       }
+      int sheetID = testSheet.getSheets().get(0).getProperties().getSheetId();
+      updateSheetID(sheetName, sheetID);
+      return sheetID;
+    } catch (java.io.IOException e) {
+      ErrorOccurred("getSheetID: IOException - " + e.getMessage());
+      return -1;
+    } catch (Exception e) {
+      ErrorOccurred("getSheetID: Unknown Exception - " + e.getMessage());
+      return -1;
     }
   }
 
@@ -252,6 +286,12 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
       String[] parts = spreadsheetID.substring(8).split("/");
       spreadsheetID = parts[3];
     }
+    if (!spreadsheetID.equals(this.spreadsheetID)) {
+      // Sheet IDs belong to a spreadsheet
+      synchronized (sheetIdMap) {
+        sheetIdMap.clear();
+      }
+    }
     this.spreadsheetID = spreadsheetID;
   }
 
@@ -275,6 +315,116 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     this.applicationName = applicationName;
   }
 
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR)
+  public boolean BatchWrites() {
+    return batchWrites;
+  }
+
+  /**
+   * Specifies whether writes are buffered and sent together. When true, the WriteRow,
+   * WriteColumn, WriteCell, WriteRange and AddRow methods do not send a request straight away.
+   * The buffered writes are sent once `BatchInterval` milliseconds have passed, once there are
+   * `BatchSize` of them, when {@link #FlushWrites()} is called, or before any other operation.
+   * Updates are sent as a single request, and rows added to the same sheet are appended by a
+   * single request. The Finished events of the writes are triggered once they have been sent.
+   *
+   *   Setting BatchWrites to false sends any buffered writes.
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN,
+      defaultValue = "False")
+  @SimpleProperty(description = "If true, writes are buffered and sent together once "
+      + "BatchInterval has passed or BatchSize writes have been made.")
+  public void BatchWrites(boolean batchWrites) {
+    this.batchWrites = batchWrites;
+    if (!batchWrites) {
+      FlushWrites();
+    }
+  }
+
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR)
+  public int BatchInterval() {
+    return batchInterval;
+  }
+
+  /**
+   * Specifies how long, in milliseconds, writes are buffered when `BatchWrites` is true, counted
+   * from the first buffered write.
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_INTEGER,
+      defaultValue = "1000")
+  @SimpleProperty(description = "The number of milliseconds that writes are buffered for when "
+      + "BatchWrites is true.")
+  public void BatchInterval(int batchInterval) {
+    if (batchInterval < 0) {
+      throw new IllegalArgumentError("Spreadsheet BatchInterval must be a non-negative integer.");
+    }
+    this.batchInterval = batchInterval;
+  }
+
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR)
+  public int BatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * Specifies the number of buffered writes that are sent at once, without waiting for
+   * `BatchInterval` to pass, when `BatchWrites` is true. If set to 0, writes are only sent once
+   * `BatchInterval` has passed.
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_INTEGER,
+      defaultValue = "50")
+  @SimpleProperty(description = "The number of buffered writes that are sent without waiting "
+      + "for BatchInterval to pass.")
+  public void BatchSize(int batchSize) {
+    if (batchSize < 0) {
+      throw new IllegalArgumentError("Spreadsheet BatchSize must be a non-negative integer.");
+    }
+    this.batchSize = batchSize;
+  }
+
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR)
+  public int ReadCacheDuration() {
+    return (int) valuesCache.getMaxAge();
+  }
+
+  /**
+   * Specifies how long, in milliseconds, the values read from a range are kept. Reading the same
+   * range again within that time uses the kept values instead of sending a request. Writes made
+   * by this component discard the kept values of the sheet written to, but changes made
+   * elsewhere are not seen until the time has passed. If set to 0 (the default), values are not
+   * kept. Only reads made with a credentials file are kept.
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_INTEGER,
+      defaultValue = "0")
+  @SimpleProperty(description = "The number of milliseconds that the values read from a range "
+      + "are kept for reading again. If set to 0, values are not kept.")
+  public void ReadCacheDuration(int duration) {
+    if (duration < 0) {
+      throw new IllegalArgumentError(
+          "Spreadsheet ReadCacheDuration must be a non-negative integer.");
+    }
+    valuesCache.setMaxAge(duration);
+  }
+
+  /**
+   * Sends the writes buffered while `BatchWrites` is true without waiting for `BatchInterval` to
+   * pass.
+   */
+  @SimpleFunction(description = "Sends the buffered writes without waiting for BatchInterval "
+      + "to pass.")
+  public void FlushWrites() {
+    if (flushScheduled) {
+      androidUIHandler.removeCallbacks(flushTimer);
+      flushScheduled = false;
+    }
+    AsynchUtil.runAsynchronously(new Runnable() {
+      @Override
+      public void run() {
+        flushWrites();
+      }
+    });
+  }
+
   /* Utility Functions for Making Calls */
 
   private GoogleCredential authorize() throws IOException {
@@ -317,6 +467,78 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     return sheetsService;
   }
 
+  // Runs an operation in the background once the buffered writes have been sent, so that
+  // operations take effect in the order they were made
+  private void runAsynchronously(final Runnable operation) {
+    AsynchUtil.runAsynchronously(new Runnable() {
+      @Override
+      public void run() {
+        flushWrites();
+        operation.run();
+      }
+    });
+  }
+
+  // Sends the buffered writes. Called on a background thread. The batch is checked for writes
+  // under its flush lock, so this also waits for a flush already under way on another thread.
+  private void flushWrites() {
+    try {
+      writeBatch.flush(getSheetsService());
+    } catch (Exception e) {
+      Log.e(LOG_TAG, "FlushWrites Error", e);
+      ErrorOccurred("FlushWrites: " + e.getMessage());
+    }
+  }
+
+  // Buffers an update of a range while BatchWrites is true
+  private void bufferUpdate(final String method, String rangeRef, List<List<Object>> values,
+      final Runnable finished) {
+    bufferedWrite(writeBatch.update(spreadsheetID, rangeRef, values,
+        new SheetsWriteBatch.Callback() {
+          @Override
+          public void onWritten(int rowNumber) {
+            activity.runOnUiThread(finished);
+          }
+
+          @Override
+          public void onError(Exception e) {
+            Log.e(LOG_TAG, method + " Error", e);
+            ErrorOccurred(method + ": " + e.getMessage());
+          }
+        }));
+  }
+
+  // Schedules the buffered writes to be sent, given the number of writes buffered
+  private void bufferedWrite(int count) {
+    if (batchSize > 0 && count >= batchSize) {
+      FlushWrites();
+    } else if (!flushScheduled) {
+      flushScheduled = true;
+      androidUIHandler.postDelayed(flushTimer, batchInterval);
+    }
+  }
+
+  // Reads the values in a range, using the values kept by ReadCacheDuration if there are any.
+  // Returns an empty list if the range has no values.
+  private List<List<Object>> readValues(Sheets sheetsService, String rangeRef)
+      throws IOException {
+    List<List<Object>> values = valuesCache.get(spreadsheetID, rangeRef,
+        System.currentTimeMillis());
+    if (values != null) {
+      return values;
+    }
+    long generation = valuesCache.getGeneration();
+    values = sheetsService.spreadsheets().values().get(spreadsheetID, rangeRef).execute()
+        .getValues();
+    valuesCache.put(spreadsheetID, rangeRef, values, generation, System.currentTimeMillis());
+    return values == null ? Collections.<List<Object>>emptyList() : values;
+  }
+
+  // Discards the kept values of a sheet once it has been written to
+  private void invalidateSheet(String sheetName) {
+    valuesCache.invalidateSheet(spreadsheetID, sheetName);
+  }
+
   // Yields the A1 notation for the column, e.g. col 1 = A, col 2 = B, etc
   private String getColString(int colNumber) {
     if (colNumber == 0) {
@@ -465,7 +687,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
       return;
     }
 
-    AsynchUtil.runAsynchronously(RetrieveSheet(sheetName, colID, value, true, true));
+    runAsynchronously(RetrieveSheet(sheetName, colID, value, true, true));
   }
 
   /**
@@ -482,7 +704,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
       return;
     }
 
-    AsynchUtil.runAsynchronously(RetrieveSheet(sheetName, colID, value, false, true));
+    runAsynchronously(RetrieveSheet(sheetName, colID, value, false, true));
   }
 
   /* Row-wise Operations */
@@ -511,7 +733,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     final String rangeReference = sheetName +  "!" + rowNumber + ":" + rowNumber;
 
     // Asynchronously fetch the data in the cell
-    AsynchUtil.runAsynchronously(new Runnable() {
+    runAsynchronously(new Runnable() {
       @Override
       public void run () {
         try {
@@ -565,10 +787,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
 
           // Run this if there is a credentials json provided.
           Sheets sheetsService = getSheetsService();
-          ValueRange readResult = sheetsService.spreadsheets().values()
-            .get(spreadsheetID, rangeReference ).execute();
-          // Get the actual data from the response
-          List<List<Object>> values = readResult.getValues();
+          List<List<Object>> values = readValues(sheetsService, rangeReference);
           // If the data we got is empty, then return so.
           if (values == null || values.isEmpty())
             ErrorOccurred("ReadRow: No data found");
@@ -618,7 +837,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
   @SimpleFunction(
     description="Given a list of values as `data`, writes the values to the " +
       "row of the sheet with the given row number.")
-  public void WriteRow (String sheetName, int rowNumber, YailList data) {
+  public void WriteRow (final String sheetName, int rowNumber, YailList data) {
 
     if (spreadsheetID == "" || spreadsheetID == null) {
       ErrorOccurred("WriteRow: " + "SpreadsheetID is empty.");
@@ -641,8 +860,18 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     final ValueRange body = new ValueRange()
       .setValues(values);
 
+    if (batchWrites) {
+      bufferUpdate("WriteRow", rangeRef, body.getValues(), new Runnable() {
+        @Override
+        public void run() {
+          FinishedWriteRow();
+        }
+      });
+      return;
+    }
+
     // Wrap the API Call in an Async Utility
-    AsynchUtil.runAsynchronously(new Runnable() {
+    runAsynchronously(new Runnable() {
       @Override
       public void run () {
         // Surround the operation with a try catch statement
@@ -653,6 +882,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
             .update(spreadsheetID, rangeRef, body)
             .setValueInputOption("USER_ENTERED")
             .execute();
+          invalidateSheet(sheetName);
           // Re-enter main thread to call the Event Block
           activity.runOnUiThread(new Runnable() {
             @Override
@@ -695,7 +925,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
       return;
     }
     // Run the API call asynchronously
-    AsynchUtil.runAsynchronously(new Runnable() {
+    runAsynchronously(new Runnable() {
       @Override
       public void run() {
         try {
@@ -711,6 +941,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
               .setRequests(requests);
           BatchUpdateSpreadsheetResponse response =
               sheetsService.spreadsheets().batchUpdate(spreadsheetID, body).execute();
+          invalidateSheet(sheetName);
           updateSheetID(sheetName,
               response.getReplies().get(0).getAddSheet().getProperties().getSheetId());
 
@@ -757,7 +988,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
       return;
     }
     // Run the API call asynchronously
-    AsynchUtil.runAsynchronously(new Runnable() {
+    runAsynchronously(new Runnable() {
       @Override
       public void run() {
         try {
@@ -769,6 +1000,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
           BatchUpdateSpreadsheetRequest body = new BatchUpdateSpreadsheetRequest()
               .setRequests(requests);
           sheetsService.spreadsheets().batchUpdate(spreadsheetID, body).execute();
+          invalidateSheet(sheetName);
           removeSheetID(sheetName);
 
           // Run the callback event block
@@ -827,17 +1059,36 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     final ValueRange body = new ValueRange()
       .setValues(values).setRange(sheetName);
 
+    if (batchWrites) {
+      bufferedWrite(writeBatch.append(spreadsheetID, sheetName, row,
+          new SheetsWriteBatch.Callback() {
+            @Override
+            public void onWritten(final int rowNumber) {
+              activity.runOnUiThread(new Runnable() {
+                @Override
+                public void run() {
+                  FinishedAddRow(rowNumber);
+                }
+              });
+            }
+
+            @Override
+            public void onError(Exception e) {
+              Log.e(LOG_TAG, "AddRow Error", e);
+              ErrorOccurred("AddRow: " + e.getMessage());
+            }
+          }));
+      return;
+    }
+
     // Run the API call asynchronously
-    AsynchUtil.runAsynchronously(new Runnable() {
+    runAsynchronously(new Runnable() {
       @Override
       public void run() {
         try {
           Sheets sheetsService = getSheetsService();
 
-          ValueRange readResult = sheetsService.spreadsheets().values()
-              .get(spreadsheetID, sheetName).execute();
-          // Get the actual data from the response
-          List<List<Object>> values = readResult.getValues();
+          List<List<Object>> values = readValues(sheetsService, sheetName);
 
           // nextCol gets mutated, keep addedColumn as a constant
           int maxRow = values == null ? 1 : (values.size() + 1);
@@ -849,6 +1100,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
               .setValueInputOption("USER_ENTERED")   // USER_ENTERED or RAW
               .setInsertDataOption("INSERT_ROWS")    // INSERT_ROWS or OVERRIDE
               .execute();
+          invalidateSheet(sheetName);
 
           // getUpdatedRange returns the range that updates were applied in A1
           String updatedRange = response.getUpdates().getUpdatedRange();
@@ -896,7 +1148,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     description="Deletes the row with the given row number from the table." +
       "This does not clear the row, but removes it entirely.")
   public void RemoveRow (final String sheetName, final int rowNumber) {
-    AsynchUtil.runAsynchronously(new Runnable() {
+    runAsynchronously(new Runnable() {
       @Override
       public void run () {
         try{
@@ -921,6 +1173,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
           BatchUpdateSpreadsheetRequest body = new BatchUpdateSpreadsheetRequest()
             .setRequests(requests);
           sheetsService.spreadsheets().batchUpdate(spreadsheetID, body).execute();
+          invalidateSheet(sheetName);
 
           // Run the callback event block
           activity.runOnUiThread(new Runnable() {
@@ -977,7 +1230,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     final String rangeRef = sheetName + "!" + colReference + ":" + colReference;
 
     // Asynchronously fetch the data in the cell and trigger the callback
-    AsynchUtil.runAsynchronously(new Runnable() {
+    runAsynchronously(new Runnable() {
       @Override
       public void run() {
         try {
@@ -1033,9 +1286,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
           // Run this if there is a credentials json provided.
           Sheets sheetsService = getSheetsService();
 
-          ValueRange readResult = sheetsService.spreadsheets().values()
-              .get(spreadsheetID, rangeRef).execute();
-          List<List<Object>> values = readResult.getValues();
+          List<List<Object>> values = readValues(sheetsService, rangeRef);
 
           // If the data we got is empty, then throw an error
           if (values == null || values.isEmpty()) {
@@ -1084,7 +1335,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
   @SimpleFunction(description = "Given a list of values as `data`, this method will write the "
       + "values to the column of the sheet and calls the FinishedWriteColumn event "
       + "once complete.")
-  public void WriteColumn(String sheetName, String column, YailList data) {
+  public void WriteColumn(final String sheetName, String column, YailList data) {
     if (spreadsheetID == null || spreadsheetID.isEmpty()) {
       ErrorOccurred("WriteColumn: " + "SpreadsheetID is empty.");
       return;
@@ -1111,8 +1362,18 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     final ValueRange body = new ValueRange()
         .setValues(values);
 
+    if (batchWrites) {
+      bufferUpdate("WriteColumn", rangeRef, body.getValues(), new Runnable() {
+        @Override
+        public void run() {
+          FinishedWriteColumn();
+        }
+      });
+      return;
+    }
+
     // Wrap the API Call in an Async Utility
-    AsynchUtil.runAsynchronously(new Runnable() {
+    runAsynchronously(new Runnable() {
       @Override
       public void run() {
         // Surround the operation with a try catch statement
@@ -1123,6 +1384,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
             .update(spreadsheetID, rangeRef, body)
             .setValueInputOption("USER_ENTERED")
             .execute();
+          invalidateSheet(sheetName);
           // Run the callback function
           activity.runOnUiThread(new Runnable() {
             @Override
@@ -1179,17 +1441,14 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
         .setValues(values);
 
     // Wrap the API Call in an Async Utility
-    AsynchUtil.runAsynchronously(new Runnable() {
+    runAsynchronously(new Runnable() {
       @Override
       public void run() {
         // Surround the operation with a try catch statement
         try {
           Sheets sheetsService = getSheetsService();
 
-          ValueRange readResult = sheetsService.spreadsheets().values()
-            .get(spreadsheetID, sheetName).execute();
-          // Get the actual data from the response
-          List<List<Object>> values = readResult.getValues();
+          List<List<Object>> values = readValues(sheetsService, sheetName);
           // If the data we got is empty, then return so.
           if (values == null || values.isEmpty()) {
             ErrorOccurred("AddColumn: No data found");
@@ -1214,6 +1473,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
               .update(spreadsheetID, rangeRef, body)
               .setValueInputOption("USER_ENTERED")
               .execute();
+          invalidateSheet(sheetName);
 
           activity.runOnUiThread(new Runnable() {
             @Override
@@ -1261,7 +1521,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
       columnNumber = getColNum(column);
     }
 
-    AsynchUtil.runAsynchronously(new Runnable() {
+    runAsynchronously(new Runnable() {
       @Override
       public void run() {
         try {
@@ -1286,6 +1546,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
           BatchUpdateSpreadsheetRequest body = new BatchUpdateSpreadsheetRequest()
               .setRequests(requests);
           sheetsService.spreadsheets().batchUpdate(spreadsheetID, body).execute();
+          invalidateSheet(sheetName);
           // Run the callback event
           activity.runOnUiThread(new Runnable() {
             @Override
@@ -1339,7 +1600,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     }
 
     // 2. Asynchronously fetch the data in the cell
-    AsynchUtil.runAsynchronously(new Runnable() {
+    runAsynchronously(new Runnable() {
       @Override
       public void run() {
         Log.d(LOG_TAG, "Reading Cell: " + cellReference);
@@ -1399,9 +1660,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
 
           // Run this if there is a credentials json provided.
           Sheets sheetsService = getSheetsService();
-          ValueRange readResult = sheetsService.spreadsheets().values()
-            .get(spreadsheetID, sheetName + "!" + cellReference).execute();
-          List<List<Object>> values = readResult.getValues();
+          List<List<Object>> values = readValues(sheetsService, sheetName + "!" + cellReference);
 
           // If the data we got is empty, then return so.
           if (values == null || values.isEmpty()) {
@@ -1462,7 +1721,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
   @SimpleFunction(
     description="Given text or a number as `data`, writes the value into the " +
       "cell. Once complete, it triggers the FinishedWriteCell callback event")
-  public void WriteCell (String sheetName, String cellReference, Object data) {
+  public void WriteCell (final String sheetName, String cellReference, Object data) {
     if (spreadsheetID == "") {
       ErrorOccurred("WriteCell: " + "SpreadsheetID is empty.");
       return;
@@ -1480,8 +1739,18 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
       ));
     Log.d(LOG_TAG, "Writing Cell: " + rangeRef);
 
+    if (batchWrites) {
+      bufferUpdate("WriteCell", rangeRef, body.getValues(), new Runnable() {
+        @Override
+        public void run() {
+          FinishedWriteCell();
+        }
+      });
+      return;
+    }
+
     // Wrap the API Call in an Async Utility
-    AsynchUtil.runAsynchronously(new Runnable() {
+    runAsynchronously(new Runnable() {
       @Override
       public void run () {
         // Running the getSheetsService and executing the command may cause
@@ -1497,6 +1766,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
             .update(spreadsheetID, rangeRef, body)
             .setValueInputOption("USER_ENTERED") // USER_ENTERED or RAW
             .execute();
+          invalidateSheet(sheetName);
           // Trigger the Callback
           activity.runOnUiThread(new Runnable() {
             @Override
@@ -1555,7 +1825,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     //   Use the Google Sheets API
 
     // Asynchronously fetch the data in the cell
-    AsynchUtil.runAsynchronously(new Runnable() {
+    runAsynchronously(new Runnable() {
       @Override
       public void run () {
         Log.d(LOG_TAG, "Reading Range: " + rangeReference);
@@ -1603,10 +1873,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
 
           // Run this if there is a credentials json provided.
           Sheets sheetsService = getSheetsService();
-          ValueRange readResult = sheetsService.spreadsheets().values()
-            .get(spreadsheetID, sheetName + "!" + rangeReference).execute();
-          // Get the actual data from the response
-          List<List<Object>> values = readResult.getValues();
+          List<List<Object>> values = readValues(sheetsService, sheetName + "!" + rangeReference);
 
           // No Data Found
           if (values == null || values.isEmpty()) {
@@ -1663,7 +1930,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     description="Given list of lists as `data`, writes the values into the " +
       "range. The number of rows and columns in the range reference must " +
       "match the dimensions of the data.")
-  public void WriteRange (String sheetName, String rangeReference, YailList data) {
+  public void WriteRange (final String sheetName, String rangeReference, YailList data) {
     if (spreadsheetID == "" || spreadsheetID == null) {
       ErrorOccurred("WriteRange: " + "SpreadsheetID is empty.");
       return;
@@ -1704,8 +1971,18 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     final ValueRange body = new ValueRange()
       .setValues(values);
     Log.d(LOG_TAG, "Body's Range in A1: " + body.getRange());
+    if (batchWrites) {
+      bufferUpdate("WriteRange", rangeRef, body.getValues(), new Runnable() {
+        @Override
+        public void run() {
+          FinishedWriteRange();
+        }
+      });
+      return;
+    }
+
     // Wrap the API Call in an Async Utility
-    AsynchUtil.runAsynchronously(new Runnable() {
+    runAsynchronously(new Runnable() {
       @Override
       public void run () {
         try {
@@ -1715,6 +1992,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
             .update(spreadsheetID, rangeRef, body)
             .setValueInputOption("USER_ENTERED") // USER_ENTERED or RAW
             .execute();
+          invalidateSheet(sheetName);
           activity.runOnUiThread(new Runnable() {
             @Override
             public void run() {
@@ -1756,7 +2034,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
   @SimpleFunction(
     description="Empties the cells in the given range. Once complete, this " +
       "block triggers the FinishedClearRange callback event.")
-  public void ClearRange (String sheetName, String rangeReference) {
+  public void ClearRange (final String sheetName, String rangeReference) {
     if (spreadsheetID == "" || spreadsheetID == null) {
       ErrorOccurred("ClearRange: " + "SpreadsheetID is empty.");
       return;
@@ -1769,7 +2047,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     Log.d(LOG_TAG, "Clearing Range: " + rangeRef);
 
     // Runs the Clear call asynchronously
-    AsynchUtil.runAsynchronously(new Runnable() {
+    runAsynchronously(new Runnable() {
       @Override
       public void run () {
         try {
@@ -1778,6 +2056,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
           sheetsService.spreadsheets().values()
             .clear(spreadsheetID, rangeRef, new ClearValuesRequest())
             .execute();
+          invalidateSheet(sheetName);
           form.runOnUiThread(new Runnable() {
             @Override
             public void run() {
@@ -1826,7 +2105,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
       ErrorOccurred("ReadSheet: " + "SpreadsheetID is empty.");
       return;
     }
-    AsynchUtil.runAsynchronously(RetrieveSheet(sheetName, -1, null, false, true));
+    runAsynchronously(RetrieveSheet(sheetName, -1, null, false, true));
   }
 
   Runnable RetrieveSheet(final String sheetName, final int colID, final String value,
@@ -1913,11 +2192,8 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
           Sheets sheetsService = getSheetsService();
           Log.d(LOG_TAG, "Reading Sheet: Got sheet service");
           // Spreadsheet sheet = sheetsService.spreadsheets().get(spreadsheetID).execute();
-          ValueRange readResult = sheetsService.spreadsheets().values()
-              .get(spreadsheetID, sheetName).execute();
+          List<List<Object>> values = readValues(sheetsService, sheetName);
           Log.d(LOG_TAG, "Got read result");
-          // Get the actual data from the response
-          List<List<Object>> values = readResult.getValues();
           Log.d(LOG_TAG, "Reading Sheet: values count " + values.size());
 
           // No Data Found
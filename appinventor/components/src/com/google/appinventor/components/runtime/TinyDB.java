@@ -29,6 +29,7 @@ import com.google.appinventor.components.runtime.util.YailDictionary;
 import com.google.appinventor.components.runtime.util.YailList;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -101,6 +102,18 @@ public class TinyDB extends AndroidNonvisibleComponent implements Component, Del
   // SharedPreferences listener used to notify observers
   private final SharedPreferences.OnSharedPreferenceChangeListener sharedPreferenceChangeListener;
 
+  private boolean writeInBackground = false;
+
+  // Text, numbers and booleans decoded by GetValue, by tag. Lists and dictionaries are not kept,
+  // since blocks may modify them. Entries are removed by the SharedPreferences change listener
+  // whenever a TinyDB component writes a tag, and all of them are dropped after a clear, which
+  // does not notify the listener on older versions of Android.
+  private final Map<String, Object> decodedValues = new HashMap<>();
+
+  // Incremented whenever a TinyDB component clears its data store.
+  private static int clearCount = 0;
+  private int decodedClearCount = clearCount;
+
 
   /**
    * Creates a new TinyDB component.
@@ -114,8 +127,16 @@ public class TinyDB extends AndroidNonvisibleComponent implements Component, Del
     sharedPreferenceChangeListener = new SharedPreferences.OnSharedPreferenceChangeListener() {
       @Override
       public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key) {
-        // Upon value change, notify the observers with the key and the value
-        notifyDataObservers(key, GetValue(key, null));
+        if (key == null) {
+          decodedValues.clear();
+        } else {
+          decodedValues.remove(key);
+        }
+        // Upon value change, notify the observers with the key and the value. Without
+        // observers there is no need to decode the value.
+        if (!dataSourceObservers.isEmpty()) {
+          notifyDataObservers(key, GetValue(key, null));
+        }
       }
     };
 
@@ -144,6 +165,7 @@ public class TinyDB extends AndroidNonvisibleComponent implements Component, Del
     }
 
     sharedPreferences = context.getSharedPreferences(namespace, Context.MODE_PRIVATE);
+    decodedValues.clear();
 
     // Register the SharedPreferences change listener
     sharedPreferences.registerOnSharedPreferenceChangeListener(sharedPreferenceChangeListener);
@@ -154,6 +176,28 @@ public class TinyDB extends AndroidNonvisibleComponent implements Component, Del
     return namespace;
   }
 
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR)
+  public boolean WriteInBackground() {
+    return writeInBackground;
+  }
+
+  /**
+   * Specifies whether values are written to storage in the background. When false (the default),
+   * `StoreValue`, `ClearTag` and `ClearAll` wait until the data store has been written to storage.
+   * When true, they return at once and the data is written shortly afterwards, which makes apps
+   * that store many values more responsive. Values written in the background are available to
+   * `GetValue` straight away, but may be lost if the device loses power before they are written.
+   *
+   * @param writeInBackground true to write values in the background
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN,
+      defaultValue = "False")
+  @SimpleProperty(description = "If true, values are written to storage in the background "
+      + "instead of waiting for the write to finish.")
+  public void WriteInBackground(boolean writeInBackground) {
+    this.writeInBackground = writeInBackground;
+  }
+
   /**
    * Store the given `valueToStore`{:.variable.block} under the given `tag`{:.text.block}.
    * The storage persists on the phone when the app is restarted.
@@ -168,7 +212,8 @@ public class TinyDB extends AndroidNonvisibleComponent implements Component, Del
     final SharedPreferences.Editor sharedPrefsEditor = sharedPreferences.edit();
     try {
       sharedPrefsEditor.putString(tag, JsonUtil.getJsonRepresentation(valueToStore));
-      sharedPrefsEditor.commit();
+      save(sharedPrefsEditor);
+      decodedValues.remove(tag);
     } catch (JSONException e) {
       throw new YailRuntimeError("Value failed to convert to JSON.", "JSON Creation Error.");
     }
@@ -190,7 +235,22 @@ public class TinyDB extends AndroidNonvisibleComponent implements Component, Del
       String value = sharedPreferences.getString(tag, "");
       // If there's no entry with tag as a key then return the empty string.
       //    was  return (value.length() == 0) ? "" : JsonUtil.getObjectFromJson(value);
-      return (value.length() == 0) ? valueIfTagNotThere : JsonUtil.getObjectFromJson(value, true);
+      if (value.length() == 0) {
+        return valueIfTagNotThere;
+      }
+      if (decodedClearCount != clearCount) {
+        decodedValues.clear();
+        decodedClearCount = clearCount;
+      }
+      Object decoded = decodedValues.get(tag);
+      if (decoded == null) {
+        decoded = JsonUtil.getObjectFromJson(value, true);
+        if (decoded instanceof String || decoded instanceof Number
+            || decoded instanceof Boolean) {
+          decodedValues.put(tag, decoded);
+        }
+      }
+      return decoded;
     } catch (JSONException e) {
       throw new YailRuntimeError("Value failed to convert from JSON.", "JSON Creation Error.");
     }
@@ -219,7 +279,9 @@ public class TinyDB extends AndroidNonvisibleComponent implements Component, Del
   public void ClearAll() {
     final SharedPreferences.Editor sharedPrefsEditor = sharedPreferences.edit();
     sharedPrefsEditor.clear();
-    sharedPrefsEditor.commit();
+    save(sharedPrefsEditor);
+    clearCount++;
+    decodedValues.clear();
     notifyDataObservers(null, null); // Notify observers with null value to be interpreted as clear
   }
 
@@ -232,17 +294,31 @@ public class TinyDB extends AndroidNonvisibleComponent implements Component, Del
   public void ClearTag(final String tag) {
     final SharedPreferences.Editor sharedPrefsEditor = sharedPreferences.edit();
     sharedPrefsEditor.remove(tag);
-    sharedPrefsEditor.commit();
+    save(sharedPrefsEditor);
+    decodedValues.remove(tag);
   }
 
   @Override
   public void onDelete() {
     final SharedPreferences.Editor sharedPrefsEditor = sharedPreferences.edit();
     sharedPrefsEditor.clear();
-    sharedPrefsEditor.commit();
+    save(sharedPrefsEditor);
+    clearCount++;
+    decodedValues.clear();
     notifyDataObservers(null, null); // Notify observers with null value to be interpreted as clear
   }
 
+  private void save(SharedPreferences.Editor sharedPrefsEditor) {
+    if (writeInBackground) {
+      // apply() updates the in-memory preferences at once and writes them to disk in the
+      // background. Android coalesces pending writes and finishes them when the activity
+      // pauses or stops.
+      sharedPrefsEditor.apply();
+    } else {
+      sharedPrefsEditor.commit();
+    }
+  }
+
   /**
    * Returns the specified List object identified by the key. If the
    * value is not a List object, or it does not exist, an empty List
@@ -22,10 +22,14 @@ import com.google.appinventor.components.runtime.errors.YailRuntimeError;
 import com.google.appinventor.components.runtime.util.AsyncCallbackPair;
 import com.google.appinventor.components.runtime.util.AsynchUtil;
 import com.google.appinventor.components.runtime.util.JsonUtil;
+import com.google.appinventor.components.runtime.util.RequestScheduler;
 import com.google.appinventor.components.runtime.util.WebServiceUtil;
 
 import android.os.Handler;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.http.NameValuePair;
 import org.apache.http.message.BasicNameValuePair;
 import org.json.JSONArray;
@@ -78,6 +82,8 @@ public class TinyWebDB extends AndroidNonvisibleComponent implements Component {
 
   private String serviceURL;
   private Handler androidUIHandler;
+  private final RequestScheduler scheduler =
+      new RequestScheduler(RequestScheduler.DEFAULT_MAX_REQUESTS_PER_HOST);
 
   /**
    * Creates a new TinyWebDB component.
@@ -154,6 +160,8 @@ public class TinyWebDB extends AndroidNonvisibleComponent implements Component {
   // The @SimpleFunction annotation arranges for this to be a
   // function (StoreValue)  associated with the component.
   public void StoreValue(final String tag, final Object valueToStore) {
+    // A GetValue after this call must not be answered by a request sent before it.
+    scheduler.forget(getValueKey(tag));
     final Runnable call = new Runnable() {
       public void run() { postStoreValue(tag, valueToStore); }};
       AsynchUtil.runAsynchronously(call);
@@ -175,7 +183,7 @@ public class TinyWebDB extends AndroidNonvisibleComponent implements Component {
   // WebServiceError, which will signal a WebServiceError event for the
   // application.
 
-  private void postStoreValue(String tag, Object valueToStore) {
+  private void postStoreValue(final String tag, Object valueToStore) {
     // The commented-out Log.w command writes a message to the
     // AppInventor Web server log.  It's useful to include these
     // commands to aid in debugging while the component is being
@@ -189,6 +197,8 @@ public class TinyWebDB extends AndroidNonvisibleComponent implements Component {
         // the result here will be the JSON-encoded list ["STORED", tag, value]
         // but the component ignores this
         // Log.w(LOG_TAG, "postStoreValue: got result " + result);
+        // A GetValue sent while the value was being stored may have read the old value.
+        scheduler.forget(getValueKey(tag));
         androidUIHandler.post(new Runnable() {
             public void run() {
               // Signal an event to indicate that the value was
@@ -264,23 +274,33 @@ public class TinyWebDB extends AndroidNonvisibleComponent implements Component {
       + "the given tag. The Web service must decide what to return if there is no value stored "
       + "under the tag. This component accepts whatever is returned.")
   public void GetValue(final String tag) {
-    final Runnable call = new Runnable() { public void run() { postGetValue(tag); }};
-    AsynchUtil.runAsynchronously(call);
+    // A GetValue for a tag that is already being fetched from the same service is answered by
+    // that request rather than sending another.
+    scheduler.submit(RequestScheduler.hostOf(serviceURL), getValueKey(tag), null,
+        new RequestScheduler.Task() {
+          @Override
+          public void run(RequestScheduler.Request request) {
+            postGetValue(tag, request);
+          }
+        });
   }
 
-  private void postGetValue(final String tag) {
+  private String getValueKey(String tag) {
+    return serviceURL + '\n' + GETVALUE_COMMAND + '\n' + tag;
+  }
+
+  private void postGetValue(final String tag, final RequestScheduler.Request request) {
     // Log.w(LOG_TAG, "postGetValue: sending tag = " + tag);
+    // Each event below is signaled once for each GetValue call that this request answers.
     AsyncCallbackPair<JSONArray> myCallback = new AsyncCallbackPair<JSONArray>() {
       public void onSuccess(JSONArray result) {
+        final int calls = request.finish();
         if (result == null) {
           // Signal a Web error event to indicate that there was no response
           // to this request for a value.
-          androidUIHandler.post(new Runnable() {
-              public void run() {
-                WebServiceError("The Web server did not respond to the get value request " +
-                                "for the tag " + tag + ".");
-              }
-            });
+          signalWebServiceError(calls,
+              "The Web server did not respond to the get value request " +
+              "for the tag " + tag + ".");
           return;
         } else {
           try {
@@ -288,14 +308,20 @@ public class TinyWebDB extends AndroidNonvisibleComponent implements Component {
             // The Web service is designed to return the JSON encoded list ["VALUE", tag, value]
             final String tagFromWebDB = result.getString(1);
             String value = result.getString(2);
-            // If there's no entry with tag as a key then return the empty string.
-            final Object valueFromWebDB = (value.length() == 0) ? "" :
-                JsonUtil.getObjectFromJson(value, true);
+            // If there's no entry with tag as a key then return the empty string. Lists and
+            // dictionaries can be changed by the event handler, so each call gets its own.
+            final List<Object> valuesFromWebDB = new ArrayList<Object>(calls);
+            for (int i = 0; i < calls; i++) {
+              valuesFromWebDB.add((value.length() == 0) ? "" :
+                  JsonUtil.getObjectFromJson(value, true));
+            }
             androidUIHandler.post(new Runnable() {
               public void run() {
                 // signal an event to indicate that a good value was returned.  Note
                 // that the event handler takes the value as an argument.
-                GotValue(tagFromWebDB, valueFromWebDB);
+                for (Object valueFromWebDB : valuesFromWebDB) {
+                  GotValue(tagFromWebDB, valueFromWebDB);
+                }
               }
             });
           } catch (JSONException e) {
@@ -303,12 +329,8 @@ public class TinyWebDB extends AndroidNonvisibleComponent implements Component {
             // returned a garbled value.  From the user's perspective, there may be no practical
             // difference between this and the "no response" error above, but application
             // writers can create handlers to use these events as they choose.
-            androidUIHandler.post(new Runnable() {
-              public void run() {
-                WebServiceError("The Web server returned a garbled value " +
-                    "for the tag " + tag + ".");
-              }
-            });
+            signalWebServiceError(calls, "The Web server returned a garbled value " +
+                "for the tag " + tag + ".");
             return;
           }
         }
@@ -317,11 +339,7 @@ public class TinyWebDB extends AndroidNonvisibleComponent implements Component {
         // Signal a Web error event to indicate that there was no response
         // to this request for a value.  Note that this needs to be posted to the UI
         // thread to avoid a subsequent UI event causing an exception.
-        androidUIHandler.post(new Runnable() {
-          public void run() {
-            WebServiceError(message);
-          }
-        });
+        signalWebServiceError(request.finish(), message);
         return;
       }
     };
@@ -333,6 +351,16 @@ public class TinyWebDB extends AndroidNonvisibleComponent implements Component {
     return;
   }
 
+  private void signalWebServiceError(final int calls, final String message) {
+    androidUIHandler.post(new Runnable() {
+      public void run() {
+        for (int i = 0; i < calls; i++) {
+          WebServiceError(message);
+        }
+      }
+    });
+  }
+
   /**
    * Indicates that a {@link #GetValue(String)} server request has succeeded.
    *
@@ -27,18 +27,24 @@ import com.google.appinventor.components.common.LOBFValues;
 import com.google.appinventor.components.common.LinearRegression;
 import com.google.appinventor.components.common.OptionList;
 import com.google.appinventor.components.common.PropertyTypeConstants;
+import com.google.appinventor.components.common.RunningRegression;
 import com.google.appinventor.components.common.StrokeStyle;
 import com.google.appinventor.components.common.TrendlineCalculator;
 import com.google.appinventor.components.common.YaVersion;
 import com.google.appinventor.components.runtime.util.ExponentialRegression;
 import com.google.appinventor.components.runtime.util.HasTrendline;
+import com.google.appinventor.components.runtime.util.JellybeanUtil;
 import com.google.appinventor.components.runtime.util.LogarithmicRegression;
 import com.google.appinventor.components.runtime.util.QuadraticRegression;
+import com.google.appinventor.components.runtime.util.SdkLevel;
 import com.google.appinventor.components.runtime.util.YailDictionary;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * The Trendline component can be used to visualize the trend of a data series represented by a
@@ -103,6 +109,24 @@ public class Trendline implements ChartComponent, DataSourceChangeListener {
   private double maxX = Double.NEGATIVE_INFINITY;
   private final float density;
 
+  // The entries of the data source, in order, and the running sums of the current model over
+  // them, which are updated in place from the entries the data source reports as added or
+  // removed. Entries do not override equals, so the set holds them by identity.
+  private final Object fitLock = new Object();
+  private final Set<Entry> fittedEntries = new LinkedHashSet<>();
+  private RunningRegression fit = regression.newRunningRegression();
+  private int removedSinceRebuild = 0;
+  private double fitMinX = Double.POSITIVE_INFINITY;
+  private double fitMaxX = Double.NEGATIVE_INFINITY;
+  private boolean extentsStale = false;
+  private boolean updatePending = false;
+  private final Runnable updateTrendline = new Runnable() {
+    @Override
+    public void run() {
+      updateResults();
+    }
+  };
+
   /**
    * Constructs a new Trendline component to be rendered on the given {@code chartContainer}.
    *
@@ -145,7 +169,6 @@ public class Trendline implements ChartComponent, DataSourceChangeListener {
 
   @Override
   public void onDataSourceValueChange(DataSource<?, ?> component, String key, Object newValue) {
-    lastResults.clear();
     Object value = component.getDataValue(null);
     if (DEBUG) {
       Log.d(LOG_TAG, "onDataSourceValueChange");
@@ -154,51 +177,12 @@ public class Trendline implements ChartComponent, DataSourceChangeListener {
     if (!(value instanceof List)) {
       return;
     }
-    List<?> entries = (List<?>) value;
-    List<Double> x = new ArrayList<>();
-    List<Double> y = new ArrayList<>();
-    minX = Double.POSITIVE_INFINITY;
-    maxX = Double.NEGATIVE_INFINITY;
-    for (Object o : entries) {
-      if (o instanceof Entry) {
-        Entry entry = (Entry) o;
-        double currentX = entry.getX();
-        if (currentX < minX) {
-          minX = currentX;
-        }
-        if (currentX > maxX) {
-          maxX = currentX;
-        }
-        x.add(currentX);
-        y.add((double) entry.getY());
-      }
-    }
-    if (x.isEmpty()) {
-      Log.w(LOG_TAG, "No entries in the data source");
-      return;
-    } else if (x.size() < 2) {
-      Log.w(LOG_TAG, "Not enough entries in the data source");
-      return;
-    } else if (x.size() != y.size()) {
-      Log.w(LOG_TAG, "Must have equal X and Y data points");
-      return;
-    }
-    lastResults = currentModel.compute(x, y);
-    if (DEBUG) {
-      Log.d(LOG_TAG, "lastResults = " + lastResults);
-    }
-    if (initialized) {
-      final YailDictionary results = new YailDictionary(lastResults, ENUM_KEY_TRANSFORMER);
-      container.$form().runOnUiThread(new Runnable() {
-        @Override
-        public void run() {
-          Updated(results);
-          if (visible) {
-            container.getChartView().getView().invalidate();
-          }
-        }
-      });
+    // The entries are read here, on the thread that changed them, but the trendline is only
+    // recomputed when the chart is next drawn.
+    synchronized (fitLock) {
+      updateFit((List<?>) value, newValue);
     }
+    scheduleUpdate();
   }
 
   @Override
@@ -341,6 +325,15 @@ public class Trendline implements ChartComponent, DataSourceChangeListener {
       default:
         throw new IllegalArgumentException("Unknown model: " + model);
     }
+    boolean hasEntries;
+    synchronized (fitLock) {
+      fit = currentModel.newRunningRegression();
+      rebuildFit(new ArrayList<Object>(fittedEntries));
+      hasEntries = !fittedEntries.isEmpty();
+    }
+    if (hasEntries) {
+      scheduleUpdate();
+    }
     if (initialized) {
       container.refresh();
     }
@@ -506,6 +499,9 @@ public class Trendline implements ChartComponent, DataSourceChangeListener {
     if (chartData != null) {
       chartData.removeDataSourceChangeListener(this);
     }
+    synchronized (fitLock) {
+      rebuildFit(new ArrayList<Object>());
+    }
     lastResults.clear();
     container.refresh();
   }
@@ -555,6 +551,149 @@ public class Trendline implements ChartComponent, DataSourceChangeListener {
     return null;
   }
 
+  /**
+   * Brings the running sums up to date with the changes reported by the data source. Entries
+   * added to the end or removed, as when a chart is fed by a sensor, update the sums in constant
+   * time per entry. Any other change, or a change the data source does not describe, rebuilds
+   * the sums from the entries.
+   */
+  private void updateFit(List<?> entries, Object changes) {
+    if (!(changes instanceof DataModel.EntryChanges)
+        || ((DataModel.EntryChanges<?>) changes).isReplaced()) {
+      rebuildFit(entries);
+      return;
+    }
+    DataModel.EntryChanges<?> entryChanges = (DataModel.EntryChanges<?>) changes;
+    for (int i = 0; i < entryChanges.size(); i++) {
+      Object o = entryChanges.getEntry(i);
+      if (!(o instanceof Entry)) {
+        continue;
+      }
+      Entry entry = (Entry) o;
+      if (!entryChanges.isRemoval(i)) {
+        addToFit(entry);
+      } else if (fittedEntries.remove(entry)) {
+        fit.remove(entry.getX(), entry.getY());
+        removedSinceRebuild++;
+        if (entry.getX() <= fitMinX || entry.getX() >= fitMaxX) {
+          extentsStale = true;
+        }
+      }
+    }
+    // Rebuilding once as many entries have been removed as remain bounds the rounding error of
+    // the sums at a constant amortized cost per entry.
+    if (removedSinceRebuild > fittedEntries.size()) {
+      rebuildFit(entries);
+    }
+  }
+
+  private void rebuildFit(List<?> entries) {
+    fit.clear();
+    fittedEntries.clear();
+    removedSinceRebuild = 0;
+    extentsStale = false;
+    fitMinX = Double.POSITIVE_INFINITY;
+    fitMaxX = Double.NEGATIVE_INFINITY;
+    for (Object o : entries) {
+      if (o instanceof Entry) {
+        addToFit((Entry) o);
+      }
+    }
+  }
+
+  private void addToFit(Entry entry) {
+    // The entry may have been read with the others when the sums were last rebuilt.
+    if (!fittedEntries.add(entry)) {
+      return;
+    }
+    double currentX = entry.getX();
+    if (currentX < fitMinX) {
+      fitMinX = currentX;
+    }
+    if (currentX > fitMaxX) {
+      fitMaxX = currentX;
+    }
+    fit.add(currentX, entry.getY());
+  }
+
+  /**
+   * Arranges for the trendline to be recomputed when the next frame is drawn, so that the model
+   * is solved at most once per frame however often the data changes.
+   */
+  private void scheduleUpdate() {
+    synchronized (fitLock) {
+      if (updatePending) {
+        return;
+      }
+      updatePending = true;
+    }
+    container.$form().runOnUiThread(new Runnable() {
+      @Override
+      public void run() {
+        if (SdkLevel.getLevel() >= SdkLevel.LEVEL_JELLYBEAN) {
+          JellybeanUtil.postFrameCallback(updateTrendline);
+        } else {
+          updateTrendline.run();
+        }
+      }
+    });
+  }
+
+  private void updateResults() {
+    Map<String, Object> results = null;
+    synchronized (fitLock) {
+      updatePending = false;
+      if (extentsStale) {
+        fitMinX = Double.POSITIVE_INFINITY;
+        fitMaxX = Double.NEGATIVE_INFINITY;
+        for (Entry entry : fittedEntries) {
+          fitMinX = Math.min(fitMinX, entry.getX());
+          fitMaxX = Math.max(fitMaxX, entry.getX());
+        }
+        extentsStale = false;
+      }
+      minX = fitMinX;
+      maxX = fitMaxX;
+      if (fit.getCount() == 0) {
+        Log.w(LOG_TAG, "No entries in the data source");
+      } else if (fit.getCount() < 2) {
+        Log.w(LOG_TAG, "Not enough entries in the data source");
+      } else {
+        results = currentModel.compute(fit, new AbstractList<Double>() {
+          private List<Entry> ordered = null;
+
+          @Override
+          public Double get(int index) {
+            // Only the models that predict a value for each entry read the x values.
+            if (ordered == null) {
+              ordered = new ArrayList<>(fittedEntries);
+            }
+            return (double) ordered.get(index).getX();
+          }
+
+          @Override
+          public int size() {
+            return fittedEntries.size();
+          }
+        });
+      }
+    }
+    if (results == null) {
+      lastResults = new HashMap<>();
+      return;
+    }
+    lastResults = results;
+    if (DEBUG) {
+      Log.d(LOG_TAG, "lastResults = " + lastResults);
+    }
+    if (initialized) {
+      Updated(new YailDictionary(lastResults, ENUM_KEY_TRANSFORMER));
+      if (visible) {
+        container.getChartView().getView().invalidate();
+      }
+    }
+  }
+
   private DashPathEffect getDashPathEffect() {
     switch (strokeStyle) {
       case Dashed:
@@ -52,18 +52,23 @@ import com.google.appinventor.components.runtime.util.FileUtil;
 import com.google.appinventor.components.runtime.util.GingerbreadUtil;
 import com.google.appinventor.components.runtime.util.JsonUtil;
 import com.google.appinventor.components.runtime.util.MediaUtil;
+import com.google.appinventor.components.runtime.util.RequestScheduler;
 import com.google.appinventor.components.runtime.util.SdkLevel;
+import com.google.appinventor.components.runtime.util.WebResponseCache;
 import com.google.appinventor.components.runtime.util.XmlParser;
 import com.google.appinventor.components.runtime.util.YailDictionary;
 import com.google.appinventor.components.runtime.util.YailList;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
 import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
 
@@ -80,11 +85,15 @@ import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
@@ -166,8 +175,11 @@ public class Web extends AndroidNonvisibleComponent implements Component,
     final boolean saveResponse;
     final String responseFileName;
     final int timeout;
+    final long responseCacheSize;
     final Map<String, List<String>> requestHeaders;
     final Map<String, List<String>> cookies;
+    final String responseTextEncoding;
+    final boolean dropStaleResponses;
 
     CapturedProperties(Web web) throws MalformedURLException, InvalidRequestHeadersException {
       urlString = web.urlString;
@@ -176,6 +188,7 @@ public class Web extends AndroidNonvisibleComponent implements Component,
       saveResponse = web.saveResponse;
       responseFileName = web.responseFileName;
       timeout = web.timeout;
+      responseCacheSize = 1024L * web.responseCacheSize;
       requestHeaders = processRequestHeaders(web.requestHeaders);
 
       Map<String, List<String>> cookiesTemp = null;
@@ -189,11 +202,42 @@ public class Web extends AndroidNonvisibleComponent implements Component,
         }
       }
       cookies = cookiesTemp;
+      responseTextEncoding = web.responseTextEncoding;
+      dropStaleResponses = web.dropStaleResponses;
+    }
+
+    /**
+     * Returns a key that is the same for GET requests that would get the same response.
+     */
+    String getRequestKey() {
+      return urlString + '\n' + requestHeaders + '\n' + cookies + '\n' + saveResponse + '\n'
+          + responseFileName + '\n' + responseTextEncoding + '\n' + timeout + '\n'
+          + responseCacheSize;
+    }
+
+    /**
+     * Returns the key of the cached response to a GET request. The request headers and cookies
+     * may select a different response from the same URL, so they are part of the key.
+     */
+    String getCacheKey() {
+      if (requestHeaders.isEmpty() && (cookies == null || cookies.isEmpty())) {
+        return urlString;
+      }
+      return urlString + '\n' + new TreeMap<String, List<String>>(requestHeaders) + '\n'
+          + (cookies == null ? "" : new TreeMap<String, List<String>>(cookies));
     }
   }
 
   private static final String LOG_TAG = "Web";
 
+  // The cache of responses to GET requests, shared by all of the Web components of the app.
+  private static WebResponseCache responseCache;
+
+  // The ResponseCacheSize of each Web component using the response cache, in bytes. The cache
+  // may grow to the largest of them. Guarded by Web.class.
+  private static final Map<Web, Long> responseCacheSizes = new WeakHashMap<Web, Long>();
+  private static long responseCacheMaxSize = 0;
+
   private static final Map<String, String> mimeTypeToExtension;
   static {
     mimeTypeToExtension = Maps.newHashMap();
@@ -233,7 +277,7 @@ public class Web extends AndroidNonvisibleComponent implements Component,
   // it has been retrieved asynchronously. Instead of running
   // regular Runnables on each asynchronous operation, the
   // lastTask variable is instead constructed and ran.
-  private FutureTask<Void> lastTask = null;
+  private Future<Void> lastTask = null;
 
   // Store a List of columns parsed from the latest response (JSON/CSV).
   // The columns are used for Chart Data importing.
@@ -243,6 +287,16 @@ public class Web extends AndroidNonvisibleComponent implements Component,
   private HashSet<DataSourceChangeListener> dataSourceObservers = new HashSet<>();
   private String responseTextEncoding = "UTF-8";
 
+  // The maximum size of the response cache in kilobytes, or 0 if it is not used.
+  private int responseCacheSize = 0;
+  private final AtomicInteger cacheHits = new AtomicInteger();
+  private final AtomicInteger cacheMisses = new AtomicInteger();
+  private final AtomicInteger cacheRevalidations = new AtomicInteger();
+
+  private final RequestScheduler scheduler =
+      new RequestScheduler(RequestScheduler.DEFAULT_MAX_REQUESTS_PER_HOST);
+  private boolean dropStaleResponses = false;
+
   /**
    * Creates a new Web component.
    *
@@ -435,6 +489,161 @@ public class Web extends AndroidNonvisibleComponent implements Component,
     this.timeout = timeout;
   }
 
+  /**
+   * Returns the maximum size of the response cache in kilobytes.
+   */
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR,
+      description = "The maximum size, in kilobytes, of the cache of responses to Get requests. "
+          + "If set to 0, then responses are not cached.")
+  public int ResponseCacheSize() {
+    return responseCacheSize;
+  }
+
+  /**
+   * Specifies the maximum size, in kilobytes, of the cache of responses to `Get` requests. If set
+   * to 0 (the default), then responses are not cached. The cache is kept on the device and is
+   * shared by all of the `Web` components of the app, so the largest size set by any of them is
+   * used.
+   *
+   *   A cached response is returned without contacting the server for as long as the server's
+   * `Cache-Control` or `Expires` headers say it is fresh. After that it is revalidated using the
+   * `If-None-Match` and `If-Modified-Since` request headers, and returned again if the server
+   * replies that it has not been modified. Requests with an `Authorization` header are never
+   * cached.
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_INTEGER,
+      defaultValue = "0")
+  @SimpleProperty
+  public void ResponseCacheSize(int size) {
+    if (size < 0) {
+      throw new IllegalArgumentError("Web ResponseCacheSize must be a non-negative integer.");
+    }
+    responseCacheSize = size;
+    synchronized (Web.class) {
+      if (size > 0) {
+        responseCacheSizes.put(this, 1024L * size);
+      } else {
+        responseCacheSizes.remove(this);
+      }
+      long maxSize = 0;
+      for (long componentSize : responseCacheSizes.values()) {
+        maxSize = Math.max(maxSize, componentSize);
+      }
+      if (maxSize != responseCacheMaxSize) {
+        responseCacheMaxSize = maxSize;
+        if (responseCache != null && maxSize > 0) {
+          // Shrinking the cache deletes files, so keep it off the UI thread.
+          final WebResponseCache cache = responseCache;
+          final long newMaxSize = maxSize;
+          AsynchUtil.runAsynchronously(new Runnable() {
+            @Override
+            public void run() {
+              cache.setMaxSize(newMaxSize);
+            }
+          });
+        }
+      }
+    }
+  }
+
+  /**
+   * The number of `Get` requests made by this component that were answered from the response
+   * cache without contacting the server.
+   */
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR,
+      description = "The number of Get requests answered from the response cache without "
+          + "contacting the server.")
+  public int ResponseCacheHits() {
+    return cacheHits.get();
+  }
+
+  /**
+   * The number of `Get` requests made by this component while the response cache was in use that
+   * could not be answered from the cache.
+   */
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR,
+      description = "The number of Get requests that could not be answered from the response "
+          + "cache.")
+  public int ResponseCacheMisses() {
+    return cacheMisses.get();
+  }
+
+  /**
+   * The number of `Get` requests made by this component that were answered from the response
+   * cache after the server replied that the cached response had not been modified.
+   */
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR,
+      description = "The number of Get requests answered from the response cache after the "
+          + "server confirmed that the cached response had not been modified.")
+  public int ResponseCacheRevalidations() {
+    return cacheRevalidations.get();
+  }
+
+  /**
+   * Removes all of the responses from the response cache.
+   */
+  @SimpleFunction(description = "Removes all of the responses from the response cache.")
+  public void ClearResponseCache() {
+    AsynchUtil.runAsynchronously(new Runnable() {
+      @Override
+      public void run() {
+        getResponseCache().clear();
+      }
+    });
+  }
+
+  /**
+   * Returns the number of requests to the same host that may be in progress at once.
+   */
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR,
+      description = "The number of requests to the same host that may be in progress at once. "
+          + "Further requests wait for one of them to finish. If set to 0, then there is no "
+          + "limit.")
+  public int MaxRequestsPerHost() {
+    return scheduler.getMaxRequestsPerHost();
+  }
+
+  /**
+   * Specifies the number of requests to the same host that may be in progress at once. Further
+   * requests wait for one of them to finish and are then sent in the order they were made. If set
+   * to 0, then there is no limit.
+   *
+   *   A `Get` made while an identical `Get` is in progress does not send another request. The
+   * response to the request in progress is reported once for each of them.
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_INTEGER,
+      defaultValue = "6")
+  @SimpleProperty
+  public void MaxRequestsPerHost(int max) {
+    if (max < 0) {
+      throw new IllegalArgumentError("Web MaxRequestsPerHost must be a non-negative integer.");
+    }
+    scheduler.setMaxRequestsPerHost(max);
+  }
+
+  /**
+   * Returns whether responses to `Get` requests are dropped when a later `Get` has already been
+   * answered.
+   */
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR,
+      description = "Whether the response to a Get request is dropped if the response to a "
+          + "later Get request has already been received.")
+  public boolean DropStaleResponses() {
+    return dropStaleResponses;
+  }
+
+  /**
+   * Specifies whether the response to a `Get` request is dropped, without triggering any event,
+   * if the response to a later `Get` request has already been received. This keeps a slow
+   * response from replacing a newer one, for example when searching as the user types.
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN,
+      defaultValue = "false")
+  @SimpleProperty
+  public void DropStaleResponses(boolean drop) {
+    dropStaleResponses = drop;
+  }
+
   @SimpleFunction(description = "Clears all cookies for this Web component.")
   public void ClearCookies() {
     if (cookieHandler != null) {
@@ -466,14 +675,12 @@ public class Web extends AndroidNonvisibleComponent implements Component,
       return;
     }
 
-    lastTask = new FutureTask<Void>(new Runnable() {
+    lastTask = schedule(webProps, "GET", new RequestScheduler.Task() {
       @Override
-      public void run() {
-        performRequest(webProps, null, null, "GET", METHOD);
+      public void run(RequestScheduler.Request request) {
+        performRequest(webProps, null, null, "GET", METHOD, request);
       }
-    }, null);
-
-    AsynchUtil.runAsynchronously(lastTask);
+    });
   }
 
   /**
@@ -552,14 +759,12 @@ public class Web extends AndroidNonvisibleComponent implements Component,
       return;
     }
 
-    lastTask = new FutureTask<Void>(new Runnable() {
+    lastTask = schedule(webProps, "POST", new RequestScheduler.Task() {
       @Override
-      public void run() {
-        performRequest(webProps, null, path, "POST", METHOD);
+      public void run(RequestScheduler.Request request) {
+        performRequest(webProps, null, path, "POST", METHOD, request);
       }
-    }, null);
-
-    AsynchUtil.runAsynchronously(lastTask);
+    });
   }
   
   /**
@@ -638,10 +843,10 @@ public class Web extends AndroidNonvisibleComponent implements Component,
       return;
     }
 
-    AsynchUtil.runAsynchronously(new Runnable() {
+    lastTask = schedule(webProps, "PATCH", new RequestScheduler.Task() {
       @Override
-      public void run() {
-        performRequest(webProps, null, path, "PATCH", METHOD);
+      public void run(RequestScheduler.Request request) {
+        performRequest(webProps, null, path, "PATCH", METHOD, request);
       }
     });
   }
@@ -722,14 +927,12 @@ public class Web extends AndroidNonvisibleComponent implements Component,
       return;
     }
 
-    lastTask = new FutureTask<Void>(new Runnable() {
+    lastTask = schedule(webProps, "PUT", new RequestScheduler.Task() {
       @Override
-      public void run() {
-        performRequest(webProps, null, path, "PUT", METHOD);
+      public void run(RequestScheduler.Request request) {
+        performRequest(webProps, null, path, "PUT", METHOD, request);
       }
-    }, null);
-
-    AsynchUtil.runAsynchronously(lastTask);
+    });
   }
 
   /**
@@ -753,14 +956,12 @@ public class Web extends AndroidNonvisibleComponent implements Component,
       return;
     }
 
-    lastTask = new FutureTask<Void>(new Runnable() {
+    lastTask = schedule(webProps, "DELETE", new RequestScheduler.Task() {
       @Override
-      public void run() {
-        performRequest(webProps, null, null, "DELETE", METHOD);
+      public void run(RequestScheduler.Request request) {
+        performRequest(webProps, null, null, "DELETE", METHOD, request);
       }
-    }, null);
-
-    AsynchUtil.runAsynchronously(lastTask);
+    });
   }
 
   /*
@@ -788,9 +989,9 @@ public class Web extends AndroidNonvisibleComponent implements Component,
       return;
     }
 
-    lastTask = new FutureTask<Void>(new Runnable() {
+    lastTask = schedule(webProps, httpVerb, new RequestScheduler.Task() {
       @Override
-      public void run() {
+      public void run(RequestScheduler.Request request) {
         // Convert text to bytes using the encoding.
         byte[] requestData;
         try {
@@ -805,11 +1006,9 @@ public class Web extends AndroidNonvisibleComponent implements Component,
           return;
         }
 
-        performRequest(webProps, requestData, null, httpVerb, functionName);
+        performRequest(webProps, requestData, null, httpVerb, functionName, request);
       }
-    }, null);
-
-    AsynchUtil.runAsynchronously(lastTask);
+    });
   }
 
   /**
@@ -1186,11 +1385,14 @@ public class Web extends AndroidNonvisibleComponent implements Component,
    * @param postData the data for the post request if it is not coming from a file, can be null
    * @param postFile the path of the file containing data for the post request if it is coming from
    *                 a file, can be null
+   * @param request the scheduled request, which determines how many times the response is
+   *                reported, can be null to report it once
    *
    * @throws IOException
    */
   private void performRequest(final CapturedProperties webProps, final byte[] postData,
-      final String postFile, final String httpVerb, final String method) {
+      final String postFile, final String httpVerb, final String method,
+      final RequestScheduler.Request request) {
 
     final List<String> neededPermissions = new ArrayList<>();
 
@@ -1226,7 +1428,8 @@ public class Web extends AndroidNonvisibleComponent implements Component,
             AsynchUtil.runAsynchronously(new Runnable() {
                 @Override
                 public void run() {
-                  me.performRequest(webProps, postData, postFile, httpVerb, method);
+                  // The scheduled request has already completed, so report the response once.
+                  me.performRequest(webProps, postData, postFile, httpVerb, method, null);
                 }
               });
           }
@@ -1235,6 +1438,20 @@ public class Web extends AndroidNonvisibleComponent implements Component,
     }
 
     try {
+      WebResponseCache cache = null;
+      WebResponseCache.Entry cached = null;
+      if (webProps.responseCacheSize > 0 && httpVerb.equals("GET")
+          && !hasHeader(webProps.requestHeaders, "Authorization")) {
+        cache = getResponseCache();
+        cached = cache.get(webProps.getCacheKey());
+        if (cached != null && cached.isFresh(System.currentTimeMillis())) {
+          cacheHits.incrementAndGet();
+          deliverResponse(webProps, request, HttpURLConnection.HTTP_OK, cached.contentType,
+              new ByteArrayInputStream(cached.body), cached.contentEncoding, cached.body.length);
+          return;
+        }
+      }
+
       // Open the connection.
       HttpURLConnection connection = openConnection(webProps, httpVerb);
       if (connection != null) {
@@ -1243,50 +1460,60 @@ public class Web extends AndroidNonvisibleComponent implements Component,
             writeRequestData(connection, postData);
           } else if (postFile != null) {
             writeRequestFile(connection, postFile);
+          } else if (cached != null) {
+            // Ask the server to reply 304 Not Modified if the cached response is still current.
+            if (cached.etag != null) {
+              connection.addRequestProperty("If-None-Match", cached.etag);
+            }
+            if (cached.lastModified != null) {
+              connection.addRequestProperty("If-Modified-Since", cached.lastModified);
+            }
           }
 
           // Get the response.
-          final int responseCode = connection.getResponseCode();
-          final String responseType = getResponseType(connection);
+          int responseCode = connection.getResponseCode();
+          String responseType = getResponseType(connection);
           processResponseCookies(connection);
 
-          if (saveResponse) {
-            final String path = saveResponseContent(connection, webProps.responseFileName,
-              responseType);
-
-            // Dispatch the event.
-            activity.runOnUiThread(new Runnable() {
-                @Override
-                public void run() {
-                  GotFile(webProps.urlString, responseCode, responseType, path);
-                }
-              });
+          InputStream content;
+          String contentEncoding = connection.getContentEncoding();
+          int contentLength = connection.getContentLength();
+          if (cache == null) {
+            content = getConnectionStream(connection);
+          } else if (cached != null && responseCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            cacheRevalidations.incrementAndGet();
+            cached = cached.revalidated(connection.getHeaderField("ETag"),
+                connection.getHeaderField("Last-Modified"), freshUntil(connection));
+            cache.put(cached);
+            responseCode = HttpURLConnection.HTTP_OK;
+            responseType = cached.contentType;
+            content = new ByteArrayInputStream(cached.body);
+            contentEncoding = cached.contentEncoding;
+            contentLength = cached.body.length;
           } else {
-            final String responseContent = getResponseContent(connection, responseTextEncoding);
-
-            // Dispatch the event.
-            activity.runOnUiThread(new Runnable() {
-                @Override
-                public void run() {
-                  GotText(webProps.urlString, responseCode, responseType, responseContent);
+            cacheMisses.incrementAndGet();
+            if (contentLength > webProps.responseCacheSize) {
+              // The response is too large to cache, so there is no need to hold it in memory.
+              content = getConnectionStream(connection);
+            } else {
+              // The length of the response may not be known in advance, so only read as much of
+              // it as could be cached. The rest of a longer response is streamed as usual.
+              InputStream stream = getConnectionStream(connection);
+              byte[] body = readAtMost(stream, webProps.responseCacheSize);
+              if (body.length > webProps.responseCacheSize) {
+                content = new SequenceInputStream(new ByteArrayInputStream(body), stream);
+              } else {
+                if (stream != null) {
+                  stream.close();
                 }
-              });
-
-            // Update the locally stored columns list with the contents of the
-            // retrieved response & response type.
-            // TODO: Optimizations are possible here. Currently for projects which
-            // TODO: do not make use of Chart components, this will create extra overhead
-            // TODO: due to JSON/CSV parsing.
-            updateColumns(responseContent, responseType);
-
-            // Notify all data observers with null key and null value.
-            // Key and value are unused, hence it does not matter here.
-            // TODO: Since the Web component is rather irregular in the
-            // TODO: sense that the key and value do not matter for notification,
-            // TODO: perhaps it would be worthwhile for the Web component to
-            // TODO: have a different interface?
-            notifyDataObservers(null, null);
+                storeResponse(cache, webProps.getCacheKey(), connection, responseCode,
+                    responseType, body);
+                content = new ByteArrayInputStream(body);
+              }
+            }
           }
+          deliverResponse(webProps, request, responseCode, responseType, content,
+              contentEncoding, contentLength);
         } catch (SocketTimeoutException e) {
           // Dispatch timeout event.
           activity.runOnUiThread(new Runnable() {
@@ -1341,6 +1568,61 @@ public class Web extends AndroidNonvisibleComponent implements Component,
     }
   }
 
+  /**
+   * Delivers the content of a response, either by saving it in a file and triggering the GotFile
+   * event or by triggering the GotText event. The event is triggered once for each call that the
+   * request answers, and not at all if the response is stale.
+   */
+  private void deliverResponse(final CapturedProperties webProps,
+      RequestScheduler.Request request, final int responseCode, final String responseType,
+      InputStream content, String contentEncoding, int contentLength) throws IOException {
+    final int calls = request == null ? 1 : request.finish();
+    if (calls == 0) {
+      return;
+    }
+    if (saveResponse) {
+      final String path = saveResponseContent(content, webProps.responseFileName, responseType);
+
+      // Dispatch the event.
+      activity.runOnUiThread(new Runnable() {
+          @Override
+          public void run() {
+            for (int i = 0; i < calls; i++) {
+              GotFile(webProps.urlString, responseCode, responseType, path);
+            }
+          }
+        });
+    } else {
+      final String responseContent = getResponseContent(content, contentEncoding, contentLength,
+          responseTextEncoding);
+
+      // Dispatch the event.
+      activity.runOnUiThread(new Runnable() {
+          @Override
+          public void run() {
+            for (int i = 0; i < calls; i++) {
+              GotText(webProps.urlString, responseCode, responseType, responseContent);
+            }
+          }
+        });
+
+      // Update the locally stored columns list with the contents of the
+      // retrieved response & response type.
+      // TODO: Optimizations are possible here. Currently for projects which
+      // TODO: do not make use of Chart components, this will create extra overhead
+      // TODO: due to JSON/CSV parsing.
+      updateColumns(responseContent, responseType);
+
+      // Notify all data observers with null key and null value.
+      // Key and value are unused, hence it does not matter here.
+      // TODO: Since the Web component is rather irregular in the
+      // TODO: sense that the key and value do not matter for notification,
+      // TODO: perhaps it would be worthwhile for the Web component to
+      // TODO: have a different interface?
+      notifyDataObservers(null, null);
+    }
+  }
+
   /**
    * Open a connection to the resource and set the HTTP action to PUT or DELETE if it is one of
    * them. GET would be the default, and POST is set in writeRequestData or writeRequestFile
@@ -1452,9 +1734,9 @@ public class Web extends AndroidNonvisibleComponent implements Component,
     }
   }
 
-  private static String getResponseContent(HttpURLConnection connection, String encodingProperty) throws IOException {
+  private static String getResponseContent(InputStream content, String encoding,
+      int contentLength, String encodingProperty) throws IOException {
     // Use the content encoding to convert bytes to characters.
-    String encoding = connection.getContentEncoding();
     if (encoding == null) {
       if (encodingProperty == null || encodingProperty.isEmpty()) {
         encoding = "UTF-8";
@@ -1462,9 +1744,8 @@ public class Web extends AndroidNonvisibleComponent implements Component,
         encoding = encodingProperty;
       }
     }
-    InputStreamReader reader = new InputStreamReader(getConnectionStream(connection), encoding);
+    InputStreamReader reader = new InputStreamReader(content, encoding);
     try {
-      int contentLength = connection.getContentLength();
       StringBuilder sb = (contentLength != -1)
           ? new StringBuilder(contentLength)
           : new StringBuilder();
@@ -1479,7 +1760,7 @@ public class Web extends AndroidNonvisibleComponent implements Component,
     }
   }
 
-  private String saveResponseContent(HttpURLConnection connection,
+  private String saveResponseContent(InputStream content,
       String responseFileName, String responseType) throws IOException {
     File file = createFile(responseFileName, responseType);
 
@@ -1490,7 +1771,7 @@ public class Web extends AndroidNonvisibleComponent implements Component,
           parent.getAbsolutePath());
     }
 
-    BufferedInputStream in = new BufferedInputStream(getConnectionStream(connection), 0x1000);
+    BufferedInputStream in = new BufferedInputStream(content, 0x1000);
     try {
       BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(file), 0x1000);
       try {
@@ -1527,6 +1808,80 @@ public class Web extends AndroidNonvisibleComponent implements Component,
     }
   }
 
+  /**
+   * Returns the response cache, creating it if needed.
+   */
+  private WebResponseCache getResponseCache() {
+    synchronized (Web.class) {
+      if (responseCache == null) {
+        responseCache = new WebResponseCache(new File(activity.getCacheDir(), "web-responses"),
+            responseCacheMaxSize);
+      }
+      return responseCache;
+    }
+  }
+
+  /**
+   * Stores a response in the cache if it is a complete response that the server allows to be
+   * cached and that can be reused or revalidated. A response that is not stored leaves any
+   * cached response for the request in place.
+   */
+  private static void storeResponse(WebResponseCache cache, String key,
+      HttpURLConnection connection, int responseCode, String responseType, byte[] body) {
+    long freshUntil = freshUntil(connection);
+    String etag = connection.getHeaderField("ETag");
+    String lastModified = connection.getHeaderField("Last-Modified");
+    String vary = connection.getHeaderField("Vary");
+    String cacheControl = connection.getHeaderField("Cache-Control");
+    if (responseCode != HttpURLConnection.HTTP_OK
+        || freshUntil == WebResponseCache.NOT_CACHEABLE
+        || (vary != null && !vary.trim().equalsIgnoreCase("Accept-Encoding"))
+        || (cacheControl != null && cacheControl.toLowerCase(Locale.US).contains("private"))) {
+      // The key does not hold the request headers that a Vary header may refer to, so a
+      // response that varies with them can't be matched to a later request. A private
+      // response is for one user, and the cache outlives the cookies that identified them.
+      return;
+    }
+    if (freshUntil <= System.currentTimeMillis() && etag == null && lastModified == null) {
+      // The response could never be used again.
+      return;
+    }
+    cache.put(new WebResponseCache.Entry(key, responseType, connection.getContentEncoding(),
+        etag, lastModified, freshUntil, body));
+  }
+
+  private static long freshUntil(HttpURLConnection connection) {
+    return WebResponseCache.freshUntil(connection.getHeaderField("Cache-Control"),
+        connection.getHeaderField("Expires"), connection.getHeaderField("Date"),
+        connection.getHeaderField("Age"), System.currentTimeMillis());
+  }
+
+  private static boolean hasHeader(Map<String, List<String>> headers, String name) {
+    for (String key : headers.keySet()) {
+      if (name.equalsIgnoreCase(key)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Reads a stream until it ends or more than limit bytes have been read, whichever comes first.
+   * The stream is left open, so a result longer than limit can be followed by the rest of it.
+   */
+  private static byte[] readAtMost(InputStream in, long limit) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    if (in == null) {
+      return out.toByteArray();
+    }
+    byte[] buf = new byte[0x1000];
+    int read;
+    while (out.size() <= limit && (read = in.read(buf)) != -1) {
+      out.write(buf, 0, read);
+    }
+    return out.toByteArray();
+  }
+
   private File createFile(String fileName, String responseType)
       throws IOException, FileUtil.FileException {
     // If a fileName was specified, use it.
@@ -1621,11 +1976,22 @@ public class Web extends AndroidNonvisibleComponent implements Component,
     return null;
   }
 
+  /**
+   * Submits a request to the scheduler. Identical GET requests are combined, and when
+   * DropStaleResponses is true a GET response is dropped if a later one has been reported.
+   */
+  private Future<Void> schedule(CapturedProperties webProps, String httpVerb,
+      RequestScheduler.Task task) {
+    boolean get = httpVerb.equals("GET");
+    return scheduler.submit(webProps.url.getHost(), get ? webProps.getRequestKey() : null,
+        get && webProps.dropStaleResponses ? httpVerb : null, task);
+  }
+
   @Override
   public Future<YailList> getDataValue(final YailList key) {
     // Record the last running asynchronous task. The FutureTask's
     // calculations will wait for the completion of the task.
-    final FutureTask<Void> currentTask = lastTask;
+    final Future<Void> currentTask = lastTask;
 
     // Construct a new FutureTask which handles returning the appropriate data
     // value after the currently recorded last task is processed.
@@ -20,8 +20,6 @@ import android.util.Log;
 import com.google.appinventor.components.runtime.PhoneStatus;
 import com.google.appinventor.components.runtime.ReplForm;
 
-import gnu.expr.Language;
-
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -39,8 +37,6 @@ import java.util.Properties;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 
-import kawa.standard.Scheme;
-
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -48,7 +44,6 @@ import org.json.JSONObject;
 public class AppInvHTTPD extends NanoHTTPD {
 
   private File rootDir;
-  private Language scheme;
   private ReplForm form;
   private boolean secure;       // Should we only accept from 127.0.0.1?
 
@@ -64,7 +59,6 @@ public class AppInvHTTPD extends NanoHTTPD {
   {
     super(port, wwwroot);
     this.rootDir = wwwroot;
-    this.scheme = Scheme.getInstance("scheme");
     this.form = form;
     this.secure = secure;
     gnu.expr.ModuleExp.mustNeverCompile();
@@ -194,7 +188,10 @@ public class AppInvHTTPD extends NanoHTTPD {
         if (input_code.equals("#f")) {
           Log.e(LOG_TAG, "Skipping evaluation of #f");
         } else {
-          scheme.eval(code);
+          // Definitions that were sent before are not read again
+          for (ReplEvalCache.Step step : form.getEvalCache().prepare(blockid, input_code)) {
+            step.run();
+          }
         }
         res = new Response(HTTP_OK, MIME_JSON, RetValManager.fetch(false));
       } catch (Throwable ex) {
@@ -0,0 +1,124 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+
+/**
+ * Reads and writes the values of many CloudDB tags in a single round trip
+ * to the Redis server.
+ *
+ * <p>Values are stored under the key {@code project:tag}, and every store
+ * publishes {@code [tag, [values...]]} on the project's channel, as the
+ * single-tag scripts of {@link com.google.appinventor.components.runtime.CloudDB}
+ * do, so that listeners see no difference.
+ */
+public final class CloudDBBatch {
+
+  /**
+   * A value to store under a tag.
+   */
+  public static final class Write {
+    final String tag;
+    final String value;
+    final String valueList;
+
+    /**
+     * Creates a write.
+     *
+     * @param tag the tag to store the value under
+     * @param value the JSON representation of the value to store
+     * @param valueList a JSON list of every value stored under the tag since
+     *     the last write was sent, ending with value, to publish to listeners
+     */
+    public Write(String tag, String value, String valueList) {
+      this.tag = tag;
+      this.value = value;
+      this.valueList = valueList;
+    }
+
+    public String getTag() {
+      return tag;
+    }
+
+    public String getValue() {
+      return value;
+    }
+
+    public String getValueList() {
+      return valueList;
+    }
+  }
+
+  static final String SET_MULTI_SCRIPT =
+      "local project = ARGV[1];" +
+      "for i = 1, #KEYS do " +
+      "  local key = KEYS[i];" +
+      "  local newtable = {};" +
+      "  table.insert(newtable, key);" +
+      "  table.insert(newtable, cjson.decode(ARGV[2 * i + 1]));" +
+      "  redis.call(\"publish\", project, cjson.encode(newtable));" +
+      "  redis.call('set', project .. \":\" .. key, ARGV[2 * i]);" +
+      "end " +
+      "return #KEYS;";
+
+  static final String SET_MULTI_SCRIPT_SHA1 = "9596f157c4f6bb8d1548da7ea25460ac153830d7";
+
+  private CloudDBBatch() {
+  }
+
+  /**
+   * Stores the values of the writes, in order, with one script call.
+   */
+  public static void storeValues(Jedis jedis, String projectId, List<Write> writes)
+      throws JedisException {
+    String[] args = new String[writes.size() * 3 + 1];
+    int i = 0;
+    for (Write write : writes) {
+      args[i++] = write.tag;
+    }
+    args[i++] = projectId;
+    for (Write write : writes) {
+      args[i++] = write.value;
+      args[i++] = write.valueList;
+    }
+    eval(jedis, SET_MULTI_SCRIPT, SET_MULTI_SCRIPT_SHA1, writes.size(), args);
+  }
+
+  /**
+   * Returns the values stored under the tags, in the same order, with a
+   * single MGET. The value of a tag that is not there is null.
+   */
+  public static List<String> getValues(Jedis jedis, String projectId, List<String> tags)
+      throws JedisException {
+    if (tags.isEmpty()) {
+      return new ArrayList<String>();
+    }
+    String[] keys = new String[tags.size()];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = projectId + ":" + tags.get(i);
+    }
+    return jedis.mget(keys);
+  }
+
+  /**
+   * Runs a script by its SHA1, sending the whole script only if the server
+   * does not have it yet.
+   */
+  public static Object eval(Jedis jedis, String script, String scriptSha1, int keyCount,
+      String... args) throws JedisException {
+    try {
+      return jedis.evalsha(scriptSha1, keyCount, args);
+    } catch (JedisNoScriptException e) {
+      // The server caches the script once it has been sent with EVAL
+      return jedis.eval(script, keyCount, args);
+    }
+  }
+}
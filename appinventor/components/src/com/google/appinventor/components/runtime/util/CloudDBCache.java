@@ -0,0 +1,104 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the values of CloudDB tags on the device so that they can be read
+ * without a round trip to the Redis server.
+ *
+ * <p>The cache is kept up to date by the changes that the project's channel
+ * publishes, which {@link #update} and {@link #remove} apply. Values read
+ * from the server are added with {@link #putIfUnchanged}, which ignores
+ * them if a change arrived while they were being read, since the change is
+ * newer. The cache must be cleared whenever the channel stops being
+ * listened to, because changes could then be missed.
+ *
+ * <p>CloudDBCache is thread safe.
+ */
+public final class CloudDBCache {
+
+  /**
+   * The cached value of a tag.
+   */
+  public static final class Entry {
+    /**
+     * The value stored under the tag, as the server returns it, or null if
+     * the tag is not there.
+     */
+    public final String value;
+
+    Entry(String value) {
+      this.value = value;
+    }
+  }
+
+  private final Map<String, Entry> entries = new HashMap<String, Entry>();
+  private long generation = 0;
+
+  /**
+   * Returns the cached value of the tag, or null if it is not cached.
+   */
+  public synchronized Entry get(String tag) {
+    return entries.get(tag);
+  }
+
+  /**
+   * Returns a number that changes whenever a change is applied. Take it
+   * before reading values from the server and pass it to
+   * {@link #putIfUnchanged}.
+   */
+  public synchronized long getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Caches a value read from the server, unless a change has been applied
+   * since the read started.
+   *
+   * @param tag the tag that was read
+   * @param value the value read, or null if the tag is not there
+   * @param generation the value of {@link #getGeneration()} before the read
+   */
+  public synchronized void putIfUnchanged(String tag, String value, long generation) {
+    if (generation == this.generation) {
+      entries.put(tag, new Entry(value));
+    }
+  }
+
+  /**
+   * Applies a change of the value of a tag.
+   */
+  public synchronized void update(String tag, String value) {
+    generation++;
+    entries.put(tag, new Entry(value));
+  }
+
+  /**
+   * Forgets the value of a tag, which will be read from the server next time.
+   */
+  public synchronized void remove(String tag) {
+    generation++;
+    entries.remove(tag);
+  }
+
+  /**
+   * Forgets every value.
+   */
+  public synchronized void clear() {
+    generation++;
+    entries.clear();
+  }
+
+  /**
+   * Returns the number of tags whose values are cached.
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+}
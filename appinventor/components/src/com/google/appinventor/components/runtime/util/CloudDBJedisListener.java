@@ -38,6 +38,7 @@ public class CloudDBJedisListener extends JedisPubSub {
     if (DEBUG) {
       Log.d(LOG_TAG, "onSubscribe " + channel + " " + subscribedChannels);
     }
+    cloudDB.listenerSubscribed();
   }
 
   @Override
@@ -54,6 +55,7 @@ public class CloudDBJedisListener extends JedisPubSub {
       }
       String tag = (String) data.get(0);   // The variable that was changed
       List<Object> valueList = (List<Object>) data.get(1);
+      cloudDB.tagChanged(tag, valueList);
       for (Object value : valueList) {
         // Note: DataChanged will arrange to dispatch the event
         // on the UI thread.
@@ -0,0 +1,247 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Point;
+import android.graphics.Rect;
+import android.view.MotionEvent;
+import com.google.appinventor.components.runtime.util.MarkerClusterIndex.Cluster;
+import java.util.ArrayList;
+import java.util.List;
+import org.osmdroid.util.BoundingBox;
+import org.osmdroid.util.GeoPoint;
+import org.osmdroid.views.MapView;
+import org.osmdroid.views.Projection;
+import org.osmdroid.views.overlay.Marker;
+import org.osmdroid.views.overlay.Overlay;
+
+/**
+ * A single overlay that draws many markers. Only the markers inside the
+ * viewport are drawn and hit tested, and markers that would be drawn close
+ * together are replaced by a circle showing how many there are. Tapping a
+ * circle zooms the map in on its markers. A marker being dragged is kept out
+ * of the clusters until it is dropped, so that it stays under the finger.
+ */
+public class ClusteredMarkerOverlay extends Overlay {
+  /**
+   * The size of the grid cells that markers are grouped by, in density
+   * independent pixels. The map's tiles are scaled to the screen density, so
+   * this is also the size at zoom level 0 in the index's units.
+   */
+  private static final double CELL_SIZE = 60;
+
+  /**
+   * The radius of a cluster circle, in density independent pixels.
+   */
+  private static final float CLUSTER_RADIUS = 18;
+
+  /**
+   * The fraction of the viewport added on each side when looking for markers,
+   * so that the icons of markers just outside it are still drawn.
+   */
+  private static final double MARGIN = 0.25;
+
+  private final MarkerClusterIndex<Marker> index = new MarkerClusterIndex<Marker>();
+  private final float density;
+  private final Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+  private final Paint strokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+  private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+  private final Point point = new Point();
+
+  /**
+   * The clusters drawn last, in the order they were drawn, for hit testing.
+   */
+  private List<Cluster<Marker>> drawn = new ArrayList<Cluster<Marker>>();
+
+  /**
+   * The marker being dragged, which is taken out of the index until it is
+   * dropped, or null.
+   */
+  private Marker dragged = null;
+
+  ClusteredMarkerOverlay(float density) {
+    this.density = density;
+    fillPaint.setColor(Color.argb(204, 33, 150, 243));
+    fillPaint.setStyle(Paint.Style.FILL);
+    strokePaint.setColor(Color.WHITE);
+    strokePaint.setStyle(Paint.Style.STROKE);
+    strokePaint.setStrokeWidth(2 * density);
+    textPaint.setColor(Color.WHITE);
+    textPaint.setTextAlign(Paint.Align.CENTER);
+    textPaint.setTextSize(14 * density);
+    textPaint.setFakeBoldText(true);
+  }
+
+  void add(Marker marker) {
+    GeoPoint position = marker.getPosition();
+    index.add(marker, position.getLatitude(), position.getLongitude());
+  }
+
+  boolean remove(Marker marker) {
+    if (marker == dragged) {
+      dragged = null;
+      return true;
+    }
+    return index.remove(marker);
+  }
+
+  boolean contains(Object overlay) {
+    return overlay == dragged
+        || (overlay instanceof Marker && index.contains((Marker) overlay));
+  }
+
+  /**
+   * Updates the location of a marker in the index after it has moved.
+   */
+  void update(Marker marker) {
+    if (marker != dragged && index.contains(marker)) {
+      add(marker);
+    }
+  }
+
+  List<Marker> getMarkers() {
+    List<Marker> markers = index.getItems();
+    if (dragged != null) {
+      markers = new ArrayList<Marker>(markers);
+      markers.add(dragged);
+    }
+    return markers;
+  }
+
+  int size() {
+    return index.size() + (dragged == null ? 0 : 1);
+  }
+
+  /**
+   * Returns the number of markers and clusters drawn last.
+   */
+  public int getDrawnCount() {
+    return drawn.size() + (dragged == null ? 0 : 1);
+  }
+
+  @Override
+  public void draw(Canvas canvas, MapView mapView, boolean shadow) {
+    if (shadow) {
+      return;
+    }
+    Projection projection = mapView.getProjection();
+    BoundingBox box = projection.getBoundingBox();
+    double latMargin = (box.getLatNorth() - box.getLatSouth()) * MARGIN;
+    double lonMargin = (box.getLonEast() - box.getLonWest()) * MARGIN;
+    double north = Math.min(90, box.getLatNorth() + latMargin);
+    double south = Math.max(-90, box.getLatSouth() - latMargin);
+    double east = box.getLonEast() + lonMargin;
+    double west = box.getLonWest() - lonMargin;
+    if (east - west >= 360) {
+      east = 180;
+      west = -180;
+    } else {
+      east = east > 180 ? east - 360 : east;
+      west = west < -180 ? west + 360 : west;
+    }
+    drawn = index.cluster(north, east, south, west, Math.round(projection.getZoomLevel()),
+        CELL_SIZE);
+    for (Cluster<Marker> cluster : drawn) {
+      if (cluster.size() == 1) {
+        cluster.getItems().get(0).draw(canvas, mapView, false);
+      } else {
+        projection.toPixels(new GeoPoint(cluster.getLatitude(), cluster.getLongitude()), point);
+        float radius = CLUSTER_RADIUS * density;
+        canvas.drawCircle(point.x, point.y, radius, fillPaint);
+        canvas.drawCircle(point.x, point.y, radius, strokePaint);
+        canvas.drawText(Integer.toString(cluster.size()), point.x,
+            point.y - (textPaint.descent() + textPaint.ascent()) / 2, textPaint);
+      }
+    }
+    if (dragged != null) {
+      dragged.draw(canvas, mapView, false);
+    }
+  }
+
+  @Override
+  public boolean onSingleTapConfirmed(MotionEvent event, MapView mapView) {
+    // Clusters drawn last are on top, so they are tested first
+    for (int i = drawn.size() - 1; i >= 0; i--) {
+      Cluster<Marker> cluster = drawn.get(i);
+      if (cluster.size() == 1) {
+        if (cluster.getItems().get(0).onSingleTapConfirmed(event, mapView)) {
+          return true;
+        }
+      } else if (hitTest(cluster, event, mapView)) {
+        if (cluster.getNorth() == cluster.getSouth() && cluster.getEast() == cluster.getWest()) {
+          // The markers are at the same place, so only zooming in further can help
+          mapView.getController().setCenter(new GeoPoint(cluster.getLatitude(),
+              cluster.getLongitude()));
+          mapView.getController().zoomIn();
+        } else {
+          mapView.zoomToBoundingBox(new BoundingBox(cluster.getNorth(), cluster.getEast(),
+              cluster.getSouth(), cluster.getWest()), true);
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean onLongPress(MotionEvent event, MapView mapView) {
+    for (int i = drawn.size() - 1; i >= 0; i--) {
+      Cluster<Marker> cluster = drawn.get(i);
+      if (cluster.size() == 1) {
+        Marker marker = cluster.getItems().get(0);
+        if (marker.onLongPress(event, mapView)) {
+          if (marker.isDraggable()) {
+            // A long press on a draggable marker starts dragging it
+            index.remove(marker);
+            dragged = marker;
+          }
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean onTouchEvent(MotionEvent event, MapView mapView) {
+    if (dragged == null) {
+      return false;
+    }
+    Marker marker = dragged;
+    boolean handled = marker.onTouchEvent(event, mapView);
+    int action = event.getAction();
+    if (!handled || action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+      // The marker was dropped, so it can be clustered again
+      dragged = null;
+      add(marker);
+    }
+    return handled;
+  }
+
+  @Override
+  public void onDetach(MapView mapView) {
+    for (Marker marker : index.getItems()) {
+      marker.onDetach(mapView);
+    }
+  }
+
+  /**
+   * Tests whether an event is inside the circle drawn for a cluster. This
+   * works the same way as {@link Marker#hitTest(MotionEvent, MapView)}.
+   */
+  private boolean hitTest(Cluster<Marker> cluster, MotionEvent event, MapView mapView) {
+    Projection projection = mapView.getProjection();
+    projection.toPixels(new GeoPoint(cluster.getLatitude(), cluster.getLongitude()), point);
+    Rect screenRect = projection.getIntrinsicScreenRect();
+    float dx = screenRect.left + event.getX() - point.x;
+    float dy = screenRect.top + event.getY() - point.y;
+    float radius = CLUSTER_RADIUS * density;
+    return dx * dx + dy * dy <= radius * radius;
+  }
+}
@@ -0,0 +1,254 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A table of CSV cells stored by column. Columns whose cells are all numbers
+ * are held as doubles rather than Strings, which keeps large tables of
+ * numeric data compact.
+ *
+ * <p>The first row, which usually holds the column names, is kept apart from
+ * the others so that it does not prevent a column from being numeric. Rows
+ * may have different lengths, as in the CSV text.
+ *
+ * <p>The YailLists returned by {@link #getRows()} and {@link #getColumns()}
+ * are the same as those produced by {@link CsvUtil#fromCsvTable(String)} and
+ * {@link ChartDataSourceUtil#getTranspose(YailList)}. They are built when
+ * first requested.
+ *
+ * <p>A CsvTable is built by {@link CsvUtil#readCsvTable(java.io.Reader)}.
+ */
+public final class CsvTable {
+
+  // Integers up to this magnitude are exactly representable as doubles.
+  private static final long MAX_EXACT_INTEGER = 1L << 53;
+
+  private String[] firstRow = new String[0];
+  private int[] rowLengths = new int[16];
+  private int rowCount = 0;
+  private final List<Column> columns = new ArrayList<Column>();
+
+  private YailList rows;
+  private YailList columnLists;
+
+  CsvTable() {
+  }
+
+  /**
+   * The cells of one column, after the first row.
+   */
+  private static final class Column {
+    // The cells, while the column is numeric.
+    double[] numbers;
+    // Cells of a numeric column that were written as integers.
+    BitSet integers;
+    // The cells, once a cell has been found that is not a number.
+    String[] strings;
+
+    Column(int capacity) {
+      numbers = new double[capacity];
+      integers = new BitSet();
+    }
+
+    void set(int row, String cell) {
+      if (numbers != null) {
+        ensureCapacity(row + 1);
+        if (setNumber(row, cell)) {
+          return;
+        }
+        // Convert the earlier cells, which print exactly as they were written.
+        strings = new String[numbers.length];
+        for (int i = 0; i < row; i++) {
+          strings[i] = getString(i);
+        }
+        numbers = null;
+        integers = null;
+      }
+      ensureCapacity(row + 1);
+      strings[row] = cell;
+    }
+
+    private boolean setNumber(int row, String cell) {
+      if (cell.isEmpty()) {
+        return false;
+      }
+      char first = cell.charAt(0);
+      if (first != '-' && first != '.' && (first < '0' || first > '9')) {
+        // Cheaply rule out most text without an exception.
+        return false;
+      }
+      try {
+        long l = Long.parseLong(cell);
+        if (Math.abs(l) <= MAX_EXACT_INTEGER && Long.toString(l).equals(cell)) {
+          numbers[row] = l;
+          integers.set(row);
+          return true;
+        }
+        return false;
+      } catch (NumberFormatException e) {
+        // Not an integer.
+      }
+      try {
+        double d = Double.parseDouble(cell);
+        if (Double.toString(d).equals(cell)) {
+          numbers[row] = d;
+          return true;
+        }
+      } catch (NumberFormatException e) {
+        // Not a number.
+      }
+      return false;
+    }
+
+    String getString(int row) {
+      if (numbers == null) {
+        return strings[row];
+      } else if (integers.get(row)) {
+        return Long.toString((long) numbers[row]);
+      } else {
+        return Double.toString(numbers[row]);
+      }
+    }
+
+    private void ensureCapacity(int capacity) {
+      int length = numbers != null ? numbers.length : strings.length;
+      if (capacity > length) {
+        int newLength = Math.max(capacity, length + (length >> 1));
+        if (numbers != null) {
+          numbers = Arrays.copyOf(numbers, newLength);
+        } else {
+          strings = Arrays.copyOf(strings, newLength);
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds a row to the end of the table.
+   */
+  void addRow(List<String> row) {
+    if (rowCount == rowLengths.length) {
+      rowLengths = Arrays.copyOf(rowLengths, rowCount + (rowCount >> 1));
+    }
+    rowLengths[rowCount] = row.size();
+    if (rowCount == 0) {
+      firstRow = row.toArray(new String[row.size()]);
+    } else {
+      for (int i = 0; i < row.size(); i++) {
+        if (i == columns.size()) {
+          columns.add(new Column(Math.max(16, rowCount)));
+        }
+        columns.get(i).set(rowCount - 1, row.get(i));
+      }
+    }
+    rowCount++;
+  }
+
+  /**
+   * Returns the number of rows, including the first row.
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Returns the number of columns, which is the length of the longest row.
+   */
+  public int getColumnCount() {
+    return Math.max(firstRow.length, columns.size());
+  }
+
+  /**
+   * Returns whether every cell of the column after the first row is a number.
+   */
+  public boolean isNumeric(int column) {
+    return column < columns.size() && columns.get(column).numbers != null;
+  }
+
+  /**
+   * Returns the cell at the given 0-based row and column, or null if the row
+   * is shorter than that.
+   */
+  public String getCell(int row, int column) {
+    if (column >= rowLengths[row]) {
+      return null;
+    } else if (row == 0) {
+      return firstRow[column];
+    }
+    return columns.get(column).getString(row - 1);
+  }
+
+  /**
+   * Returns the 0-based index of the column whose first cell is name, or -1
+   * if there is none.
+   */
+  public int indexOfColumn(String name) {
+    for (int i = 0; i < firstRow.length; i++) {
+      if (firstRow[i].equals(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the given row as a YailList of Strings.
+   */
+  public YailList getRow(int row) {
+    List<String> cells = new ArrayList<String>(rowLengths[row]);
+    for (int i = 0; i < rowLengths[row]; i++) {
+      cells.add(getCell(row, i));
+    }
+    return YailList.makeList(cells);
+  }
+
+  /**
+   * Returns the given column as a YailList of Strings, including the first
+   * row. Cells missing from short rows are empty strings.
+   */
+  public YailList getColumn(int column) {
+    List<String> cells = new ArrayList<String>(rowCount);
+    for (int i = 0; i < rowCount; i++) {
+      String cell = getCell(i, column);
+      cells.add(cell == null ? "" : cell);
+    }
+    return YailList.makeList(cells);
+  }
+
+  /**
+   * Returns a YailList of the rows of the table.
+   */
+  public synchronized YailList getRows() {
+    if (rows == null) {
+      List<YailList> result = new ArrayList<YailList>(rowCount);
+      for (int i = 0; i < rowCount; i++) {
+        result.add(getRow(i));
+      }
+      rows = YailList.makeList(result);
+    }
+    return rows;
+  }
+
+  /**
+   * Returns a YailList of the columns of the table.
+   */
+  public synchronized YailList getColumns() {
+    if (columnLists == null) {
+      int columnCount = getColumnCount();
+      List<YailList> result = new ArrayList<YailList>(columnCount);
+      for (int i = 0; i < columnCount; i++) {
+        result.add(getColumn(i));
+      }
+      columnLists = YailList.makeList(result);
+    }
+    return columnLists;
+  }
+}
@@ -36,6 +36,24 @@ public final class CsvUtil {
     return YailList.makeList(csvList);
   }
 
+  /**
+   * Parses CSV text from reader into a {@link CsvTable}, without first
+   * reading the whole text or creating a YailList for each row.
+   *
+   * @param reader the reader for the CSV text
+   * @return the table of cells
+   * @throws Exception if the CSV text cannot be parsed or read
+   */
+  public static CsvTable readCsvTable(Reader reader) throws Exception {
+    CsvParser csvParser = new CsvParser(reader);
+    CsvTable table = new CsvTable();
+    while (csvParser.hasNext()) {
+      table.addRow(csvParser.next());
+    }
+    csvParser.throwAnyProblem();
+    return table;
+  }
+
   public static YailList fromCsvRow(String csvString) throws Exception {
     CsvParser csvParser = new CsvParser(new StringReader(csvString));
     if (csvParser.hasNext()) {
@@ -320,4 +320,14 @@ class DummyMapController implements MapController {
   public ScaleUnits getScaleUnitsAbstract() {
     throw new UnsupportedOperationException();
   }
+
+  @Override
+  public void setMarkerClusteringEnabled(boolean enabled) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean isMarkerClusteringEnabled() {
+    throw new UnsupportedOperationException();
+  }
 }
@@ -90,6 +90,8 @@ public final class ErrorMessages {
   public static final int ERROR_BLUETOOTH_UNABLE_TO_READ = 517;
   public static final int ERROR_BLUETOOTH_END_OF_STREAM = 518;
   public static final int ERROR_BLUETOOTH_UNSUPPORTED_ENCODING = 519;
+  public static final int ERROR_BLUETOOTH_RECEIVING_FRAMES = 520;
+  public static final int ERROR_BLUETOOTH_INVALID_FRAME_SIZE = 521;
   // ActivityStarter errors
   public static final int ERROR_ACTIVITY_STARTER_NO_CORRESPONDING_ACTIVITY = 601;
   public static final int ERROR_ACTIVITY_STARTER_NO_ACTION_INFO = 602;
@@ -314,7 +316,10 @@ public final class ErrorMessages {
   // ListView Errors
   public static final int ERROR_LISTVIEW_INDEX_OUT_OF_BOUNDS = 4601;
 
-  // Start the next group of errors at 4700
+  // AnomalyDetection Errors
+  public static final int ERROR_ANOMALY_DETECTION_INVALID_SOURCE = 4701;
+
+  // Start the next group of errors at 4800
 
   // Mapping of error numbers to error message format strings.
   private static final Map<Integer, String> errorMessages;
@@ -479,6 +484,10 @@ public final class ErrorMessages {
         "End of stream has been reached.");
     errorMessages.put(ERROR_BLUETOOTH_UNSUPPORTED_ENCODING,
         "The encoding %s is not supported.");
+    errorMessages.put(ERROR_BLUETOOTH_RECEIVING_FRAMES,
+        "Frames are being received in the background. Call StopReceivingFrames first.");
+    errorMessages.put(ERROR_BLUETOOTH_INVALID_FRAME_SIZE,
+        "%d is not a valid frame size.");
     // ActivityStarter errors
     errorMessages.put(ERROR_ACTIVITY_STARTER_NO_CORRESPONDING_ACTIVITY,
         "No corresponding activity was found.");
@@ -766,6 +775,10 @@ public final class ErrorMessages {
     // ListView Errors
     errorMessages.put(ERROR_LISTVIEW_INDEX_OUT_OF_BOUNDS,
         "The index %d is out of bounds for the list view.");
+
+    // AnomalyDetection Errors
+    errorMessages.put(ERROR_ANOMALY_DETECTION_INVALID_SOURCE,
+        "The component %1$s cannot be watched for anomalies.");
   }
 
   private ErrorMessages() {
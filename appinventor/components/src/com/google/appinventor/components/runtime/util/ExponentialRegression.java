@@ -5,7 +5,7 @@
 
 package com.google.appinventor.components.runtime.util;
 
-import java.util.List;
+import com.google.appinventor.components.common.RunningRegression;
 import java.util.Map;
 
 public class ExponentialRegression extends OlsTrendLine {
@@ -28,8 +28,13 @@ public class ExponentialRegression extends OlsTrendLine {
   }
 
   @Override
-  public Map<String, Object> compute(List<Double> x, List<Double> y) {
-    Map<String, Object> result = super.compute(x, y);
+  public RunningRegression newRunningRegression() {
+    return new RunningRegression(1, false, true);
+  }
+
+  @Override
+  protected Map<String, Object> results(double[] coef, double rSquared) {
+    Map<String, Object> result = super.results(coef, rSquared);
     result.remove("x^2");
     double m = (Double) result.remove("slope");
     double i = (Double) result.remove("intercept");
@@ -0,0 +1,332 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+
+/**
+ * A spatial index over map features that answers distance, containment and
+ * nearest feature queries without computing anything for the features that
+ * are far from the query point.
+ *
+ * <p>Features are kept in an STR tree by their bounding boxes. An STR tree
+ * cannot be changed once built, so features that are added or move after it
+ * is built are kept aside and checked one by one, until there are enough of
+ * them that it is worth building the tree again. The geometries of features,
+ * and the prepared geometries used to test containment, are computed when
+ * first needed and kept until the feature changes.
+ *
+ * @param <T> the type of the indexed features
+ */
+public final class FeatureIndex<T> {
+
+  /**
+   * Describes the shape of a feature to the index.
+   *
+   * @param <T> the type of the features
+   */
+  public interface Measure<T> {
+    /**
+     * Returns the geometry of the feature, with longitudes as x and
+     * latitudes as y.
+     */
+    Geometry getGeometry(T feature);
+
+    /**
+     * Returns the distance in meters around the geometry that is also part of
+     * the feature, such as the radius of a circle whose geometry is its
+     * center, or 0.
+     */
+    double getRadius(T feature);
+
+    /**
+     * Returns the distance in meters from the edge of the feature to a point,
+     * or 0 if the feature contains the point.
+     */
+    double distanceTo(T feature, double latitude, double longitude);
+  }
+
+  /**
+   * The smallest number of changed features that causes the tree to be
+   * built again.
+   */
+  private static final int MIN_REBUILD = 32;
+
+  /**
+   * The tree is built again when more than this fraction of the features
+   * have changed since it was built.
+   */
+  private static final double REBUILD_FRACTION = 0.125;
+
+  /**
+   * The distance in meters that the first nearest feature search covers.
+   */
+  private static final double FIRST_NEAREST_RADIUS = 1000;
+
+  /**
+   * A distance whose search box covers every latitude and longitude.
+   */
+  private static final double WORLD_RADIUS = 180 * GeometryUtil.ONE_DEG_IN_METERS;
+
+  private static final GeometryFactory FACTORY = new GeometryFactory(new PrecisionModel(),
+      GeometryUtil.WEB_MERCATOR_SRID);
+
+  private static final class Entry {
+    final Geometry geometry;
+    final Envelope bounds;
+    final double radius;
+    PreparedGeometry prepared = null;
+
+    Entry(Geometry geometry, Envelope bounds, double radius) {
+      this.geometry = geometry;
+      this.bounds = bounds;
+      this.radius = radius;
+    }
+  }
+
+  private final Measure<T> measure;
+
+  /**
+   * The indexed features. The entry of a feature that has changed is null
+   * until it is computed again.
+   */
+  private final Map<T, Entry> entries = new IdentityHashMap<T, Entry>();
+
+  /**
+   * The features added, changed or removed since the tree was built. The
+   * tree's results for these are out of date.
+   */
+  private final Set<T> changed = Collections.newSetFromMap(new IdentityHashMap<T, Boolean>());
+
+  private STRtree tree = null;
+
+  public FeatureIndex(Measure<T> measure) {
+    this.measure = measure;
+  }
+
+  public synchronized void add(T feature) {
+    entries.put(feature, null);
+    changed.add(feature);
+  }
+
+  /**
+   * Marks a feature as changed, after it has moved or changed shape. Features
+   * that are not indexed are ignored.
+   */
+  public synchronized void update(T feature) {
+    if (entries.containsKey(feature)) {
+      entries.put(feature, null);
+      changed.add(feature);
+    }
+  }
+
+  public synchronized void remove(T feature) {
+    if (entries.containsKey(feature)) {
+      entries.remove(feature);
+      changed.add(feature);
+    }
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+    changed.clear();
+    tree = null;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Returns the features whose edges are within the distance of a point,
+   * nearest first.
+   *
+   * @param distance the distance in meters
+   */
+  public synchronized List<T> withinDistance(double latitude, double longitude,
+      double distance) {
+    final Map<T, Double> distances = new HashMap<T, Double>();
+    for (T feature : candidates(searchBox(latitude, longitude, distance))) {
+      double d = measure.distanceTo(feature, latitude, longitude);
+      if (d <= distance) {
+        distances.put(feature, d);
+      }
+    }
+    List<T> result = new ArrayList<T>(distances.keySet());
+    Collections.sort(result, new Comparator<T>() {
+      @Override
+      public int compare(T a, T b) {
+        return Double.compare(distances.get(a), distances.get(b));
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Returns the features that contain a point, including those with the
+   * point on their boundary.
+   */
+  public synchronized List<T> containing(double latitude, double longitude) {
+    List<T> result = new ArrayList<T>();
+    Point point = null;
+    for (T feature : candidates(new Envelope(longitude, longitude, latitude, latitude))) {
+      Entry entry = entry(feature);
+      if (entry.radius > 0) {
+        if (measure.distanceTo(feature, latitude, longitude) <= 0) {
+          result.add(feature);
+        }
+      } else {
+        if (point == null) {
+          point = FACTORY.createPoint(new Coordinate(longitude, latitude));
+        }
+        if (entry.prepared == null) {
+          entry.prepared = PreparedGeometryFactory.prepare(entry.geometry);
+        }
+        if (entry.prepared.covers(point)) {
+          result.add(feature);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the feature whose edge is nearest to a point, or null if there
+   * are no features with a location.
+   */
+  public synchronized T nearest(double latitude, double longitude) {
+    if (entries.isEmpty()) {
+      return null;
+    }
+    // Search ever larger areas until one holds a feature. Every feature
+    // nearer than the nearest one found is inside a box of that radius, so
+    // one more search with that radius finds the nearest of all.
+    double radius = FIRST_NEAREST_RADIUS;
+    List<T> found = candidates(searchBox(latitude, longitude, radius));
+    while (found.isEmpty() && radius < WORLD_RADIUS) {
+      radius *= 4;
+      found = candidates(searchBox(latitude, longitude, radius));
+    }
+    if (found.isEmpty()) {
+      // The box covers every latitude and longitude, so only features with
+      // empty geometries, or coordinates off the map, are left.
+      for (T feature : entries.keySet()) {
+        if (!entry(feature).bounds.isNull()) {
+          found.add(feature);
+        }
+      }
+      radius = Double.POSITIVE_INFINITY;
+    }
+    T best = null;
+    double bestDistance = Double.POSITIVE_INFINITY;
+    for (T feature : found) {
+      double d = measure.distanceTo(feature, latitude, longitude);
+      if (d < bestDistance) {
+        best = feature;
+        bestDistance = d;
+      }
+    }
+    if (bestDistance > radius) {
+      for (T feature : candidates(searchBox(latitude, longitude, bestDistance))) {
+        double d = measure.distanceTo(feature, latitude, longitude);
+        if (d < bestDistance) {
+          best = feature;
+          bestDistance = d;
+        }
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Returns a box that holds every point within the distance of a point, both
+   * along great circles and in the flat latitude, longitude plane that JTS
+   * distances are computed in.
+   */
+  static Envelope searchBox(double latitude, double longitude, double distance) {
+    double dLat = distance / GeometryUtil.ONE_DEG_IN_METERS;
+    double maxLat = Math.min(90, Math.abs(latitude) + dLat);
+    double cos = Math.cos(Math.toRadians(maxLat));
+    double dLon = cos > 1e-9 ? dLat / cos : 360;
+    if (longitude - dLon < -180 || longitude + dLon > 180) {
+      // Rather than splitting the box at the antimeridian, search every longitude
+      return new Envelope(-180, 180, latitude - dLat, latitude + dLat);
+    }
+    return new Envelope(longitude - dLon, longitude + dLon, latitude - dLat, latitude + dLat);
+  }
+
+  /**
+   * Returns the features whose bounding boxes intersect the box.
+   */
+  @SuppressWarnings("unchecked")
+  private List<T> candidates(Envelope box) {
+    if (tree == null || changed.size() > Math.max(MIN_REBUILD, entries.size() * REBUILD_FRACTION)) {
+      rebuild();
+    }
+    List<T> result = new ArrayList<T>();
+    for (Object item : tree.query(box)) {
+      T feature = (T) item;
+      if (!changed.contains(feature)) {
+        result.add(feature);
+      }
+    }
+    for (T feature : changed) {
+      if (entries.containsKey(feature) && !entry(feature).bounds.isNull()
+          && box.intersects(entry(feature).bounds)) {
+        result.add(feature);
+      }
+    }
+    return result;
+  }
+
+  private void rebuild() {
+    tree = new STRtree();
+    for (T feature : entries.keySet()) {
+      Envelope bounds = entry(feature).bounds;
+      // A feature with an empty geometry, such as a polygon without points, has no location.
+      if (!bounds.isNull()) {
+        tree.insert(bounds, feature);
+      }
+    }
+    tree.build();
+    changed.clear();
+  }
+
+  private Entry entry(T feature) {
+    Entry entry = entries.get(feature);
+    if (entry == null) {
+      Geometry geometry = measure.getGeometry(feature);
+      double radius = measure.getRadius(feature);
+      Envelope bounds = new Envelope(geometry.getEnvelopeInternal());
+      if (radius > 0) {
+        double dLat = radius / GeometryUtil.ONE_DEG_IN_METERS;
+        double maxLat = Math.min(90, Math.max(Math.abs(bounds.getMinY()),
+            Math.abs(bounds.getMaxY())) + dLat);
+        double cos = Math.cos(Math.toRadians(maxLat));
+        bounds.expandBy(cos > 1e-9 ? dLat / cos : 360, dLat);
+      }
+      entry = new Entry(geometry, bounds, radius);
+      entries.put(feature, entry);
+    }
+    return entry;
+  }
+}
@@ -0,0 +1,222 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+/**
+ * Splits a stream of bytes into frames, using a fixed size ring buffer to
+ * hold bytes that do not yet form a complete frame. Frames end with a
+ * delimiter byte, have a fixed length, or start with a 1, 2 or 4 byte length
+ * prefix.
+ *
+ * <p>Bytes are added with {@link #write(byte[], int, int)}, and complete
+ * frames taken with {@link #nextFrame()}. A frame that cannot fit in the
+ * buffer is discarded and counted by {@link #getOverflowCount()}.
+ *
+ * <p>FrameAssembler is not thread safe.
+ */
+public final class FrameAssembler {
+
+  private static final int DELIMITER = 0;
+  private static final int FIXED_LENGTH = 1;
+  private static final int LENGTH_PREFIX = 2;
+
+  private final int mode;
+  private final byte delimiter;
+  private final int frameLength;
+  private final int prefixSize;
+  private final boolean bigEndian;
+
+  private final byte[] buffer;
+  private int head = 0;
+  private int count = 0;
+
+  // Number of buffered bytes already searched for the delimiter.
+  private int scanned = 0;
+
+  // Bytes of an overflowing frame that are still to be discarded. In
+  // delimiter mode, bytes are discarded up to and including the next
+  // delimiter while this is non-zero.
+  private long bytesToSkip = 0;
+
+  private int overflowCount = 0;
+
+  private FrameAssembler(int capacity, int mode, byte delimiter, int frameLength,
+      int prefixSize, boolean bigEndian) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    this.buffer = new byte[capacity];
+    this.mode = mode;
+    this.delimiter = delimiter;
+    this.frameLength = frameLength;
+    this.prefixSize = prefixSize;
+    this.bigEndian = bigEndian;
+  }
+
+  /**
+   * Creates a FrameAssembler for frames that end with the delimiter byte. The
+   * delimiter is not included in the frames returned.
+   */
+  public static FrameAssembler forDelimiter(byte delimiter, int capacity) {
+    return new FrameAssembler(capacity, DELIMITER, delimiter, 0, 0, false);
+  }
+
+  /**
+   * Creates a FrameAssembler for frames of frameLength bytes.
+   *
+   * @throws IllegalArgumentException if frameLength is not positive or is
+   *     larger than capacity
+   */
+  public static FrameAssembler forFixedLength(int frameLength, int capacity) {
+    if (frameLength <= 0 || frameLength > capacity) {
+      throw new IllegalArgumentException("Invalid frame length " + frameLength);
+    }
+    return new FrameAssembler(capacity, FIXED_LENGTH, (byte) 0, frameLength, 0, false);
+  }
+
+  /**
+   * Creates a FrameAssembler for frames that start with an unsigned length of
+   * prefixSize bytes. The prefix is not included in the frames returned.
+   *
+   * @throws IllegalArgumentException if prefixSize is not 1, 2 or 4
+   */
+  public static FrameAssembler forLengthPrefix(int prefixSize, boolean bigEndian,
+      int capacity) {
+    if (prefixSize != 1 && prefixSize != 2 && prefixSize != 4) {
+      throw new IllegalArgumentException("Invalid length prefix size " + prefixSize);
+    }
+    return new FrameAssembler(capacity, LENGTH_PREFIX, (byte) 0, 0, prefixSize, bigEndian);
+  }
+
+  /**
+   * Adds bytes to the buffer. If the buffer is full, the partial frame it
+   * holds is discarded, so all complete frames should be taken with
+   * {@link #nextFrame()} before writing more bytes.
+   *
+   * @return the number of bytes consumed, which is less than len only when
+   *     the buffer has become full
+   */
+  public int write(byte[] bytes, int offset, int len) {
+    int consumed = skip(bytes, offset, len);
+    if (consumed == len) {
+      return len;
+    }
+    if (count == buffer.length) {
+      // nextFrame() found no complete frame in a full buffer.
+      overflow();
+      consumed += skip(bytes, offset + consumed, len - consumed);
+    }
+    int n = Math.min(len - consumed, buffer.length - count);
+    int tail = (head + count) % buffer.length;
+    int firstPart = Math.min(n, buffer.length - tail);
+    System.arraycopy(bytes, offset + consumed, buffer, tail, firstPart);
+    System.arraycopy(bytes, offset + consumed + firstPart, buffer, 0, n - firstPart);
+    count += n;
+    return consumed + n;
+  }
+
+  /**
+   * Removes and returns the next complete frame, or returns null if the
+   * buffer does not hold one.
+   */
+  public byte[] nextFrame() {
+    switch (mode) {
+      case DELIMITER:
+        for (; scanned < count; scanned++) {
+          if (buffer[(head + scanned) % buffer.length] == delimiter) {
+            byte[] frame = take(scanned);
+            remove(1);
+            return frame;
+          }
+        }
+        return null;
+      case FIXED_LENGTH:
+        return count >= frameLength ? take(frameLength) : null;
+      default:
+        if (count < prefixSize) {
+          return null;
+        }
+        long length = 0;
+        for (int i = 0; i < prefixSize; i++) {
+          int b = buffer[(head + (bigEndian ? i : prefixSize - 1 - i)) % buffer.length] & 0xFF;
+          length = (length << 8) | b;
+        }
+        if (length > buffer.length - prefixSize) {
+          // The frame can never fit, so skip it without buffering.
+          remove(prefixSize);
+          int buffered = count;
+          overflow();
+          bytesToSkip = length - buffered;
+          return null;
+        }
+        if (count - prefixSize < length) {
+          return null;
+        }
+        remove(prefixSize);
+        return take((int) length);
+    }
+  }
+
+  /**
+   * Removes and returns the bytes of the partial frame being assembled.
+   */
+  public byte[] drain() {
+    return take(count);
+  }
+
+  /**
+   * Returns the number of frames discarded because they did not fit in the
+   * buffer.
+   */
+  public int getOverflowCount() {
+    return overflowCount;
+  }
+
+  private void overflow() {
+    overflowCount++;
+    remove(count);
+    if (mode == DELIMITER) {
+      bytesToSkip = 1;
+    }
+  }
+
+  /**
+   * Discards the bytes of an overflowing frame that have not yet been
+   * skipped, returning the number of bytes discarded.
+   */
+  private int skip(byte[] bytes, int offset, int len) {
+    if (bytesToSkip == 0) {
+      return 0;
+    }
+    if (mode == DELIMITER) {
+      for (int i = 0; i < len; i++) {
+        if (bytes[offset + i] == delimiter) {
+          bytesToSkip = 0;
+          return i + 1;
+        }
+      }
+      return len;
+    }
+    int n = (int) Math.min(len, bytesToSkip);
+    bytesToSkip -= n;
+    return n;
+  }
+
+  private byte[] take(int n) {
+    byte[] result = new byte[n];
+    int firstPart = Math.min(n, buffer.length - head);
+    System.arraycopy(buffer, head, result, 0, firstPart);
+    System.arraycopy(buffer, 0, result, firstPart, n - firstPart);
+    remove(n);
+    return result;
+  }
+
+  private void remove(int n) {
+    head = (head + n) % buffer.length;
+    count -= n;
+    scanned = 0;
+  }
+}
@@ -0,0 +1,353 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.Log;
+import android.util.MalformedJsonException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONException;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.simplify.DouglasPeuckerSimplifier;
+
+/**
+ * Reads the features of a GeoJSON feature collection one at a time from a stream, so that large
+ * documents never need to be held in memory as a string or as a tree of JSON objects. Features are
+ * converted into the same lists of key-value pairs as {@link GeoJSONUtil#getGeoJSONFeatures} and
+ * handed over in batches as they are read.
+ *
+ * <p>Line strings and polygons can optionally be simplified with the Douglas-Peucker algorithm
+ * while they are read, which removes the points that would not be visible at a given zoom level.
+ */
+public final class GeoJSONReader implements Closeable {
+  private static final String GEOJSON_COORDINATES = "coordinates";
+  private static final String GEOJSON_FEATURECOLLECTION = "FeatureCollection";
+  private static final String GEOJSON_FEATURES = "features";
+  private static final String GEOJSON_GEOMETRY = "geometry";
+  private static final String GEOJSON_GEOMETRYCOLLECTION = "GeometryCollection";
+  private static final String GEOJSON_TYPE = "type";
+
+  /**
+   * The number of features handed over at a time, unless changed with
+   * {@link #setBatchSize(int)}.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 64;
+
+  /**
+   * The size in pixels of a map tile at zoom level 0.
+   */
+  private static final double TILE_SIZE = 256.0;
+
+  private static final GeometryFactory FACTORY = new GeometryFactory();
+
+  /**
+   * Receives the features as they are read.
+   */
+  public interface FeatureHandler {
+    /**
+     * Called on the reading thread with the next features in the document.
+     *
+     * @param features the feature descriptions, in document order
+     */
+    void onFeatures(List<YailList> features);
+  }
+
+  private final String logTag;
+  private final PushbackReader in;
+  private final JsonReader reader;
+  private double tolerance = 0;
+  private int batchSize = DEFAULT_BATCH_SIZE;
+
+  public GeoJSONReader(String logTag, Reader in) {
+    this.logTag = logTag;
+    this.in = new PushbackReader(in, 1);
+    this.reader = new JsonReader(this.in);
+  }
+
+  /**
+   * Sets the distance, in degrees, that simplified line strings and polygons may stray from the
+   * original ones. 0, the default, turns off simplification.
+   */
+  public void setTolerance(double tolerance) {
+    this.tolerance = tolerance;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = Math.max(1, batchSize);
+  }
+
+  /**
+   * Returns the simplification tolerance, in degrees, that removes the details smaller than a
+   * pixel when the map is at the zoom level.
+   */
+  public static double toleranceForZoom(double zoom) {
+    return 360.0 / (TILE_SIZE * Math.pow(2, zoom));
+  }
+
+  /**
+   * Reads the document. Features are only handed over once the document is known to be a feature
+   * collection, and reading stops early if it is known not to be one.
+   *
+   * @param handler the handler that receives the features
+   * @return the type of the root element, or the empty string if it has none
+   * @throws JSONException if the document is not valid JSON or its features are not objects
+   * @throws IOException if the document cannot be read
+   */
+  public String read(FeatureHandler handler) throws IOException, JSONException {
+    skipByteOrderMark();
+    try {
+      String type = null;
+      List<YailList> pending = null;
+      reader.beginObject();
+      while (reader.hasNext()) {
+        String name = reader.nextName();
+        if (GEOJSON_TYPE.equals(name) && reader.peek() == JsonToken.STRING) {
+          type = reader.nextString();
+          if (!isCollection(type)) {
+            return type;
+          }
+          if (pending != null) {
+            // The features came before the type
+            for (int i = 0; i < pending.size(); i += batchSize) {
+              handler.onFeatures(pending.subList(i, Math.min(pending.size(), i + batchSize)));
+            }
+            pending = null;
+          }
+        } else if (GEOJSON_FEATURES.equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+          if (type == null) {
+            pending = new ArrayList<YailList>();
+          }
+          readFeatures(type == null ? null : handler, pending);
+        } else {
+          reader.skipValue();
+        }
+      }
+      reader.endObject();
+      return type == null ? "" : type;
+    } catch (MalformedJsonException e) {
+      throw new JSONException(e.getMessage());
+    } catch (IllegalStateException e) {
+      // Thrown by JsonReader when the document does not have the expected structure
+      throw new JSONException(e.getMessage());
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private void skipByteOrderMark() throws IOException {
+    int c = in.read();
+    if (c != -1 && c != '\uFEFF') {
+      in.unread(c);
+    }
+  }
+
+  private static boolean isCollection(String type) {
+    return GEOJSON_FEATURECOLLECTION.equals(type) || GEOJSON_GEOMETRYCOLLECTION.equals(type);
+  }
+
+  /**
+   * Reads the features array, handing the features to the handler in batches or, if there is no
+   * handler yet, adding them all to pending.
+   */
+  private void readFeatures(FeatureHandler handler, List<YailList> pending)
+      throws IOException, JSONException {
+    List<YailList> batch = new ArrayList<YailList>();
+    reader.beginArray();
+    while (reader.hasNext()) {
+      Object value = readValue();
+      if (!(value instanceof Map)) {
+        throw new JSONException("Expected a GeoJSON Feature object");
+      }
+      @SuppressWarnings("unchecked")
+      Map<String, Object> feature = (Map<String, Object>) value;
+      if (tolerance > 0) {
+        simplifyFeature(feature);
+      }
+      YailList description = (YailList) toYail(feature);
+      if (handler == null) {
+        pending.add(description);
+      } else {
+        batch.add(description);
+        if (batch.size() >= batchSize) {
+          handler.onFeatures(batch);
+          batch = new ArrayList<YailList>();
+        }
+      }
+    }
+    reader.endArray();
+    if (handler != null && !batch.isEmpty()) {
+      handler.onFeatures(batch);
+    }
+  }
+
+  /**
+   * Reads the next value as a map, a list, a string, a number or a boolean. Nulls are returned as
+   * null and left out of maps and lists, like {@link GeoJSONUtil#getGeoJSONFeatures} does.
+   */
+  private Object readValue() throws IOException {
+    switch (reader.peek()) {
+      case BEGIN_OBJECT:
+        Map<String, Object> object = new LinkedHashMap<String, Object>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+          String name = reader.nextName();
+          Object value = readValue();
+          if (value != null) {
+            object.put(name, value);
+          }
+        }
+        reader.endObject();
+        return object;
+      case BEGIN_ARRAY:
+        List<Object> array = new ArrayList<Object>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+          Object value = readValue();
+          if (value != null) {
+            array.add(value);
+          }
+        }
+        reader.endArray();
+        return array;
+      case NUMBER:
+        return parseNumber(reader.nextString());
+      case BOOLEAN:
+        return reader.nextBoolean();
+      case NULL:
+        reader.nextNull();
+        return null;
+      default:
+        return reader.nextString();
+    }
+  }
+
+  /**
+   * Parses a number the same way as org.json, as an Integer or Long if it has no fraction or
+   * exponent and fits, and otherwise as a Double.
+   */
+  static Number parseNumber(String number) {
+    if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0
+        && !"-0".equals(number)) {
+      try {
+        long value = Long.parseLong(number);
+        if (value == (int) value) {
+          return (int) value;
+        }
+        return value;
+      } catch (NumberFormatException e) {
+        // Too large for a long
+      }
+    }
+    return Double.valueOf(number);
+  }
+
+  private Object toYail(Object value) {
+    if (value instanceof Map) {
+      List<YailList> pairs = new ArrayList<YailList>();
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        pairs.add(YailList.makeList(new Object[] { entry.getKey(), toYail(entry.getValue()) }));
+      }
+      return YailList.makeList(pairs);
+    } else if (value instanceof List) {
+      List<Object> items = new ArrayList<Object>();
+      for (Object item : (List<?>) value) {
+        items.add(toYail(item));
+      }
+      return YailList.makeList(items);
+    }
+    return value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void simplifyFeature(Map<String, Object> feature) {
+    Object geometry = feature.get(GEOJSON_GEOMETRY);
+    if (!(geometry instanceof Map)) {
+      return;
+    }
+    Map<String, Object> map = (Map<String, Object>) geometry;
+    Object type = map.get(GEOJSON_TYPE);
+    Object coordinates = map.get(GEOJSON_COORDINATES);
+    if (!(coordinates instanceof List)) {
+      return;
+    }
+    try {
+      if (MapFactory.MapFeatureType.TYPE_LINESTRING.equals(type)) {
+        map.put(GEOJSON_COORDINATES, simplify((List<Object>) coordinates, tolerance, false));
+      } else if (MapFactory.MapFeatureType.TYPE_POLYGON.equals(type)) {
+        map.put(GEOJSON_COORDINATES, simplifyRings((List<Object>) coordinates));
+      } else if (MapFactory.MapFeatureType.TYPE_MULTIPOLYGON.equals(type)) {
+        List<Object> polygons = new ArrayList<Object>();
+        for (Object polygon : (List<Object>) coordinates) {
+          polygons.add(simplifyRings((List<Object>) polygon));
+        }
+        map.put(GEOJSON_COORDINATES, polygons);
+      }
+    } catch (ClassCastException e) {
+      // Leave malformed coordinates for GeoJSONUtil to report when the feature is created
+      Log.w(logTag, "Unable to simplify GeoJSON geometry", e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Object> simplifyRings(List<Object> rings) {
+    List<Object> result = new ArrayList<Object>();
+    for (Object ring : rings) {
+      result.add(simplify((List<Object>) ring, tolerance, true));
+    }
+    return result;
+  }
+
+  /**
+   * Simplifies a list of GeoJSON positions. The positions kept are the original ones, so any
+   * altitudes are kept as well. Rings that would have fewer than four positions, and so no longer
+   * be rings, are returned unchanged.
+   *
+   * @param positions the positions, each a list of longitude, latitude and optional altitude
+   * @param tolerance the distance in degrees that the simplified line may stray from the original
+   * @param ring true if the positions form a closed ring
+   * @return the simplified positions
+   */
+  static List<Object> simplify(List<Object> positions, double tolerance, boolean ring) {
+    if (positions.size() <= (ring ? 4 : 2)) {
+      return positions;
+    }
+    Coordinate[] coordinates = new Coordinate[positions.size()];
+    for (int i = 0; i < coordinates.length; i++) {
+      List<?> position = (List<?>) positions.get(i);
+      coordinates[i] = new Coordinate(((Number) position.get(0)).doubleValue(),
+          ((Number) position.get(1)).doubleValue());
+    }
+    // Rings are simplified as lines, because simplifying a polygon can move its points to keep it
+    // valid, and then they could not be matched with the original positions
+    Coordinate[] simplified = DouglasPeuckerSimplifier.simplify(
+        FACTORY.createLineString(coordinates), tolerance).getCoordinates();
+    if (simplified.length < (ring ? 4 : 2) || simplified.length == coordinates.length) {
+      return positions;
+    }
+    // The simplified coordinates are a subsequence of the original ones
+    List<Object> result = new ArrayList<Object>(simplified.length);
+    int j = 0;
+    for (int i = 0; i < coordinates.length && j < simplified.length; i++) {
+      if (coordinates[i].equals2D(simplified[j])) {
+        result.add(positions.get(i));
+        j++;
+      }
+    }
+    return result;
+  }
+}
@@ -798,6 +798,7 @@ public final class GeoJSONUtil {
       p.setCar(coordinate.get(2));
       p = (Pair) p.getCdr();
       p.setCar(temp);
+      YailListIndex.invalidate(coordinate);
     }
     return coordinates;
   }
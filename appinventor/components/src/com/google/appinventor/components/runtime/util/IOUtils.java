@@ -10,9 +10,12 @@ import android.util.Log;
 import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.File;
+import java.io.FilterReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.io.Reader;
 
 public final class IOUtils {
   private static final int BUFFER_LENGTH = 4096;
@@ -81,6 +84,17 @@ public final class IOUtils {
    * @throws IOException if there is an underlying problem reading the stream
    */
   public static String readReader(InputStreamReader reader) throws IOException {
+    return readReader((Reader) reader);
+  }
+
+  /**
+   * Read a Reader object until the end of the stream.
+   *
+   * @param reader the reader to use
+   * @return a String containing the contents of the reader
+   * @throws IOException if there is an underlying problem reading the stream
+   */
+  public static String readReader(Reader reader) throws IOException {
     StringBuilder sb = new StringBuilder();
     char[] buffer = new char[BUFFER_LENGTH];
     int read;
@@ -103,6 +117,17 @@ public final class IOUtils {
     return s.replaceAll("\r\n", "\n");
   }
 
+  /**
+   * Replace Windows-style CRLF with Unix LF as the given reader is read,
+   * in the same way as {@link #normalizeNewLines(String)}.
+   *
+   * @param reader the reader to wrap
+   * @return a reader returning the contents of reader with CRLF replaced by LF
+   */
+  public static Reader normalizeNewLines(Reader reader) {
+    return new NewLineNormalizingReader(reader);
+  }
+
   /**
    * Create the parent directory(-ies) of the given {@code file} if they don't exist. This does
    * not check for write permission, so callers are responsible for ensuring that the app has been
@@ -117,4 +142,71 @@ public final class IOUtils {
       throw new IOException("Unable to create directory for " + file);
     }
   }
+
+  private static class NewLineNormalizingReader extends FilterReader {
+    private final PushbackReader in;
+
+    NewLineNormalizingReader(Reader reader) {
+      this(new PushbackReader(reader, 1));
+    }
+
+    private NewLineNormalizingReader(PushbackReader in) {
+      super(in);
+      this.in = in;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int c = in.read();
+      return c == '\r' ? afterReturn() : c;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+      int n = in.read(cbuf, off, len);
+      if (n <= 0) {
+        return n;
+      }
+      // Each CRLF becomes a single LF, so at least one character is returned.
+      int end = off + n;
+      int w = off;
+      for (int i = off; i < end; i++) {
+        char c = cbuf[i];
+        if (c == '\r') {
+          if (i + 1 < end) {
+            if (cbuf[i + 1] == '\n') {
+              c = '\n';
+              i++;
+            }
+          } else {
+            c = (char) afterReturn();
+          }
+        }
+        cbuf[w++] = c;
+      }
+      return w - off;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = 0;
+      while (skipped < n && read() != -1) {
+        skipped++;
+      }
+      return skipped;
+    }
+
+    /**
+     * Returns the character to read in place of a carriage return.
+     */
+    private int afterReturn() throws IOException {
+      int next = in.read();
+      if (next == '\n') {
+        return '\n';
+      } else if (next != -1) {
+        in.unread(next);
+      }
+      return '\r';
+    }
+  }
 }
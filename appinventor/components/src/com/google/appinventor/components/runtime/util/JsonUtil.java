@@ -14,6 +14,7 @@ import com.google.appinventor.components.runtime.Form;
 import com.google.appinventor.components.runtime.errors.YailRuntimeError;
 
 import gnu.lists.FString;
+import gnu.lists.Pair;
 
 import gnu.math.IntFraction;
 
@@ -34,7 +35,6 @@ import java.util.TreeSet;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.json.JSONTokener;
 
 /**
  * Provides utility functions to convert between Java object and JSON.
@@ -246,14 +246,39 @@ public class JsonUtil {
   }
 
   public static String getJsonRepresentation(Object value) throws JSONException {
+    StringBuilder sb = new StringBuilder();
+    try {
+      writeJsonRepresentation(value, sb);
+    } catch (IOException e) {
+      // StringBuilder does not throw IOException.
+      throw new JSONException(e.getMessage());
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Writes the JSON representation of {@code value}, as returned by
+   * {@link #getJsonRepresentation(Object)}, to {@code out}. Nested lists and
+   * dictionaries are written in place rather than being built up as strings.
+   *
+   * @param value the value to encode
+   * @param out the destination for the JSON text
+   * @throws JSONException if value contains a number that JSON cannot represent
+   * @throws IOException if out cannot be written to
+   */
+  public static void writeJsonRepresentation(Object value, Appendable out)
+      throws JSONException, IOException {
     if (value == null || value.equals(null)) {
-      return "null";
+      out.append("null");
+      return;
     }
     if (value instanceof FString) {
-      return JSONObject.quote(value.toString());
+      writeQuoted(value.toString(), out);
+      return;
     }
     if (value instanceof YailList) {
-      return ((YailList) value).toJSONString();
+      writeYailList((YailList) value, out);
+      return;
     }
     // The Json tokener used in getObjectFromJson cannot handle
     // fractions.  So we Json encode fractions by first converting
@@ -263,44 +288,83 @@ public class JsonUtil {
     // StoreValue.  See the "warning" comment in runtime.scm at
     // call-component-method.
     if (value instanceof IntFraction) {
-      return JSONObject.numberToString((Number) ((IntFraction)value).doubleValue());
+      out.append(JSONObject.numberToString((Number) ((IntFraction)value).doubleValue()));
+      return;
     }
     if (value instanceof Number) {
-      return JSONObject.numberToString((Number) value);
+      out.append(JSONObject.numberToString((Number) value));
+      return;
     }
     if (value instanceof Boolean) {
-      return value.toString();
+      out.append(value.toString());
+      return;
     }
     if (value instanceof List) {
       value = ((List)value).toArray();
     }
     if (value instanceof YailDictionary) {
-      StringBuilder sb = new StringBuilder();
       YailDictionary dict = (YailDictionary) value;
       String sep = "";
-      sb.append('{');
+      out.append('{');
       for (Entry<Object, Object> entry : (Set<Entry<Object, Object>>) dict.entrySet()) {
-        sb.append(sep);
-        sb.append(JSONObject.quote(entry.getKey().toString()));
-        sb.append(':');
-        sb.append(getJsonRepresentation(entry.getValue()));
+        out.append(sep);
+        writeQuoted(entry.getKey().toString(), out);
+        out.append(':');
+        writeJsonRepresentation(entry.getValue(), out);
         sep = ",";
       }
-      sb.append('}');
-      return sb.toString();
+      out.append('}');
+      return;
     }
     if (value.getClass().isArray()) {
-      StringBuilder sb = new StringBuilder();
-      sb.append("[");
+      out.append('[');
       String separator = "";
       for (Object o: (Object[]) value) {
-        sb.append(separator).append(getJsonRepresentation(o));
+        out.append(separator);
+        writeJsonRepresentation(o, out);
         separator = ",";
       }
-      sb.append("]");
-      return sb.toString();
+      out.append(']');
+      return;
     }
-    return JSONObject.quote(value.toString());
+    writeQuoted(value.toString(), out);
+  }
+
+  /**
+   * Writes the items of a YailList as a JSON array. Like
+   * {@link YailList#toJSONString()}, reports a failure to encode an item as a
+   * YailRuntimeError.
+   */
+  private static void writeYailList(YailList list, Appendable out) throws IOException {
+    try {
+      out.append('[');
+      String separator = "";
+      for (Object contents = list.getCdr(); contents instanceof Pair;
+          contents = ((Pair) contents).getCdr()) {
+        out.append(separator);
+        writeJsonRepresentation(((Pair) contents).getCar(), out);
+        separator = ",";
+      }
+      out.append(']');
+    } catch (JSONException e) {
+      throw new YailRuntimeError("List failed to convert to JSON.", "JSON Creation Error.");
+    }
+  }
+
+  /**
+   * Writes s as a JSON string, as {@link JSONObject#quote(String)} does.
+   */
+  private static void writeQuoted(String s, Appendable out) throws IOException {
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c < 0x20 || c == '"' || c == '\\' || c == '/') {
+        // Leave escaping to org.json, since whether '/' is escaped differs
+        // between Android versions.
+        out.append(JSONObject.quote(s));
+        return;
+      }
+    }
+    out.append('"').append(s).append('"');
   }
 
   /**
@@ -339,24 +403,8 @@ public class JsonUtil {
       // when given the empty string.
       return "";
     } else {
-      final Object value = (new JSONTokener(jsonString)).nextValue();
-      // Note that the JSONTokener may return a value equals() to null.
-      if (value == null || value.equals(JSONObject.NULL)) {
-        return null;
-      } else if ((value instanceof String) ||
-          (value instanceof Number) ||
-          (value instanceof Boolean)) {
-        return value;
-      } else if (value instanceof JSONArray) {
-        return getListFromJsonArray((JSONArray)value, useDicts);
-      } else if (value instanceof JSONObject) {
-        if (useDicts) {
-          return getDictionaryFromJsonObject((JSONObject) value);
-        } else {
-          return getListFromJsonObject((JSONObject) value);
-        }
-      }
-      throw new JSONException("Invalid JSON string.");
+      // Builds the YAIL values in one pass, accepting the same syntax as JSONTokener.
+      return YailJsonParser.parse(jsonString, useDicts);
     }
   }
 
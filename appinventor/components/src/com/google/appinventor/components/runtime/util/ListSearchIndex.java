@@ -0,0 +1,116 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import com.google.appinventor.components.runtime.Component;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the items of a ListView whose text contains a search string. The text of each item, its
+ * main text and description joined and lowercased, is worked out once, the first time the items
+ * are searched, rather than on every search.
+ *
+ * <p>The results of earlier searches are kept while the user types. Any item that contains the
+ * new search string also contains every earlier one that is part of it, so only the results of
+ * the longest such earlier search need to be checked. This also makes deleting characters cheap,
+ * since the results for the shorter string are still known.
+ */
+public final class ListSearchIndex {
+
+  private static final class Search {
+    final String query;
+    final int[] matches;
+
+    Search(String query, int[] matches) {
+      this.query = query;
+      this.matches = matches;
+    }
+  }
+
+  private final Object[] items;
+  private String[] texts = null;
+
+  /**
+   * Earlier searches, each for a string that contains the one before it.
+   */
+  private final List<Search> searches = new ArrayList<Search>();
+
+  /**
+   * Creates an index of a snapshot of the items. Later changes to the list do not affect the
+   * index.
+   */
+  public ListSearchIndex(List<?> items) {
+    this.items = items.toArray();
+  }
+
+  public int size() {
+    return items.length;
+  }
+
+  public Object get(int position) {
+    return items[position];
+  }
+
+  /**
+   * Returns the positions of the items whose text contains the query, ignoring case, in order.
+   */
+  public synchronized int[] search(String query) {
+    query = query.toLowerCase();
+    if (texts == null) {
+      texts = new String[items.length];
+      for (int i = 0; i < items.length; i++) {
+        texts[i] = textOf(items[i]).toLowerCase();
+      }
+    }
+    // Forget the searches that are not part of this one, leaving the longest that is on top
+    while (!searches.isEmpty() && !query.contains(searches.get(searches.size() - 1).query)) {
+      searches.remove(searches.size() - 1);
+    }
+    int[] matches;
+    if (searches.isEmpty()) {
+      matches = new int[texts.length];
+      int count = 0;
+      for (int i = 0; i < texts.length; i++) {
+        if (texts[i].contains(query)) {
+          matches[count++] = i;
+        }
+      }
+      matches = Arrays.copyOf(matches, count);
+    } else {
+      Search last = searches.get(searches.size() - 1);
+      if (last.query.equals(query)) {
+        return last.matches.clone();
+      }
+      matches = new int[last.matches.length];
+      int count = 0;
+      for (int position : last.matches) {
+        if (texts[position].contains(query)) {
+          matches[count++] = position;
+        }
+      }
+      matches = Arrays.copyOf(matches, count);
+    }
+    searches.add(new Search(query, matches));
+    return matches.clone();
+  }
+
+  /**
+   * Returns the text that a search looks at for an item: the main text and the description of a
+   * dictionary element, separated by a space, or else the item as a string.
+   */
+  public static String textOf(Object item) {
+    if (item instanceof YailDictionary
+        && ((YailDictionary) item).containsKey(Component.LISTVIEW_KEY_MAIN_TEXT)) {
+      YailDictionary dict = (YailDictionary) item;
+      String text = String.valueOf(dict.get(Component.LISTVIEW_KEY_MAIN_TEXT));
+      Object description = dict.get(Component.LISTVIEW_KEY_DESCRIPTION);
+      return description == null ? text : text + " " + description;
+    }
+    return String.valueOf(item);
+  }
+}
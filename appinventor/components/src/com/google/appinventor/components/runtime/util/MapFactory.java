@@ -608,6 +608,19 @@ public final class MapFactory {
      * Returns the units for the scale.
      */
     ScaleUnits getScaleUnitsAbstract();
+
+    /**
+     * Sets whether markers are drawn in clusters. While enabled, only the markers inside the
+     * viewport are drawn and hit tested, and markers close to each other are drawn as one.
+     * @param enabled True if markers should be clustered, otherwise false.
+     */
+    void setMarkerClusteringEnabled(boolean enabled);
+
+    /**
+     * Gets whether markers are drawn in clusters.
+     * @return true if markers are clustered, otherwise false.
+     */
+    boolean isMarkerClusteringEnabled();
   }
 
   /**
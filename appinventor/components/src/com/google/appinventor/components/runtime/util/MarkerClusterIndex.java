@@ -0,0 +1,221 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.quadtree.Quadtree;
+
+/**
+ * Indexes point items, such as markers, by their location so that the items
+ * inside a viewport can be found without visiting every item, and groups the
+ * items that would be drawn close together at a zoom level into clusters.
+ *
+ * <p>Items are clustered on a grid laid over the Web Mercator projection used
+ * by the map tiles, so that the clusters at a zoom level do not change as the
+ * map is panned.
+ *
+ * @param <T> the type of the indexed items
+ */
+public final class MarkerClusterIndex<T> {
+
+  /**
+   * The size in pixels of a tile at zoom level 0.
+   */
+  private static final double TILE_SIZE = 256.0;
+
+  /**
+   * A group of items drawn as one.
+   *
+   * @param <T> the type of the items
+   */
+  public static final class Cluster<T> {
+    private final List<T> items = new ArrayList<T>();
+    private double latitudeSum = 0;
+    private double longitudeSum = 0;
+    private double north = -90;
+    private double south = 90;
+    private double east = -180;
+    private double west = 180;
+
+    private void add(T item, double latitude, double longitude) {
+      items.add(item);
+      latitudeSum += latitude;
+      longitudeSum += longitude;
+      north = Math.max(north, latitude);
+      south = Math.min(south, latitude);
+      east = Math.max(east, longitude);
+      west = Math.min(west, longitude);
+    }
+
+    public List<T> getItems() {
+      return items;
+    }
+
+    public int size() {
+      return items.size();
+    }
+
+    /**
+     * Returns the mean latitude of the items, where the cluster is drawn.
+     */
+    public double getLatitude() {
+      return latitudeSum / items.size();
+    }
+
+    /**
+     * Returns the mean longitude of the items, where the cluster is drawn.
+     */
+    public double getLongitude() {
+      return longitudeSum / items.size();
+    }
+
+    public double getNorth() {
+      return north;
+    }
+
+    public double getSouth() {
+      return south;
+    }
+
+    public double getEast() {
+      return east;
+    }
+
+    public double getWest() {
+      return west;
+    }
+  }
+
+  private final Quadtree index = new Quadtree();
+  private final Map<T, Envelope> locations = new HashMap<T, Envelope>();
+
+  /**
+   * Adds an item at the given location, or moves it there if it is already
+   * indexed.
+   */
+  public void add(T item, double latitude, double longitude) {
+    remove(item);
+    Envelope location = new Envelope(longitude, longitude, latitude, latitude);
+    locations.put(item, location);
+    index.insert(location, item);
+  }
+
+  /**
+   * Removes an item.
+   *
+   * @return true if the item was indexed
+   */
+  public boolean remove(T item) {
+    Envelope location = locations.remove(item);
+    if (location == null) {
+      return false;
+    }
+    index.remove(location, item);
+    return true;
+  }
+
+  public boolean contains(T item) {
+    return locations.containsKey(item);
+  }
+
+  public int size() {
+    return locations.size();
+  }
+
+  /**
+   * Returns every indexed item, in no particular order.
+   */
+  public List<T> getItems() {
+    return new ArrayList<T>(locations.keySet());
+  }
+
+  /**
+   * Returns the items inside a bounding box. If west is greater than east,
+   * the box crosses the antimeridian.
+   */
+  public List<T> query(double north, double east, double south, double west) {
+    List<T> result = new ArrayList<T>();
+    if (west > east) {
+      query(new Envelope(west, 180, south, north), result);
+      query(new Envelope(-180, east, south, north), result);
+    } else {
+      query(new Envelope(west, east, south, north), result);
+    }
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void query(Envelope box, List<T> result) {
+    // The quadtree can return items near the box as well as inside it
+    for (Object candidate : index.query(box)) {
+      T item = (T) candidate;
+      if (box.intersects(locations.get(item))) {
+        result.add(item);
+      }
+    }
+  }
+
+  /**
+   * Groups the items inside a bounding box into clusters of items that fall
+   * in the same grid cell at the zoom level.
+   *
+   * @param zoom the zoom level of the map
+   * @param cellSize the size of a grid cell in pixels at that zoom level, or 0
+   *     to put every item in a cluster of its own
+   * @return the clusters, in no particular order
+   */
+  public List<Cluster<T>> cluster(double north, double east, double south, double west,
+      double zoom, double cellSize) {
+    double worldSize = TILE_SIZE * Math.pow(2, zoom);
+    Map<Long, Cluster<T>> cells = new LinkedHashMap<Long, Cluster<T>>();
+    List<Cluster<T>> result = new ArrayList<Cluster<T>>();
+    for (T item : query(north, east, south, west)) {
+      Envelope location = locations.get(item);
+      double latitude = location.getMinY();
+      double longitude = location.getMinX();
+      Cluster<T> cluster;
+      if (cellSize > 0) {
+        long column = (long) Math.floor(mercatorX(longitude) * worldSize / cellSize);
+        long row = (long) Math.floor(mercatorY(latitude) * worldSize / cellSize);
+        Long cell = (column << 32) ^ row;
+        cluster = cells.get(cell);
+        if (cluster == null) {
+          cluster = new Cluster<T>();
+          cells.put(cell, cluster);
+          result.add(cluster);
+        }
+      } else {
+        cluster = new Cluster<T>();
+        result.add(cluster);
+      }
+      cluster.add(item, latitude, longitude);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the x coordinate of a longitude in the Web Mercator projection,
+   * from 0 at 180 degrees west to 1 at 180 degrees east.
+   */
+  static double mercatorX(double longitude) {
+    return (longitude + 180.0) / 360.0;
+  }
+
+  /**
+   * Returns the y coordinate of a latitude in the Web Mercator projection,
+   * from 0 at the north edge of the map to 1 at the south edge.
+   */
+  static double mercatorY(double latitude) {
+    double clipped = Math.max(-85.05112878, Math.min(85.05112878, latitude));
+    double sin = Math.sin(Math.toRadians(clipped));
+    return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+  }
+}
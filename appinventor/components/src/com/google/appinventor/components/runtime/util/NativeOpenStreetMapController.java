@@ -139,6 +139,12 @@ class NativeOpenStreetMapController implements MapController, MapListener {
    */
   private Set<MapFeature> hiddenFeatures = new HashSet<>();
 
+  /**
+   * The overlay that draws the visible markers when marker clustering is enabled, otherwise null.
+   * While it is in use, visible markers are held by it rather than by the overlay manager.
+   */
+  private ClusteredMarkerOverlay markerClusters = null;
+
   private static final float[] ANCHOR_HORIZONTAL = { Float.NaN, 0.0f, 1.0f, 0.5f };
   private static final float[] ANCHOR_VERTICAL = { Float.NaN, 0.0f, 0.5f, 1.0f };
 
@@ -804,8 +810,11 @@ class NativeOpenStreetMapController implements MapController, MapListener {
 
   @Override
   public void removeFeature(MapFeature aiFeature) {
-    view.getOverlayManager().remove(featureOverlays.get(aiFeature));
-    featureOverlays.remove(aiFeature);
+    OverlayWithIW overlay = featureOverlays.remove(aiFeature);
+    view.getOverlayManager().remove(overlay);
+    if (markerClusters != null && overlay instanceof Marker) {
+      markerClusters.remove((Marker) overlay);
+    }
   }
 
   @Override
@@ -815,6 +824,9 @@ class NativeOpenStreetMapController implements MapController, MapListener {
       marker.setAnchor(ANCHOR_HORIZONTAL[aiMarker.AnchorHorizontal()],
           ANCHOR_VERTICAL[aiMarker.AnchorVertical()]);
       marker.setPosition(new GeoPoint(aiMarker.Latitude(), aiMarker.Longitude()));
+      if (markerClusters != null) {
+        markerClusters.update(marker);
+      }
       view.invalidate();
     }
   }
@@ -1244,7 +1256,11 @@ class NativeOpenStreetMapController implements MapController, MapListener {
   }
 
   protected void showOverlay(OverlayWithIW overlay) {
-    view.getOverlayManager().add(overlay);
+    if (markerClusters != null && overlay instanceof Marker) {
+      markerClusters.add((Marker) overlay);
+    } else {
+      view.getOverlayManager().add(overlay);
+    }
     view.invalidate();
   }
 
@@ -1254,14 +1270,19 @@ class NativeOpenStreetMapController implements MapController, MapListener {
   }
 
   protected void hideOverlay(OverlayWithIW overlay) {
-    view.getOverlayManager().remove(overlay);
+    if (markerClusters != null && overlay instanceof Marker) {
+      markerClusters.remove((Marker) overlay);
+    } else {
+      view.getOverlayManager().remove(overlay);
+    }
     view.invalidate();
   }
 
   @Override
   public boolean isFeatureVisible(MapFeature feature) {
     OverlayWithIW overlay = featureOverlays.get(feature);
-    return overlay != null && view.getOverlayManager().contains(overlay);
+    return overlay != null && (view.getOverlayManager().contains(overlay)
+        || (markerClusters != null && markerClusters.contains(overlay)));
   }
 
   @Override
@@ -1433,6 +1454,35 @@ class NativeOpenStreetMapController implements MapController, MapListener {
     }
   }
 
+  @Override
+  public void setMarkerClusteringEnabled(boolean enabled) {
+    if (enabled == (markerClusters != null)) {
+      return;
+    }
+    if (enabled) {
+      markerClusters = new ClusteredMarkerOverlay(
+          view.getContext().getResources().getDisplayMetrics().density);
+      for (OverlayWithIW overlay : featureOverlays.values()) {
+        if (overlay instanceof Marker && view.getOverlayManager().remove(overlay)) {
+          markerClusters.add((Marker) overlay);
+        }
+      }
+      view.getOverlayManager().add(markerClusters);
+    } else {
+      view.getOverlayManager().remove(markerClusters);
+      for (Marker marker : markerClusters.getMarkers()) {
+        view.getOverlayManager().add(marker);
+      }
+      markerClusters = null;
+    }
+    view.invalidate();
+  }
+
+  @Override
+  public boolean isMarkerClusteringEnabled() {
+    return markerClusters != null;
+  }
+
   static class MultiPolygon extends Polygon {
 
     private List<Polygon> children = new ArrayList<Polygon>();
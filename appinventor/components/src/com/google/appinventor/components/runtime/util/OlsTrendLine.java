@@ -5,13 +5,12 @@
 
 package com.google.appinventor.components.runtime.util;
 
+import com.google.appinventor.components.common.RunningRegression;
 import com.google.appinventor.components.common.TrendlineCalculator;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import org.apache.commons.math3.linear.MatrixUtils;
-import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.stat.regression.OLSMultipleLinearRegression;
 
 /**
@@ -88,18 +87,46 @@ public abstract class OlsTrendLine implements TrendlineCalculator {
     OLSMultipleLinearRegression ols = new OLSMultipleLinearRegression();
     ols.setNoIntercept(true); // let the implementation include a constant in xVector if desired
     ols.newSampleData(yData, xData); // provide the data to the model
-    RealMatrix coef = MatrixUtils.createColumnRealMatrix(ols.estimateRegressionParameters());
+    double[] coef = ols.estimateRegressionParameters();
     if (DEBUG) {
-      System.err.println("coef = " + coef);
+      System.err.println("coef = " + Arrays.toString(coef));
     }
+    return results(coef, ols.calculateRSquared());
+  }
+
+  /**
+   * Computes the regression parameters from running sums of the data points, returning the same
+   * map as {@link #compute(List, List)}. The running sums hold the terms of the model, so x is not
+   * needed.
+   *
+   * @param sums the running sums, created by {@link #newRunningRegression()}
+   * @param x the list of x values
+   * @return the results of the regression
+   */
+  @Override
+  public Map<String, Object> compute(RunningRegression sums, List<Double> x) {
+    if (sums.getCount() == 0) {
+      throw new IllegalStateException("List must have at least one element");
+    }
+    return results(sums.getCoefficients(), sums.getUncenteredRSquared());
+  }
 
+  /**
+   * Builds the map of results from the regression parameters. Subclasses may override this method
+   * to report the parameters under the names used by their model.
+   *
+   * @param coef the regression parameters, in the order of the terms of {@link #xVector(double)}
+   * @param rSquared the coefficient of determination
+   * @return the results of the regression
+   */
+  protected Map<String, Object> results(double[] coef, double rSquared) {
     Map<String, Object> result = new HashMap<>();
-    result.put("intercept", round(coef.getEntry(0, 0)));
-    result.put("slope", round(coef.getEntry(1, 0)));
+    result.put("intercept", round(coef[0]));
+    result.put("slope", round(coef[1]));
     if (size() > 2) {
-      result.put("x^2", round(coef.getEntry(2, 0)));
+      result.put("x^2", round(coef[2]));
     }
-    result.put("r^2", ols.calculateRSquared());
+    result.put("r^2", rSquared);
     return result;
   }
 
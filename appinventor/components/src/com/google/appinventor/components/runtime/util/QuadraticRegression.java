@@ -5,6 +5,7 @@
 
 package com.google.appinventor.components.runtime.util;
 
+import com.google.appinventor.components.common.RunningRegression;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -30,8 +31,13 @@ public class QuadraticRegression extends OlsTrendLine {
   }
 
   @Override
-  public Map<String, Object> compute(List<Double> x, List<Double> y) {
-    Map<String, Object> result = super.compute(x, y);
+  public RunningRegression newRunningRegression() {
+    return new RunningRegression(2, false, false);
+  }
+
+  @Override
+  protected Map<String, Object> results(double[] coef, double rSquared) {
+    Map<String, Object> result = super.results(coef, rSquared);
     result.put("Yintercept", result.remove("intercept"));
     double a = (Double) result.get("x^2");
     double b = (Double) result.get("slope");
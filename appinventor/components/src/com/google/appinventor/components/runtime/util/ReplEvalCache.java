@@ -0,0 +1,504 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the top-level definitions that the blocks editor sends to the companion, the event
+ * handlers, procedures and global variables, after they have been read and analyzed by Kawa, so
+ * that they are not read and analyzed again when the editor sends them unchanged.
+ *
+ * <p>The editor sends every definition again after it clears the form, for example when the
+ * companion reconnects or a component changes. The definitions still have to run again then,
+ * since clearing the form removed them, but each is kept as a procedure that only needs to be
+ * called. Definitions are looked up by a hash of their text.
+ *
+ * <p>The evaluation of a message is split into steps, each of which reads and analyzes at most a
+ * batch of new definitions, so that the caller can run the steps separately and a large project
+ * does not hold up the thread it is evaluated on. The last step runs the message, with the kept
+ * definitions in place of their text, and reports how long the evaluation took.
+ *
+ * <p>Messages that are not in the form the editor uses for blocks, and those without any
+ * definitions, are evaluated as they are.
+ */
+public final class ReplEvalCache {
+
+  /**
+   * Evaluates Scheme code for the cache.
+   */
+  public interface Interpreter {
+    /**
+     * Evaluates an expression and returns its value.
+     */
+    Object eval(String expression) throws Throwable;
+
+    /**
+     * Calls a procedure returned by {@link #eval(String)}.
+     */
+    void apply(Object procedure, Object[] args) throws Throwable;
+
+    /**
+     * Called after a message with definitions has been evaluated.
+     *
+     * @param blockid the id of the block the message is for
+     * @param forms the number of top-level forms in the message
+     * @param reused the number of definitions that did not need to be read again
+     * @param millis the time taken to evaluate the message
+     */
+    void evaluated(String blockid, int forms, int reused, long millis);
+  }
+
+  /**
+   * A part of the evaluation of a message.
+   */
+  public interface Step {
+    void run() throws Throwable;
+  }
+
+  private static final String REQUIRE_RUNTIME = "(require <com.google.youngandroid.runtime>)";
+  private static final String MESSAGE_PREFIX =
+      "(begin " + REQUIRE_RUNTIME + " (process-repl-input ";
+  private static final String BODY_PREFIX = " (begin ";
+  private static final String MESSAGE_SUFFIX = ")))";
+  private static final String[] DEFINITION_PREFIXES = {
+      "(def ", "(define-event ", "(define-generic-event "
+  };
+
+  /**
+   * The largest number of definitions read in one step.
+   */
+  static final int BATCH_SIZE = 32;
+
+  /**
+   * The largest number of characters of definitions read in one step, unless the step holds a
+   * single definition.
+   */
+  static final int BATCH_CHARS = 64 * 1024;
+
+  /**
+   * The number of definitions and messages kept.
+   */
+  private static final int CAPACITY = 2048;
+
+  private static final Pattern CHUNK_DEFINE = Pattern.compile("\\(define (Q\\d+) \"\"\\)");
+  private static final Pattern CHUNK_APPEND =
+      Pattern.compile("\\(set! (Q\\d+) \\(string-append \\1 \"(.*)\"\\)\\)", Pattern.DOTALL);
+  private static final Pattern CHUNK_EVAL =
+      Pattern.compile("\\(eval \\(read \\(open-input-string (Q\\d+)\\)\\)\\)");
+  private static final Pattern CHUNK_FREE = Pattern.compile("\\(set! (Q\\d+) #!null\\)");
+
+  private final Interpreter interpreter;
+
+  /**
+   * The procedures for definitions and messages, by the hash of their text, least recently used
+   * first.
+   */
+  private final Map<String, Object> procedures =
+      new LinkedHashMap<String, Object>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+          return size() > CAPACITY;
+        }
+      };
+
+  /**
+   * Messages that the editor split into chunks, by the name of the variable it builds them in.
+   */
+  private final Map<String, StringBuilder> chunks = new HashMap<String, StringBuilder>();
+
+  public ReplEvalCache(Interpreter interpreter) {
+    this.interpreter = interpreter;
+  }
+
+  /**
+   * Forgets every definition and message.
+   */
+  public synchronized void clear() {
+    procedures.clear();
+    chunks.clear();
+  }
+
+  synchronized int size() {
+    return procedures.size();
+  }
+
+  /**
+   * Prepares the evaluation of a message received from the blocks editor. Messages that the
+   * editor split into chunks are put back together here rather than in Scheme, so the steps
+   * for the chunks before the last are empty.
+   *
+   * @param message the Scheme code received
+   * @return the steps to run, in order
+   */
+  public List<Step> prepare(String message) {
+    Matcher m = CHUNK_APPEND.matcher(message);
+    if (m.matches()) {
+      synchronized (this) {
+        StringBuilder sb = chunks.get(m.group(1));
+        if (sb != null) {
+          sb.append(unescape(m.group(2)));
+          return Collections.emptyList();
+        }
+      }
+    } else if ((m = CHUNK_DEFINE.matcher(message)).matches()) {
+      synchronized (this) {
+        chunks.put(m.group(1), new StringBuilder());
+      }
+      return Collections.emptyList();
+    } else if ((m = CHUNK_EVAL.matcher(message)).matches()) {
+      StringBuilder sb;
+      synchronized (this) {
+        // Keep the name until the editor frees it
+        sb = chunks.containsKey(m.group(1)) ? chunks.put(m.group(1), new StringBuilder()) : null;
+      }
+      if (sb != null) {
+        return prepare(sb.toString());
+      }
+    } else if ((m = CHUNK_FREE.matcher(message)).matches()) {
+      synchronized (this) {
+        if (chunks.remove(m.group(1)) == null) {
+          // Defined in Scheme, so it needs to be freed there
+          return evalSteps(message);
+        }
+      }
+      return Collections.emptyList();
+    }
+    if (!message.startsWith(MESSAGE_PREFIX) || !message.endsWith(MESSAGE_SUFFIX)) {
+      return evalSteps(message);
+    }
+    int start = MESSAGE_PREFIX.length();
+    int end = endOfToken(message, start);
+    if (end < 0 || !message.startsWith(BODY_PREFIX, end)) {
+      return evalSteps(message);
+    }
+    String blockid = message.substring(start, end);
+    String body = message.substring(end + BODY_PREFIX.length(),
+        message.length() - MESSAGE_SUFFIX.length());
+    return prepare(message, blockid, body);
+  }
+
+  /**
+   * Prepares the evaluation of code for a block, as received by {@link AppInvHTTPD}.
+   *
+   * @param blockid the block id, quoted if it is a string
+   * @param code the code of the block, which may hold several top-level forms
+   * @return the steps to run, in order
+   */
+  public List<Step> prepare(String blockid, String code) {
+    return prepare(MESSAGE_PREFIX + blockid + BODY_PREFIX + code + " " + MESSAGE_SUFFIX,
+        blockid, code);
+  }
+
+  private List<Step> prepare(final String message, final String blockid, String body) {
+    final List<String> forms = splitForms(body);
+    if (forms == null) {
+      return evalSteps(message);
+    }
+    final List<Integer> definitions = new ArrayList<Integer>();
+    final List<String> keys = new ArrayList<String>();
+    for (int i = 0; i < forms.size(); i++) {
+      if (isDefinition(forms.get(i))) {
+        definitions.add(i);
+        keys.add(hash(forms.get(i)));
+      }
+    }
+    if (definitions.isEmpty()) {
+      return evalSteps(message);
+    }
+
+    // Build the message again with calls to the definitions' procedures in their place
+    StringBuilder sb = new StringBuilder("(begin ").append(REQUIRE_RUNTIME).append(" (lambda (");
+    for (int i = 0; i < definitions.size(); i++) {
+      sb.append(i > 0 ? " t" : "t").append(i);
+    }
+    sb.append(") (process-repl-input ").append(blockid).append(" (begin");
+    for (int i = 0, d = 0; i < forms.size(); i++) {
+      if (d < definitions.size() && definitions.get(d) == i) {
+        sb.append(" (t").append(d++).append(")");
+      } else {
+        sb.append(' ').append(forms.get(i));
+      }
+    }
+    sb.append("))))");
+    final String wrapper = sb.toString();
+    final String wrapperKey = "M" + hash(wrapper);
+
+    final Object[] thunks = new Object[definitions.size()];
+    final int[] reused = new int[1];
+    final long[] millis = new long[1];
+    final boolean[] failed = new boolean[1];
+    List<Step> steps = new ArrayList<Step>();
+    List<Integer> batch = new ArrayList<Integer>();
+    int batchChars = 0;
+    for (int i = 0; i < definitions.size(); i++) {
+      int length = forms.get(definitions.get(i)).length();
+      if (!batch.isEmpty() && (batch.size() >= BATCH_SIZE || batchChars + length > BATCH_CHARS)) {
+        steps.add(compileStep(forms, definitions, keys, batch, thunks, reused, millis, failed));
+        batch = new ArrayList<Integer>();
+        batchChars = 0;
+      }
+      batch.add(i);
+      batchChars += length;
+    }
+    steps.add(compileStep(forms, definitions, keys, batch, thunks, reused, millis, failed));
+    steps.add(new Step() {
+      @Override
+      public void run() throws Throwable {
+        long start = System.currentTimeMillis();
+        try {
+          if (failed[0]) {
+            // Let the interpreter report the error as it would have without the cache
+            interpreter.eval(message);
+            return;
+          }
+          Object procedure = lookup(wrapperKey);
+          if (procedure == null) {
+            procedure = interpreter.eval(wrapper);
+            store(wrapperKey, procedure);
+          }
+          interpreter.apply(procedure, thunks);
+        } finally {
+          millis[0] += System.currentTimeMillis() - start;
+        }
+        interpreter.evaluated(unquote(blockid), forms.size(), reused[0], millis[0]);
+      }
+    });
+    return steps;
+  }
+
+  /**
+   * Returns a step that finds or reads a batch of definitions.
+   */
+  private Step compileStep(final List<String> forms, final List<Integer> definitions,
+      final List<String> keys, final List<Integer> batch, final Object[] thunks,
+      final int[] reused, final long[] millis, final boolean[] failed) {
+    return new Step() {
+      @Override
+      public void run() throws Throwable {
+        if (failed[0]) {
+          return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+          List<Integer> missing = new ArrayList<Integer>();
+          for (int i : batch) {
+            thunks[i] = lookup(keys.get(i));
+            if (thunks[i] == null) {
+              missing.add(i);
+            } else {
+              reused[0]++;
+            }
+          }
+          if (missing.isEmpty()) {
+            return;
+          }
+          StringBuilder sb = new StringBuilder("(begin ").append(REQUIRE_RUNTIME)
+              .append(" (vector");
+          for (int i : missing) {
+            sb.append(" (lambda () ").append(forms.get(definitions.get(i))).append(')');
+          }
+          sb.append("))");
+          List<?> procedures;
+          try {
+            procedures = (List<?>) interpreter.eval(sb.toString());
+          } catch (Throwable e) {
+            failed[0] = true;
+            return;
+          }
+          for (int j = 0; j < missing.size(); j++) {
+            int i = missing.get(j);
+            thunks[i] = procedures.get(j);
+            store(keys.get(i), thunks[i]);
+          }
+        } finally {
+          millis[0] += System.currentTimeMillis() - start;
+        }
+      }
+    };
+  }
+
+  private List<Step> evalSteps(final String message) {
+    return Collections.<Step>singletonList(new Step() {
+      @Override
+      public void run() throws Throwable {
+        interpreter.eval(message);
+      }
+    });
+  }
+
+  private synchronized Object lookup(String key) {
+    return procedures.get(key);
+  }
+
+  private synchronized void store(String key, Object procedure) {
+    procedures.put(key, procedure);
+  }
+
+  static boolean isDefinition(String form) {
+    for (String prefix : DEFINITION_PREFIXES) {
+      if (form.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Splits Scheme code into its top-level forms, leaving out comments.
+   *
+   * @return the forms, or null if the code is not balanced
+   */
+  static List<String> splitForms(String code) {
+    List<String> forms = new ArrayList<String>();
+    int i = 0;
+    int n = code.length();
+    while (i < n) {
+      char c = code.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (c == ';') {
+        while (i < n && code.charAt(i) != '\n') {
+          i++;
+        }
+      } else if (c == ')') {
+        return null;
+      } else {
+        int end = endOfForm(code, i);
+        if (end < 0) {
+          return null;
+        }
+        forms.add(code.substring(i, end));
+        i = end;
+      }
+    }
+    return forms;
+  }
+
+  /**
+   * Returns the index after the form that starts at the index, or -1 if the form does not end.
+   */
+  private static int endOfForm(String code, int start) {
+    int depth = 0;
+    int i = start;
+    int n = code.length();
+    while (i < n) {
+      char c = code.charAt(i);
+      if (c == '(') {
+        depth++;
+        i++;
+      } else if (c == ')') {
+        depth--;
+        i++;
+        if (depth == 0) {
+          return i;
+        } else if (depth < 0) {
+          return -1;
+        }
+      } else if (c == '"' || c == '|') {
+        i = skipDelimited(code, i, c);
+        if (i < 0) {
+          return -1;
+        }
+      } else if (c == ';') {
+        while (i < n && code.charAt(i) != '\n') {
+          i++;
+        }
+      } else if (c == '#' && i + 1 < n && code.charAt(i + 1) == '\\') {
+        // A character, which may be a parenthesis or a quote
+        i = Math.min(n, i + 3);
+      } else if (c == '#' && i + 1 < n && code.charAt(i + 1) == '|') {
+        int close = code.indexOf("|#", i + 2);
+        if (close < 0) {
+          return -1;
+        }
+        i = close + 2;
+      } else if (depth == 0 && Character.isWhitespace(c)) {
+        // The end of an atom at the top level
+        return i;
+      } else {
+        i++;
+      }
+    }
+    return depth == 0 ? n : -1;
+  }
+
+  /**
+   * Returns the index after a string or a symbol between bars, or -1 if it does not end.
+   */
+  private static int skipDelimited(String code, int start, char delimiter) {
+    for (int i = start + 1; i < code.length(); i++) {
+      char c = code.charAt(i);
+      if (c == '\\') {
+        i++;
+      } else if (c == delimiter) {
+        return i + 1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the index after the token that starts at the index, or -1 if a string does not end.
+   */
+  private static int endOfToken(String code, int start) {
+    if (start < code.length() && code.charAt(start) == '"') {
+      return skipDelimited(code, start, '"');
+    }
+    int i = start;
+    while (i < code.length() && !Character.isWhitespace(code.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static String unquote(String blockid) {
+    if (blockid.length() >= 2 && blockid.startsWith("\"") && blockid.endsWith("\"")) {
+      return blockid.substring(1, blockid.length() - 1);
+    }
+    return blockid;
+  }
+
+  /**
+   * Undoes the escaping that the editor applies to chunks.
+   */
+  static String unescape(String s) {
+    StringBuilder sb = new StringBuilder(s.length());
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c == '\\' && i + 1 < s.length()) {
+        c = s.charAt(++i);
+      }
+      sb.append(c);
+    }
+    return sb.toString();
+  }
+
+  static String hash(String text) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes("UTF-8"));
+      StringBuilder sb = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+      }
+      return sb.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,290 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Runs the network requests of a component in the background, limiting how
+ * many run at once for each host.
+ *
+ * <p>A request can be given a key that identifies what it asks for. A request
+ * submitted while another with the same key is waiting or running is not run
+ * again, but is answered by that request: {@link Request#finish()} returns
+ * how many calls the response answers, and the component reports the
+ * response once for each.
+ *
+ * <p>A request can also be given a group. Once the response to a request in
+ * a group has been reported, the responses to earlier requests in the group
+ * are stale and {@link Request#finish()} returns 0 for them, so that a slow
+ * response cannot replace a newer one. A request that fails without calling
+ * {@link Request#finish()} does not make earlier responses stale.
+ *
+ * <p>RequestScheduler is thread safe.
+ */
+public final class RequestScheduler {
+
+  /**
+   * The number of requests to a host that components allow at once unless
+   * told otherwise, as is usual for browsers.
+   */
+  public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 6;
+
+  /**
+   * The work of a request, run on a background thread.
+   */
+  public interface Task {
+    /**
+     * Performs the request. Implementations call {@link Request#finish()}
+     * once they have the response and before reporting it.
+     */
+    void run(Request request);
+  }
+
+  /**
+   * A request that has been submitted to the scheduler.
+   */
+  public final class Request {
+    private final String host;
+    private final String key;
+    private final String group;
+    private final long sequence;
+    private final FutureTask<Void> future;
+    private int calls = 1;
+    private boolean finished = false;
+
+    private Request(String host, String key, String group, long sequence, final Task task) {
+      this.host = host;
+      this.key = key;
+      this.group = group;
+      this.sequence = sequence;
+      this.future = new FutureTask<Void>(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            task.run(Request.this);
+          } finally {
+            completed(Request.this);
+          }
+        }
+      }, null);
+    }
+
+    /**
+     * Stops later requests from joining this one and returns the number of
+     * calls that its response answers, which is 0 if the response is stale.
+     * Calling finish again returns 0.
+     */
+    public int finish() {
+      synchronized (RequestScheduler.this) {
+        if (!release()) {
+          return 0;
+        }
+        if (group != null) {
+          Long latest = reported.get(group);
+          if (latest != null && latest > sequence) {
+            return 0;
+          }
+          reported.put(group, sequence);
+        }
+        return calls;
+      }
+    }
+
+    /**
+     * Stops later requests from joining this one. Returns false if it was
+     * already finished. Called with the scheduler locked.
+     */
+    private boolean release() {
+      if (finished) {
+        return false;
+      }
+      finished = true;
+      if (key != null && pending.get(key) == this) {
+        pending.remove(key);
+      }
+      return true;
+    }
+  }
+
+  private final Executor executor;
+  private int maxRequestsPerHost;
+  private long nextSequence = 0;
+  // Requests that can still be joined, by key.
+  private final Map<String, Request> pending = new HashMap<String, Request>();
+  // The number of running requests for each host.
+  private final Map<String, Integer> running = new HashMap<String, Integer>();
+  // Requests waiting for a request to the same host to complete.
+  private final Map<String, Queue<Request>> waiting = new HashMap<String, Queue<Request>>();
+  // The sequence number of the most recent request reported in each group.
+  private final Map<String, Long> reported = new HashMap<String, Long>();
+
+  /**
+   * Creates a scheduler that runs each request on a new thread.
+   *
+   * @param maxRequestsPerHost the number of requests to a host that may run
+   *     at once, or 0 for no limit
+   */
+  public RequestScheduler(int maxRequestsPerHost) {
+    this(new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        AsynchUtil.runAsynchronously(command);
+      }
+    }, maxRequestsPerHost);
+  }
+
+  /**
+   * Creates a scheduler that runs requests with the given executor.
+   *
+   * @param executor the executor that runs requests
+   * @param maxRequestsPerHost the number of requests to a host that may run
+   *     at once, or 0 for no limit
+   */
+  public RequestScheduler(Executor executor, int maxRequestsPerHost) {
+    this.executor = executor;
+    this.maxRequestsPerHost = maxRequestsPerHost;
+  }
+
+  /**
+   * Returns the number of requests to a host that may run at once, or 0 if
+   * there is no limit.
+   */
+  public synchronized int getMaxRequestsPerHost() {
+    return maxRequestsPerHost;
+  }
+
+  /**
+   * Changes the number of requests to a host that may run at once. Waiting
+   * requests are started if the limit has been raised.
+   *
+   * @param maxRequestsPerHost the new limit, or 0 for no limit
+   */
+  public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+    synchronized (this) {
+      this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+    for (String host : waitingHosts()) {
+      startWaiting(host);
+    }
+  }
+
+  /**
+   * Submits a request.
+   *
+   * @param host the host the request is sent to
+   * @param key identifies what the request asks for, or null if it must not
+   *     be combined with other requests
+   * @param group the group whose older responses this request makes stale,
+   *     or null
+   * @param task performs the request
+   * @return a Future that completes once the request has been performed,
+   *     which is that of the request it joined if there was one
+   */
+  public Future<Void> submit(String host, String key, String group, Task task) {
+    Request request;
+    synchronized (this) {
+      if (key != null) {
+        Request existing = pending.get(key);
+        if (existing != null) {
+          existing.calls++;
+          return existing.future;
+        }
+      }
+      request = new Request(host, key, group, nextSequence++, task);
+      if (key != null) {
+        pending.put(key, request);
+      }
+      Queue<Request> queue = waiting.get(host);
+      if (queue == null) {
+        queue = new ArrayDeque<Request>();
+        waiting.put(host, queue);
+      }
+      queue.add(request);
+    }
+    startWaiting(host);
+    return request.future;
+  }
+
+  /**
+   * Stops later requests with the key from joining the one that is waiting or
+   * running, if any, so that they are sent anew. Components call this when
+   * they change what a request with the key would return.
+   *
+   * @param key the key of the request
+   */
+  public synchronized void forget(String key) {
+    pending.remove(key);
+  }
+
+  /**
+   * Returns the host of a URL, or the URL itself if it cannot be parsed, for
+   * use as the host of a request.
+   */
+  public static String hostOf(String url) {
+    try {
+      return new URL(url).getHost();
+    } catch (MalformedURLException e) {
+      return url;
+    }
+  }
+
+  private void completed(Request request) {
+    synchronized (this) {
+      // A request that failed before finishing is not reported, so it leaves the group alone.
+      request.release();
+      int count = running.get(request.host) - 1;
+      if (count == 0) {
+        running.remove(request.host);
+      } else {
+        running.put(request.host, count);
+      }
+    }
+    startWaiting(request.host);
+  }
+
+  private synchronized Iterable<String> waitingHosts() {
+    return new ArrayDeque<String>(waiting.keySet());
+  }
+
+  /**
+   * Starts as many of the requests waiting for the host as the limit allows,
+   * in the order they were submitted.
+   */
+  private void startWaiting(String host) {
+    Queue<Request> toStart = new ArrayDeque<Request>();
+    synchronized (this) {
+      Queue<Request> queue = waiting.get(host);
+      if (queue == null) {
+        return;
+      }
+      Integer count = running.get(host);
+      int started = count == null ? 0 : count;
+      while (!queue.isEmpty() && (maxRequestsPerHost <= 0 || started < maxRequestsPerHost)) {
+        toStart.add(queue.remove());
+        started++;
+      }
+      if (queue.isEmpty()) {
+        waiting.remove(host);
+      }
+      if (started > 0) {
+        running.put(host, started);
+      }
+    }
+    // Start the requests outside the lock, since an executor may run them at once.
+    for (Request request : toStart) {
+      executor.execute(request.future);
+    }
+  }
+}
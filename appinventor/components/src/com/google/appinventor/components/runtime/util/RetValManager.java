@@ -11,9 +11,14 @@ import android.util.Log;
 import com.google.appinventor.components.runtime.PhoneStatus;
 import com.google.appinventor.components.runtime.ReplForm;
 
-import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
-import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -27,11 +32,25 @@ import org.json.JSONObject;
 public class RetValManager {
 
   private static final String LOG_TAG = "RetValManager";
-  private static final Object semaphore = new Object();
   private static final long TENSECONDS = 10000; // Ten Seconds (in milliseconds)
 
-  // There can be only one!
-  private static ArrayList<JSONObject> currentArray = new ArrayList<JSONObject>(10);
+  // There can be only one! Values are added without locking, so that an app
+  // that logs a lot does not hold up the threads producing them
+  private static final RetValQueue pending = new RetValQueue();
+
+  // Threads blocked in fetch, woken when a value arrives
+  private static final ConcurrentLinkedQueue<Thread> waiting = new ConcurrentLinkedQueue<Thread>();
+
+  // With webrtc, values that arrive while a send is pending go out with it
+  private static final ExecutorService sender = Executors.newSingleThreadExecutor();
+  private static final AtomicBoolean sendScheduled = new AtomicBoolean(false);
+  private static final Runnable sendPending = new Runnable() {
+    @Override
+    public void run() {
+      sendScheduled.set(false);
+      webRTCsendCurrent();
+    }
+  };
 
   // Need a better place for this version string, but for various reasons, this is how we
   // are going to do this for now...
@@ -49,69 +68,70 @@ public class RetValManager {
    * @param item The item to append
    */
   public static void appendReturnValue(String blockid, String ok, String item) {
-    synchronized (semaphore) {
-      JSONObject retval = new JSONObject();
-      try {
-        retval.put("status", ok);
-        retval.put("type", "return");
-        retval.put("value", item);
-        retval.put("blockid", blockid);
-      } catch (JSONException e) {
-        Log.e(LOG_TAG, "Error building retval", e);
-        return;
-      }
-      boolean sendNotify = currentArray.isEmpty();
-      currentArray.add(retval);
-      if (PhoneStatus.getUseWebRTC()) {
-        webRTCsendCurrent();
-      } else if (sendNotify) {
-        semaphore.notifyAll();
-      }
+    JSONObject retval = new JSONObject();
+    try {
+      retval.put("status", ok);
+      retval.put("type", "return");
+      retval.put("value", item);
+      retval.put("blockid", blockid);
+    } catch (JSONException e) {
+      Log.e(LOG_TAG, "Error building retval", e);
+      return;
     }
+    append(retval);
   }
 
   public static void appendLogValue(String item, String blockid, String status, String level) {
-    synchronized(semaphore) {
-      JSONObject retval = new JSONObject();
-      try {
-        retval.put("status", status);
-        retval.put("type", "log");
-        retval.put("item", item);
-        retval.put("blockid", blockid);
-        retval.put("level", level);
-      } catch (JSONException e) {
-        Log.e(LOG_TAG, "Error building retval", e);
-        return;
-      }
-      boolean sendNotify = currentArray.isEmpty();
-      currentArray.add(retval);
-      if (PhoneStatus.getUseWebRTC()) {
-        webRTCsendCurrent();
-      } else if (sendNotify) {
-        semaphore.notifyAll();
-      }
+    JSONObject retval = new JSONObject();
+    try {
+      retval.put("status", status);
+      retval.put("type", "log");
+      retval.put("item", item);
+      retval.put("blockid", blockid);
+      retval.put("level", level);
+    } catch (JSONException e) {
+      Log.e(LOG_TAG, "Error building retval", e);
+      return;
     }
+    append(retval);
   }
 
   public static void sendError(String error) {
-    synchronized (semaphore) {
-      JSONObject retval = new JSONObject();
-      try {
-        retval.put("status", "OK");
-        retval.put("type", "error");
-        retval.put("value", error);
-      } catch (JSONException e) {
-        Log.e(LOG_TAG, "Error building retval", e);
-        return;
-      }
-      boolean sendNotify = currentArray.isEmpty();
-      currentArray.add(retval);
-      if (PhoneStatus.getUseWebRTC()) {
-        webRTCsendCurrent();
-      } else if (sendNotify) {
-        semaphore.notifyAll();
-      }
+    JSONObject retval = new JSONObject();
+    try {
+      retval.put("status", "OK");
+      retval.put("type", "error");
+      retval.put("value", error);
+    } catch (JSONException e) {
+      Log.e(LOG_TAG, "Error building retval", e);
+      return;
+    }
+    append(retval);
+  }
+
+  /*
+   * appendEvalTiming -- Report how long the Companion took to evaluate
+   * the code sent for a block, so that slow reloads can be diagnosed.
+   *
+   * @param blockid The block id of the block this is for
+   * @param forms The number of top-level forms in the code
+   * @param reused The number of definitions that were already read
+   * @param millis The time taken, in milliseconds
+   */
+  public static void appendEvalTiming(String blockid, int forms, int reused, long millis) {
+    JSONObject retval = new JSONObject();
+    try {
+      retval.put("status", "OK");
+      retval.put("type", "timing");
+      retval.put("blockid", blockid);
+      retval.put("forms", forms);
+      retval.put("reused", reused);
+      retval.put("millis", millis);
+    } catch (JSONException e) {
+      Log.e(LOG_TAG, "Error building retval", e);
+      return;
     }
+    append(retval);
   }
 
   /*
@@ -121,26 +141,18 @@ public class RetValManager {
    * @param value The value to hand it
    */
   public static void pushScreen(String screenName, Object value) {
-    synchronized (semaphore) {
-      JSONObject retval = new JSONObject();
-      try {
-        retval.put("status", "OK");
-        retval.put("type", "pushScreen");
-        retval.put("screen", screenName);
-        if (value != null)
-          retval.put("value", value.toString());
-      } catch (JSONException e) {
-        Log.e(LOG_TAG, "Error building retval", e);
-        return;
-      }
-      boolean sendNotify = currentArray.isEmpty();
-      currentArray.add(retval);
-      if (PhoneStatus.getUseWebRTC()) {
-        webRTCsendCurrent();
-      } else if (sendNotify) {
-        semaphore.notifyAll();
-      }
+    JSONObject retval = new JSONObject();
+    try {
+      retval.put("status", "OK");
+      retval.put("type", "pushScreen");
+      retval.put("screen", screenName);
+      if (value != null)
+        retval.put("value", value.toString());
+    } catch (JSONException e) {
+      Log.e(LOG_TAG, "Error building retval", e);
+      return;
     }
+    append(retval);
   }
 
   /*
@@ -150,25 +162,17 @@ public class RetValManager {
    * @param value The value to hand it
    */
   public static void popScreen(String value) {
-    synchronized (semaphore) {
-      JSONObject retval = new JSONObject();
-      try {
-        retval.put("status", "OK");
-        retval.put("type", "popScreen");
-        if (value != null)
-          retval.put("value", value.toString());
-      } catch (JSONException e) {
-        Log.e(LOG_TAG, "Error building retval", e);
-        return;
-      }
-      boolean sendNotify = currentArray.isEmpty();
-      currentArray.add(retval);
-      if (PhoneStatus.getUseWebRTC()) {
-        webRTCsendCurrent();
-      } else if (sendNotify) {
-        semaphore.notifyAll();
-      }
+    JSONObject retval = new JSONObject();
+    try {
+      retval.put("status", "OK");
+      retval.put("type", "popScreen");
+      if (value != null)
+        retval.put("value", value.toString());
+    } catch (JSONException e) {
+      Log.e(LOG_TAG, "Error building retval", e);
+      return;
     }
+    append(retval);
   }
 
   /*
@@ -177,25 +181,17 @@ public class RetValManager {
    * @param name name of the asset transferred
    */
   public static void assetTransferred(String name) {
-    synchronized (semaphore) {
-      JSONObject retval = new JSONObject();
-      try {
-        retval.put("status", "OK");
-        retval.put("type", "assetTransferred");
-        if (name != null)
-          retval.put("value", name.toString());
-      } catch (JSONException e) {
-        Log.e(LOG_TAG, "Error building retval", e);
-        return;
-      }
-      boolean sendNotify = currentArray.isEmpty();
-      currentArray.add(retval);
-      if (PhoneStatus.getUseWebRTC()) {
-        webRTCsendCurrent();
-      } else if (sendNotify) {
-        semaphore.notifyAll();
-      }
+    JSONObject retval = new JSONObject();
+    try {
+      retval.put("status", "OK");
+      retval.put("type", "assetTransferred");
+      if (name != null)
+        retval.put("value", name.toString());
+    } catch (JSONException e) {
+      Log.e(LOG_TAG, "Error building retval", e);
+      return;
     }
+    append(retval);
   }
 
   /*
@@ -203,23 +199,15 @@ public class RetValManager {
    *
    */
   public static void extensionsLoaded() {
-    synchronized (semaphore) {
-      JSONObject retval = new JSONObject();
-      try {
-        retval.put("status", "OK");
-        retval.put("type", "extensionsLoaded");
-      } catch (JSONException e) {
-        Log.e(LOG_TAG, "Error building retval", e);
-        return;
-      }
-      boolean sendNotify = currentArray.isEmpty();
-      currentArray.add(retval);
-      if (PhoneStatus.getUseWebRTC()) {
-        webRTCsendCurrent();
-      } else if (sendNotify) {
-        semaphore.notifyAll();
-      }
+    JSONObject retval = new JSONObject();
+    try {
+      retval.put("status", "OK");
+      retval.put("type", "extensionsLoaded");
+    } catch (JSONException e) {
+      Log.e(LOG_TAG, "Error building retval", e);
+      return;
     }
+    append(retval);
   }
 
   /*
@@ -231,44 +219,49 @@ public class RetValManager {
    * @return String The JSON encoded array.
    */
   public static String fetch(boolean block) {
-    long startTime = System.currentTimeMillis();
-    synchronized (semaphore) {
-      while (currentArray.isEmpty() && block) {
-        long time = System.currentTimeMillis();
-        if ((time - startTime) > (TENSECONDS - 100)) // Time to give up...
-          break;
-        try {
-          semaphore.wait(TENSECONDS);
-        } catch (InterruptedException e) {
+    if (block && pending.isEmpty()) {
+      long deadline = System.currentTimeMillis() + TENSECONDS - 100;
+      Thread current = Thread.currentThread();
+      waiting.add(current);
+      try {
+        while (pending.isEmpty()) {
+          long remaining = deadline - System.currentTimeMillis();
+          if (remaining <= 0 || Thread.interrupted()) { // Time to give up...
+            break;
+          }
+          LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(remaining));
         }
+      } finally {
+        waiting.remove(current);
       }
-      JSONArray arrayoutput = new JSONArray(currentArray);
-      JSONObject output = new JSONObject();
-      try {
-        output.put("status", "OK");
-        output.put("values", arrayoutput);
-      } catch (JSONException e) {
-        Log.e(LOG_TAG, "Error fetching retvals", e);
-        return("{\"status\" : \"BAD\", \"message\" : \"Failure in RetValManager\"}");
+    }
+    return RetValQueue.toMessage(pending.drain());
+  }
+
+  private static void append(JSONObject retval) {
+    pending.offer(retval);
+    if (PhoneStatus.getUseWebRTC()) {
+      if (sendScheduled.compareAndSet(false, true)) {
+        sender.execute(sendPending);
+      }
+    } else {
+      for (Thread thread : waiting) {
+        LockSupport.unpark(thread);
       }
-      currentArray.clear();       // empty it out
-      return output.toString();
     }
   }
 
-  // Only used for webrtc. Note: Our caller is holding "semphore" so we don't
-  // need to worry about multi-thread synchonization here
+  // Only used for webrtc, and only on the sender thread. Values are sent in
+  // frames that every data channel can carry; the Blocks Editor puts a value
+  // too large for one frame back together from its parts.
   private static void webRTCsendCurrent() {
-    try {
-      JSONObject output = new JSONObject();
-      output.put("status", "OK");
-      output.put("values", new JSONArray(currentArray));
-      ReplForm.returnRetvals(output.toString());
-    } catch (JSONException e) {
-      Log.e(LOG_TAG, "Error building retval", e);
+    List<JSONObject> values = pending.drain();
+    if (values.isEmpty()) {
       return;
     }
-    currentArray.clear();
+    for (String frame : RetValQueue.toFrames(values, RetValQueue.MAX_FRAME_BYTES)) {
+      ReplForm.returnRetvals(frame);
+    }
   }
 
 }
@@ -0,0 +1,354 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Holds the values that the companion has yet to send to the blocks editor, without locking, so
+ * that apps that log a lot do not hold up the threads that produce the values.
+ *
+ * <p>A value that makes an earlier pending one pointless replaces it: a block's return value
+ * replaces the block's earlier one, and a log message replaces the same message logged just
+ * before it, counting the repeats. Replaced values count toward the size of the queue until they
+ * are purged. When more values are pending than the queue holds, the oldest log and timing
+ * values are dropped and the next batch starts with a log message that says how many. Other
+ * values, such as return values, errors and screen changes, are always delivered, even if that
+ * takes the queue past its capacity.
+ *
+ * <p>Batches are sent over WebRTC in frames small enough for every implementation of a data
+ * channel. A single value too large for a frame is sent in parts for the editor to put back
+ * together.
+ */
+public final class RetValQueue {
+
+  /**
+   * The largest number of pending values, unless set in the constructor.
+   */
+  public static final int DEFAULT_CAPACITY = 1000;
+
+  /**
+   * The largest frame, in bytes. Data channel messages of up to 16 KiB are delivered by every
+   * browser.
+   */
+  public static final int MAX_FRAME_BYTES = 16 * 1024;
+
+  private static final String FRAME_PREFIX = "{\"status\":\"OK\",\"values\":[";
+  private static final String FRAME_SUFFIX = "]}";
+
+  /**
+   * Room left in a part for the rest of the part's JSON.
+   */
+  private static final int PART_OVERHEAD = 64;
+
+  private static final class Entry {
+    final String key;
+    final JSONObject value;
+    final AtomicBoolean taken = new AtomicBoolean();  // sent, dropped or superseded
+    final AtomicBoolean removed = new AtomicBoolean();  // removed from the queue
+    final boolean droppable;
+
+    Entry(String key, JSONObject value) {
+      this.key = key;
+      this.value = value;
+      String type = value.optString("type");
+      this.droppable = "log".equals(type) || "timing".equals(type);
+    }
+  }
+
+  private final int capacity;
+  private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<Entry>();
+  private final ConcurrentHashMap<String, Entry> latest = new ConcurrentHashMap<String, Entry>();
+  private final AtomicReference<Entry> last = new AtomicReference<Entry>();
+  private final AtomicInteger length = new AtomicInteger();  // entries in the queue
+  private final AtomicInteger size = new AtomicInteger();  // entries not yet taken
+  private final AtomicInteger droppable = new AtomicInteger();  // droppable entries not yet taken
+  private final AtomicInteger dropped = new AtomicInteger();
+  private final AtomicBoolean purging = new AtomicBoolean();
+
+  public RetValQueue() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public RetValQueue(int capacity) {
+    this.capacity = capacity;
+  }
+
+  public boolean isEmpty() {
+    return size.get() <= 0 && dropped.get() == 0;
+  }
+
+  /**
+   * Adds a value, replacing the pending value it supersedes and dropping the oldest values if
+   * the queue is full.
+   */
+  public void offer(JSONObject value) {
+    String key = keyOf(value);
+    Entry entry = new Entry(key, value);
+    length.incrementAndGet();
+    size.incrementAndGet();
+    if (entry.droppable) {
+      droppable.incrementAndGet();
+    }
+    // The entry replaces the previous one before it is queued, so it is complete when taken
+    if (key == null) {
+      last.set(entry);
+    } else if ("log".equals(value.optString("type"))) {
+      // Only a repeat of the value offered just before is replaced, so messages keep their order
+      Entry previous = last.get();
+      if (previous != null && key.equals(previous.key) && last.compareAndSet(previous, entry)
+          && markTaken(previous)) {
+        try {
+          value.put("repeat", previous.value.optInt("repeat", 1) + 1);
+        } catch (JSONException e) {
+          // Cannot happen with a valid key and an int
+        }
+      } else {
+        last.set(entry);
+      }
+    } else {
+      last.set(entry);
+      Entry previous = latest.put(key, entry);
+      if (previous != null) {
+        markTaken(previous);
+      }
+    }
+    queue.offer(entry);
+    if (length.get() > capacity) {
+      trim();
+    }
+  }
+
+  /**
+   * Returns the number of entries in the queue, including those superseded but not yet purged.
+   */
+  int queued() {
+    return length.get();
+  }
+
+  /**
+   * Brings the queue back to its capacity, first by purging superseded entries if they make up
+   * at least half of it, so that purging takes constant time per value offered, and then by
+   * dropping the oldest log and timing entries, if there are any.
+   */
+  private void trim() {
+    if (2 * (length.get() - size.get()) >= length.get() && purging.compareAndSet(false, true)) {
+      try {
+        Iterator<Entry> it = queue.iterator();
+        while (it.hasNext()) {
+          Entry entry = it.next();
+          if (entry.taken.get()) {
+            it.remove();
+            removed(entry);
+          }
+        }
+      } finally {
+        purging.set(false);
+      }
+    }
+    if (length.get() <= capacity || droppable.get() <= 0) {
+      return;
+    }
+    Iterator<Entry> it = queue.iterator();
+    while (length.get() > capacity && it.hasNext()) {
+      Entry entry = it.next();
+      if (entry.droppable && take(entry)) {
+        it.remove();
+        removed(entry);
+        dropped.incrementAndGet();
+      } else if (entry.taken.get()) {
+        // Superseded, so it can go while we are here
+        it.remove();
+        removed(entry);
+      }
+    }
+  }
+
+  /**
+   * Removes and returns the pending values, oldest first, starting with a log message if any
+   * values were dropped.
+   */
+  public List<JSONObject> drain() {
+    List<JSONObject> values = new ArrayList<JSONObject>();
+    int count = dropped.getAndSet(0);
+    if (count > 0) {
+      values.add(droppedMarker(count));
+    }
+    Entry entry;
+    while ((entry = queue.poll()) != null) {
+      removed(entry);
+      if (take(entry)) {
+        values.add(entry.value);
+      }
+    }
+    return values;
+  }
+
+  private boolean take(Entry entry) {
+    if (!markTaken(entry)) {
+      return false;  // Superseded
+    }
+    if (entry.key != null) {
+      latest.remove(entry.key, entry);
+    }
+    return true;
+  }
+
+  /**
+   * Marks an entry as sent, dropped or superseded, returning false if it already was.
+   */
+  private boolean markTaken(Entry entry) {
+    if (!entry.taken.compareAndSet(false, true)) {
+      return false;
+    }
+    size.decrementAndGet();
+    if (entry.droppable) {
+      droppable.decrementAndGet();
+    }
+    return true;
+  }
+
+  // An entry may be removed by a purge and polled by another thread at once, so count it once
+  private void removed(Entry entry) {
+    if (entry.removed.compareAndSet(false, true)) {
+      length.decrementAndGet();
+    }
+  }
+
+  /**
+   * Returns the key shared by a value and the values it supersedes, or null if it supersedes
+   * none.
+   */
+  static String keyOf(JSONObject value) {
+    String type = value.optString("type");
+    String blockid = value.optString("blockid");
+    if ("return".equals(type) || "timing".equals(type)) {
+      if (blockid.isEmpty() || "-1".equals(blockid) || "-2".equals(blockid)) {
+        return null;  // Not for a particular block
+      }
+      return type + '\0' + blockid;
+    } else if ("log".equals(type)) {
+      return type + '\0' + blockid + '\0' + value.optString("level") + '\0'
+          + value.optString("item");
+    }
+    return null;
+  }
+
+  static JSONObject droppedMarker(int count) {
+    JSONObject marker = new JSONObject();
+    try {
+      marker.put("status", "OK");
+      marker.put("type", "log");
+      marker.put("item", count + " results dropped");
+      marker.put("blockid", "RetValManager");
+      marker.put("level", "Warning");
+    } catch (JSONException e) {
+      // Cannot happen with string values
+    }
+    return marker;
+  }
+
+  /**
+   * Returns the values as a JSON object for the editor, as fetched over HTTP.
+   */
+  public static String toMessage(List<JSONObject> values) {
+    StringBuilder sb = new StringBuilder(FRAME_PREFIX);
+    for (int i = 0; i < values.size(); i++) {
+      sb.append(i > 0 ? "," : "").append(values.get(i));
+    }
+    return sb.append(FRAME_SUFFIX).toString();
+  }
+
+  /**
+   * Packs the values into as few frames as possible, none larger than maxBytes in UTF-8. Each
+   * frame is a JSON object like the one fetched over HTTP, except for the parts of values too
+   * large for a frame of their own, which have the status "PART", the part's number and the
+   * number of parts, and the part's text as their data.
+   */
+  public static List<String> toFrames(List<JSONObject> values, int maxBytes) {
+    List<String> frames = new ArrayList<String>();
+    int budget = maxBytes - FRAME_PREFIX.length() - FRAME_SUFFIX.length();
+    StringBuilder frame = new StringBuilder(FRAME_PREFIX);
+    int frameBytes = 0;
+    for (JSONObject value : values) {
+      String text = value.toString();
+      int bytes = utf8Length(text);
+      if (frameBytes > 0 && frameBytes + 1 + bytes > budget) {
+        frames.add(frame.append(FRAME_SUFFIX).toString());
+        frame = new StringBuilder(FRAME_PREFIX);
+        frameBytes = 0;
+      }
+      if (bytes > budget) {
+        frames.addAll(toParts(FRAME_PREFIX + text + FRAME_SUFFIX, maxBytes - PART_OVERHEAD));
+        continue;
+      }
+      if (frameBytes > 0) {
+        frame.append(',');
+        frameBytes++;
+      }
+      frame.append(text);
+      frameBytes += bytes;
+    }
+    if (frameBytes > 0) {
+      frames.add(frame.append(FRAME_SUFFIX).toString());
+    }
+    return frames;
+  }
+
+  /**
+   * Splits a message into parts whose data, once quoted, takes at most maxBytes.
+   */
+  private static List<String> toParts(String message, int maxBytes) {
+    List<String> data = new ArrayList<String>();
+    int start = 0;
+    int cost = 0;
+    for (int i = 0; i < message.length(); i++) {
+      char c = message.charAt(i);
+      // The most the character can take once quoted, escaped as \\uXXXX if need be
+      int charCost = c >= 0x20 && c < 0x7F ? (c == '"' || c == '\\' || c == '/' ? 2 : 1) : 6;
+      if (cost + charCost > maxBytes && !Character.isLowSurrogate(c)) {
+        data.add(message.substring(start, i));
+        start = i;
+        cost = 0;
+      }
+      cost += charCost;
+    }
+    data.add(message.substring(start));
+    List<String> parts = new ArrayList<String>(data.size());
+    for (int i = 0; i < data.size(); i++) {
+      parts.add("{\"status\":\"PART\",\"part\":" + i + ",\"parts\":" + data.size()
+          + ",\"data\":" + JSONObject.quote(data.get(i)) + "}");
+    }
+    return parts;
+  }
+
+  static int utf8Length(String s) {
+    int length = 0;
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c < 0x80) {
+        length++;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c)) {
+        length += 4;
+        i++;
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+}
@@ -0,0 +1,127 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+/**
+ * The mean and standard deviation of the most recent values of a stream, over a window of a fixed
+ * size. The values are kept in a ring buffer and the statistics are updated with Welford's method,
+ * so adding a value takes constant time.
+ *
+ * <p>The standard deviation is that of the population, as used by
+ * {@link com.google.appinventor.components.runtime.AnomalyDetection}. Updating the statistics as
+ * values leave the window accumulates rounding error, so they are recomputed from the window each
+ * time it has been refilled.
+ *
+ * <p>RollingStatistics is not thread safe.
+ */
+public final class RollingStatistics {
+  private final double[] values;
+  private int head = 0;
+  private int count = 0;
+  private double mean = 0;
+  // The sum of the squared differences from the mean.
+  private double m2 = 0;
+  private int replaced = 0;
+
+  /**
+   * Creates an empty RollingStatistics over a window of the given size.
+   *
+   * @throws IllegalArgumentException if size is less than 1
+   */
+  public RollingStatistics(int size) {
+    if (size < 1) {
+      throw new IllegalArgumentException("Invalid window size " + size);
+    }
+    values = new double[size];
+  }
+
+  /**
+   * Adds a value to the window, removing the oldest value if the window is full.
+   */
+  public void add(double value) {
+    if (count < values.length) {
+      values[(head + count) % values.length] = value;
+      count++;
+      double delta = value - mean;
+      mean += delta / count;
+      m2 += delta * (value - mean);
+      return;
+    }
+    double old = values[head];
+    values[head] = value;
+    head = (head + 1) % values.length;
+    if (++replaced >= values.length) {
+      recompute();
+      return;
+    }
+    double oldMean = mean;
+    mean += (value - old) / count;
+    m2 += (value - old) * (value - mean + old - oldMean);
+    if (m2 < 0) {
+      m2 = 0;
+    }
+  }
+
+  /**
+   * Removes all of the values.
+   */
+  public void clear() {
+    head = 0;
+    count = 0;
+    mean = 0;
+    m2 = 0;
+    replaced = 0;
+  }
+
+  /**
+   * Returns the number of values in the window.
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the size of the window.
+   */
+  public int getSize() {
+    return values.length;
+  }
+
+  /**
+   * Returns the mean of the values in the window, or NaN if it is empty.
+   */
+  public double getMean() {
+    return count == 0 ? Double.NaN : mean;
+  }
+
+  /**
+   * Returns the standard deviation of the values in the window, or NaN if it is empty.
+   */
+  public double getStandardDeviation() {
+    return count == 0 ? Double.NaN : Math.sqrt(m2 / count);
+  }
+
+  /**
+   * Returns how many standard deviations the value is from the mean of the window.
+   */
+  public double zScore(double value) {
+    return Math.abs((value - getMean()) / getStandardDeviation());
+  }
+
+  private void recompute() {
+    replaced = 0;
+    double sum = 0;
+    for (int i = 0; i < count; i++) {
+      sum += values[i];
+    }
+    mean = sum / count;
+    m2 = 0;
+    for (int i = 0; i < count; i++) {
+      double delta = values[i] - mean;
+      m2 += delta * delta;
+    }
+  }
+}
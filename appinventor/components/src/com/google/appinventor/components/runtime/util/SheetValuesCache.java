@@ -0,0 +1,173 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the values of recently read ranges of a spreadsheet for a short time,
+ * so that reading the same range again does not need a request.
+ *
+ * <p>Entries are keyed by spreadsheet and A1 range. A write to a sheet
+ * invalidates every entry for that sheet, since a range cannot cheaply be
+ * checked for overlap with another (a range may be a whole sheet, a row or a
+ * column). A read that started before an invalidation is not stored, so a
+ * slow read cannot put back values that a write has replaced.
+ *
+ * <p>SheetValuesCache is thread safe.
+ */
+public final class SheetValuesCache {
+
+  private static final class Entry {
+    final List<List<Object>> values;
+    final long time;
+
+    Entry(List<List<Object>> values, long time) {
+      this.values = values;
+      this.time = time;
+    }
+  }
+
+  private final int maxEntries;
+  private long maxAge;
+  private long generation = 0;
+  private final LinkedHashMap<String, Entry> entries;
+
+  /**
+   * Creates a cache.
+   *
+   * @param maxEntries the number of ranges to keep
+   * @param maxAge how long values are kept, in milliseconds, or 0 to keep none
+   */
+  public SheetValuesCache(final int maxEntries, long maxAge) {
+    this.maxEntries = maxEntries;
+    this.maxAge = maxAge;
+    this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > SheetValuesCache.this.maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Returns how long values are kept, in milliseconds.
+   */
+  public synchronized long getMaxAge() {
+    return maxAge;
+  }
+
+  /**
+   * Changes how long values are kept. Setting it to 0 empties the cache.
+   */
+  public synchronized void setMaxAge(long maxAge) {
+    this.maxAge = maxAge;
+    if (maxAge <= 0) {
+      clear();
+    }
+  }
+
+  /**
+   * Returns a number that changes whenever entries are invalidated. Take it
+   * before a read and pass it to {@link #put}.
+   */
+  public synchronized long getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Returns the values read from the range, or null if they are not cached
+   * or have expired. The returned lists must not be modified.
+   */
+  public synchronized List<List<Object>> get(String spreadsheetId, String range, long now) {
+    if (maxAge <= 0) {
+      return null;
+    }
+    String key = key(spreadsheetId, range);
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (now - entry.time >= maxAge) {
+      entries.remove(key);
+      return null;
+    }
+    return entry.values;
+  }
+
+  /**
+   * Stores the values read from the range, unless entries have been
+   * invalidated since the read started.
+   *
+   * @param generation the value of {@link #getGeneration()} before the read
+   * @param values the values read, or null if the range was empty
+   */
+  public synchronized void put(String spreadsheetId, String range, List<List<Object>> values,
+      long generation, long now) {
+    if (maxAge <= 0 || generation != this.generation) {
+      return;
+    }
+    if (values == null) {
+      values = Collections.emptyList();
+    }
+    entries.put(key(spreadsheetId, range), new Entry(values, now));
+  }
+
+  /**
+   * Removes the entries for every range of the sheet.
+   */
+  public synchronized void invalidateSheet(String spreadsheetId, String sheetName) {
+    generation++;
+    String prefix = spreadsheetId + "\n";
+    String sheet = normalizeSheet(sheetName);
+    Iterator<String> it = entries.keySet().iterator();
+    while (it.hasNext()) {
+      String key = it.next();
+      if (key.startsWith(prefix) && sheetOf(key.substring(prefix.length())).equals(sheet)) {
+        it.remove();
+      }
+    }
+  }
+
+  /**
+   * Removes every entry.
+   */
+  public synchronized void clear() {
+    generation++;
+    entries.clear();
+  }
+
+  /**
+   * Returns the number of ranges in the cache.
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Returns the name of the sheet that an A1 range refers to. A range with no
+   * sheet name is the whole of a sheet.
+   */
+  static String sheetOf(String range) {
+    int bang = range.lastIndexOf('!');
+    return normalizeSheet(bang < 0 ? range : range.substring(0, bang));
+  }
+
+  private static String normalizeSheet(String sheetName) {
+    if (sheetName.length() >= 2 && sheetName.startsWith("'") && sheetName.endsWith("'")) {
+      return sheetName.substring(1, sheetName.length() - 1).replace("''", "'");
+    }
+    return sheetName;
+  }
+
+  private static String key(String spreadsheetId, String range) {
+    return spreadsheetId + "\n" + range;
+  }
+}
@@ -0,0 +1,227 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import com.google.api.services.sheets.v4.Sheets;
+import com.google.api.services.sheets.v4.model.AppendValuesResponse;
+import com.google.api.services.sheets.v4.model.BatchUpdateValuesRequest;
+import com.google.api.services.sheets.v4.model.ValueRange;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffers writes to a spreadsheet and sends them together.
+ *
+ * <p>Writes are sent in the order they were made. Consecutive updates of
+ * ranges are sent as one values.batchUpdate request, and consecutive rows
+ * appended to the same sheet are sent as one values.append request. Each
+ * write reports its outcome to its own {@link Callback} once it has been
+ * sent.
+ *
+ * <p>SheetsWriteBatch is thread safe. Flushes run one at a time, so a flush
+ * returns only once every write buffered before it has been sent.
+ */
+public final class SheetsWriteBatch {
+
+  /**
+   * Receives the outcome of a buffered write. Called on the thread that
+   * flushes the batch.
+   */
+  public interface Callback {
+    /**
+     * Called once the write has been sent.
+     *
+     * @param rowNumber the number of the row that was added, for an append,
+     *     or 0 for an update
+     */
+    void onWritten(int rowNumber);
+
+    /**
+     * Called if the request that carried the write failed.
+     */
+    void onError(Exception e);
+  }
+
+  private static final String VALUE_INPUT_OPTION = "USER_ENTERED";
+
+  private static final class Write {
+    final String spreadsheetId;
+    // The range to update, or null for an append.
+    final String range;
+    // The sheet to append to, or null for an update.
+    final String sheetName;
+    final List<List<Object>> values;
+    final Callback callback;
+
+    Write(String spreadsheetId, String range, String sheetName, List<List<Object>> values,
+        Callback callback) {
+      this.spreadsheetId = spreadsheetId;
+      this.range = range;
+      this.sheetName = sheetName;
+      this.values = values;
+      this.callback = callback;
+    }
+
+    boolean isAppend() {
+      return sheetName != null;
+    }
+
+    String sheet() {
+      return isAppend() ? sheetName : SheetValuesCache.sheetOf(range);
+    }
+
+    boolean joins(Write first) {
+      if (!spreadsheetId.equals(first.spreadsheetId) || isAppend() != first.isAppend()) {
+        return false;
+      }
+      return !isAppend() || sheetName.equals(first.sheetName);
+    }
+  }
+
+  private final SheetValuesCache cache;
+  private final Object flushLock = new Object();
+  private List<Write> pending = new ArrayList<Write>();
+
+  /**
+   * Creates a batch.
+   *
+   * @param cache the cache to invalidate as writes are sent, or null
+   */
+  public SheetsWriteBatch(SheetValuesCache cache) {
+    this.cache = cache;
+  }
+
+  /**
+   * Buffers an update of a range.
+   *
+   * @return the number of writes now buffered
+   */
+  public synchronized int update(String spreadsheetId, String range, List<List<Object>> values,
+      Callback callback) {
+    pending.add(new Write(spreadsheetId, range, null, values, callback));
+    return pending.size();
+  }
+
+  /**
+   * Buffers a row to add after the last row of a sheet.
+   *
+   * @return the number of writes now buffered
+   */
+  public synchronized int append(String spreadsheetId, String sheetName, List<Object> row,
+      Callback callback) {
+    List<List<Object>> values = new ArrayList<List<Object>>();
+    values.add(row);
+    pending.add(new Write(spreadsheetId, null, sheetName, values, callback));
+    return pending.size();
+  }
+
+  /**
+   * Returns the number of writes buffered.
+   */
+  public synchronized int size() {
+    return pending.size();
+  }
+
+  /**
+   * Sends every buffered write. Failures are reported to the callbacks of the
+   * writes concerned and do not stop later writes from being sent.
+   *
+   * @param sheets the service to send the writes with
+   */
+  public void flush(Sheets sheets) {
+    synchronized (flushLock) {
+      List<Write> writes;
+      synchronized (this) {
+        if (pending.isEmpty()) {
+          return;
+        }
+        writes = pending;
+        pending = new ArrayList<Write>();
+      }
+      int start = 0;
+      while (start < writes.size()) {
+        Write first = writes.get(start);
+        int end = start + 1;
+        while (end < writes.size() && writes.get(end).joins(first)) {
+          end++;
+        }
+        List<Write> run = writes.subList(start, end);
+        try {
+          if (first.isAppend()) {
+            sendAppend(sheets, run);
+          } else {
+            sendUpdate(sheets, run);
+          }
+        } catch (Exception e) {
+          for (Write write : run) {
+            write.callback.onError(e);
+          }
+        } finally {
+          if (cache != null) {
+            for (Write write : run) {
+              cache.invalidateSheet(write.spreadsheetId, write.sheet());
+            }
+          }
+        }
+        start = end;
+      }
+    }
+  }
+
+  /**
+   * Discards the buffered writes without sending them.
+   */
+  public synchronized void clear() {
+    pending = new ArrayList<Write>();
+  }
+
+  private static void sendUpdate(Sheets sheets, List<Write> run) throws IOException {
+    List<ValueRange> data = new ArrayList<ValueRange>();
+    for (Write write : run) {
+      data.add(new ValueRange().setRange(write.range).setValues(write.values));
+    }
+    BatchUpdateValuesRequest body = new BatchUpdateValuesRequest()
+        .setValueInputOption(VALUE_INPUT_OPTION)
+        .setData(data);
+    sheets.spreadsheets().values().batchUpdate(run.get(0).spreadsheetId, body).execute();
+    for (Write write : run) {
+      write.callback.onWritten(0);
+    }
+  }
+
+  private static void sendAppend(Sheets sheets, List<Write> run) throws IOException {
+    String spreadsheetId = run.get(0).spreadsheetId;
+    String sheetName = run.get(0).sheetName;
+    // Append after the last row that has values, as Spreadsheet.AddRow does.
+    List<List<Object>> existing = sheets.spreadsheets().values()
+        .get(spreadsheetId, sheetName).execute().getValues();
+    int nextRow = existing == null ? 1 : existing.size() + 1;
+    String range = sheetName + "!A" + nextRow;
+    List<List<Object>> rows = new ArrayList<List<Object>>();
+    for (Write write : run) {
+      rows.addAll(write.values);
+    }
+    AppendValuesResponse response = sheets.spreadsheets().values()
+        .append(spreadsheetId, range, new ValueRange().setRange(range).setValues(rows))
+        .setValueInputOption(VALUE_INPUT_OPTION)
+        .setInsertDataOption("INSERT_ROWS")
+        .execute();
+    int firstRow = firstRowOf(response.getUpdates().getUpdatedRange());
+    for (int i = 0; i < run.size(); i++) {
+      run.get(i).callback.onWritten(firstRow + i);
+    }
+  }
+
+  /**
+   * Returns the number of the first row of an A1 range such as
+   * {@code Sheet1!A5:C7}.
+   */
+  static int firstRowOf(String updatedRange) {
+    String cell = updatedRange.substring(updatedRange.lastIndexOf('!') + 1).split(":")[0];
+    return Integer.parseInt(cell.replaceAll("[^\\d]", ""));
+  }
+}
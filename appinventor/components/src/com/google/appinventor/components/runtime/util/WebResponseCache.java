@@ -0,0 +1,432 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * A cache of the responses to HTTP GET requests, used by the
+ * {@link com.google.appinventor.components.runtime.Web} component.
+ *
+ * <p>Each response is stored in its own file in the cache directory, and the
+ * most recently used responses are also kept in memory. The files are evicted
+ * in least recently used order once their total size exceeds the maximum
+ * size. The time a file was last used is recorded as its modification time,
+ * so the order survives restarts of the app.
+ *
+ * <p>Responses are looked up by the URL they were requested from. Web adds
+ * the request headers and cookies of a request to its URL, so that requests
+ * that may get different responses do not share one.
+ *
+ * <p>How long a response is fresh is determined from its Cache-Control,
+ * Expires, Date and Age headers by {@link #freshUntil}. A stale response can
+ * be revalidated with the server using its ETag and Last-Modified validators.
+ *
+ * <p>WebResponseCache is thread safe.
+ */
+public final class WebResponseCache {
+  private static final String LOG_TAG = "WebResponseCache";
+
+  /**
+   * Returned by {@link #freshUntil} for responses that must not be stored.
+   */
+  public static final long NOT_CACHEABLE = -1;
+
+  // The version of the format of the cache files.
+  private static final int FORMAT_VERSION = 1;
+
+  private final File directory;
+  private long maxSize;
+  private long size = 0;
+  // The size of each file in the cache, by key, in least recently used order.
+  private final LinkedHashMap<String, Long> files = new LinkedHashMap<String, Long>(16, 0.75f, true);
+  // The most recently used entries, by key, in least recently used order.
+  private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+  private long memorySize = 0;
+
+  /**
+   * A cached response.
+   */
+  public static final class Entry {
+    public final String url;
+    public final String contentType;
+    public final String contentEncoding;
+    public final String etag;
+    public final String lastModified;
+    public final long freshUntil;
+    public final byte[] body;
+
+    /**
+     * Creates an entry.
+     *
+     * @param url the URL that was requested, followed by the request headers
+     *     and cookies that may select a different response, if there are any
+     * @param contentType the value of the Content-Type header, or null
+     * @param contentEncoding the value of the Content-Encoding header, or null
+     * @param etag the value of the ETag header, or null
+     * @param lastModified the value of the Last-Modified header, or null
+     * @param freshUntil the time in milliseconds until which the response is
+     *     fresh, as returned by {@link #freshUntil}
+     * @param body the content of the response
+     */
+    public Entry(String url, String contentType, String contentEncoding, String etag,
+        String lastModified, long freshUntil, byte[] body) {
+      this.url = url;
+      this.contentType = contentType;
+      this.contentEncoding = contentEncoding;
+      this.etag = etag;
+      this.lastModified = lastModified;
+      this.freshUntil = freshUntil;
+      this.body = body;
+    }
+
+    /**
+     * Returns whether the response can be used without revalidating it.
+     */
+    public boolean isFresh(long now) {
+      return now < freshUntil;
+    }
+
+    /**
+     * Returns whether the response has a validator, so that it can be
+     * revalidated once it is stale.
+     */
+    public boolean canRevalidate() {
+      return etag != null || lastModified != null;
+    }
+
+    /**
+     * Returns a copy of this entry updated from a 304 Not Modified response.
+     * Validators missing from the response are kept.
+     */
+    public Entry revalidated(String etag, String lastModified, long freshUntil) {
+      return new Entry(url, contentType, contentEncoding,
+          etag != null ? etag : this.etag,
+          lastModified != null ? lastModified : this.lastModified,
+          freshUntil, body);
+    }
+  }
+
+  /**
+   * Creates a cache that stores its files in the given directory, which is
+   * created if needed. Files already in the directory are reused.
+   *
+   * @param directory the directory that holds the cache
+   * @param maxSize the maximum total size of the cache in bytes
+   */
+  public WebResponseCache(File directory, long maxSize) {
+    this.directory = directory;
+    this.maxSize = maxSize;
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      Log.w(LOG_TAG, "Unable to create cache directory " + directory);
+    }
+    File[] existing = directory.listFiles();
+    if (existing != null) {
+      Arrays.sort(existing, new Comparator<File>() {
+        @Override
+        public int compare(File a, File b) {
+          long difference = a.lastModified() - b.lastModified();
+          return difference < 0 ? -1 : difference > 0 ? 1 : 0;
+        }
+      });
+      for (File file : existing) {
+        if (file.getName().endsWith(".tmp")) {
+          file.delete();
+          continue;
+        }
+        files.put(file.getName(), file.length());
+        size += file.length();
+      }
+    }
+    trim();
+  }
+
+  /**
+   * Returns the cached response to a GET request for the URL, or null if
+   * there is none. The response may be stale.
+   */
+  public synchronized Entry get(String url) {
+    String key = keyFor(url);
+    // Looking up the key marks the file as the most recently used.
+    if (files.get(key) == null) {
+      return null;
+    }
+    Entry entry = memory.get(key);
+    if (entry != null) {
+      touch(key);
+      return entry;
+    }
+    try {
+      entry = read(new File(directory, key));
+    } catch (IOException e) {
+      Log.w(LOG_TAG, "Unable to read cached response for " + url, e);
+    }
+    if (entry == null || !entry.url.equals(url)) {
+      removeKey(key);
+      return null;
+    }
+    touch(key);
+    remember(key, entry);
+    return entry;
+  }
+
+  /**
+   * Stores a response, replacing any earlier response for the same URL.
+   * Responses larger than the cache are not stored.
+   */
+  public synchronized void put(Entry entry) {
+    String key = keyFor(entry.url);
+    removeKey(key);
+    if (entry.body.length > maxSize) {
+      return;
+    }
+    File file = new File(directory, key);
+    File temp = new File(directory, key + ".tmp");
+    try {
+      write(temp, entry);
+      if (!temp.renameTo(file)) {
+        throw new IOException("Unable to rename " + temp);
+      }
+    } catch (IOException e) {
+      Log.w(LOG_TAG, "Unable to cache response for " + entry.url, e);
+      temp.delete();
+      return;
+    }
+    files.put(key, file.length());
+    size += file.length();
+    remember(key, entry);
+    trim();
+  }
+
+  /**
+   * Removes the cached response for the URL, if there is one.
+   */
+  public synchronized void remove(String url) {
+    removeKey(keyFor(url));
+  }
+
+  /**
+   * Removes all of the cached responses.
+   */
+  public synchronized void clear() {
+    for (String key : files.keySet()) {
+      new File(directory, key).delete();
+    }
+    files.clear();
+    memory.clear();
+    size = 0;
+    memorySize = 0;
+  }
+
+  /**
+   * Changes the maximum total size of the cache in bytes, evicting responses
+   * if it is now too large.
+   */
+  public synchronized void setMaxSize(long maxSize) {
+    this.maxSize = maxSize;
+    trim();
+  }
+
+  /**
+   * Returns the total size of the cache files in bytes.
+   */
+  public synchronized long getSize() {
+    return size;
+  }
+
+  /**
+   * Returns the time in milliseconds until which a response is fresh, from
+   * the values of its headers. Returns {@link #NOT_CACHEABLE} if the response
+   * must not be stored, and a time no later than now if it must be
+   * revalidated before each use.
+   *
+   * @param cacheControl the value of the Cache-Control header, or null
+   * @param expires the value of the Expires header, or null
+   * @param date the value of the Date header, or null
+   * @param age the value of the Age header, or null
+   * @param now the time the response was received
+   */
+  public static long freshUntil(String cacheControl, String expires, String date, String age,
+      long now) {
+    long maxAge = -1;
+    if (cacheControl != null) {
+      for (String directive : cacheControl.toLowerCase(Locale.US).split(",")) {
+        directive = directive.trim();
+        if (directive.equals("no-store")) {
+          return NOT_CACHEABLE;
+        } else if (directive.equals("no-cache")) {
+          return now;
+        } else if (directive.startsWith("max-age=")) {
+          maxAge = parseSeconds(directive.substring("max-age=".length()));
+        }
+      }
+    }
+    if (maxAge >= 0) {
+      long ageSeconds = age == null ? 0 : parseSeconds(age);
+      return now + 1000 * (maxAge - Math.max(ageSeconds, 0));
+    }
+    if (expires != null) {
+      long expiresTime = parseDate(expires);
+      long dateTime = date == null ? now : parseDate(date);
+      if (expiresTime < 0 || dateTime < 0) {
+        // An invalid date means the response has already expired.
+        return now;
+      }
+      // Measure from the server's clock, in case it differs from ours.
+      return now + expiresTime - dateTime;
+    }
+    return now;
+  }
+
+  private static long parseSeconds(String value) {
+    try {
+      return Long.parseLong(value.trim().replace("\"", ""));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private static long parseDate(String value) {
+    // SimpleDateFormat is not thread safe, so create one each time.
+    SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+    format.setTimeZone(TimeZone.getTimeZone("GMT"));
+    try {
+      return format.parse(value.trim()).getTime();
+    } catch (ParseException e) {
+      return -1;
+    }
+  }
+
+  private void touch(String key) {
+    new File(directory, key).setLastModified(System.currentTimeMillis());
+  }
+
+  private void remember(String key, Entry entry) {
+    Entry old = memory.put(key, entry);
+    if (old != null) {
+      memorySize -= old.body.length;
+    }
+    memorySize += entry.body.length;
+    // Keep up to a quarter of the cache in memory.
+    Iterator<Map.Entry<String, Entry>> it = memory.entrySet().iterator();
+    while (memorySize > maxSize / 4 && it.hasNext()) {
+      memorySize -= it.next().getValue().body.length;
+      it.remove();
+    }
+  }
+
+  private void removeKey(String key) {
+    Long length = files.remove(key);
+    if (length != null) {
+      size -= length;
+      new File(directory, key).delete();
+    }
+    Entry entry = memory.remove(key);
+    if (entry != null) {
+      memorySize -= entry.body.length;
+    }
+  }
+
+  private void trim() {
+    Iterator<Map.Entry<String, Long>> it = files.entrySet().iterator();
+    while (size > maxSize && it.hasNext()) {
+      Map.Entry<String, Long> eldest = it.next();
+      it.remove();
+      size -= eldest.getValue();
+      new File(directory, eldest.getKey()).delete();
+      Entry entry = memory.remove(eldest.getKey());
+      if (entry != null) {
+        memorySize -= entry.body.length;
+      }
+    }
+  }
+
+  private static String keyFor(String url) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-1").digest(url.getBytes("UTF-8"));
+      StringBuilder sb = new StringBuilder(2 * digest.length);
+      for (byte b : digest) {
+        sb.append(String.format("%02x", b & 0xff));
+      }
+      return sb.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void write(File file, Entry entry) throws IOException {
+    DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(file)));
+    try {
+      out.writeInt(FORMAT_VERSION);
+      out.writeUTF(entry.url);
+      writeString(out, entry.contentType);
+      writeString(out, entry.contentEncoding);
+      writeString(out, entry.etag);
+      writeString(out, entry.lastModified);
+      out.writeLong(entry.freshUntil);
+      out.writeInt(entry.body.length);
+      out.write(entry.body);
+    } finally {
+      out.close();
+    }
+  }
+
+  private static Entry read(File file) throws IOException {
+    DataInputStream in = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(file)));
+    try {
+      if (in.readInt() != FORMAT_VERSION) {
+        return null;
+      }
+      String url = in.readUTF();
+      String contentType = readString(in);
+      String contentEncoding = readString(in);
+      String etag = readString(in);
+      String lastModified = readString(in);
+      long freshUntil = in.readLong();
+      byte[] body = new byte[in.readInt()];
+      in.readFully(body);
+      return new Entry(url, contentType, contentEncoding, etag, lastModified, freshUntil, body);
+    } finally {
+      in.close();
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+}
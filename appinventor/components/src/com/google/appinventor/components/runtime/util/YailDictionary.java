@@ -499,6 +499,7 @@ public class YailDictionary extends LinkedHashMap<Object, Object>
         } else if (target instanceof YailList) {
           LList l = (LList) target;
           l.getIterator(keyToIndex((List<?>) target, key)).set(value);
+          YailListIndex.invalidate(l);
         } else if (target instanceof List) {
           //noinspection unchecked
           ((List) target).set(keyToIndex((List<?>) target, key), value);
@@ -0,0 +1,402 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.json.JSONException;
+
+/**
+ * Parses JSON text directly into the values returned by
+ * {@link JsonUtil#getObjectFromJson(String, boolean)}, without first building
+ * a tree of org.json objects.
+ *
+ * <p>The syntax accepted is that of Android's {@link org.json.JSONTokener},
+ * including its leniencies: single quoted strings, unquoted strings,
+ * comments, octal and hexadecimal integers, {@code ;} between elements,
+ * {@code =} and {@code =>} after names, and empty array elements. The values
+ * produced are those that JsonUtil's conversion of the org.json objects
+ * produced: nested JSON nulls become the string "null", nested "true" and
+ * "false" strings become booleans, and object keys are sorted.
+ */
+final class YailJsonParser {
+
+  private final String in;
+  private final boolean useDicts;
+  private int pos;
+
+  // The first element left empty by consecutive separators in an array.
+  // org.json only reported these when converting the parsed array, so the
+  // error is raised once the whole text has parsed.
+  private String emptyElementError = null;
+
+  private YailJsonParser(String in, boolean useDicts) {
+    // Consume an optional byte order mark, as JSONTokener does.
+    this.in = in.startsWith("\ufeff") ? in.substring(1) : in;
+    this.useDicts = useDicts;
+  }
+
+  /**
+   * Parses the first JSON value in json.
+   *
+   * @param json the JSON text, which must not be null
+   * @param useDicts true if JSON objects should be parsed as YailDictionary,
+   *     false for associative lists
+   * @return the parsed value, which is null for a top level JSON null
+   * @throws JSONException if the JSON is malformed
+   */
+  static Object parse(String json, boolean useDicts) throws JSONException {
+    YailJsonParser parser = new YailJsonParser(json, useDicts);
+    Object value = parser.nextValue(false);
+    if (parser.emptyElementError != null) {
+      throw new JSONException(parser.emptyElementError);
+    }
+    return value;
+  }
+
+  /**
+   * Reads the next value. Nested values are converted as JsonUtil's
+   * convertJsonItem does, whereas top level strings are returned unchanged.
+   */
+  private Object nextValue(boolean nested) throws JSONException {
+    int c = nextClean();
+    switch (c) {
+      case -1:
+        throw syntaxError("End of input");
+      case '{':
+        return readObject();
+      case '[':
+        return readArray(nested);
+      case '\'':
+      case '"':
+        String string = nextString((char) c);
+        return nested ? convertString(string) : string;
+      default:
+        pos--;
+        Object literal = readLiteral();
+        if (literal == null) {
+          return nested ? "null" : null;
+        }
+        return literal;
+    }
+  }
+
+  private static Object convertString(String string) {
+    if (string.equalsIgnoreCase("true")) {
+      return Boolean.TRUE;
+    } else if (string.equalsIgnoreCase("false")) {
+      return Boolean.FALSE;
+    }
+    return string;
+  }
+
+  /**
+   * Reads an array. A top level array is returned as a List even when
+   * useDicts is true, as JsonUtil always did.
+   */
+  private Object readArray(boolean nested) throws JSONException {
+    List<Object> result = new ArrayList<Object>();
+    // Covers input that ends with ",]".
+    boolean hasTrailingSeparator = false;
+    while (true) {
+      switch (nextClean()) {
+        case -1:
+          throw syntaxError("Unterminated array");
+        case ']':
+          if (hasTrailingSeparator) {
+            addEmptyElement(result);
+          }
+          return nested ? makeArray(result) : result;
+        case ',':
+        case ';':
+          // A separator without a value first means an empty element.
+          addEmptyElement(result);
+          hasTrailingSeparator = true;
+          continue;
+        default:
+          pos--;
+      }
+      result.add(nextValue(true));
+      switch (nextClean()) {
+        case ']':
+          return nested ? makeArray(result) : result;
+        case ',':
+        case ';':
+          hasTrailingSeparator = true;
+          continue;
+        default:
+          throw syntaxError("Unterminated array");
+      }
+    }
+  }
+
+  private void addEmptyElement(List<Object> array) {
+    if (emptyElementError == null) {
+      emptyElementError = "Value at " + array.size() + " is null.";
+    }
+    array.add(null);
+  }
+
+  private Object makeArray(List<Object> items) {
+    return useDicts ? YailList.makeList(items) : items;
+  }
+
+  private Object readObject() throws JSONException {
+    // Later values replace earlier ones with the same name, and the result
+    // is ordered by name.
+    TreeMap<String, Object> members = new TreeMap<String, Object>();
+    int first = nextClean();
+    if (first == '}') {
+      return makeObject(members);
+    } else if (first != -1) {
+      pos--;
+    }
+    while (true) {
+      String name = readName();
+      int separator = nextClean();
+      if (separator != ':' && separator != '=') {
+        throw syntaxError("Expected ':' after " + name);
+      }
+      if (pos < in.length() && in.charAt(pos) == '>') {
+        pos++;
+      }
+      Object value = nextValue(true);
+      if (value instanceof Number) {
+        checkDouble(((Number) value).doubleValue());
+      }
+      members.put(name, value);
+      switch (nextClean()) {
+        case '}':
+          return makeObject(members);
+        case ';':
+        case ',':
+          continue;
+        default:
+          throw syntaxError("Unterminated object");
+      }
+    }
+  }
+
+  private String readName() throws JSONException {
+    int c = nextClean();
+    switch (c) {
+      case -1:
+        throw syntaxError("End of input");
+      case '\'':
+      case '"':
+        return nextString((char) c);
+      case '{':
+      case '[':
+        throw syntaxError("Names must be strings");
+      default:
+        pos--;
+        Object name = readLiteral();
+        if (name == null) {
+          throw syntaxError("Names cannot be null");
+        } else if (!(name instanceof String)) {
+          throw syntaxError("Names must be strings, but " + name + " is of type "
+              + name.getClass().getName());
+        }
+        return (String) name;
+    }
+  }
+
+  private Object makeObject(TreeMap<String, Object> members) {
+    if (useDicts) {
+      YailDictionary result = new YailDictionary();
+      for (Map.Entry<String, Object> member : members.entrySet()) {
+        result.put(member.getKey(), member.getValue());
+      }
+      return result;
+    }
+    List<Object> result = new ArrayList<Object>(members.size());
+    for (Map.Entry<String, Object> member : members.entrySet()) {
+      List<Object> pair = new ArrayList<Object>(2);
+      pair.add(member.getKey());
+      pair.add(member.getValue());
+      result.add(pair);
+    }
+    return result;
+  }
+
+  /**
+   * Reads an unquoted value. Returns null for the null literal.
+   */
+  private Object readLiteral() throws JSONException {
+    String literal = nextTo("{}[]/\\:,=;# \t\f");
+    if (literal.length() == 0) {
+      throw syntaxError("Expected literal value");
+    } else if ("null".equalsIgnoreCase(literal)) {
+      return null;
+    } else if ("true".equalsIgnoreCase(literal)) {
+      return Boolean.TRUE;
+    } else if ("false".equalsIgnoreCase(literal)) {
+      return Boolean.FALSE;
+    }
+    // Try to parse as an integral type...
+    if (literal.indexOf('.') == -1) {
+      int base = 10;
+      String number = literal;
+      if (number.startsWith("0x") || number.startsWith("0X")) {
+        number = number.substring(2);
+        base = 16;
+      } else if (number.startsWith("0") && number.length() > 1) {
+        number = number.substring(1);
+        base = 8;
+      }
+      try {
+        long longValue = Long.parseLong(number, base);
+        if (longValue <= Integer.MAX_VALUE && longValue >= Integer.MIN_VALUE) {
+          return (int) longValue;
+        } else {
+          return longValue;
+        }
+      } catch (NumberFormatException e) {
+        // Integers larger than a long, exponents and unquoted strings fall through.
+      }
+    }
+    // ...then as floating point...
+    try {
+      return Double.valueOf(literal);
+    } catch (NumberFormatException ignored) {
+      // ...and finally give up: it is an unquoted string.
+    }
+    return literal;
+  }
+
+  private String nextString(char quote) throws JSONException {
+    // Most strings have no escapes and can be returned as a substring.
+    StringBuilder builder = null;
+    int start = pos;
+    while (pos < in.length()) {
+      char c = in.charAt(pos++);
+      if (c == quote) {
+        if (builder == null) {
+          return in.substring(start, pos - 1);
+        }
+        builder.append(in, start, pos - 1);
+        return builder.toString();
+      }
+      if (c == '\\') {
+        if (pos == in.length()) {
+          throw syntaxError("Unterminated escape sequence");
+        }
+        if (builder == null) {
+          builder = new StringBuilder();
+        }
+        builder.append(in, start, pos - 1);
+        builder.append(readEscapeCharacter());
+        start = pos;
+      }
+    }
+    throw syntaxError("Unterminated string");
+  }
+
+  private char readEscapeCharacter() throws JSONException {
+    char escaped = in.charAt(pos++);
+    switch (escaped) {
+      case 'u':
+        if (pos + 4 > in.length()) {
+          throw syntaxError("Unterminated escape sequence");
+        }
+        String hex = in.substring(pos, pos + 4);
+        pos += 4;
+        try {
+          return (char) Integer.parseInt(hex, 16);
+        } catch (NumberFormatException nfe) {
+          throw syntaxError("Invalid escape sequence: " + hex);
+        }
+      case 't':
+        return '\t';
+      case 'b':
+        return '\b';
+      case 'n':
+        return '\n';
+      case 'r':
+        return '\r';
+      case 'f':
+        return '\f';
+      default:
+        return escaped;
+    }
+  }
+
+  /**
+   * Skips whitespace and comments, and returns the next character, or -1 at
+   * the end of the input.
+   */
+  private int nextClean() throws JSONException {
+    while (pos < in.length()) {
+      int c = in.charAt(pos++);
+      switch (c) {
+        case '\t':
+        case ' ':
+        case '\n':
+        case '\r':
+          continue;
+        case '/':
+          if (pos == in.length()) {
+            return c;
+          }
+          char peek = in.charAt(pos);
+          if (peek == '*') {
+            pos++;
+            int commentEnd = in.indexOf("*/", pos);
+            if (commentEnd == -1) {
+              throw syntaxError("Unterminated comment");
+            }
+            pos = commentEnd + 2;
+            continue;
+          } else if (peek == '/') {
+            pos++;
+            skipToEndOfLine();
+            continue;
+          }
+          return c;
+        case '#':
+          skipToEndOfLine();
+          continue;
+        default:
+          return c;
+      }
+    }
+    return -1;
+  }
+
+  private void skipToEndOfLine() {
+    for (; pos < in.length(); pos++) {
+      char c = in.charAt(pos);
+      if (c == '\r' || c == '\n') {
+        pos++;
+        break;
+      }
+    }
+  }
+
+  private String nextTo(String excluded) {
+    int start = pos;
+    for (; pos < in.length(); pos++) {
+      char c = in.charAt(pos);
+      if (c == '\r' || c == '\n' || excluded.indexOf(c) != -1) {
+        return in.substring(start, pos);
+      }
+    }
+    return in.substring(start);
+  }
+
+  private static void checkDouble(double d) throws JSONException {
+    if (Double.isInfinite(d) || Double.isNaN(d)) {
+      throw new JSONException("Forbidden numeric value: " + d);
+    }
+  }
+
+  private JSONException syntaxError(String message) {
+    return new JSONException(message + " at character " + pos + " of " + in);
+  }
+}
@@ -35,6 +35,12 @@ public class YailList extends Pair implements YailObject {
   // legitimate Yail data types.  See the definition of sanitization
   // in runtime.scm.
 
+  // The indexes YailListIndex keeps for searches of this list, as a list and
+  // as a table of pairs, and whether this list is a pair in an indexed table.
+  volatile YailListIndex.Entry index;
+  volatile YailListIndex.Entry pairIndex;
+  volatile boolean inPairIndex;
+
   /**
    * Create an empty YailList.
    */
@@ -147,19 +153,7 @@ public class YailList extends Pair implements YailObject {
    */
   public String toJSONString() {
     try {
-      StringBuilder json = new StringBuilder();
-      String separator = "";
-      json.append('[');
-      int size = this.size();
-      for (int i = 1; i <= size; i++) {
-        Object value = get(i);
-        json.append(separator).append(JsonUtil.getJsonRepresentation(value));
-        separator = ",";
-      }
-      json.append(']');
-
-      return json.toString();
-
+      return JsonUtil.getJsonRepresentation(this);
     } catch (JSONException e) {
       throw new YailRuntimeError("List failed to convert to JSON.", "JSON Creation Error.");
     }
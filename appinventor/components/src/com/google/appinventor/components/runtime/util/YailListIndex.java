@@ -0,0 +1,342 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import com.google.appinventor.components.runtime.errors.YailRuntimeError;
+import gnu.lists.LList;
+import gnu.lists.Pair;
+import gnu.mapping.Procedure;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hash indexes over YAIL lists, used by runtime.scm to speed up repeated
+ * "index in list", "is in list?" and "look up in pairs" operations on the
+ * same list.
+ *
+ * <p>Elements are indexed by a hash key computed by a procedure supplied by
+ * the runtime. The key must be the same for any two values that are
+ * yail-equal? (so that "1", 1 and 1.0 share a key), or null for values, such
+ * as lists, whose equality cannot be captured by a key. Candidates found
+ * through the index are always confirmed with yail-equal?, and elements
+ * without a key are checked on every lookup, so results are the same as for
+ * a linear search.
+ *
+ * <p>Each list keeps its own index, built the second time the list is
+ * searched, so it lives exactly as long as the list. The runtime calls
+ * {@link #appended} when it adds items to the end of a list, which extends
+ * the index with the new items on the next search, and {@link #invalidate}
+ * when it changes a list in any other way, which drops the list's indexes.
+ * A list that has just been changed, or that is short, is searched linearly.
+ * Since changing a pair also changes every table of pairs containing it,
+ * changing a list that is a pair in some table drops all indexes of pairs.
+ *
+ * <p>The hash key and equality procedures are never called while a lock is
+ * held.
+ */
+public final class YailListIndex {
+
+  /** Returned by the lookup methods when the caller must search the list itself. */
+  public static final int NOT_INDEXED = -1;
+
+  /** Returned by {@link #findPair} when the caller must search the list itself. */
+  public static final Object NOT_FOUND_IN_INDEX = new Object();
+
+  private static final int NOT_FOUND = -2;
+
+  /** Lists shorter than this are quicker to search linearly. */
+  static final int MIN_LENGTH = 8;
+
+  /** Changed whenever a list that is a pair in an indexed table changes. */
+  private static final AtomicInteger pairGeneration = new AtomicInteger();
+
+  /**
+   * The index of one list, as a list or as a table of pairs. An entry that
+   * is not yet built records that the list has been searched once.
+   */
+  static final class Entry {
+    final boolean pairs;
+    final int pairGeneration;
+    boolean usable = true;
+    Pair tail;  // the last pair indexed, or the list itself if none
+    final List<Object> elements = new ArrayList<Object>();
+    final Map<Object, int[]> buckets = new HashMap<Object, int[]>();
+    int[] wild = new int[4];  // positions of elements without a hash key
+    int wildCount = 0;
+
+    Entry(boolean pairs, int pairGeneration) {
+      this.pairs = pairs;
+      this.pairGeneration = pairGeneration;
+    }
+  }
+
+  private YailListIndex() {
+    // Utility classes should not be instantiated
+  }
+
+  /**
+   * Drops the indexes of a list. Called whenever a list is modified other
+   * than by adding items to its end.
+   */
+  public static void invalidate(LList list) {
+    if (list instanceof YailList) {
+      YailList yailList = (YailList) list;
+      yailList.index = null;
+      yailList.pairIndex = null;
+      if (yailList.inPairIndex) {
+        pairGeneration.incrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Notes that items were added to the end of a list. Its indexes are
+   * extended with them the next time it is searched.
+   */
+  public static void appended(LList list) {
+    if (list instanceof YailList && ((YailList) list).inPairIndex) {
+      // The pair is no longer a pair.
+      pairGeneration.incrementAndGet();
+    }
+  }
+
+  /**
+   * Finds the first element of list that is yail-equal? to item.
+   *
+   * @param list a YailList
+   * @param item the value to find
+   * @param hashKey the runtime's hash key procedure
+   * @param equal the runtime's yail-equal? procedure
+   * @return the 1-based position of the element, 0 if there is none, or
+   *     {@link #NOT_INDEXED} if the list should be searched linearly
+   */
+  public static int indexOf(LList list, Object item, Procedure hashKey, Procedure equal) {
+    Entry entry = entryFor(list, false);
+    if (entry == null) {
+      return NOT_INDEXED;
+    }
+    int position = search(entry, item, hashKey, equal);
+    if (position == NOT_INDEXED) {
+      return NOT_INDEXED;
+    }
+    return position == NOT_FOUND ? 0 : position + 1;
+  }
+
+  /**
+   * Finds the first pair in a list of pairs whose first item is yail-equal?
+   * to key.
+   *
+   * @param list a YailList of two element YailLists
+   * @param key the key to find
+   * @param hashKey the runtime's hash key procedure
+   * @param equal the runtime's yail-equal? procedure
+   * @return the pair, {@code false} if there is none, or
+   *     {@link #NOT_FOUND_IN_INDEX} if the list should be searched linearly,
+   *     which is the case if it is not well formed
+   */
+  public static Object findPair(LList list, Object key, Procedure hashKey, Procedure equal) {
+    Entry entry = entryFor(list, true);
+    if (entry == null) {
+      return NOT_FOUND_IN_INDEX;
+    }
+    int position = search(entry, key, hashKey, equal);
+    if (position == NOT_INDEXED) {
+      return NOT_FOUND_IN_INDEX;
+    } else if (position == NOT_FOUND) {
+      return Boolean.FALSE;
+    }
+    synchronized (entry) {
+      return entry.elements.get(position);
+    }
+  }
+
+  /**
+   * Returns the index of a list, or null if the list should be searched
+   * linearly because it is not a YailList or has not been searched before.
+   */
+  private static Entry entryFor(LList list, boolean pairs) {
+    if (!(list instanceof YailList)) {
+      return null;
+    }
+    YailList yailList = (YailList) list;
+    Entry entry = pairs ? yailList.pairIndex : yailList.index;
+    if (entry != null && (!pairs || entry.pairGeneration == pairGeneration.get())) {
+      return entry;
+    }
+    // Searching a list only once is cheaper without an index.
+    entry = new Entry(pairs, pairGeneration.get());
+    entry.tail = yailList;
+    if (pairs) {
+      yailList.pairIndex = entry;
+    } else {
+      yailList.index = entry;
+    }
+    return null;
+  }
+
+  /**
+   * Returns the 0-based position of the first match, {@link #NOT_FOUND} if
+   * there is none, or {@link #NOT_INDEXED}.
+   */
+  private static int search(Entry entry, Object item, Procedure hashKey, Procedure equal) {
+    Object key = call(hashKey, item);
+    if (key == null) {
+      return NOT_INDEXED;
+    }
+    extend(entry, hashKey);
+    int[] candidates;
+    synchronized (entry) {
+      if (!entry.usable || entry.elements.size() < MIN_LENGTH) {
+        return NOT_INDEXED;
+      }
+      candidates = candidates(entry.buckets.get(key), entry.wild, entry.wildCount);
+    }
+    for (int position : candidates) {
+      Object element;
+      synchronized (entry) {
+        element = entry.elements.get(position);
+      }
+      if (!Boolean.FALSE.equals(call(equal, item, keyOf(element, entry.pairs)))) {
+        return position;
+      }
+    }
+    return NOT_FOUND;
+  }
+
+  /**
+   * Merges the positions of a bucket with those of the elements without a
+   * key, in list order, so that the first match is found.
+   */
+  private static int[] candidates(int[] bucket, int[] wild, int wildCount) {
+    int bucketLength = bucket == null ? 0 : bucket[0];
+    int[] candidates = new int[bucketLength + wildCount];
+    int i = 0;
+    int j = 0;
+    for (int k = 0; k < candidates.length; k++) {
+      if (j >= wildCount || (i < bucketLength && bucket[i + 1] < wild[j])) {
+        candidates[k] = bucket[++i];
+      } else {
+        candidates[k] = wild[j++];
+      }
+    }
+    return candidates;
+  }
+
+  /**
+   * Adds the elements after the last one indexed, which is all of them the
+   * first time. The keys are computed before the entry is locked.
+   */
+  private static void extend(Entry entry, Procedure hashKey) {
+    Pair tail;
+    synchronized (entry) {
+      if (!entry.usable) {
+        return;
+      }
+      tail = entry.tail;
+    }
+    List<Object> elements = new ArrayList<Object>();
+    List<Object> keys = new ArrayList<Object>();
+    Pair last = tail;
+    Object contents = tail.getCdr();
+    while (contents instanceof Pair) {
+      Object element = ((Pair) contents).getCar();
+      if (entry.pairs) {
+        if (!isPair(element)) {
+          // Lookup in pairs must report the malformed element when it reaches it.
+          synchronized (entry) {
+            entry.usable = false;
+          }
+          return;
+        }
+        ((YailList) element).inPairIndex = true;
+      }
+      elements.add(element);
+      keys.add(call(hashKey, keyOf(element, entry.pairs)));
+      last = (Pair) contents;
+      contents = last.getCdr();
+    }
+    synchronized (entry) {
+      if (entry.tail != tail) {
+        return;  // Extended by another thread
+      }
+      for (int i = 0; i < elements.size(); i++) {
+        int position = entry.elements.size();
+        entry.elements.add(elements.get(i));
+        Object key = keys.get(i);
+        if (key == null) {
+          entry.wild = append(entry.wild, entry.wildCount++, position);
+        } else {
+          // bucket[0] holds the number of positions that follow it.
+          int[] bucket = entry.buckets.get(key);
+          if (bucket == null) {
+            bucket = new int[2];
+          }
+          bucket = append(bucket, bucket[0] + 1, position);
+          bucket[0]++;
+          entry.buckets.put(key, bucket);
+        }
+      }
+      entry.tail = last;
+    }
+  }
+
+  private static Object keyOf(Object element, boolean pairs) {
+    return pairs ? ((Pair) ((Pair) element).getCdr()).getCar() : element;
+  }
+
+  private static int[] append(int[] array, int index, int value) {
+    if (index >= array.length) {
+      int[] grown = new int[array.length * 2];
+      System.arraycopy(array, 0, grown, 0, array.length);
+      array = grown;
+    }
+    array[index] = value;
+    return array;
+  }
+
+  /**
+   * Checks that element is a YailList with exactly two items, like pair-ok?
+   * in runtime.scm.
+   */
+  private static boolean isPair(Object element) {
+    if (!(element instanceof YailList)) {
+      return false;
+    }
+    Object first = ((Pair) element).getCdr();
+    if (!(first instanceof Pair)) {
+      return false;
+    }
+    Object second = ((Pair) first).getCdr();
+    return second instanceof Pair && ((Pair) second).getCdr() == LList.Empty;
+  }
+
+  private static Object call(Procedure procedure, Object arg) {
+    try {
+      return procedure.apply1(arg);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new YailRuntimeError(e.getMessage(), e.getClass().getSimpleName());
+    }
+  }
+
+  private static Object call(Procedure procedure, Object arg1, Object arg2) {
+    try {
+      return procedure.apply2(arg1, arg2);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new YailRuntimeError(e.getMessage(), e.getClass().getSimpleName());
+    }
+  }
+}
@@ -0,0 +1,175 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import com.google.appinventor.components.runtime.errors.YailRuntimeError;
+import gnu.lists.LList;
+import gnu.lists.Pair;
+import gnu.mapping.Procedure;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Sorting support for the list sort blocks in runtime.scm.
+ *
+ * <p>The elements are copied into an array and sorted with
+ * {@link Arrays#sort(Object[], Comparator)}, which is a stable merge sort
+ * that neither recurses per element nor conses intermediate lists. The
+ * ordering is given by a Scheme "less than" procedure, which may be strict
+ * (like is-lt? or a user's {@code <}) or not (like is-leq?). Elements that
+ * compare equal keep their original relative order.
+ */
+public final class YailListSorter {
+
+  private YailListSorter() {
+    // Utility classes should not be instantiated
+  }
+
+  /**
+   * Adapts a Scheme "less than" procedure to a {@link Comparator}. Two
+   * elements are equal if the procedure says that each is less than the
+   * other (a non-strict comparison) or that neither is (a strict one).
+   */
+  private static class LessThanComparator implements Comparator<Object> {
+    private final Procedure lessThan;
+
+    LessThanComparator(Procedure lessThan) {
+      this.lessThan = lessThan;
+    }
+
+    @Override
+    public int compare(Object a, Object b) {
+      boolean ab = isTrue(call(lessThan, a, b));
+      boolean ba = isTrue(call(lessThan, b, a));
+      if (ab == ba) {
+        return 0;
+      }
+      return ab ? -1 : 1;
+    }
+  }
+
+  /**
+   * Sorts the given list.
+   *
+   * @param list the contents of a YailList
+   * @param lessThan a procedure of two arguments returning true if the first
+   *     should come before the second
+   * @return a new list containing the elements of list in sorted order
+   */
+  public static LList sort(LList list, Procedure lessThan) {
+    Object[] items = list.toArray();
+    sort(items, new LessThanComparator(lessThan));
+    return Pair.makeList(items, 0);
+  }
+
+  /**
+   * Sorts the given list by the keys of its elements. The key procedure is
+   * called exactly once per element.
+   *
+   * @param list the contents of a YailList
+   * @param key a procedure of one argument returning the sort key of an element
+   * @param lessThan a procedure of two arguments comparing keys
+   * @return a new list containing the elements of list ordered by their keys
+   */
+  public static LList sortByKey(LList list, Procedure key, Procedure lessThan) {
+    Object[] items = list.toArray();
+    final Object[] keys = new Object[items.length];
+    Integer[] order = new Integer[items.length];
+    for (int i = 0; i < items.length; i++) {
+      keys[i] = call(key, items[i]);
+      order[i] = i;
+    }
+    final Comparator<Object> keyComparator = new LessThanComparator(lessThan);
+    sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer a, Integer b) {
+        return keyComparator.compare(keys[a], keys[b]);
+      }
+    });
+    Object[] sorted = new Object[items.length];
+    for (int i = 0; i < sorted.length; i++) {
+      sorted[i] = items[order[i]];
+    }
+    return Pair.makeList(sorted, 0);
+  }
+
+  /**
+   * Sorts items. A user supplied comparison need not be a consistent
+   * ordering, which the library sort may detect and reject; in that case
+   * the items are sorted with a plain merge sort that accepts any answers.
+   */
+  private static <T> void sort(T[] items, Comparator<? super T> comparator) {
+    T[] original = items.clone();
+    try {
+      Arrays.sort(items, comparator);
+    } catch (IllegalArgumentException e) {
+      System.arraycopy(original, 0, items, 0, items.length);
+      mergeSort(items, original.clone(), 0, items.length, comparator);
+    }
+  }
+
+  /**
+   * Sorts items[from, to) using scratch, which must hold the same elements,
+   * as working storage. Each merge takes the left element unless the right
+   * one is strictly smaller, so the sort is stable.
+   */
+  private static <T> void mergeSort(T[] items, T[] scratch, int from, int to,
+      Comparator<? super T> comparator) {
+    // Bottom-up, so that deep lists don't overflow the stack.
+    int length = to - from;
+    T[] src = items;
+    T[] dst = scratch;
+    for (int width = 1; width < length; width *= 2) {
+      for (int lo = from; lo < to; lo += 2 * width) {
+        int mid = Math.min(lo + width, to);
+        int hi = Math.min(lo + 2 * width, to);
+        int i = lo;
+        int j = mid;
+        for (int k = lo; k < hi; k++) {
+          if (i < mid && (j >= hi || comparator.compare(src[j], src[i]) >= 0)) {
+            dst[k] = src[i++];
+          } else {
+            dst[k] = src[j++];
+          }
+        }
+      }
+      T[] tmp = src;
+      src = dst;
+      dst = tmp;
+    }
+    if (src != items) {
+      System.arraycopy(src, from, items, from, length);
+    }
+  }
+
+  private static boolean isTrue(Object value) {
+    return !Boolean.FALSE.equals(value);
+  }
+
+  private static Object call(Procedure procedure, Object arg) {
+    try {
+      return procedure.apply1(arg);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new YailRuntimeError(e.getMessage(), e.getClass().getSimpleName());
+    }
+  }
+
+  private static Object call(Procedure procedure, Object arg1, Object arg2) {
+    try {
+      return procedure.apply2(arg1, arg2);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new YailRuntimeError(e.getMessage(), e.getClass().getSimpleName());
+    }
+  }
+}
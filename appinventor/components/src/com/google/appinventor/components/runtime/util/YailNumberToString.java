@@ -6,16 +6,25 @@
 
 package com.google.appinventor.components.runtime.util;
 
-import android.util.Log;
-
-
-import java.text.*;
-import java.util.Locale;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
 
 /**
  * Convert inexact numbers to strings for printing in App Inventor.
  * Kawa's default shows too many decimal places.
  *
+ * <p>Non-integral numbers are printed as if by a {@link java.text.DecimalFormat}
+ * with the pattern "#####0.0####" when their magnitude is between 1e-6 and
+ * 1e6, and with the pattern "0.####E0" otherwise, in the US locale. Those
+ * formatters are not thread-safe and allocate heavily, so the digits are
+ * computed here directly. As with the ICU based DecimalFormat on Android,
+ * rounding is half-even on the shortest decimal digits that identify the
+ * number, as printed by Double.toString, rather than on its exact binary
+ * value, so 0.000015 is printed as 0.00002. Double arithmetic decides the
+ * rounding unless the number is too close to a tie, in which case those
+ * digits are rounded with {@link BigDecimal}.
+ *
  * @author halabelson@google.com (Hal Abelson)
  */
 public final class YailNumberToString {
@@ -27,31 +36,35 @@ public final class YailNumberToString {
   // format magnitudes smaller than SMALLBOUND in scientific notation
   private static final double SMALLBOUND = 1.e-6;
 
+  // Digits after the decimal point in decimal notation ("#####0.0####")
+  private static final int DECIMAL_PLACES = 5;
+  // Significant digits of the mantissa in scientific notation ("0.####E0")
+  private static final int SIGNIFICANT_DIGITS = 5;
+  private static final long DECIMAL_SCALE = 100000L;
+  private static final MathContext SCIENTIFIC_CONTEXT =
+      new MathContext(SIGNIFICANT_DIGITS, RoundingMode.HALF_EVEN);
 
-  // TODO(halabelson): The Java documentation warns that formatters are
-  // not thread-safe.  Is there any way that this can bite us?
-  // format for decimal notation
-  private static final String decPattern = "#####0.0####";
-  // format for scientific notation
-  private static final String sciPattern = "0.####E0";
+  // Beyond these decimal exponents the powers of ten below over- or underflow.
+  private static final int MAX_FAST_EXPONENT = 290;
+
+  private static final double[] POWERS_OF_TEN = new double[MAX_FAST_EXPONENT + SIGNIFICANT_DIGITS];
+
+  static {
+    POWERS_OF_TEN[0] = 1.0;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      // Parse rather than multiply so that each power is correctly rounded.
+      POWERS_OF_TEN[i] = Double.parseDouble("1e" + i);
+    }
+  }
 
   // TODO(hal): We are making the decimal separator be a period, regardless of
   // the locale of the phone.   We need to think about how to allow comma as decimal separator,
   // which will require updating number parsing and other places that transform numbers to strings,
   // such as FormatAsDecimal
 
-  static Locale locale = Locale.US;
-  static DecimalFormatSymbols symbols = new DecimalFormatSymbols(locale);
-
-  static DecimalFormat decimalFormat = new DecimalFormat(decPattern, symbols);
-  static DecimalFormat sciFormat = new DecimalFormat(sciPattern, symbols);
-
-
-  // TODO(halabelson): DecimalFormat scientific notation apparently does not provide a
-  // way to specify the maximum number of digits in the mantissa. One consequence is that this
-  // formatting method, when given floats of very large magnitude, will produce too many
-  // places in the mantissa.  Consider post-processing the result of
-  // DecimalFormat to remove these extra digits.
+  private YailNumberToString() {
+    // Utility classes should not be instantiated
+  }
 
   // This implementation assumes that Kawa inexact numbers are passed to this routine
   // as doubles.
@@ -64,16 +77,121 @@ public final class YailNumberToString {
         return "+infinity";
       }
     }
+    if (Double.isNaN(number)) {
+      return "NaN";
+    }
     // We will print integer values without a decimal point.
     if (number == Math.rint(number)) {
       return String.valueOf((long) number);
     } else {
       double mag = Math.abs(number);
+      StringBuilder sb = new StringBuilder(24);
+      if (number < 0) {
+        sb.append('-');
+      }
       if (mag < BIGBOUND && mag > SMALLBOUND) {
-        return decimalFormat.format(number);
+        formatDecimal(mag, sb);
       } else {
-        return sciFormat.format(number);
+        formatScientific(mag, sb);
+      }
+      return sb.toString();
+    }
+  }
+
+  /**
+   * Appends mag rounded to five places, with at least one digit after the
+   * decimal point and without trailing zeros after that.
+   */
+  private static void formatDecimal(double mag, StringBuilder sb) {
+    long scaled = roundHalfEven(mag * DECIMAL_SCALE);
+    if (scaled < 0) {
+      scaled = new BigDecimal(Double.toString(mag)).setScale(DECIMAL_PLACES,
+          RoundingMode.HALF_EVEN).unscaledValue().longValue();
+    }
+    sb.append(scaled / DECIMAL_SCALE).append('.');
+    appendFraction(scaled % DECIMAL_SCALE, DECIMAL_PLACES, true, sb);
+  }
+
+  /**
+   * Appends mag with a mantissa of up to five significant digits, without
+   * trailing zeros, followed by 'E' and the exponent.
+   */
+  private static void formatScientific(double mag, StringBuilder sb) {
+    long mantissa = -1;
+    int exponent = (int) Math.floor(Math.log10(mag));
+    if (Math.abs(exponent) < MAX_FAST_EXPONENT) {
+      // Correct for log10 landing on the wrong side of a power of ten.
+      double scaled = scale(mag, SIGNIFICANT_DIGITS - 1 - exponent);
+      if (scaled < POWERS_OF_TEN[SIGNIFICANT_DIGITS - 1]) {
+        exponent--;
+        scaled = scale(mag, SIGNIFICANT_DIGITS - 1 - exponent);
+      } else if (scaled >= POWERS_OF_TEN[SIGNIFICANT_DIGITS]) {
+        exponent++;
+        scaled = scale(mag, SIGNIFICANT_DIGITS - 1 - exponent);
       }
+      mantissa = roundHalfEven(scaled);
+      if (mantissa == (long) POWERS_OF_TEN[SIGNIFICANT_DIGITS]) {
+        // Rounded up to the next power of ten.
+        mantissa /= 10;
+        exponent++;
+      }
+    }
+    if (mantissa < 0) {
+      BigDecimal rounded = new BigDecimal(Double.toString(mag)).round(SCIENTIFIC_CONTEXT);
+      exponent = rounded.precision() - rounded.scale() - 1;
+      mantissa = rounded.scaleByPowerOfTen(SIGNIFICANT_DIGITS - 1 - exponent).longValue();
+    }
+    long unit = (long) POWERS_OF_TEN[SIGNIFICANT_DIGITS - 1];
+    sb.append(mantissa / unit);
+    if (mantissa % unit != 0) {
+      sb.append('.');
+      appendFraction(mantissa % unit, SIGNIFICANT_DIGITS - 1, false, sb);
+    }
+    sb.append('E').append(exponent);
+  }
+
+  /**
+   * Returns x * 10^power, which is accurate to a few ulps.
+   */
+  private static double scale(double x, int power) {
+    return power >= 0 ? x * POWERS_OF_TEN[power] : x / POWERS_OF_TEN[-power];
+  }
+
+  /**
+   * Rounds a non-negative scaled value to the nearest long. Returns -1 if x
+   * is so close to halfway between two integers that the error in computing
+   * it, or the difference between the number and its shortest decimal
+   * digits, could change the result, so that ties are left to the caller.
+   */
+  private static long roundHalfEven(double x) {
+    double floor = Math.floor(x);
+    double distance = x - floor - 0.5;
+    if (Math.abs(distance) <= 8 * Math.ulp(x)) {
+      return -1;
+    }
+    return (long) floor + (distance > 0 ? 1 : 0);
+  }
+
+  /**
+   * Appends the digits of fraction, zero padded to places digits, with
+   * trailing zeros removed. Keeps one zero if keepZero is true and fraction
+   * is zero.
+   */
+  private static void appendFraction(long fraction, int places, boolean keepZero,
+      StringBuilder sb) {
+    if (fraction == 0) {
+      if (keepZero) {
+        sb.append('0');
+      }
+      return;
+    }
+    while (fraction % 10 == 0) {
+      fraction /= 10;
+      places--;
+    }
+    for (long unit = (long) POWERS_OF_TEN[places - 1]; unit > fraction && unit > 1; unit /= 10) {
+      sb.append('0');
     }
+    sb.append(fraction);
   }
 }
@@ -0,0 +1,180 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.appinventor.components.runtime.util.ExponentialRegression;
+import com.google.appinventor.components.runtime.util.LogarithmicRegression;
+import com.google.appinventor.components.runtime.util.QuadraticRegression;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Tests RunningRegression.java against the regressions computed from lists of points.
+ */
+public class RunningRegressionTest {
+  private static final double TOLERANCE = 1e-9;
+
+  private final Random random = new Random(42);
+  private final List<Double> x = new ArrayList<>();
+  private final List<Double> y = new ArrayList<>();
+
+  @Test
+  public void testLinear() {
+    addPoints(100, 0, 1);
+    assertSameResults(new LinearRegression());
+  }
+
+  @Test
+  public void testQuadratic() {
+    addPoints(100, 0, 1);
+    assertSameResults(new QuadraticRegression());
+  }
+
+  @Test
+  public void testExponential() {
+    addPoints(100, 0, 1);
+    assertSameResults(new ExponentialRegression());
+  }
+
+  @Test
+  public void testLogarithmic() {
+    addPoints(100, 0, 1);
+    assertSameResults(new LogarithmicRegression());
+  }
+
+  @Test
+  public void testSlidingWindow() {
+    TrendlineCalculator[] models = {
+        new LinearRegression(), new QuadraticRegression(), new ExponentialRegression(),
+        new LogarithmicRegression()
+    };
+    addPoints(1000, 0, 1);
+    for (TrendlineCalculator model : models) {
+      RunningRegression sums = model.newRunningRegression();
+      int removed = 0;
+      for (int i = 0; i < x.size(); i++) {
+        sums.add(x.get(i), y.get(i));
+        if (i >= 50) {
+          sums.remove(x.get(i - 50), y.get(i - 50));
+          // Start again from the points in the window once as many have been removed.
+          if (++removed > 50) {
+            sums.clear();
+            for (int j = i - 49; j <= i; j++) {
+              sums.add(x.get(j), y.get(j));
+            }
+            removed = 0;
+          }
+        }
+      }
+      List<Double> windowX = x.subList(x.size() - 50, x.size());
+      List<Double> windowY = y.subList(y.size() - 50, y.size());
+      assertSameResults(model.compute(windowX, windowY), model.compute(sums, windowX));
+    }
+  }
+
+  @Test
+  public void testLargeX() {
+    // Sample times far from zero, as from a sensor that has been running for a while. The sums
+    // are relative to the first point, so the fit is as good as for times near zero.
+    addPoints(200, 1e6, 0.02);
+    List<Double> shiftedX = new ArrayList<>();
+    for (double value : x) {
+      shiftedX.add(value - 1e6);
+    }
+    TrendlineCalculator linear = new LinearRegression();
+    RunningRegression sums = linear.newRunningRegression();
+    for (int i = 0; i < x.size(); i++) {
+      sums.add(x.get(i), y.get(i));
+    }
+    Map<String, Object> expected = linear.compute(shiftedX, y);
+    Map<String, Object> actual = linear.compute(sums, x);
+    for (String key : new String[] {"slope", "correlation coefficient", "r^2"}) {
+      assertClose(key, (Double) expected.get(key), (Double) actual.get(key));
+    }
+
+    TrendlineCalculator quadratic = new QuadraticRegression();
+    sums = quadratic.newRunningRegression();
+    for (int i = 0; i < x.size(); i++) {
+      sums.add(x.get(i), y.get(i));
+    }
+    expected = quadratic.compute(shiftedX, y);
+    actual = quadratic.compute(sums, x);
+    for (String key : new String[] {"x^2", "r^2"}) {
+      assertClose(key, (Double) expected.get(key), (Double) actual.get(key));
+    }
+  }
+
+  @Test
+  public void testTooFewPoints() {
+    RunningRegression sums = new QuadraticRegression().newRunningRegression();
+    sums.add(1, 2);
+    sums.add(2, 3);
+    assertTrue(Double.isNaN(sums.getCoefficients()[2]));
+    sums.add(2, 3);
+    assertTrue(Double.isNaN(sums.getCoefficients()[2]));
+    sums.add(3, 5);
+    assertEquals(0.5, sums.getCoefficients()[2], TOLERANCE);
+  }
+
+  @Test
+  public void testRemoveAll() {
+    RunningRegression sums = new LinearRegression().newRunningRegression();
+    sums.add(1, 2);
+    sums.add(2, 3);
+    sums.remove(1, 2);
+    sums.remove(2, 3);
+    assertEquals(0, sums.getCount());
+    sums.add(10, 1);
+    sums.add(11, 3);
+    assertEquals(2.0, sums.getCoefficients()[1], TOLERANCE);
+    assertEquals(-19.0, sums.getCoefficients()[0], TOLERANCE);
+  }
+
+  private void addPoints(int count, double start, double step) {
+    for (int i = 0; i < count; i++) {
+      double value = start + (i + 1) * step;
+      x.add(value);
+      y.add(3 + 0.5 * (value - start) + random.nextDouble());
+    }
+  }
+
+  private void assertSameResults(TrendlineCalculator model) {
+    RunningRegression sums = model.newRunningRegression();
+    for (int i = 0; i < x.size(); i++) {
+      sums.add(x.get(i), y.get(i));
+    }
+    assertSameResults(model.compute(x, y), model.compute(sums, x));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void assertSameResults(Map<String, Object> expected,
+      Map<String, Object> actual) {
+    assertEquals(expected.keySet(), actual.keySet());
+    for (Map.Entry<String, Object> entry : expected.entrySet()) {
+      Object value = actual.get(entry.getKey());
+      if (entry.getValue() instanceof List) {
+        List<Double> expectedValues = (List<Double>) entry.getValue();
+        List<Double> actualValues = (List<Double>) value;
+        assertEquals(expectedValues.size(), actualValues.size());
+        for (int i = 0; i < expectedValues.size(); i++) {
+          assertClose(entry.getKey(), expectedValues.get(i), actualValues.get(i));
+        }
+      } else {
+        assertClose(entry.getKey(), (Double) entry.getValue(), (Double) value);
+      }
+    }
+  }
+
+  private static void assertClose(String key, double expected, double actual) {
+    assertEquals(key, expected, actual, TOLERANCE * Math.max(1, Math.abs(expected)));
+  }
+}
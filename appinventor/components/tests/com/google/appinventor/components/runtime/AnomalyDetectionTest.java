@@ -5,13 +5,17 @@
 
 package com.google.appinventor.components.runtime;
 
+import static com.google.appinventor.components.runtime.shadows.ShadowEventDispatcher.assertErrorOccurred;
 import static junit.framework.Assert.assertEquals;
 
+import com.google.appinventor.components.runtime.shadows.ShadowEventDispatcher;
+import com.google.appinventor.components.runtime.util.ErrorMessages;
 import com.google.appinventor.components.runtime.util.YailList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import org.junit.Test;
+import org.robolectric.android.util.concurrent.RoboExecutorService;
 
 public class AnomalyDetectionTest extends RobolectricTestBase {
   AnomalyDetection anomalyDetection;
@@ -67,4 +71,59 @@ public class AnomalyDetectionTest extends RobolectricTestBase {
     assertEquals(expectedList.size(), cleanData.size());
     assertEquals(expectedList, cleanData);
   }
+
+  @Test
+  public void testWatchChartData() {
+    Chart chart = new Chart(getForm());
+    ChartData2D data = new ChartData2D(chart);
+    data.setExecutorService(new RoboExecutorService());
+    for (int i = 1; i <= 5; i++) {
+      data.AddEntry(Integer.toString(i), Integer.toString(i % 2));
+    }
+    // The existing entries fill the window but are not checked.
+    anomalyDetection.WatchChartData(data, 2);
+    data.AddEntry("6", "0");
+    runAllEvents();
+    ShadowEventDispatcher.assertEventNotFired(anomalyDetection, "AnomalyDetected");
+
+    data.AddEntry("7", "10");
+    runAllEvents();
+    Object[] args = ShadowEventDispatcher.getArgumentsForEventFired(anomalyDetection,
+        "AnomalyDetected");
+    assertEquals(7.0, (Double) args[0], 0);
+    assertEquals(10.0, (Double) args[1], 0);
+    assertEquals(19.0, (Double) args[2], 1e-9);
+
+    ShadowEventDispatcher.clearEvents();
+    anomalyDetection.StopWatching();
+    data.AddEntry("8", "100");
+    runAllEvents();
+    ShadowEventDispatcher.assertEventNotFired(anomalyDetection, "AnomalyDetected");
+  }
+
+  @Test
+  public void testWatchDataSource() {
+    TinyDB tinyDB = new TinyDB(getForm());
+    anomalyDetection.WindowSize(3);
+    anomalyDetection.WatchDataSource(tinyDB, "reading", 1.5);
+    for (String value : new String[] {"1", "2", "1", "2", "not a number"}) {
+      anomalyDetection.onDataSourceValueChange(tinyDB, "reading", value);
+    }
+    anomalyDetection.onDataSourceValueChange(tinyDB, "other", 50);
+    runAllEvents();
+    ShadowEventDispatcher.assertEventNotFired(anomalyDetection, "AnomalyDetected");
+
+    anomalyDetection.onDataSourceValueChange(tinyDB, "reading", 5);
+    runAllEvents();
+    Object[] args = ShadowEventDispatcher.getArgumentsForEventFired(anomalyDetection,
+        "AnomalyDetected");
+    assertEquals(5.0, (Double) args[0], 0);
+    assertEquals(5.0, (Double) args[1], 0);
+  }
+
+  @Test
+  public void testWatchDataSourceInvalidSource() {
+    anomalyDetection.WatchDataSource(new Clock(getForm()), "reading", 1.5);
+    assertErrorOccurred(ErrorMessages.ERROR_ANOMALY_DETECTION_INVALID_SOURCE);
+  }
 }
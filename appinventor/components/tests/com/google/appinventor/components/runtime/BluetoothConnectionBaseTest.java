@@ -7,17 +7,24 @@
 package com.google.appinventor.components.runtime;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import com.google.appinventor.components.runtime.util.ErrorMessages;
 import com.google.appinventor.components.runtime.util.YailList;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
@@ -36,6 +43,9 @@ public class BluetoothConnectionBaseTest extends RobolectricTestBase {
   private ByteArrayOutputStream outputStream;
   private int recordedErrorNumber;
   private PipedOutputStream pipe;
+  private final BlockingQueue<String> receivedFrames = new LinkedBlockingQueue<String>();
+  private final BlockingQueue<Runnable> heldEvents = new LinkedBlockingQueue<Runnable>();
+  private volatile boolean holdEvents = false;
 
   @Override
   public void setUp() {
@@ -80,9 +90,29 @@ public class BluetoothConnectionBaseTest extends RobolectricTestBase {
       public boolean IsConnected() {
         return true;
       }
+
+      @Override
+      void runOnUiThread(Runnable task) {
+        if (holdEvents) {
+          heldEvents.add(task);
+        } else {
+          task.run();
+        }
+      }
+
+      @Override
+      public void FrameReceived(List<Integer> bytes, String text) {
+        receivedFrames.add(text);
+      }
     };
   }
 
+  private String nextFrame() throws InterruptedException {
+    String frame = receivedFrames.poll(5, TimeUnit.SECONDS);
+    assertNotNull("Timed out waiting for a frame", frame);
+    return frame;
+  }
+
   @Test
   public void testSendAndReceiveText() {
     connection.SendText("Hello");
@@ -481,4 +511,141 @@ public class BluetoothConnectionBaseTest extends RobolectricTestBase {
     assertEquals((byte) 0xFF, bytes[i++]);  // 0xFF
     assertEquals((byte) 0xAB, bytes[i++]);  // 0xab
   }
+
+  @Test
+  public void testReceiveFramesByDelimiter() throws InterruptedException {
+    connection.DelimiterByte(10);
+    connection.ReceiveFramesByDelimiter();
+    assertTrue(connection.ReceivingFrames());
+    connection.SendText("one\ntwo\nthr");
+    assertEquals("one", nextFrame());
+    assertEquals("two", nextFrame());
+    assertEquals(0, recordedErrorNumber);
+
+    // The Receive functions can't be used while frames are being received.
+    connection.ReceiveText(3);
+    assertEquals(ErrorMessages.ERROR_BLUETOOTH_RECEIVING_FRAMES, recordedErrorNumber);
+    recordedErrorNumber = 0;
+
+    // Bytes after the last frame remain available once receiving stops.
+    connection.StopReceivingFrames();
+    assertFalse(connection.ReceivingFrames());
+    assertEquals("thr", connection.ReceiveText(3));
+    assertEquals(0, recordedErrorNumber);
+    assertTrue(receivedFrames.isEmpty());
+  }
+
+  @Test
+  public void testReceiveFramesWithLengthPrefix() throws IOException, InterruptedException {
+    connection.HighByteFirst(true);
+    connection.ReceiveFramesWithLengthPrefix(3);
+    assertEquals(ErrorMessages.ERROR_BLUETOOTH_INVALID_FRAME_SIZE, recordedErrorNumber);
+    assertFalse(connection.ReceivingFrames());
+    recordedErrorNumber = 0;
+
+    connection.ReceiveFramesWithLengthPrefix(2);
+    pipe.write(new byte[] { 0, 3, 'a', 'b', 'c' });
+    // A frame too long to hold is discarded.
+    pipe.write(new byte[] { 0x21, 0x00 });
+    pipe.write(new byte[0x2100]);
+    pipe.write(new byte[] { 0, 2, 'o', 'k' });
+    assertEquals("abc", nextFrame());
+    assertEquals("ok", nextFrame());
+    assertEquals(1, connection.FramesDiscarded());
+    assertEquals(0, recordedErrorNumber);
+    connection.StopReceivingFrames();
+  }
+
+  @Test
+  public void testReceiveFramesBackpressure() throws IOException, InterruptedException {
+    holdEvents = true;
+    connection.ReceiveFramesOfLength(0);
+    assertEquals(ErrorMessages.ERROR_BLUETOOTH_INVALID_FRAME_SIZE, recordedErrorNumber);
+    recordedErrorNumber = 0;
+
+    connection.ReceiveFramesOfLength(2);
+    for (int i = 0; i < 20; i++) {
+      pipe.write(new byte[] { 'a', (byte) ('a' + i) });
+    }
+    // The reader waits once 16 events are pending.
+    long deadline = System.currentTimeMillis() + 5000;
+    while (connection.FramesDelayed() == 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, connection.FramesDelayed());
+    assertEquals(16, heldEvents.size());
+    assertTrue(receivedFrames.isEmpty());
+
+    for (int i = 0; i < 20; i++) {
+      Runnable event = heldEvents.poll(5, TimeUnit.SECONDS);
+      assertNotNull("Timed out waiting for an event", event);
+      event.run();
+      assertEquals("a" + (char) ('a' + i), receivedFrames.poll());
+    }
+    assertEquals(0, recordedErrorNumber);
+    connection.StopReceivingFrames();
+  }
+
+  @Test(timeout = 10000)
+  public void testStopDoesNotWaitForBlockedRead() throws InterruptedException {
+    // Like a Bluetooth socket, this stream's reads are not ended by interrupts.
+    final BlockingQueue<byte[]> chunks = new LinkedBlockingQueue<byte[]>();
+    InputStream socketInput = new InputStream() {
+      @Override
+      public int read() {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public int read(byte[] bytes, int offset, int length) {
+        while (true) {
+          try {
+            byte[] chunk = chunks.take();
+            System.arraycopy(chunk, 0, bytes, offset, chunk.length);
+            return chunk.length;
+          } catch (InterruptedException e) {
+            // Ignored
+          }
+        }
+      }
+    };
+    connection = new BluetoothConnectionBase(outputStream, socketInput) {
+      @Override
+      protected void bluetoothError(String functionName, int errorNumber, Object... messageArgs) {
+        recordedErrorNumber = errorNumber;
+      }
+
+      @Override
+      public boolean IsConnected() {
+        return true;
+      }
+
+      @Override
+      void runOnUiThread(Runnable task) {
+        task.run();
+      }
+
+      @Override
+      public void FrameReceived(List<Integer> bytes, String text) {
+        receivedFrames.add(text);
+      }
+    };
+    connection.DelimiterByte(10);
+    connection.ReceiveFramesByDelimiter();
+    chunks.add("one\ntw".getBytes());
+    assertEquals("one", nextFrame());
+
+    // The reader is blocked reading, but receiving can stop and start again at once.
+    connection.StopReceivingFrames();
+    assertEquals(0, connection.BytesAvailableToReceive());
+    connection.ReceiveFramesByDelimiter();
+    assertTrue(connection.ReceivingFrames());
+
+    // The bytes held and read by the stopped reader come first.
+    chunks.add("o\nthree\n".getBytes());
+    assertEquals("two", nextFrame());
+    assertEquals("three", nextFrame());
+    assertEquals(0, recordedErrorNumber);
+    connection.StopReceivingFrames();
+  }
 }
@@ -293,6 +293,22 @@ public class DataFileTest extends FileTestBase {
     assertEquals(expectedList, dataFile.Columns());
   }
 
+  /**
+   * Test to ensure that Windows-style line endings are replaced
+   * as the file is read, including inside quoted cells.
+   */
+  @Test
+  public void testReadWindowsLineEndings() {
+    testWriteAndReadFile(TARGET_FILE_READ, "X,Y\r\n1,\"a\r\nb\"\r\n", false);
+
+    YailList expectedRows = YailList.makeList(Arrays.asList(
+        YailList.makeList(Arrays.asList("X", "Y")),
+        YailList.makeList(Arrays.asList("1", "a\nb"))));
+
+    assertEquals(expectedRows, dataFile.Rows());
+    assertEquals(YailList.makeList(Arrays.asList("Y", "a\nb")), dataFile.getColumn("Y"));
+  }
+
   /**
    * Test to ensure that using the getColumn method with
    * an existing column name returns the appropriate column.
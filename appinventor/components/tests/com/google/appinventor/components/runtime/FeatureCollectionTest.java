@@ -37,22 +37,60 @@ public class FeatureCollectionTest extends MapTestBase {
   @Test
   public void testFeaturesFromGeoJSON() {
     collection.FeaturesFromGeoJSON("{\"type\":\"FeatureCollection\",\"features\":[{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[-71.0,42]}}]}");
-    runAllEvents();
+    runAllAsynchronousCommandsAndEvents();
     ShadowEventDispatcher.assertEventFiredAny(collection, "GotFeatures");
   }
 
   @Test
   public void testFeaturesFromGeoJSONBadInput() {
     collection.FeaturesFromGeoJSON("[bad]");
+    runAllAsynchronousCommandsAndEvents();
     ShadowEventDispatcher.assertErrorOccurred(ErrorMessages.ERROR_INVALID_GEOJSON);
   }
 
   @Test
   public void testFeaturesFromGeoJSONInvalidType() {
     collection.FeaturesFromGeoJSON("{\"type\": \"Garbage\"}");
+    runAllAsynchronousCommandsAndEvents();
     ShadowEventDispatcher.assertEventFiredAny(collection, "LoadError");
   }
 
+  @Test
+  public void testFeaturesFromGeoJSONProgress() {
+    ShadowEventDispatcher.doNotHandleEvent(collection, "GotFeatures");
+    StringBuilder geojson = new StringBuilder("{\"type\":\"FeatureCollection\",\"features\":[");
+    for (int i = 0; i < 200; i++) {
+      if (i > 0) {
+        geojson.append(',');
+      }
+      geojson.append("{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",")
+          .append("\"coordinates\":[").append(i * 0.001).append(",42]}}");
+    }
+    geojson.append("]}");
+    collection.FeaturesFromGeoJSON(geojson.toString());
+    runAllAsynchronousCommandsAndEvents();
+    assertEventFiredAny(collection, "LoadProgress");
+    assertEventFiredAny(collection, "GotFeatures");
+    assertEquals(200, collection.Features().size());
+  }
+
+  @Test
+  public void testSimplifyGeometry() {
+    ShadowEventDispatcher.doNotHandleEvent(collection, "GotFeatures");
+    String geojson = "{\"type\":\"FeatureCollection\",\"features\":[{\"type\":\"Feature\","
+        + "\"geometry\":{\"type\":\"LineString\",\"coordinates\":"
+        + "[[0,0],[0.5,0.00001],[1,0],[1,1]]}}]}";
+    assertFalse(collection.SimplifyGeometry());
+    collection.SimplifyGeometry(true);
+    assertTrue(collection.SimplifyGeometry());
+    collection.FeaturesFromGeoJSON(geojson);
+    runAllAsynchronousCommandsAndEvents();
+    assertEquals(1, collection.Features().size());
+    // The point that is less than a pixel off the line at zoom 13 is left out
+    LineString line = (LineString) collection.Features().getObject(0);
+    assertEquals(3, line.Points().size());
+  }
+
   @Test
   public void testSourceSetter() {
     collection.Source("foo.geojson");
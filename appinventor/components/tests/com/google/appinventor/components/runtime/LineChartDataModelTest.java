@@ -6,6 +6,9 @@
 package com.google.appinventor.components.runtime;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import com.github.mikephil.charting.data.Entry;
 import com.github.mikephil.charting.data.LineData;
@@ -197,6 +200,37 @@ public class LineChartDataModelTest
     assertExpectedEntriesHelper(expectedEntries);
   }
 
+  /**
+   * Test to ensure that entries added to the end and removed are
+   * recorded in order, and that an entry inserted before others
+   * replaces the entries as a whole.
+   */
+  @Test
+  public void testTakeChanges() {
+    model.setMaximumTimeEntries(2);
+    model.addTimeEntry(createTuple(1f, 1f));
+    model.addTimeEntry(createTuple(2f, 2f));
+    Entry first = model.getEntries().get(0);
+    model.addTimeEntry(createTuple(3f, 3f));
+
+    DataModel.EntryChanges<Entry> changes = model.takeChanges();
+    assertFalse(changes.isReplaced());
+    assertEquals(4, changes.size());
+    assertSame(first, changes.getEntry(0));
+    assertFalse(changes.isRemoval(0));
+    assertFalse(changes.isRemoval(1));
+    assertSame(first, changes.getEntry(2));
+    assertTrue(changes.isRemoval(2));
+    assertSame(model.getEntries().get(1), changes.getEntry(3));
+    assertFalse(changes.isRemoval(3));
+    assertEquals(0, model.takeChanges().size());
+
+    model.addEntryFromTuple(createTuple(0f, 5f));
+    changes = model.takeChanges();
+    assertTrue(changes.isReplaced());
+    assertEquals(0, changes.size());
+  }
+
   /**
    * Test to ensure that adding an entry to a Data Series inserts it
    * in the appropriate position.
@@ -19,6 +19,9 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.google.appinventor.components.runtime.shadows.ShadowEventDispatcher;
 import com.google.appinventor.components.runtime.util.YailList;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Test;
 
 public class ListViewTest extends RobolectricTestBase {
@@ -116,14 +119,47 @@ public class ListViewTest extends RobolectricTestBase {
     assertEquals(0, listView1.SelectionIndex());
   }
 
+  /**
+   * Test that changing the elements updates the rows shown, including for a list large enough
+   * that the changes are worked out off the UI thread.
+   */
+  @Test
+  public void testUpdateElements() {
+    ListView listView1 = new ListView(getForm());
+    listView1.ElementsFromString("1,2,3");
+    RecyclerView.Adapter<?> adapter = getRecyclerView(listView1).getAdapter();
+    assertEquals(3, adapter.getItemCount());
+    listView1.AddItem("4", "", "");
+    assertEquals(4, adapter.getItemCount());
+    listView1.RemoveItemAtIndex(1);
+    assertEquals(3, adapter.getItemCount());
+
+    List<Object> items = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      items.add("item " + i);
+    }
+    listView1.Elements(YailList.makeList(items));
+    runAllAsynchronousCommandsAndEvents();
+    assertEquals(1000, adapter.getItemCount());
+    items.remove(500);
+    listView1.Elements(YailList.makeList(items));
+    assertEquals(1000, adapter.getItemCount());  // Not shown until the changes are worked out
+    runAllAsynchronousCommandsAndEvents();
+    assertEquals(999, adapter.getItemCount());
+  }
+
   private View getViewForPosition(ListView listView, int position) {
-    LinearLayout listLayout = (LinearLayout) ((LinearLayout) listView.getView()).getChildAt(1);
-    RecyclerView rv = (RecyclerView) listLayout.getChildAt(0);
+    RecyclerView rv = getRecyclerView(listView);
     RecyclerView.ViewHolder vh = rv.findViewHolderForAdapterPosition(position);
     assertNotNull(vh);
     return vh.itemView;
   }
 
+  private RecyclerView getRecyclerView(ListView listView) {
+    LinearLayout listLayout = (LinearLayout) ((LinearLayout) listView.getView()).getChildAt(1);
+    return (RecyclerView) listLayout.getChildAt(0);
+  }
+
   private void initialize(AndroidViewComponent component) {
     component.getView().invalidate();
     component.getView().forceLayout();
@@ -11,6 +11,8 @@ import org.junit.Test;
 
 import static com.google.appinventor.components.runtime.util.GeometryUtil.ONE_DEG_IN_METERS;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class MapDistanceTest extends MapTestBase {
 
@@ -706,6 +708,49 @@ public class MapDistanceTest extends MapTestBase {
     assertEquals(-1.0, marker.BearingToFeature(null, true), 0.0);
   }
 
+  @Test
+  public void testFeaturesWithinDistance() {
+    Marker marker = new Marker(getMap());
+    Circle circle = makeCircle(getMap(), 0.0, 2.0, ONE_DEG_IN_METERS);
+    makePolygon(getMap(), 11.0, 10.0, 10.0, 11.0);
+    YailList result = getMap().FeaturesWithinDistance(0.0, 0.0, 1.5 * ONE_DEG_IN_METERS);
+    assertEquals(2, result.size());
+    assertSame(marker, result.getObject(0));
+    assertSame(circle, result.getObject(1));
+    assertEquals(1, getMap().FeaturesWithinDistance(0.0, 0.0, 0.5 * ONE_DEG_IN_METERS).size());
+  }
+
+  @Test
+  public void testFeaturesContainingPoint() {
+    Polygon polygon = makePolygon(getMap(), 1.0, -1.0, -1.0, 1.0);
+    Rectangle rect = makeRectangle(getMap(), 0.5, -0.5, -0.5, 0.5);
+    Circle circle = makeCircle(getMap(), 3.0, 3.0, ONE_DEG_IN_METERS);
+    YailList result = getMap().FeaturesContainingPoint(0.1, 0.1);
+    assertEquals(2, result.size());
+    assertTrue(result.contains(polygon));
+    assertTrue(result.contains(rect));
+    result = getMap().FeaturesContainingPoint(3.0, 3.5);
+    assertEquals(1, result.size());
+    assertSame(circle, result.getObject(0));
+    assertEquals(0, getMap().FeaturesContainingPoint(5.0, 5.0).size());
+  }
+
+  @Test
+  public void testNearestFeature() {
+    assertEquals("", getMap().NearestFeature(0.0, 0.0));
+    Marker a = new Marker(getMap());
+    a.SetLocation(10.0, 10.0);
+    Marker b = new Marker(getMap());
+    b.SetLocation(-10.0, -10.0);
+    assertSame(a, getMap().NearestFeature(9.0, 9.0));
+    // Moving a feature updates the index
+    b.SetLocation(9.0, 9.0);
+    assertSame(b, getMap().NearestFeature(9.0, 9.0));
+    // Removing a feature removes it from the index
+    getMap().removeFeature(b);
+    assertSame(a, getMap().NearestFeature(9.0, 9.0));
+  }
+
   public void assertDistance(MapFeatureBase a, MapFeatureBase b, double dCentroid, double dEdge) {
     assertEquals(dCentroid, a.DistanceToFeature(b, true), M_TOL);
     assertEquals(dCentroid, b.DistanceToFeature(a, true), M_TOL);
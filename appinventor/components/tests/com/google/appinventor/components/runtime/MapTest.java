@@ -6,12 +6,16 @@
 package com.google.appinventor.components.runtime;
 
 import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
 import android.hardware.Sensor;
 import android.view.View;
 import android.widget.RelativeLayout;
 import com.google.appinventor.common.testutils.TestUtils;
+import com.google.appinventor.components.common.ComponentConstants;
 import com.google.appinventor.components.runtime.shadows.ShadowAsynchUtil;
 import com.google.appinventor.components.runtime.shadows.ShadowEventDispatcher;
+import com.google.appinventor.components.runtime.util.ClusteredMarkerOverlay;
 import com.google.appinventor.components.runtime.util.ErrorMessages;
 import com.google.appinventor.components.runtime.util.GeometryUtil;
 import com.google.appinventor.components.runtime.util.YailList;
@@ -21,6 +25,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.osmdroid.util.GeoPoint;
 import org.osmdroid.views.MapView;
+import org.osmdroid.views.overlay.Overlay;
 import org.robolectric.RuntimeEnvironment;
 import org.robolectric.annotation.Config;
 import org.robolectric.shadow.api.Shadow;
@@ -398,6 +403,62 @@ public class MapTest extends MapTestBase {
     assertEquals(defaultFeatureListSize, map.getController().getOverlayCount());
   }
 
+  @Test
+  public void testClusterMarkers() {
+    int defaultOverlayCount = map.getController().getOverlayCount();
+    Marker hidden = map.CreateMarker(42.36, -71.09);
+    hidden.Visible(false);
+    map.ClusterMarkers(true);
+    assertTrue(map.ClusterMarkers());
+    for (int i = 0; i < 100; i++) {
+      map.CreateMarker(42.35 + i * 0.0002, -71.1 + i * 0.0002);
+    }
+    // The visible markers are all drawn by one overlay
+    assertEquals(defaultOverlayCount + 1, map.getController().getOverlayCount());
+    assertTrue(map.getController().isFeatureVisible((Marker) map.Features().getObject(1)));
+    assertFalse(map.getController().isFeatureVisible(hidden));
+    hidden.Visible(true);
+    assertTrue(map.getController().isFeatureVisible(hidden));
+    map.ClusterMarkers(false);
+    assertFalse(map.ClusterMarkers());
+    assertEquals(defaultOverlayCount + 101, map.getController().getOverlayCount());
+  }
+
+  /**
+   * Tests that with many markers spread beyond the viewport, clustering draws far fewer items
+   * than there are markers.
+   */
+  @Test
+  public void testClusterMarkersDrawsFewerItems() {
+    for (int i = 0; i < 2000; i++) {
+      // Spread over an area several times larger than the viewport
+      map.CreateMarker(42.359144 + ((i * 37) % 200 - 100) * 0.0005,
+          -71.093612 + ((i * 53) % 200 - 100) * 0.0005);
+    }
+    MapView view = getMapView();
+    view.measure(
+        View.MeasureSpec.makeMeasureSpec(ComponentConstants.MAP_PREFERRED_WIDTH,
+            View.MeasureSpec.EXACTLY),
+        View.MeasureSpec.makeMeasureSpec(ComponentConstants.MAP_PREFERRED_HEIGHT,
+            View.MeasureSpec.EXACTLY));
+    view.layout(0, 0, ComponentConstants.MAP_PREFERRED_WIDTH,
+        ComponentConstants.MAP_PREFERRED_HEIGHT);
+    Canvas canvas = new Canvas(Bitmap.createBitmap(ComponentConstants.MAP_PREFERRED_WIDTH,
+        ComponentConstants.MAP_PREFERRED_HEIGHT, Bitmap.Config.ARGB_8888));
+    map.ClusterMarkers(true);
+    ClusteredMarkerOverlay clusters = null;
+    for (Overlay overlay : view.getOverlays()) {
+      overlay.draw(canvas, view, false);
+      if (overlay instanceof ClusteredMarkerOverlay) {
+        clusters = (ClusteredMarkerOverlay) overlay;
+      }
+    }
+    assertNotNull(clusters);
+    assertTrue(clusters.getDrawnCount() > 0);
+    assertTrue(clusters.getDrawnCount() < 2000 / 20);
+    assertEquals(2000, map.Features().size());
+  }
+
   @Test
   public void testLoadFromURL() throws MalformedURLException {
     ShadowEventDispatcher.doNotHandleEvent(map, "GotFeatures");
@@ -9,7 +9,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import com.google.appinventor.components.runtime.util.YailDictionary;
+import com.google.appinventor.components.runtime.util.YailList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
@@ -79,4 +82,44 @@ public class TinyDBTest extends RobolectricTestBase {
     assertEquals("Invalid TinyDB StoreValue","test-value-3",
         aTinyDB.GetValue("test-tag-3", "tag-not-found"));
   }
+
+  @Test
+  public void testGetValueReturnsCopy() {
+    aTinyDB.StoreValue("test-dict", YailDictionary.makeDictionary("key",
+        YailList.makeList(Arrays.asList(1, 2))));
+    YailDictionary first = (YailDictionary) aTinyDB.GetValue("test-dict", "tag-not-found");
+    first.put("key", "changed");
+    YailDictionary second = (YailDictionary) aTinyDB.GetValue("test-dict", "tag-not-found");
+    assertEquals(YailList.makeList(Arrays.asList(1, 2)), second.get("key"));
+  }
+
+  @Test
+  public void testWriteInBackground() {
+    assertFalse(aTinyDB.WriteInBackground());
+    aTinyDB.WriteInBackground(true);
+    assertTrue(aTinyDB.WriteInBackground());
+    aTinyDB.StoreValue("test-tag-3", 3);
+    assertEquals(3, ((Number) aTinyDB.GetValue("test-tag-3", "tag-not-found")).intValue());
+    aTinyDB.ClearTag("test-tag-3");
+    assertEquals("tag-not-found", aTinyDB.GetValue("test-tag-3", "tag-not-found"));
+  }
+
+  @Test
+  public void testValueClearedByAnotherComponent() {
+    TinyDB other = new TinyDB(getForm());
+    assertEquals("test-value-1", aTinyDB.GetValue("test-tag-1", "tag-not-found"));
+    other.ClearAll();
+    other.StoreValue("test-tag-1", "other-value");
+    assertEquals("other-value", aTinyDB.GetValue("test-tag-1", "tag-not-found"));
+  }
+
+  @Test
+  public void testValueStoredByAnotherComponent() {
+    TinyDB other = new TinyDB(getForm());
+    assertEquals("test-value-1", aTinyDB.GetValue("test-tag-1", "tag-not-found"));
+    other.StoreValue("test-tag-1", "other-value");
+    assertEquals("other-value", aTinyDB.GetValue("test-tag-1", "tag-not-found"));
+    other.ClearTag("test-tag-1");
+    assertEquals("tag-not-found", aTinyDB.GetValue("test-tag-1", "tag-not-found"));
+  }
 }
@@ -0,0 +1,127 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.appinventor.components.runtime.shadows.ShadowAsynchUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the scheduling of the requests of Web.java against a local HTTP server.
+ */
+public class WebRequestTest extends RobolectricTestBase {
+  private HttpServer server;
+  private String baseUrl;
+  // The paths requested from the server, in order.
+  private final List<String> requested = new ArrayList<String>();
+  // The paths reported by GotText, in order.
+  private final List<String> reported = new ArrayList<String>();
+  private Web web;
+
+  @Before
+  public void setUpServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        synchronized (requested) {
+          requested.add(path);
+        }
+        byte[] body = path.getBytes("UTF-8");
+        exchange.getResponseHeaders().add("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(200, body.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(body);
+        out.close();
+      }
+    });
+    server.start();
+    baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    web = new Web(getForm()) {
+      @Override
+      public void GotText(String url, int responseCode, String responseType,
+          String responseContent) {
+        reported.add(responseContent);
+      }
+    };
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  public void testIdenticalGetsAreCombined() {
+    get("/a");
+    get("/a");
+    get("/b");
+    runAllAsynchronousCommandsAndEvents();
+    assertEquals(Arrays.asList("/a", "/b"), requested);
+    assertEquals(Arrays.asList("/a", "/a", "/b"), reported);
+  }
+
+  @Test
+  public void testMaxRequestsPerHost() {
+    web.MaxRequestsPerHost(1);
+    get("/a");
+    get("/b");
+    get("/c");
+    // Only the first request has started. Each starts the next when it completes.
+    assertEquals(1, ShadowAsynchUtil.getPendingRunnables().size());
+    runAllAsynchronousCommandsAndEvents();
+    assertEquals(Arrays.asList("/a", "/b", "/c"), requested);
+    assertEquals(Arrays.asList("/a", "/b", "/c"), reported);
+  }
+
+  @Test
+  public void testStaleResponsesAreDropped() {
+    web.DropStaleResponses(true);
+    get("/old");
+    get("/new");
+    runOutOfOrder();
+    assertEquals(Arrays.asList("/new", "/old"), requested);
+    assertEquals(Arrays.asList("/new"), reported);
+  }
+
+  @Test
+  public void testStaleResponsesAreKept() {
+    get("/old");
+    get("/new");
+    runOutOfOrder();
+    assertEquals(Arrays.asList("/new", "/old"), reported);
+  }
+
+  private void get(String path) {
+    web.Url(baseUrl + path);
+    web.Get();
+  }
+
+  /**
+   * Runs the two pending requests, the later one first.
+   */
+  private void runOutOfOrder() {
+    List<Runnable> pending = new ArrayList<Runnable>(ShadowAsynchUtil.getPendingRunnables());
+    assertEquals(2, pending.size());
+    ShadowAsynchUtil.getPendingRunnables().clear();
+    pending.get(1).run();
+    pending.get(0).run();
+    runAllEvents();
+  }
+}
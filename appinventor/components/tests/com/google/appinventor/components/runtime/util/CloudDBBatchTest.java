@@ -0,0 +1,224 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import redis.clients.jedis.Jedis;
+
+/**
+ * Tests CloudDBBatch.java against a stand-in for the Redis server that
+ * speaks enough of RESP for the commands that CloudDBBatch sends.
+ */
+public class CloudDBBatchTest {
+  private static final String PROJECT = "project";
+
+  private FakeRedis redis;
+  private Jedis jedis;
+
+  @Before
+  public void setUp() throws IOException {
+    redis = new FakeRedis();
+    jedis = new Jedis("127.0.0.1", redis.getPort());
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    jedis.close();
+    redis.close();
+  }
+
+  @Test
+  public void testGetValuesInOneRoundTrip() {
+    redis.data.put(PROJECT + ":a", "1");
+    redis.data.put(PROJECT + ":c", "\"three\"");
+    List<String> values = CloudDBBatch.getValues(jedis, PROJECT, Arrays.asList("a", "b", "c"));
+    assertEquals(Arrays.asList("1", null, "\"three\""), values);
+    assertEquals(Arrays.asList("MGET project:a project:b project:c"), redis.commands);
+  }
+
+  @Test
+  public void testGetNoValues() {
+    assertEquals(0, CloudDBBatch.getValues(jedis, PROJECT, new ArrayList<String>()).size());
+    assertEquals(0, redis.commands.size());
+  }
+
+  @Test
+  public void testStoreValues() {
+    List<CloudDBBatch.Write> writes = new ArrayList<CloudDBBatch.Write>();
+    writes.add(new CloudDBBatch.Write("a", "2", "[\"1\",\"2\"]"));
+    writes.add(new CloudDBBatch.Write("b", "\"x\"", "[\"\\\"x\\\"\"]"));
+    CloudDBBatch.storeValues(jedis, PROJECT, writes);
+    // The server does not have the script yet, so it is sent once in full.
+    assertEquals(2, redis.commands.size());
+    assertEquals("EVALSHA " + CloudDBBatch.SET_MULTI_SCRIPT_SHA1 + " 2 a b project 2 "
+        + "[\"1\",\"2\"] \"x\" [\"\\\"x\\\"\"]", redis.commands.get(0));
+    assertEquals("EVAL", redis.commands.get(1).split(" ")[0]);
+    assertEquals("2", redis.data.get(PROJECT + ":a"));
+    assertEquals("\"x\"", redis.data.get(PROJECT + ":b"));
+    assertEquals(Arrays.asList("[\"a\",[\"1\",\"2\"]]", "[\"b\",[\"\\\"x\\\"\"]]"),
+        redis.published);
+
+    // After that, a single EVALSHA stores any number of tags.
+    redis.commands.clear();
+    writes.clear();
+    for (int i = 0; i < 20; i++) {
+      writes.add(new CloudDBBatch.Write("t" + i, "" + i, "[\"" + i + "\"]"));
+    }
+    CloudDBBatch.storeValues(jedis, PROJECT, writes);
+    assertEquals(1, redis.commands.size());
+    assertEquals("19", redis.data.get(PROJECT + ":t19"));
+    assertNull(redis.data.get(PROJECT + ":t20"));
+  }
+
+  /**
+   * A single-connection stand-in for a Redis server. It answers MGET, and
+   * runs the store script of CloudDBBatch by emulating it, answering
+   * EVALSHA with NOSCRIPT until the script has been sent with EVAL.
+   */
+  private static class FakeRedis implements Runnable {
+    final Map<String, String> data = Collections.synchronizedMap(new HashMap<String, String>());
+    final List<String> commands = Collections.synchronizedList(new ArrayList<String>());
+    final List<String> published = Collections.synchronizedList(new ArrayList<String>());
+    private final ServerSocket server;
+    private boolean scriptLoaded = false;
+
+    FakeRedis() throws IOException {
+      server = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"));
+      Thread thread = new Thread(this);
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    int getPort() {
+      return server.getLocalPort();
+    }
+
+    void close() throws IOException {
+      server.close();
+    }
+
+    @Override
+    public void run() {
+      try {
+        Socket socket = server.accept();
+        InputStream in = new BufferedInputStream(socket.getInputStream());
+        OutputStream out = socket.getOutputStream();
+        List<String> command;
+        while ((command = readCommand(in)) != null) {
+          StringBuilder sb = new StringBuilder();
+          for (String part : command) {
+            sb.append(sb.length() == 0 ? "" : " ").append(part);
+          }
+          commands.add(sb.toString());
+          out.write(execute(command).getBytes("UTF-8"));
+          out.flush();
+        }
+        socket.close();
+      } catch (IOException e) {
+        // The test has finished
+      }
+    }
+
+    private String execute(List<String> command) {
+      String name = command.get(0).toUpperCase();
+      if (name.equals("MGET")) {
+        StringBuilder reply = new StringBuilder("*" + (command.size() - 1) + "\r\n");
+        for (String key : command.subList(1, command.size())) {
+          reply.append(bulk(data.get(key)));
+        }
+        return reply.toString();
+      } else if (name.equals("EVALSHA") || name.equals("EVAL")) {
+        if (name.equals("EVALSHA") && !scriptLoaded) {
+          return "-NOSCRIPT No matching script. Please use EVAL.\r\n";
+        }
+        if (name.equals("EVAL")) {
+          if (!command.get(1).equals(CloudDBBatch.SET_MULTI_SCRIPT)) {
+            return "-ERR unknown script\r\n";
+          }
+          scriptLoaded = true;
+        }
+        int keyCount = Integer.parseInt(command.get(2));
+        List<String> keys = command.subList(3, 3 + keyCount);
+        List<String> argv = command.subList(3 + keyCount, command.size());
+        String project = argv.get(0);
+        for (int i = 0; i < keys.size(); i++) {
+          published.add("[\"" + keys.get(i) + "\"," + argv.get(2 * i + 2) + "]");
+          data.put(project + ":" + keys.get(i), argv.get(2 * i + 1));
+        }
+        return ":" + keys.size() + "\r\n";
+      }
+      return "-ERR unknown command '" + name + "'\r\n";
+    }
+
+    private static String bulk(String value) {
+      if (value == null) {
+        return "$-1\r\n";
+      }
+      try {
+        return "$" + value.getBytes("UTF-8").length + "\r\n" + value + "\r\n";
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    private static List<String> readCommand(InputStream in) throws IOException {
+      String header = readLine(in);
+      if (header == null) {
+        return null;
+      }
+      int count = Integer.parseInt(header.substring(1));
+      List<String> parts = new ArrayList<String>();
+      for (int i = 0; i < count; i++) {
+        int length = Integer.parseInt(readLine(in).substring(1));
+        byte[] bytes = new byte[length];
+        int read = 0;
+        while (read < length) {
+          int n = in.read(bytes, read, length - read);
+          if (n < 0) {
+            return null;
+          }
+          read += n;
+        }
+        readLine(in);
+        parts.add(new String(bytes, "UTF-8"));
+      }
+      return parts;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+      ByteArrayOutputStream line = new ByteArrayOutputStream();
+      int c;
+      while ((c = in.read()) != '\n') {
+        if (c < 0) {
+          return null;
+        }
+        if (c != '\r') {
+          line.write(c);
+        }
+      }
+      return line.toString("UTF-8");
+    }
+  }
+}
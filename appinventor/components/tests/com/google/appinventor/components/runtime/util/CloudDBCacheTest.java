@@ -0,0 +1,55 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Tests CloudDBCache.java.
+ */
+public class CloudDBCacheTest {
+
+  @Test
+  public void testReadValues() {
+    CloudDBCache cache = new CloudDBCache();
+    assertNull(cache.get("a"));
+    cache.putIfUnchanged("a", "1", cache.getGeneration());
+    cache.putIfUnchanged("b", null, cache.getGeneration());
+    assertEquals("1", cache.get("a").value);
+    // A tag that is not there is cached too.
+    assertNotNull(cache.get("b"));
+    assertNull(cache.get("b").value);
+  }
+
+  @Test
+  public void testChangeDuringReadWins() {
+    CloudDBCache cache = new CloudDBCache();
+    long generation = cache.getGeneration();
+    // Another device stores a value while our read is in progress.
+    cache.update("a", "new");
+    cache.putIfUnchanged("a", "old", generation);
+    assertEquals("new", cache.get("a").value);
+  }
+
+  @Test
+  public void testRemoveAndClear() {
+    CloudDBCache cache = new CloudDBCache();
+    cache.update("a", "1");
+    cache.update("b", "2");
+    cache.remove("a");
+    assertNull(cache.get("a"));
+    assertEquals(1, cache.size());
+    long generation = cache.getGeneration();
+    cache.clear();
+    assertEquals(0, cache.size());
+    cache.putIfUnchanged("b", "2", generation);
+    assertNull(cache.get("b"));
+  }
+}
@@ -10,7 +10,9 @@ import com.google.appinventor.components.runtime.util.YailList;
 
 import junit.framework.TestCase;
 
+import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Test CsvUtil methods (converting between YailLists and CSV-formatted strings.
@@ -190,4 +192,46 @@ public class CsvUtilTest extends TestCase {
     assertEquals(list2.getObject(0), list1.getObject(0));
     assertEquals(list2.getObject(1), list1.getObject(1));
   }
+
+  public void testReadCsvTableMatchesFromCsvTable() throws Exception {
+    String[] tests = {
+      "X,Y,Z\n1,2,3\n4,5,6\n",
+      "time,value,label\n0,1.5,a\n1,-2.25,\"b, c\"\n2,1.50,d",
+      "a,b\n1\n2,3,4\n\n5,6",
+      "a,b,c,,,\nd,e,f,,,",
+      "only one row",
+      "n\n-0\n007\n1e5\n9007199254740993\n0.1\n",
+    };
+    for (String test : tests) {
+      YailList expectedRows = CsvUtil.fromCsvTable(test);
+      CsvTable table = CsvUtil.readCsvTable(new StringReader(test));
+      assertEquals(test, expectedRows, table.getRows());
+      assertEquals(test, ChartDataSourceUtil.getTranspose(expectedRows), table.getColumns());
+    }
+  }
+
+  public void testReadCsvTableNumericColumns() throws Exception {
+    CsvTable table = CsvUtil.readCsvTable(new StringReader(
+        "x,y,label,amount\n1,2.5,a,1.50\n-3,4,b,2\n"));
+    assertEquals(3, table.getRowCount());
+    assertEquals(4, table.getColumnCount());
+    assertTrue(table.isNumeric(0));
+    assertTrue(table.isNumeric(1));
+    assertFalse(table.isNumeric(2));
+    // 1.50 would not be printed as it was written.
+    assertFalse(table.isNumeric(3));
+    assertEquals("1.50", table.getCell(1, 3));
+    assertEquals(1, table.indexOfColumn("y"));
+    assertEquals(-1, table.indexOfColumn("z"));
+    assertEquals(YailList.makeList(Arrays.asList("y", "2.5", "4")), table.getColumn(1));
+  }
+
+  public void testReadCsvTableUnmatchedDoubleQuotes() {
+    try {
+      CsvUtil.readCsvTable(new StringReader("\"column id,type,name\r\ncol0,animal,string\r\n"));
+      fail();
+    } catch (Exception e) {
+      // expected
+    }
+  }
 }
@@ -277,4 +277,14 @@ public class DummyMapControllerTest {
   public void testGetOverlayCount() {
     mapController.getOverlayCount();
   }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSetMarkerClusteringEnabled() {
+    mapController.setMarkerClusteringEnabled(true);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testIsMarkerClusteringEnabled() {
+    mapController.isMarkerClusteringEnabled();
+  }
 }
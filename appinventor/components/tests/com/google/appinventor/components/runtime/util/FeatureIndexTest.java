@@ -0,0 +1,226 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Tests FeatureIndex.java.
+ */
+public class FeatureIndexTest {
+  private static final GeometryFactory FACTORY = new GeometryFactory();
+
+  /**
+   * A feature for testing: a point, or a polygon, or a circle around a point.
+   */
+  private static class Shape {
+    final String name;
+    Geometry geometry;
+    final double radius;
+
+    Shape(String name, Geometry geometry, double radius) {
+      this.name = name;
+      this.geometry = geometry;
+      this.radius = radius;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  /**
+   * Measures shapes the same way as the Map's features: points and circles
+   * with great circle distances, other geometries in the flat plane.
+   */
+  private static final FeatureIndex.Measure<Shape> MEASURE = new FeatureIndex.Measure<Shape>() {
+    @Override
+    public Geometry getGeometry(Shape shape) {
+      return shape.geometry;
+    }
+
+    @Override
+    public double getRadius(Shape shape) {
+      return shape.radius;
+    }
+
+    @Override
+    public double distanceTo(Shape shape, double latitude, double longitude) {
+      if (shape.geometry.getDimension() == 0) {
+        Coordinate c = shape.geometry.getCoordinate();
+        return Math.max(0, haversine(c.y, c.x, latitude, longitude) - shape.radius);
+      }
+      return GeometryUtil.ONE_DEG_IN_METERS
+          * shape.geometry.distance(FACTORY.createPoint(new Coordinate(longitude, latitude)));
+    }
+  };
+
+  private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+    double dLat = Math.toRadians(lat2 - lat1);
+    double dLon = Math.toRadians(lon2 - lon1);
+    double a = Math.pow(Math.sin(dLat / 2), 2) + Math.cos(Math.toRadians(lat1))
+        * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+    return GeometryUtil.EARTH_RADIUS * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+  }
+
+  private static Shape point(String name, double latitude, double longitude) {
+    return new Shape(name, FACTORY.createPoint(new Coordinate(longitude, latitude)), 0);
+  }
+
+  private static Shape circle(String name, double latitude, double longitude, double radius) {
+    return new Shape(name, FACTORY.createPoint(new Coordinate(longitude, latitude)), radius);
+  }
+
+  private static Shape box(String name, double north, double west, double south, double east) {
+    return new Shape(name, FACTORY.createPolygon(new Coordinate[] {
+        new Coordinate(west, north), new Coordinate(east, north), new Coordinate(east, south),
+        new Coordinate(west, south), new Coordinate(west, north)
+    }), 0);
+  }
+
+  @Test
+  public void testWithinDistance() {
+    FeatureIndex<Shape> index = new FeatureIndex<Shape>(MEASURE);
+    Shape near = point("near", 0.001, 0);
+    Shape far = point("far", 1, 0);
+    Shape area = box("area", 0.0105, -0.01, 0.0095, 0.01);
+    index.add(near);
+    index.add(far);
+    index.add(area);
+    assertEquals(Arrays.asList(near, area), index.withinDistance(0, 0, 1200));
+    assertEquals(Collections.singletonList(near), index.withinDistance(0, 0, 1000));
+    assertEquals(3, index.withinDistance(0, 0, 200000).size());
+  }
+
+  @Test
+  public void testContaining() {
+    FeatureIndex<Shape> index = new FeatureIndex<Shape>(MEASURE);
+    Shape outer = box("outer", 1, -1, -1, 1);
+    Shape inner = box("inner", 0.5, -0.5, -0.5, 0.5);
+    Shape zone = circle("zone", 0.8, 0.8, 10000);
+    index.add(outer);
+    index.add(inner);
+    index.add(zone);
+    index.add(point("marker", 0, 0));
+    List<Shape> result = index.containing(0.1, 0.1);
+    assertEquals(2, result.size());
+    assertTrue(result.contains(outer) && result.contains(inner));
+    result = index.containing(0.85, 0.85);
+    assertEquals(2, result.size());
+    assertTrue(result.contains(outer) && result.contains(zone));
+    assertEquals(0, index.containing(2, 2).size());
+  }
+
+  @Test
+  public void testNearest() {
+    FeatureIndex<Shape> index = new FeatureIndex<Shape>(MEASURE);
+    assertNull(index.nearest(0, 0));
+    Shape a = point("a", 10, 10);
+    Shape b = point("b", -20, 5);
+    index.add(a);
+    index.add(b);
+    assertSame(a, index.nearest(0, 0));
+    assertSame(b, index.nearest(-15, 0));
+    // A large circle whose center is far away can still be nearest
+    Shape c = circle("c", 30, 30, 3000000);
+    index.add(c);
+    assertSame(c, index.nearest(12, 20));
+  }
+
+  @Test(timeout = 5000)
+  public void testNearestIgnoresEmptyGeometries() {
+    FeatureIndex<Shape> index = new FeatureIndex<Shape>(MEASURE);
+    // Like a Polygon added to the map before its Points are set
+    Shape empty = new Shape("empty", FACTORY.createMultiPolygon(new Polygon[0]), 0);
+    index.add(empty);
+    assertNull(index.nearest(0, 0));
+    assertEquals(0, index.withinDistance(0, 0, 1000000).size());
+    Shape a = point("a", 80, 170);
+    index.add(a);
+    assertSame(a, index.nearest(-80, -10));
+  }
+
+  @Test
+  public void testUpdateAndRemove() {
+    FeatureIndex<Shape> index = new FeatureIndex<Shape>(MEASURE);
+    List<Shape> shapes = new ArrayList<Shape>();
+    for (int i = 0; i < 100; i++) {
+      Shape shape = point("p" + i, i * 0.1, 0);
+      shapes.add(shape);
+      index.add(shape);
+    }
+    assertSame(shapes.get(50), index.nearest(5, 0));
+    // Move a feature after the tree has been built
+    Shape moved = shapes.get(99);
+    moved.geometry = FACTORY.createPoint(new Coordinate(0.001, 5.001));
+    index.update(moved);
+    assertSame(moved, index.nearest(5.001, 0.001));
+    index.remove(moved);
+    index.remove(shapes.get(50));
+    assertEquals(98, index.size());
+    assertSame(shapes.get(51), index.nearest(5.04, 0));
+    assertEquals(0, index.withinDistance(5.001, 0.001, 10).size());
+  }
+
+  @Test
+  public void testMatchesLinearScan() {
+    Random random = new Random(42);
+    FeatureIndex<Shape> index = new FeatureIndex<Shape>(MEASURE);
+    List<Shape> shapes = new ArrayList<Shape>();
+    for (int i = 0; i < 500; i++) {
+      double lat = random.nextDouble() * 2 - 1;
+      double lon = random.nextDouble() * 2 - 1;
+      Shape shape = i % 2 == 0 ? point("p" + i, lat, lon)
+          : box("b" + i, lat + 0.01, lon - 0.01, lat - 0.01, lon + 0.01);
+      shapes.add(shape);
+      index.add(shape);
+    }
+    for (int i = 0; i < 50; i++) {
+      // Move some features so that the queries use both the tree and the changed features
+      Shape shape = shapes.get(random.nextInt(shapes.size()));
+      shape.geometry = FACTORY.createPoint(new Coordinate(random.nextDouble(), random.nextDouble()));
+      index.update(shape);
+      double lat = random.nextDouble() * 2 - 1;
+      double lon = random.nextDouble() * 2 - 1;
+      Shape expected = null;
+      double best = Double.POSITIVE_INFINITY;
+      int within = 0;
+      for (Shape candidate : shapes) {
+        double d = MEASURE.distanceTo(candidate, lat, lon);
+        if (d < best) {
+          best = d;
+          expected = candidate;
+        }
+        if (d <= 20000) {
+          within++;
+        }
+      }
+      assertSame(expected, index.nearest(lat, lon));
+      assertEquals(within, index.withinDistance(lat, lon, 20000).size());
+    }
+  }
+
+  @Test
+  public void testSearchBoxAtAntimeridian() {
+    assertEquals(-180, FeatureIndex.searchBox(0, 179.99, 10000).getMinX(), 0);
+    assertEquals(180, FeatureIndex.searchBox(0, 179.99, 10000).getMaxX(), 0);
+  }
+}
@@ -0,0 +1,120 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests FrameAssembler.java.
+ */
+public class FrameAssemblerTest {
+
+  private static byte[] bytes(String s) {
+    return s.getBytes(StandardCharsets.ISO_8859_1);
+  }
+
+  private static List<String> writeAll(FrameAssembler assembler, byte[] input) {
+    List<String> frames = new ArrayList<String>();
+    int offset = 0;
+    while (offset < input.length) {
+      offset += assembler.write(input, offset, input.length - offset);
+      byte[] frame;
+      while ((frame = assembler.nextFrame()) != null) {
+        frames.add(new String(frame, StandardCharsets.ISO_8859_1));
+      }
+    }
+    return frames;
+  }
+
+  @Test
+  public void testDelimiter() {
+    FrameAssembler assembler = FrameAssembler.forDelimiter((byte) '\n', 16);
+    assertEquals(list("one", "two"), writeAll(assembler, bytes("one\ntwo\nth")));
+    assertEquals(list("three", ""), writeAll(assembler, bytes("ree\n\n")));
+    assertEquals(0, assembler.getOverflowCount());
+  }
+
+  @Test
+  public void testDelimiterWrapsAround() {
+    FrameAssembler assembler = FrameAssembler.forDelimiter((byte) 0, 8);
+    List<String> frames = new ArrayList<String>();
+    for (int i = 0; i < 10; i++) {
+      frames.addAll(writeAll(assembler, bytes("abcde\0")));
+    }
+    assertEquals(10, frames.size());
+    for (String frame : frames) {
+      assertEquals("abcde", frame);
+    }
+  }
+
+  @Test
+  public void testDelimiterOverflowSkipsToNextDelimiter() {
+    FrameAssembler assembler = FrameAssembler.forDelimiter((byte) ';', 4);
+    assertEquals(list("ab", "ok"), writeAll(assembler, bytes("ab;toolongframe;ok;")));
+    assertEquals(1, assembler.getOverflowCount());
+  }
+
+  @Test
+  public void testFixedLength() {
+    FrameAssembler assembler = FrameAssembler.forFixedLength(3, 4);
+    assertEquals(list("abc", "def"), writeAll(assembler, bytes("abcdefg")));
+    assertEquals(list("ghi"), writeAll(assembler, bytes("hi")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFixedLengthLargerThanCapacity() {
+    FrameAssembler.forFixedLength(5, 4);
+  }
+
+  @Test
+  public void testLengthPrefix() {
+    FrameAssembler bigEndian = FrameAssembler.forLengthPrefix(2, true, 16);
+    assertEquals(list("abc", ""), writeAll(bigEndian, bytes("\0\3abc\0\0\0\2o")));
+    assertEquals(list("ok"), writeAll(bigEndian, bytes("k")));
+
+    FrameAssembler littleEndian = FrameAssembler.forLengthPrefix(4, false, 16);
+    assertEquals(list("abc"), writeAll(littleEndian, bytes("\3\0\0\0abc")));
+  }
+
+  @Test
+  public void testLengthPrefixOverflow() {
+    FrameAssembler assembler = FrameAssembler.forLengthPrefix(1, false, 4);
+    // A frame of 6 bytes cannot fit in a buffer of 4 bytes with its prefix.
+    assertEquals(list("ab"), writeAll(assembler, bytes("\2ab\6abc")));
+    assertEquals(list("ok"), writeAll(assembler, bytes("def\2ok")));
+    assertEquals(1, assembler.getOverflowCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidPrefixSize() {
+    FrameAssembler.forLengthPrefix(3, false, 16);
+  }
+
+  @Test
+  public void testDrain() {
+    FrameAssembler assembler = FrameAssembler.forLengthPrefix(1, false, 8);
+    assertEquals(list(), writeAll(assembler, bytes("\5abc")));
+    assertArrayEquals(bytes("\5abc"), assembler.drain());
+    assertNull(assembler.nextFrame());
+    assertEquals(0, assembler.drain().length);
+  }
+
+  private static List<String> list(String... frames) {
+    List<String> result = new ArrayList<String>();
+    for (String frame : frames) {
+      result.add(frame);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,188 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.json.JSONException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Tests GeoJSONReader.java.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 23, manifest = "tests/AndroidManifest.xml")
+public class GeoJSONReaderTest {
+  private static final String TAG = GeoJSONReaderTest.class.getSimpleName();
+
+  /**
+   * Collects the batches of features handed over by a reader.
+   */
+  private static class Batches implements GeoJSONReader.FeatureHandler {
+    final List<Integer> sizes = new ArrayList<Integer>();
+    final List<YailList> features = new ArrayList<YailList>();
+
+    @Override
+    public void onFeatures(List<YailList> batch) {
+      sizes.add(batch.size());
+      features.addAll(batch);
+    }
+  }
+
+  private static String point(double longitude, double latitude) {
+    return "{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coordinates\":["
+        + longitude + "," + latitude + "]}}";
+  }
+
+  private static String read(String geojson, Batches batches, int batchSize)
+      throws IOException, JSONException {
+    GeoJSONReader reader = new GeoJSONReader(TAG, new StringReader(geojson));
+    reader.setBatchSize(batchSize);
+    try {
+      return reader.read(batches);
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Returns the value for the key in a list of key-value pairs.
+   */
+  private static Object get(YailList pairs, String key) {
+    for (int i = 0; i < pairs.size(); i++) {
+      YailList pair = (YailList) pairs.getObject(i);
+      if (key.equals(pair.getString(0))) {
+        return pair.getObject(1);
+      }
+    }
+    return null;
+  }
+
+  @Test
+  public void testReadInBatches() throws Exception {
+    StringBuilder geojson = new StringBuilder("{\"type\":\"FeatureCollection\",\"features\":[");
+    for (int i = 0; i < 5; i++) {
+      geojson.append(i > 0 ? "," : "").append(point(i, 42));
+    }
+    geojson.append("]}");
+    Batches batches = new Batches();
+    assertEquals("FeatureCollection", read(geojson.toString(), batches, 2));
+    assertEquals(Arrays.asList(2, 2, 1), batches.sizes);
+    YailList geometry = (YailList) get(batches.features.get(3), "geometry");
+    YailList coordinates = (YailList) get(geometry, "coordinates");
+    assertEquals(3, coordinates.getObject(0));
+    assertEquals(42, coordinates.getObject(1));
+  }
+
+  @Test
+  public void testTypeAfterFeatures() throws Exception {
+    Batches batches = new Batches();
+    String geojson = "{\"features\":[" + point(1, 2) + "," + point(3, 4) + "],"
+        + "\"type\":\"FeatureCollection\"}";
+    assertEquals("FeatureCollection", read(geojson, batches, 64));
+    assertEquals(2, batches.features.size());
+  }
+
+  @Test
+  public void testNotACollection() throws Exception {
+    Batches batches = new Batches();
+    assertEquals("Feature", read(point(1, 2), batches, 64));
+    assertEquals(0, batches.features.size());
+    // Features are not handed over when the type that follows them is wrong
+    String geojson = "{\"features\":[" + point(1, 2) + "],\"type\":\"Garbage\"}";
+    assertEquals("Garbage", read(geojson, batches, 64));
+    assertEquals(0, batches.features.size());
+    assertEquals("", read("{\"features\":[]}", batches, 64));
+  }
+
+  @Test
+  public void testValues() throws Exception {
+    Batches batches = new Batches();
+    String geojson = "\uFEFF{\"type\":\"FeatureCollection\",\"features\":[{\"type\":\"Feature\","
+        + "\"geometry\":null,\"properties\":{\"int\":7,\"long\":12345678901,\"double\":1.5,"
+        + "\"exp\":1e3,\"bool\":true,\"string\":\"text\",\"nothing\":null,\"list\":[1,null,2]}}]}";
+    read(geojson, batches, 64);
+    YailList feature = batches.features.get(0);
+    assertEquals(null, get(feature, "geometry"));
+    YailList properties = (YailList) get(feature, "properties");
+    assertEquals(7, get(properties, "int"));
+    assertEquals(12345678901L, get(properties, "long"));
+    assertEquals(1.5, get(properties, "double"));
+    assertEquals(1000.0, get(properties, "exp"));
+    assertEquals(true, get(properties, "bool"));
+    assertEquals("text", get(properties, "string"));
+    assertEquals(null, get(properties, "nothing"));
+    assertEquals(2, ((YailList) get(properties, "list")).size());
+    assertEquals(7, properties.size());
+  }
+
+  @Test(expected = JSONException.class)
+  public void testMalformed() throws Exception {
+    read("[bad]", new Batches(), 64);
+  }
+
+  @Test(expected = JSONException.class)
+  public void testFeatureNotAnObject() throws Exception {
+    read("{\"type\":\"FeatureCollection\",\"features\":[1]}", new Batches(), 64);
+  }
+
+  @Test
+  public void testSimplifyFeatures() throws Exception {
+    String geojson = "{\"type\":\"FeatureCollection\",\"features\":[{\"type\":\"Feature\","
+        + "\"geometry\":{\"type\":\"Polygon\",\"coordinates\":[[[0,0],[0.5,0.001],[1,0],[1,1],"
+        + "[0,1],[0,0]]]}}]}";
+    Batches batches = new Batches();
+    GeoJSONReader reader = new GeoJSONReader(TAG, new StringReader(geojson));
+    reader.setTolerance(0.01);
+    reader.read(batches);
+    YailList geometry = (YailList) get(batches.features.get(0), "geometry");
+    YailList rings = (YailList) get(geometry, "coordinates");
+    assertEquals(5, ((YailList) rings.getObject(0)).size());
+  }
+
+  @Test
+  public void testSimplifyKeepsPositions() {
+    List<Object> a = Arrays.<Object>asList(0, 0, 10);
+    List<Object> b = Arrays.<Object>asList(0.5, 0.0001, 20);
+    List<Object> c = Arrays.<Object>asList(1, 0, 30);
+    List<Object> d = Arrays.<Object>asList(2, 1, 40);
+    List<Object> result = GeoJSONReader.simplify(Arrays.<Object>asList(a, b, c, d), 0.001, false);
+    assertEquals(3, result.size());
+    assertSame(a, result.get(0));
+    assertSame(c, result.get(1));
+    assertSame(d, result.get(2));
+    // A ring that would collapse is left as it is
+    List<Object> ring = Arrays.<Object>asList(a, b, c, b, a);
+    assertSame(ring, GeoJSONReader.simplify(ring, 10, true));
+  }
+
+  @Test
+  public void testToleranceForZoom() {
+    assertEquals(360.0 / 256, GeoJSONReader.toleranceForZoom(0), 1e-12);
+    assertEquals(GeoJSONReader.toleranceForZoom(10) / 2, GeoJSONReader.toleranceForZoom(11),
+        1e-12);
+    assertTrue(GeoJSONReader.toleranceForZoom(18) < 1e-5);
+  }
+
+  @Test
+  public void testParseNumber() {
+    assertEquals(1, GeoJSONReader.parseNumber("1"));
+    assertEquals(-2147483649L, GeoJSONReader.parseNumber("-2147483649"));
+    assertEquals(0.25, GeoJSONReader.parseNumber("0.25"));
+    assertEquals(-0.0, GeoJSONReader.parseNumber("-0"));
+    assertEquals(1e30, GeoJSONReader.parseNumber("1000000000000000000000000000000"));
+  }
+}
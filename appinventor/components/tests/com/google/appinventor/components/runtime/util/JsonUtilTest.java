@@ -232,4 +232,47 @@ public class JsonUtilTest {
     assertTrue(result.contains(expected2));
     assertTrue(result.contains(expected3));
   }
+
+  @Test
+  public void testGetObjectFromJsonMatchesJsonTokener() throws JSONException {
+    String json = "[\"true\", null, 015, 0x1F, 1e2, 12345678901234, \"a\\u0041\", 'single'"
+        + ", {\"b\": [1, \"FALSE\"], \"a\": {}}]";
+    Object expected = JsonUtil.getListFromJsonArray(new JSONArray(json), true);
+    assertEquals(expected, JsonUtil.getObjectFromJson(json, true));
+    expected = JsonUtil.getListFromJsonArray(new JSONArray(json), false);
+    assertEquals(expected, JsonUtil.getObjectFromJson(json, false));
+  }
+
+  @Test
+  public void testGetObjectFromJsonTopLevelValues() throws JSONException {
+    assertEquals("true", JsonUtil.getObjectFromJson("\"true\"", true));
+    assertEquals(null, JsonUtil.getObjectFromJson("null", true));
+    assertEquals(3.5, JsonUtil.getObjectFromJson(" 3.5 ", true));
+    YailDictionary dict = (YailDictionary) JsonUtil.getObjectFromJson(
+        "/* comment */ {'b' => 2; a = 1, 'b': 3}", true);
+    assertEquals(Arrays.asList("a", "b"), new ArrayList<Object>(dict.keySet()));
+    assertEquals(3, dict.get("b"));
+  }
+
+  @Test(expected = JSONException.class)
+  public void testGetObjectFromJsonUnterminated() throws JSONException {
+    JsonUtil.getObjectFromJson("{\"a\": [1, 2}", true);
+  }
+
+  @Test(expected = JSONException.class)
+  public void testGetObjectFromJsonEmptyElement() throws JSONException {
+    JsonUtil.getObjectFromJson("[1,,2]", true);
+  }
+
+  @Test
+  public void testWriteJsonRepresentation() throws Exception {
+    YailDictionary dict = YailDictionary.makeDictionary("key", YailList.makeList(
+        Arrays.asList("a/b", 1, 2.5, true, YailList.makeList(Collections.emptyList()))));
+    String expected = "{\"key\":[" + JSONObject.quote("a/b") + ",1,2.5,true,[]]}";
+    StringBuilder sb = new StringBuilder();
+    JsonUtil.writeJsonRepresentation(dict, sb);
+    assertEquals(expected, sb.toString());
+    assertEquals(expected, JsonUtil.getJsonRepresentation(dict));
+    assertEquals(dict, JsonUtil.getObjectFromJson(expected, true));
+  }
 }
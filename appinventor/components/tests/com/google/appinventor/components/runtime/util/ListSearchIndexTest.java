@@ -0,0 +1,81 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.google.appinventor.components.runtime.Component;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Tests ListSearchIndex.java.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 23, manifest = "tests/AndroidManifest.xml")
+public class ListSearchIndexTest {
+
+  @Test
+  public void testSearch() {
+    ListSearchIndex index = new ListSearchIndex(
+        Arrays.asList("Apple", "banana", "Cantaloupe", "date"));
+    assertArrayEquals(new int[] {1, 2}, index.search("an"));
+    assertArrayEquals(new int[] {0, 2}, index.search("P"));
+    assertArrayEquals(new int[] {0, 1, 2, 3}, index.search(""));
+    assertArrayEquals(new int[0], index.search("kiwi"));
+  }
+
+  @Test
+  public void testDictionaryText() {
+    YailDictionary element = new YailDictionary();
+    element.put(Component.LISTVIEW_KEY_MAIN_TEXT, "Main");
+    element.put(Component.LISTVIEW_KEY_DESCRIPTION, "Detail");
+    element.put(Component.LISTVIEW_KEY_IMAGE, "image.png");
+    assertEquals("Main Detail", ListSearchIndex.textOf(element));
+    ListSearchIndex index = new ListSearchIndex(Arrays.<Object>asList("other", element));
+    assertArrayEquals(new int[] {1}, index.search("n det"));
+    assertArrayEquals(new int[0], index.search("image"));
+  }
+
+  @Test
+  public void testSnapshot() {
+    List<Object> items = new ArrayList<Object>(Arrays.asList("one", "two"));
+    ListSearchIndex index = new ListSearchIndex(items);
+    items.add("three");
+    assertEquals(2, index.size());
+    assertArrayEquals(new int[] {1}, index.search("t"));
+  }
+
+  @Test
+  public void testTypingMatchesFullSearch() {
+    Random random = new Random(42);
+    List<String> items = new ArrayList<String>();
+    for (int i = 0; i < 1000; i++) {
+      StringBuilder sb = new StringBuilder();
+      for (int j = 0; j < 8; j++) {
+        sb.append((char) ('a' + random.nextInt(4)));
+      }
+      items.add(sb.toString());
+    }
+    ListSearchIndex index = new ListSearchIndex(items);
+    // Type, delete and type again, checking each result against a new index
+    String[] queries = {"a", "ab", "abc", "ab", "abd", "bd", "b", "", "c", "ca", "cab", "xcab"};
+    for (String query : queries) {
+      assertArrayEquals(query, new ListSearchIndex(items).search(query), index.search(query));
+    }
+    // Results are not shared with the index
+    int[] result = index.search("a");
+    result[0] = -1;
+    assertEquals(index.search("a")[0], new ListSearchIndex(items).search("a")[0]);
+  }
+}
@@ -0,0 +1,105 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Tests MarkerClusterIndex.java.
+ */
+public class MarkerClusterIndexTest {
+
+  @Test
+  public void testQuery() {
+    MarkerClusterIndex<String> index = new MarkerClusterIndex<String>();
+    index.add("boston", 42.36, -71.06);
+    index.add("london", 51.51, -0.13);
+    index.add("sydney", -33.87, 151.21);
+    assertEquals(Collections.singletonList("boston"), index.query(45, -70, 40, -75));
+    assertEquals(Collections.singletonList("london"), index.query(52, 0, 51, -1));
+    assertEquals(0, index.query(10, 10, -10, -10).size());
+  }
+
+  @Test
+  public void testQueryAcrossAntimeridian() {
+    MarkerClusterIndex<String> index = new MarkerClusterIndex<String>();
+    index.add("fiji", -17.7, 178.1);
+    index.add("samoa", -13.8, -172.1);
+    index.add("boston", 42.36, -71.06);
+    List<String> result = index.query(0, -170, -20, 170);
+    Collections.sort(result);
+    assertEquals(Arrays.asList("fiji", "samoa"), result);
+  }
+
+  @Test
+  public void testMoveAndRemove() {
+    MarkerClusterIndex<String> index = new MarkerClusterIndex<String>();
+    index.add("a", 0, 0);
+    index.add("a", 10, 10);
+    assertEquals(1, index.size());
+    assertEquals(0, index.query(1, 1, -1, -1).size());
+    assertEquals(1, index.query(11, 11, 9, 9).size());
+    assertTrue(index.remove("a"));
+    assertFalse(index.remove("a"));
+    assertFalse(index.contains("a"));
+    assertEquals(0, index.query(11, 11, 9, 9).size());
+  }
+
+  @Test
+  public void testClusterByZoom() {
+    MarkerClusterIndex<Integer> index = new MarkerClusterIndex<Integer>();
+    // Two groups of markers about 1 km apart, with the markers in a group 20 m apart
+    for (int i = 0; i < 5; i++) {
+      index.add(i, 42.36 + i * 0.0002, -71.06);
+      index.add(5 + i, 42.37 + i * 0.0002, -71.06);
+    }
+    // Zoomed out, everything is one cluster
+    List<MarkerClusterIndex.Cluster<Integer>> clusters = index.cluster(43, -70, 42, -72, 5, 60);
+    assertEquals(1, clusters.size());
+    assertEquals(10, clusters.get(0).size());
+    assertEquals(42.3654, clusters.get(0).getLatitude(), 1e-6);
+    assertEquals(42.3708, clusters.get(0).getNorth(), 1e-9);
+    assertEquals(42.36, clusters.get(0).getSouth(), 1e-9);
+
+    // At street level, every marker is drawn on its own
+    clusters = index.cluster(43, -70, 42, -72, 19, 60);
+    assertEquals(10, clusters.size());
+
+    // Without a cell size, nothing is clustered
+    clusters = index.cluster(43, -70, 42, -72, 5, 0);
+    assertEquals(10, clusters.size());
+  }
+
+  @Test
+  public void testClusterOnlyInsideViewport() {
+    MarkerClusterIndex<Integer> index = new MarkerClusterIndex<Integer>();
+    for (int i = 0; i < 5000; i++) {
+      index.add(i, -59.5 + (i % 100) * 1.2, -169 + (i / 100) * 6.8);
+    }
+    int count = 0;
+    for (MarkerClusterIndex.Cluster<Integer> cluster : index.cluster(10, 10, 0, 0, 10, 60)) {
+      count += cluster.size();
+    }
+    // 8 rows of latitudes and 2 columns of longitudes fall inside
+    assertEquals(16, count);
+  }
+
+  @Test
+  public void testMercator() {
+    assertEquals(0.5, MarkerClusterIndex.mercatorX(0), 1e-12);
+    assertEquals(0.0, MarkerClusterIndex.mercatorX(-180), 1e-12);
+    assertEquals(0.5, MarkerClusterIndex.mercatorY(0), 1e-12);
+    assertEquals(0.0, MarkerClusterIndex.mercatorY(85.05112878), 1e-6);
+    assertEquals(1.0, MarkerClusterIndex.mercatorY(-90), 1e-6);
+  }
+}
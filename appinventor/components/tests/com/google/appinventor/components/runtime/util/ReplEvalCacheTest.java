@@ -0,0 +1,236 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests ReplEvalCache.java.
+ */
+public class ReplEvalCacheTest {
+  private static final String PREFIX =
+      "(begin (require <com.google.youngandroid.runtime>) (process-repl-input ";
+
+  private static final String CLICK =
+      "(define-event Button1 Click () (set-this-form) (set-and-coerce-property! 'Label1 'Text "
+      + "\"(clicked)\" 'text))";
+  private static final String GLOBAL = "(def g$count 0)";
+  private static final String PROCEDURE = "(def (p$twice x) (call-yail-primitive * (*list-for-"
+      + "runtime* x 2) '(number number) \"*\"))";
+
+  /**
+   * Records what the cache asks of Kawa. Definitions read in a batch become the strings
+   * "thunk" followed by the definition.
+   */
+  private static class FakeInterpreter implements ReplEvalCache.Interpreter {
+    final List<String> evaluated = new ArrayList<String>();
+    final List<Object[]> applied = new ArrayList<Object[]>();
+    final List<String> timings = new ArrayList<String>();
+    String fail = null;
+
+    @Override
+    public Object eval(String expression) throws Throwable {
+      evaluated.add(expression);
+      if (fail != null && expression.contains(fail)) {
+        throw new IllegalArgumentException("Bad code");
+      }
+      String vector = "(begin (require <com.google.youngandroid.runtime>) (vector";
+      if (expression.startsWith(vector)) {
+        List<Object> thunks = new ArrayList<Object>();
+        String body = expression.substring(vector.length(), expression.length() - 2);
+        for (String lambda : ReplEvalCache.splitForms(body)) {
+          thunks.add("thunk" + lambda.substring("(lambda () ".length(), lambda.length() - 1));
+        }
+        return thunks;
+      }
+      return "procedure" + evaluated.size();
+    }
+
+    @Override
+    public void apply(Object procedure, Object[] args) {
+      applied.add(args.clone());
+    }
+
+    @Override
+    public void evaluated(String blockid, int forms, int reused, long millis) {
+      timings.add(blockid + ":" + forms + ":" + reused);
+    }
+  }
+
+  private FakeInterpreter interpreter;
+  private ReplEvalCache cache;
+
+  @Before
+  public void setUp() {
+    interpreter = new FakeInterpreter();
+    cache = new ReplEvalCache(interpreter);
+  }
+
+  private static String message(String blockid, String code) {
+    return PREFIX + blockid + " (begin " + code + ")))";
+  }
+
+  private void run(List<ReplEvalCache.Step> steps) throws Throwable {
+    for (ReplEvalCache.Step step : steps) {
+      step.run();
+    }
+  }
+
+  @Test
+  public void testSplitForms() {
+    assertEquals(Arrays.asList("(a \"b)\" #\\) c)", "'(d)", "e", "(f |g)|)"),
+        ReplEvalCache.splitForms(" (a \"b)\" #\\) c) ; comment (\n'(d) e\n(f |g)|)"));
+    assertEquals(Arrays.asList("(x \"\\\"(\")"), ReplEvalCache.splitForms("(x \"\\\"(\")"));
+    assertNull(ReplEvalCache.splitForms("(a (b)"));
+    assertNull(ReplEvalCache.splitForms("(a))"));
+  }
+
+  @Test
+  public void testDefinitionsAreReadOnce() throws Throwable {
+    run(cache.prepare(message("\"abc\"", CLICK)));
+    assertEquals(2, interpreter.evaluated.size());
+    assertEquals("thunk" + CLICK, interpreter.applied.get(0)[0]);
+    assertEquals(Arrays.asList("abc:1:0"), interpreter.timings);
+
+    // The form is cleared and the definition sent again
+    run(cache.prepare(message("-1", "(clear-current-form)")));
+    assertEquals(message("-1", "(clear-current-form)"), interpreter.evaluated.get(2));
+    interpreter.evaluated.clear();
+    run(cache.prepare(message("\"abc\"", CLICK)));
+    assertEquals(0, interpreter.evaluated.size());
+    assertEquals("thunk" + CLICK, interpreter.applied.get(1)[0]);
+    assertEquals("abc:1:1", interpreter.timings.get(1));
+
+    // A changed definition is read again, but the code around it is not
+    run(cache.prepare(message("\"abc\"", CLICK.replace("clicked", "pressed"))));
+    assertEquals(1, interpreter.evaluated.size());
+    assertTrue(interpreter.evaluated.get(0).contains("pressed"));
+  }
+
+  @Test
+  public void testMixedForms() throws Throwable {
+    run(cache.prepare("-2", GLOBAL + "\n(set-and-coerce-property! 'Label1 'Text \"x\" 'text)\n"
+        + PROCEDURE));
+    assertEquals(2, interpreter.evaluated.size());
+    String wrapper = interpreter.evaluated.get(1);
+    assertEquals("(begin (require <com.google.youngandroid.runtime>) (lambda (t0 t1) "
+        + "(process-repl-input -2 (begin (t0) (set-and-coerce-property! 'Label1 'Text \"x\" "
+        + "'text) (t1)))))", wrapper);
+    assertEquals(Arrays.<Object>asList("thunk" + GLOBAL, "thunk" + PROCEDURE),
+        Arrays.asList(interpreter.applied.get(0)));
+
+    // The same definitions sent with other code are not read again
+    interpreter.evaluated.clear();
+    run(cache.prepare("-2", PROCEDURE + " (foo) " + GLOBAL));
+    assertEquals(1, interpreter.evaluated.size());
+    assertTrue(interpreter.evaluated.get(0).contains("(lambda (t0 t1)"));
+    assertEquals("-2:3:2", interpreter.timings.get(1));
+  }
+
+  @Test
+  public void testOtherMessagesAreEvaluated() throws Throwable {
+    String[] messages = {
+        "(define-syntax protect-enum (lambda (x) x))",
+        message("\"abc\"", "(+ 1 2)"),
+        PREFIX + "\"abc\" (begin (def x 1)))",  // Not balanced
+    };
+    for (String message : messages) {
+      run(cache.prepare(message));
+      assertEquals(message, interpreter.evaluated.get(interpreter.evaluated.size() - 1));
+    }
+    assertEquals(3, interpreter.evaluated.size());
+    assertEquals(0, interpreter.applied.size());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testBatches() throws Throwable {
+    StringBuilder code = new StringBuilder();
+    int count = ReplEvalCache.BATCH_SIZE * 2 + 5;
+    for (int i = 0; i < count; i++) {
+      code.append("(def g$v").append(i).append(" ").append(i).append(")\n");
+    }
+    List<ReplEvalCache.Step> steps = cache.prepare(message("-1", code.toString()));
+    assertEquals(4, steps.size());
+    run(steps);
+    assertEquals(4, interpreter.evaluated.size());
+    assertEquals(count, interpreter.applied.get(0).length);
+    assertEquals("thunk(def g$v68 68)", interpreter.applied.get(0)[68]);
+
+    // A large definition is read on its own
+    char[] filler = new char[ReplEvalCache.BATCH_CHARS];
+    Arrays.fill(filler, 'x');
+    String large = "(def g$large \"" + new String(filler) + "\")";
+    assertEquals(4, cache.prepare(message("-1", GLOBAL + large + PROCEDURE)).size());
+  }
+
+  @Test
+  public void testReadErrorFallsBack() throws Throwable {
+    interpreter.fail = "oops";
+    String message = message("\"abc\"", GLOBAL + " (def (p$bad) (oops))");
+    try {
+      run(cache.prepare(message));
+      fail("Expected the error to be reported");
+    } catch (IllegalArgumentException e) {
+      // Expected
+    }
+    // The batch failed, so the message is evaluated as it is and Kawa reports the error
+    assertEquals(2, interpreter.evaluated.size());
+    assertEquals(message, interpreter.evaluated.get(1));
+    assertEquals(0, interpreter.applied.size());
+    assertEquals(0, interpreter.timings.size());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testChunks() throws Throwable {
+    String original = message("\"abc\"", "(def g$s \"a \\\"quoted\\\" \\\\ string\")");
+    String escaped = original.replace("\\", "\\\\").replace("\"", "\\\"");
+    int half = escaped.length() / 2;
+    if (escaped.charAt(half - 1) == '\\') {
+      half++;
+    }
+    String[] chunks = {
+        "(define Q1 \"\")",
+        "(set! Q1 (string-append Q1 \"" + escaped.substring(0, half) + "\"))",
+        "(set! Q1 (string-append Q1 \"" + escaped.substring(half) + "\"))",
+        "(eval (read (open-input-string Q1)))",
+        "(set! Q1 #!null)",
+    };
+    for (String chunk : chunks) {
+      run(cache.prepare(chunk));
+    }
+    assertEquals(2, interpreter.evaluated.size());
+    assertEquals("thunk(def g$s \"a \\\"quoted\\\" \\\\ string\")",
+        interpreter.applied.get(0)[0]);
+    assertEquals(Arrays.asList("abc:1:0"), interpreter.timings);
+
+    // Variables that the cache did not build are left to Kawa
+    run(cache.prepare("(set! Q2 #!null)"));
+    assertEquals("(set! Q2 #!null)", interpreter.evaluated.get(2));
+    assertFalse(interpreter.evaluated.contains("(eval (read (open-input-string Q1)))"));
+  }
+
+  @Test
+  public void testClear() throws Throwable {
+    run(cache.prepare(message("-1", GLOBAL)));
+    assertEquals(2, cache.size());
+    cache.clear();
+    assertEquals(0, cache.size());
+    run(cache.prepare(message("-1", GLOBAL)));
+    assertEquals(4, interpreter.evaluated.size());
+  }
+}
@@ -0,0 +1,180 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests RequestScheduler.java.
+ */
+public class RequestSchedulerTest {
+  // Requests that the scheduler has started but that have not been run.
+  private final List<Runnable> started = new ArrayList<Runnable>();
+  // The names of the requests that have run, in order.
+  private final List<String> ran = new ArrayList<String>();
+  // The number of calls answered by each request, in the order they finished.
+  private final List<Integer> calls = new ArrayList<Integer>();
+  private RequestScheduler scheduler;
+
+  @Before
+  public void setUp() {
+    scheduler = new RequestScheduler(new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        started.add(command);
+      }
+    }, 2);
+  }
+
+  @Test
+  public void testLimitPerHost() {
+    for (int i = 0; i < 4; i++) {
+      scheduler.submit("a.example.com", null, null, task("a" + i));
+    }
+    scheduler.submit("b.example.com", null, null, task("b0"));
+    // Two requests to a and one to b may run at once.
+    assertEquals(3, started.size());
+    runStarted(0);
+    assertEquals(3, started.size());
+    runStarted(0);
+    runStarted(0);
+    runStarted(0);
+    runStarted(0);
+    assertEquals(0, started.size());
+    // Requests to a host start in the order they were submitted.
+    assertEquals(5, ran.size());
+    assertTrue(ran.indexOf("a0") < ran.indexOf("a2"));
+    assertTrue(ran.indexOf("a1") < ran.indexOf("a3"));
+    assertTrue(ran.indexOf("a2") < ran.indexOf("a3"));
+  }
+
+  @Test
+  public void testNoLimit() {
+    scheduler.setMaxRequestsPerHost(0);
+    for (int i = 0; i < 10; i++) {
+      scheduler.submit("a.example.com", null, null, task("a" + i));
+    }
+    assertEquals(10, started.size());
+  }
+
+  @Test
+  public void testRaiseLimit() {
+    for (int i = 0; i < 4; i++) {
+      scheduler.submit("a.example.com", null, null, task("a" + i));
+    }
+    assertEquals(2, started.size());
+    scheduler.setMaxRequestsPerHost(4);
+    assertEquals(4, started.size());
+  }
+
+  @Test
+  public void testCoalescing() {
+    Future<Void> first = scheduler.submit("a.example.com", "GET /x", null, task("x"));
+    Future<Void> second = scheduler.submit("a.example.com", "GET /x", null, task("x again"));
+    scheduler.submit("a.example.com", "GET /y", null, task("y"));
+    assertSame(first, second);
+    assertEquals(2, started.size());
+    runStarted(0);
+    runStarted(0);
+    assertEquals(2, ran.size());
+    assertFalse(ran.contains("x again"));
+    assertEquals(Integer.valueOf(2), calls.get(ran.indexOf("x")));
+    assertEquals(Integer.valueOf(1), calls.get(ran.indexOf("y")));
+    assertTrue(first.isDone());
+    // Once a request has finished, the same request is sent again.
+    scheduler.submit("a.example.com", "GET /x", null, task("x later"));
+    assertEquals(1, started.size());
+  }
+
+  @Test
+  public void testForget() {
+    Future<Void> first = scheduler.submit("a.example.com", "GET /x", null, task("x"));
+    scheduler.forget("GET /x");
+    Future<Void> second = scheduler.submit("a.example.com", "GET /x", null, task("x again"));
+    assertFalse(first == second);
+    assertEquals(2, started.size());
+    runStarted(0);
+    runStarted(0);
+    assertEquals(Arrays.asList("x", "x again"), ran);
+    assertEquals(Arrays.asList(1, 1), calls);
+  }
+
+  @Test
+  public void testStaleResponses() {
+    scheduler.submit("a.example.com", "GET /?q=a", "GET", task("a"));
+    scheduler.submit("a.example.com", "GET /?q=ab", "GET", task("ab"));
+    // The response to the newer request arrives first, so the older one is dropped.
+    runStarted(1);
+    runStarted(0);
+    assertEquals(Integer.valueOf(1), calls.get(0));
+    assertEquals(Integer.valueOf(0), calls.get(1));
+  }
+
+  @Test
+  public void testResponsesInOrder() {
+    scheduler.submit("a.example.com", "GET /?q=a", "GET", task("a"));
+    scheduler.submit("a.example.com", "GET /?q=ab", "GET", task("ab"));
+    runStarted(0);
+    runStarted(0);
+    assertEquals(Integer.valueOf(1), calls.get(0));
+    assertEquals(Integer.valueOf(1), calls.get(1));
+  }
+
+  @Test
+  public void testUnfinishedTask() {
+    // A task that fails before finishing still releases its place and stops others joining it.
+    scheduler.submit("a.example.com", "GET /x", null, new RequestScheduler.Task() {
+      @Override
+      public void run(RequestScheduler.Request request) {
+        throw new RuntimeException("failed");
+      }
+    });
+    runStarted(0);
+    scheduler.submit("a.example.com", "GET /x", null, task("x"));
+    assertEquals(1, started.size());
+  }
+
+  @Test
+  public void testFailedRequestDoesNotMakeOthersStale() {
+    scheduler.submit("a.example.com", "GET /?q=a", "GET", task("a"));
+    scheduler.submit("a.example.com", "GET /?q=ab", "GET", new RequestScheduler.Task() {
+      @Override
+      public void run(RequestScheduler.Request request) {
+        throw new RuntimeException("failed");
+      }
+    });
+    // The newer request fails before the older one responds, which is still reported.
+    runStarted(1);
+    runStarted(0);
+    assertEquals(Integer.valueOf(1), calls.get(0));
+  }
+
+  private RequestScheduler.Task task(final String name) {
+    return new RequestScheduler.Task() {
+      @Override
+      public void run(RequestScheduler.Request request) {
+        ran.add(name);
+        calls.add(request.finish());
+      }
+    };
+  }
+
+  private void runStarted(int index) {
+    Runnable request = started.remove(index);
+    request.run();
+  }
+}
@@ -0,0 +1,264 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+/**
+ * Tests RetValQueue.java.
+ */
+public class RetValQueueTest {
+
+  private static JSONObject value(String type, String blockid, String item)
+      throws JSONException {
+    JSONObject value = new JSONObject();
+    value.put("status", "OK");
+    value.put("type", type);
+    value.put("blockid", blockid);
+    if ("log".equals(type)) {
+      value.put("item", item);
+      value.put("level", "Info");
+    } else {
+      value.put("value", item);
+    }
+    return value;
+  }
+
+  private static List<String> items(List<JSONObject> values) {
+    List<String> items = new ArrayList<String>();
+    for (JSONObject value : values) {
+      items.add(value.optString("type") + ":" + value.optString("log".equals(
+          value.optString("type")) ? "item" : "value"));
+    }
+    return items;
+  }
+
+  @Test
+  public void testDrainInOrder() throws JSONException {
+    RetValQueue queue = new RetValQueue();
+    assertTrue(queue.isEmpty());
+    queue.offer(value("return", "a", "1"));
+    queue.offer(value("pushScreen", "", "Screen2"));
+    queue.offer(value("log", "b", "hello"));
+    assertFalse(queue.isEmpty());
+    assertEquals(Arrays.asList("return:1", "pushScreen:Screen2", "log:hello"),
+        items(queue.drain()));
+    assertTrue(queue.isEmpty());
+    assertTrue(queue.drain().isEmpty());
+  }
+
+  @Test
+  public void testCoalescing() throws JSONException {
+    RetValQueue queue = new RetValQueue();
+    queue.offer(value("return", "a", "1"));
+    queue.offer(value("log", "b", "tick"));
+    queue.offer(value("return", "-1", "x"));
+    queue.offer(value("return", "a", "2"));
+    queue.offer(value("log", "b", "tick"));
+    queue.offer(value("log", "b", "tick"));
+    queue.offer(value("log", "b", "tock"));
+    queue.offer(value("log", "b", "tick"));
+    queue.offer(value("return", "-1", "y"));
+    List<JSONObject> values = queue.drain();
+    // Values for no particular block are all kept, and only repeats in a row are counted
+    assertEquals(Arrays.asList("log:tick", "return:x", "return:2", "log:tick", "log:tock",
+        "log:tick", "return:y"), items(values));
+    assertFalse(values.get(0).has("repeat"));
+    assertEquals(2, values.get(3).getInt("repeat"));
+    assertFalse(values.get(5).has("repeat"));
+
+    // A value that was sent is not superseded
+    queue.offer(value("return", "a", "3"));
+    assertEquals(Arrays.asList("return:3"), items(queue.drain()));
+  }
+
+  @Test
+  public void testSupersededArePurged() throws JSONException {
+    RetValQueue queue = new RetValQueue(10);
+    queue.offer(value("error", "", "first"));
+    for (int i = 0; i < 1000; i++) {
+      queue.offer(value("return", "a", String.valueOf(i)));
+      assertTrue(queue.queued() <= 10);
+    }
+    for (int i = 0; i < 1000; i++) {
+      queue.offer(value("log", "b", "tick"));
+      assertTrue(queue.queued() <= 10);
+    }
+    List<JSONObject> values = queue.drain();
+    // Nothing was dropped to make room for superseded values
+    assertEquals(Arrays.asList("error:first", "return:999", "log:tick"), items(values));
+    assertEquals(1000, values.get(2).getInt("repeat"));
+    assertEquals(0, queue.queued());
+  }
+
+  @Test
+  public void testDropped() throws JSONException {
+    RetValQueue queue = new RetValQueue(3);
+    for (int i = 0; i < 5; i++) {
+      queue.offer(value("log", "b", String.valueOf(i)));
+    }
+    List<JSONObject> values = queue.drain();
+    assertEquals(Arrays.asList("log:2 results dropped", "log:2", "log:3", "log:4"),
+        items(values));
+    assertEquals("Warning", values.get(0).getString("level"));
+    queue.offer(value("log", "b", "5"));
+    assertEquals(Arrays.asList("log:5"), items(queue.drain()));
+  }
+
+  @Test
+  public void testControlValuesAreKept() throws JSONException {
+    RetValQueue queue = new RetValQueue(10);
+    for (int i = 0; i < 20; i++) {
+      queue.offer(value("log", "b", "before" + i));
+    }
+    queue.offer(value("pushScreen", "", "Screen2"));
+    for (int i = 0; i < 20; i++) {
+      queue.offer(value("log", "b", "after" + i));
+    }
+    queue.offer(value("return", "a", "1"));
+    queue.offer(value("error", "", "oops"));
+    assertEquals(10, queue.queued());
+    List<JSONObject> values = queue.drain();
+    assertEquals(Arrays.asList("log:33 results dropped", "pushScreen:Screen2", "log:after13",
+        "log:after14", "log:after15", "log:after16", "log:after17", "log:after18",
+        "log:after19", "return:1", "error:oops"), items(values));
+
+    // Values that cannot be dropped are kept even past the capacity
+    for (int i = 0; i < 20; i++) {
+      queue.offer(value("error", "", String.valueOf(i)));
+    }
+    assertEquals(20, queue.drain().size());
+  }
+
+  @Test
+  public void testConcurrentOffers() throws Exception {
+    final RetValQueue queue = new RetValQueue(100000);
+    final int threads = 4;
+    final int count = 5000;
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Thread> producers = new ArrayList<Thread>();
+    for (int t = 0; t < threads; t++) {
+      final int id = t;
+      Thread producer = new Thread() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+            for (int i = 0; i < count; i++) {
+              queue.offer(value("return", "block" + id, String.valueOf(i)));
+              queue.offer(value("error", "", id + ":" + i));
+            }
+          } catch (Exception e) {
+            throw new RuntimeException(e);
+          }
+        }
+      };
+      producers.add(producer);
+      producer.start();
+    }
+    start.countDown();
+    int errors = 0;
+    int[] last = new int[threads];
+    Arrays.fill(last, -1);
+    while (true) {
+      boolean done = true;
+      for (Thread producer : producers) {
+        done &= !producer.isAlive();
+      }
+      for (JSONObject value : queue.drain()) {
+        if ("error".equals(value.getString("type"))) {
+          errors++;
+        } else {
+          int id = Integer.parseInt(value.getString("blockid").substring(5));
+          int i = Integer.parseInt(value.getString("value"));
+          assertTrue(i > last[id]);
+          last[id] = i;
+        }
+      }
+      if (done && queue.isEmpty()) {
+        break;
+      }
+    }
+    assertEquals(threads * count, errors);
+    for (int i = 0; i < threads; i++) {
+      assertEquals(count - 1, last[i]);
+    }
+  }
+
+  @Test
+  public void testFrames() throws JSONException {
+    List<JSONObject> values = new ArrayList<JSONObject>();
+    for (int i = 0; i < 100; i++) {
+      values.add(value("return", "b" + i, "value " + i));
+    }
+    List<String> frames = RetValQueue.toFrames(values, 1024);
+    assertTrue(frames.size() > 1);
+    List<String> received = new ArrayList<String>();
+    for (String frame : frames) {
+      assertTrue(RetValQueue.utf8Length(frame) <= 1024);
+      JSONObject json = new JSONObject(frame);
+      assertEquals("OK", json.getString("status"));
+      JSONArray array = json.getJSONArray("values");
+      for (int i = 0; i < array.length(); i++) {
+        received.add(array.getJSONObject(i).getString("value"));
+      }
+    }
+    assertEquals(items(values), prefixed("return:", received));
+    assertEquals(Arrays.asList(RetValQueue.toMessage(values.subList(0, 1))),
+        RetValQueue.toFrames(values.subList(0, 1), 1024));
+    assertEquals(RetValQueue.toMessage(values),
+        RetValQueue.toFrames(values, RetValQueue.MAX_FRAME_BYTES).get(0));
+  }
+
+  @Test
+  public void testParts() throws JSONException {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 3000; i++) {
+      sb.append("\"é😀/\n").append(i);
+    }
+    List<JSONObject> values = Arrays.asList(value("return", "a", "small"),
+        value("return", "b", sb.toString()), value("return", "c", "after"));
+    List<String> frames = RetValQueue.toFrames(values, 1024);
+    StringBuilder joined = new StringBuilder();
+    List<String> received = new ArrayList<String>();
+    for (String frame : frames) {
+      assertTrue(RetValQueue.utf8Length(frame) <= 1024);
+      JSONObject json = new JSONObject(frame);
+      if ("PART".equals(json.getString("status"))) {
+        joined.append(json.getString("data"));
+        if (json.getInt("part") < json.getInt("parts") - 1) {
+          continue;
+        }
+        json = new JSONObject(joined.toString());
+        joined.setLength(0);
+      }
+      JSONArray array = json.getJSONArray("values");
+      for (int i = 0; i < array.length(); i++) {
+        received.add(array.getJSONObject(i).getString("value"));
+      }
+    }
+    assertEquals(Arrays.asList("small", sb.toString(), "after"), received);
+  }
+
+  private static List<String> prefixed(String prefix, List<String> items) {
+    List<String> result = new ArrayList<String>();
+    for (String item : items) {
+      result.add(prefix + item);
+    }
+    return result;
+  }
+}
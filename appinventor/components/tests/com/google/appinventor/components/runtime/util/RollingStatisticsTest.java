@@ -0,0 +1,87 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Tests RollingStatistics.java.
+ */
+public class RollingStatisticsTest {
+  private static final double TOLERANCE = 1e-9;
+
+  @Test
+  public void testEmpty() {
+    RollingStatistics statistics = new RollingStatistics(4);
+    assertEquals(0, statistics.getCount());
+    assertTrue(Double.isNaN(statistics.getMean()));
+    assertTrue(Double.isNaN(statistics.getStandardDeviation()));
+  }
+
+  @Test
+  public void testPartialWindow() {
+    RollingStatistics statistics = new RollingStatistics(10);
+    statistics.add(2);
+    statistics.add(4);
+    statistics.add(4);
+    statistics.add(4);
+    statistics.add(5);
+    statistics.add(5);
+    statistics.add(7);
+    statistics.add(9);
+    assertEquals(8, statistics.getCount());
+    assertEquals(5, statistics.getMean(), TOLERANCE);
+    assertEquals(2, statistics.getStandardDeviation(), TOLERANCE);
+    assertEquals(2, statistics.zScore(9), TOLERANCE);
+  }
+
+  @Test
+  public void testSlidingWindow() {
+    Random random = new Random(42);
+    double[] values = new double[1000];
+    RollingStatistics statistics = new RollingStatistics(25);
+    for (int i = 0; i < values.length; i++) {
+      values[i] = 1e6 + random.nextGaussian();
+      statistics.add(values[i]);
+      int first = Math.max(0, i - 24);
+      double sum = 0;
+      for (int j = first; j <= i; j++) {
+        sum += values[j];
+      }
+      double mean = sum / (i - first + 1);
+      double squares = 0;
+      for (int j = first; j <= i; j++) {
+        squares += (values[j] - mean) * (values[j] - mean);
+      }
+      assertEquals(i - first + 1, statistics.getCount());
+      assertEquals(mean, statistics.getMean(), TOLERANCE * 1e6);
+      assertEquals(Math.sqrt(squares / (i - first + 1)), statistics.getStandardDeviation(),
+          1e-6);
+    }
+  }
+
+  @Test
+  public void testClear() {
+    RollingStatistics statistics = new RollingStatistics(2);
+    statistics.add(100);
+    statistics.add(200);
+    statistics.add(300);
+    statistics.clear();
+    statistics.add(1);
+    statistics.add(3);
+    assertEquals(2, statistics.getMean(), TOLERANCE);
+    assertEquals(1, statistics.getStandardDeviation(), TOLERANCE);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSize() {
+    new RollingStatistics(0);
+  }
+}
@@ -0,0 +1,106 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Tests SheetValuesCache.java.
+ */
+public class SheetValuesCacheTest {
+  private static final long NOW = 1000000000000L;
+  private static final List<List<Object>> VALUES =
+      Collections.singletonList(Collections.<Object>singletonList("a"));
+
+  @Test
+  public void testExpiry() {
+    SheetValuesCache cache = new SheetValuesCache(10, 1000);
+    cache.put("id", "Sheet1!A1", VALUES, cache.getGeneration(), NOW);
+    assertSame(VALUES, cache.get("id", "Sheet1!A1", NOW + 999));
+    assertNull(cache.get("id", "Sheet1!A1", NOW + 1000));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testKeyedBySpreadsheet() {
+    SheetValuesCache cache = new SheetValuesCache(10, 1000);
+    cache.put("id", "Sheet1", VALUES, cache.getGeneration(), NOW);
+    assertNull(cache.get("other", "Sheet1", NOW));
+    cache.invalidateSheet("other", "Sheet1");
+    assertNotNull(cache.get("id", "Sheet1", NOW));
+  }
+
+  @Test
+  public void testEmptyRange() {
+    SheetValuesCache cache = new SheetValuesCache(10, 1000);
+    cache.put("id", "Sheet1!A1", null, cache.getGeneration(), NOW);
+    assertTrue(cache.get("id", "Sheet1!A1", NOW).isEmpty());
+  }
+
+  @Test
+  public void testInvalidateSheet() {
+    SheetValuesCache cache = new SheetValuesCache(10, 1000);
+    long generation = cache.getGeneration();
+    cache.put("id", "Sheet1", VALUES, generation, NOW);
+    cache.put("id", "Sheet1!A:A", VALUES, generation, NOW);
+    cache.put("id", "'Sheet1'!1:1", VALUES, generation, NOW);
+    cache.put("id", "Sheet10!A1", VALUES, generation, NOW);
+    cache.invalidateSheet("id", "Sheet1");
+    assertNull(cache.get("id", "Sheet1", NOW));
+    assertNull(cache.get("id", "Sheet1!A:A", NOW));
+    assertNull(cache.get("id", "'Sheet1'!1:1", NOW));
+    assertNotNull(cache.get("id", "Sheet10!A1", NOW));
+  }
+
+  @Test
+  public void testReadBeforeInvalidationIsNotStored() {
+    SheetValuesCache cache = new SheetValuesCache(10, 1000);
+    long generation = cache.getGeneration();
+    // A write completes while the read is in progress.
+    cache.invalidateSheet("id", "Sheet1");
+    cache.put("id", "Sheet1!A1", VALUES, generation, NOW);
+    assertNull(cache.get("id", "Sheet1!A1", NOW));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEviction() {
+    SheetValuesCache cache = new SheetValuesCache(2, 1000);
+    long generation = cache.getGeneration();
+    cache.put("id", "A1", VALUES, generation, NOW);
+    cache.put("id", "A2", VALUES, generation, NOW);
+    cache.get("id", "A1", NOW);
+    cache.put("id", "A3", VALUES, generation, NOW);
+    assertNotNull(cache.get("id", "A1", NOW));
+    assertNull(cache.get("id", "A2", NOW));
+    assertNotNull(cache.get("id", "A3", NOW));
+  }
+
+  @Test
+  public void testDisabled() {
+    SheetValuesCache cache = new SheetValuesCache(10, 1000);
+    cache.put("id", "Sheet1", VALUES, cache.getGeneration(), NOW);
+    cache.setMaxAge(0);
+    assertEquals(0, cache.size());
+    cache.put("id", "Sheet1", VALUES, cache.getGeneration(), NOW);
+    assertNull(cache.get("id", "Sheet1", NOW));
+  }
+
+  @Test
+  public void testSheetOf() {
+    assertEquals("Sheet1", SheetValuesCache.sheetOf("Sheet1"));
+    assertEquals("Sheet1", SheetValuesCache.sheetOf("Sheet1!A1:B2"));
+    assertEquals("My Sheet", SheetValuesCache.sheetOf("'My Sheet'!A1"));
+    assertEquals("It's!", SheetValuesCache.sheetOf("'It''s!'!A1"));
+  }
+}
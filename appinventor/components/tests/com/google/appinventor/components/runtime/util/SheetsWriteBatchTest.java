@@ -0,0 +1,200 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.Json;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.sheets.v4.Sheets;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests SheetsWriteBatch.java against a mock Google Sheets API.
+ */
+public class SheetsWriteBatchTest {
+  private static final String ID = "spreadsheet";
+
+  // The requests sent, as "METHOD path", in order.
+  private final List<String> requests = new ArrayList<String>();
+  // The bodies of the requests sent, in order.
+  private final List<String> bodies = new ArrayList<String>();
+  // The outcomes reported to the callbacks, in order.
+  private final List<String> outcomes = new ArrayList<String>();
+  // The number of rows the mock sheet has before an append.
+  private int existingRows = 3;
+  // The status code of batchUpdate responses.
+  private int batchUpdateStatus = 200;
+
+  private Sheets sheets;
+  private SheetValuesCache cache;
+  private SheetsWriteBatch batch;
+
+  @Before
+  public void setUp() {
+    MockHttpTransport transport = new MockHttpTransport() {
+      @Override
+      public LowLevelHttpRequest buildRequest(final String method, final String url) {
+        return new MockLowLevelHttpRequest(url) {
+          @Override
+          public LowLevelHttpResponse execute() throws IOException {
+            String path = URLDecoder.decode(url.split("\\?")[0], "UTF-8");
+            path = path.substring(path.indexOf("/spreadsheets/"));
+            requests.add(method + " " + path);
+            bodies.add(getContentAsString());
+            return respond(path);
+          }
+        };
+      }
+    };
+    sheets = new Sheets.Builder(transport, JacksonFactory.getDefaultInstance(), null)
+        .setApplicationName("test")
+        .build();
+    cache = new SheetValuesCache(10, 60000);
+    batch = new SheetsWriteBatch(cache);
+  }
+
+  @Test
+  public void testUpdatesAreSentTogether() {
+    batch.update(ID, "Sheet1!A1", values("a"), callback("A1"));
+    batch.update(ID, "Sheet1!B2", values("b"), callback("B2"));
+    assertEquals(3, batch.update(ID, "Sheet2!C3", values("c"), callback("C3")));
+    assertTrue(requests.isEmpty());
+    batch.flush(sheets);
+    assertEquals(Arrays.asList("POST /spreadsheets/" + ID + "/values:batchUpdate"), requests);
+    assertTrue(bodies.get(0).contains("\"valueInputOption\":\"USER_ENTERED\""));
+    assertTrue(bodies.get(0).contains("\"range\":\"Sheet1!B2\""));
+    assertTrue(bodies.get(0).contains("\"range\":\"Sheet2!C3\""));
+    assertEquals(Arrays.asList("A1 0", "B2 0", "C3 0"), outcomes);
+    assertEquals(0, batch.size());
+  }
+
+  @Test
+  public void testAppendsAreSentTogether() {
+    batch.append(ID, "Sheet1", row("x"), callback("x"));
+    batch.append(ID, "Sheet1", row("y"), callback("y"));
+    batch.flush(sheets);
+    assertEquals(Arrays.asList(
+        "GET /spreadsheets/" + ID + "/values/Sheet1",
+        "POST /spreadsheets/" + ID + "/values/Sheet1!A4:append"), requests);
+    assertTrue(bodies.get(1).contains("[[\"x\"],[\"y\"]]"));
+    assertEquals(Arrays.asList("x 4", "y 5"), outcomes);
+  }
+
+  @Test
+  public void testOrderIsKept() {
+    batch.update(ID, "Sheet1!A1", values("a"), callback("A1"));
+    batch.append(ID, "Sheet1", row("x"), callback("x"));
+    batch.append(ID, "Sheet2", row("y"), callback("y"));
+    batch.update(ID, "Sheet1!B1", values("b"), callback("B1"));
+    batch.flush(sheets);
+    assertEquals(Arrays.asList(
+        "POST /spreadsheets/" + ID + "/values:batchUpdate",
+        "GET /spreadsheets/" + ID + "/values/Sheet1",
+        "POST /spreadsheets/" + ID + "/values/Sheet1!A4:append",
+        "GET /spreadsheets/" + ID + "/values/Sheet2",
+        "POST /spreadsheets/" + ID + "/values/Sheet2!A4:append",
+        "POST /spreadsheets/" + ID + "/values:batchUpdate"), requests);
+    assertEquals(Arrays.asList("A1 0", "x 4", "y 4", "B1 0"), outcomes);
+  }
+
+  @Test
+  public void testErrorsAreReportedPerRequest() {
+    batchUpdateStatus = 500;
+    batch.update(ID, "Sheet1!A1", values("a"), callback("A1"));
+    batch.update(ID, "Sheet1!A2", values("b"), callback("A2"));
+    batch.append(ID, "Sheet1", row("x"), callback("x"));
+    batch.flush(sheets);
+    assertEquals(3, outcomes.size());
+    assertEquals("A1 error", outcomes.get(0));
+    assertEquals("A2 error", outcomes.get(1));
+    // The append is sent even though the updates failed.
+    assertEquals("x 4", outcomes.get(2));
+  }
+
+  @Test
+  public void testFlushInvalidatesCache() {
+    long generation = cache.getGeneration();
+    long now = System.currentTimeMillis();
+    cache.put(ID, "Sheet1!A1:B2", values("old"), generation, now);
+    cache.put(ID, "Sheet2", values("other"), generation, now);
+    batch.update(ID, "Sheet1!A1", values("new"), callback("A1"));
+    // Values are only invalidated once the write has been sent.
+    assertNotNull(cache.get(ID, "Sheet1!A1:B2", now));
+    batch.flush(sheets);
+    assertNull(cache.get(ID, "Sheet1!A1:B2", now));
+    assertNotNull(cache.get(ID, "Sheet2", now));
+  }
+
+  @Test
+  public void testFirstRowOf() {
+    assertEquals(12, SheetsWriteBatch.firstRowOf("Sheet1!A12:C14"));
+    assertEquals(1, SheetsWriteBatch.firstRowOf("'My!Sheet'!A1"));
+  }
+
+  private MockLowLevelHttpResponse respond(String path) {
+    MockLowLevelHttpResponse response = new MockLowLevelHttpResponse()
+        .setContentType(Json.MEDIA_TYPE);
+    if (path.endsWith(":batchUpdate")) {
+      if (batchUpdateStatus != 200) {
+        return response.setStatusCode(batchUpdateStatus).setContent("{}");
+      }
+      return response.setContent("{\"spreadsheetId\":\"" + ID + "\"}");
+    } else if (path.endsWith(":append")) {
+      String range = path.substring(path.lastIndexOf('/') + 1, path.length() - ":append".length());
+      String sheet = range.substring(0, range.indexOf('!'));
+      int rows = bodies.get(bodies.size() - 1).split("\\],\\[").length;
+      int first = existingRows + 1;
+      return response.setContent("{\"updates\":{\"updatedRange\":\"" + sheet + "!A" + first
+          + ":A" + (first + rows - 1) + "\"}}");
+    } else {
+      StringBuilder values = new StringBuilder();
+      for (int i = 0; i < existingRows; i++) {
+        values.append(i == 0 ? "" : ",").append("[\"").append(i).append("\"]");
+      }
+      return response.setContent("{\"values\":[" + values + "]}");
+    }
+  }
+
+  private SheetsWriteBatch.Callback callback(final String name) {
+    return new SheetsWriteBatch.Callback() {
+      @Override
+      public void onWritten(int rowNumber) {
+        outcomes.add(name + " " + rowNumber);
+      }
+
+      @Override
+      public void onError(Exception e) {
+        outcomes.add(name + " error");
+      }
+    };
+  }
+
+  private static List<Object> row(String value) {
+    return new ArrayList<Object>(Collections.singletonList(value));
+  }
+
+  private static List<List<Object>> values(String value) {
+    List<List<Object>> values = new ArrayList<List<Object>>();
+    values.add(row(value));
+    return values;
+  }
+}
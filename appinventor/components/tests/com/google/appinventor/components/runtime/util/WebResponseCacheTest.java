@@ -0,0 +1,148 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests WebResponseCache.java.
+ */
+public class WebResponseCacheTest {
+  private static final long NOW = 1000000000000L;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File directory;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = folder.newFolder("web-responses");
+  }
+
+  @Test
+  public void testFreshUntil() {
+    assertEquals(NOW + 60000, WebResponseCache.freshUntil("public, max-age=60", null, null, null,
+        NOW));
+    assertEquals(NOW + 50000, WebResponseCache.freshUntil("max-age=60", null, null, "10", NOW));
+    assertEquals(WebResponseCache.NOT_CACHEABLE,
+        WebResponseCache.freshUntil("no-store", null, null, null, NOW));
+    assertEquals(NOW, WebResponseCache.freshUntil("no-cache, max-age=60", null, null, null, NOW));
+    assertEquals(NOW, WebResponseCache.freshUntil(null, null, null, null, NOW));
+  }
+
+  @Test
+  public void testFreshUntilExpires() {
+    // Expires is measured from the server's Date, not from our clock.
+    assertEquals(NOW + 3600000, WebResponseCache.freshUntil(null,
+        "Thu, 01 Jan 2015 01:00:00 GMT", "Thu, 01 Jan 2015 00:00:00 GMT", null, NOW));
+    // max-age takes precedence over Expires.
+    assertEquals(NOW + 10000, WebResponseCache.freshUntil("max-age=10",
+        "Thu, 01 Jan 2015 01:00:00 GMT", "Thu, 01 Jan 2015 00:00:00 GMT", null, NOW));
+    // An invalid date means the response has already expired.
+    assertEquals(NOW, WebResponseCache.freshUntil(null, "0", null, null, NOW));
+  }
+
+  @Test
+  public void testPutAndGet() {
+    WebResponseCache cache = new WebResponseCache(directory, 10000);
+    cache.put(entry("http://example.com/a", 100, NOW + 1000));
+    WebResponseCache.Entry entry = cache.get("http://example.com/a");
+    assertNotNull(entry);
+    assertEquals("text/plain", entry.contentType);
+    assertEquals("\"a\"", entry.etag);
+    assertTrue(entry.isFresh(NOW));
+    assertFalse(entry.isFresh(NOW + 1000));
+    assertNull(cache.get("http://example.com/b"));
+    cache.remove("http://example.com/a");
+    assertNull(cache.get("http://example.com/a"));
+    assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  public void testPersistence() {
+    WebResponseCache cache = new WebResponseCache(directory, 10000);
+    WebResponseCache.Entry original = entry("http://example.com/a", 100, NOW + 1000);
+    cache.put(original);
+    WebResponseCache.Entry entry = new WebResponseCache(directory, 10000)
+        .get("http://example.com/a");
+    assertNotNull(entry);
+    assertEquals(original.url, entry.url);
+    assertNull(entry.contentEncoding);
+    assertEquals(original.lastModified, entry.lastModified);
+    assertEquals(original.freshUntil, entry.freshUntil);
+    assertArrayEquals(original.body, entry.body);
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEviction() {
+    WebResponseCache cache = new WebResponseCache(directory, 1000);
+    cache.put(entry("http://example.com/a", 300, NOW));
+    cache.put(entry("http://example.com/b", 300, NOW));
+    cache.get("http://example.com/a");
+    cache.put(entry("http://example.com/c", 300, NOW));
+    assertTrue(cache.getSize() <= 1000);
+    assertNotNull(cache.get("http://example.com/a"));
+    assertNull(cache.get("http://example.com/b"));
+    assertNotNull(cache.get("http://example.com/c"));
+    assertEquals(2, directory.list().length);
+  }
+
+  @Test
+  public void testSetMaxSize() {
+    WebResponseCache cache = new WebResponseCache(directory, 10000);
+    cache.put(entry("http://example.com/a", 300, NOW));
+    cache.put(entry("http://example.com/b", 300, NOW));
+    cache.setMaxSize(500);
+    assertNull(cache.get("http://example.com/a"));
+    assertNotNull(cache.get("http://example.com/b"));
+    // Too large to store at all.
+    cache.put(entry("http://example.com/c", 600, NOW));
+    assertNull(cache.get("http://example.com/c"));
+  }
+
+  @Test
+  public void testRevalidated() {
+    WebResponseCache.Entry entry = entry("http://example.com/a", 10, NOW)
+        .revalidated(null, "Thu, 01 Jan 2015 00:00:00 GMT", NOW + 5000);
+    assertEquals("\"a\"", entry.etag);
+    assertEquals("Thu, 01 Jan 2015 00:00:00 GMT", entry.lastModified);
+    assertTrue(entry.isFresh(NOW));
+    assertTrue(entry.canRevalidate());
+  }
+
+  @Test
+  public void testClear() {
+    WebResponseCache cache = new WebResponseCache(directory, 10000);
+    cache.put(entry("http://example.com/a", 100, NOW));
+    cache.put(entry("http://example.com/b", 100, NOW));
+    cache.clear();
+    assertNull(cache.get("http://example.com/a"));
+    assertEquals(0, cache.getSize());
+    assertEquals(0, directory.list().length);
+  }
+
+  private static WebResponseCache.Entry entry(String url, int length, long freshUntil) {
+    byte[] body = new byte[length];
+    for (int i = 0; i < length; i++) {
+      body[i] = (byte) i;
+    }
+    return new WebResponseCache.Entry(url, "text/plain", null, "\"a\"",
+        "Wed, 31 Dec 2014 00:00:00 GMT", freshUntil, body);
+  }
+}
@@ -0,0 +1,237 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import gnu.lists.LList;
+import gnu.lists.Pair;
+import gnu.mapping.Procedure;
+import gnu.mapping.Procedure1;
+import gnu.mapping.Procedure2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests YailListIndex.
+ */
+public class YailListIndexTest {
+
+  /**
+   * Stands in for yail-equal-hash-key: strings are keyed by their lower case
+   * form, and anything else is left to the equality procedure.
+   */
+  private static final Procedure HASH_KEY = new Procedure1() {
+    @Override
+    public Object apply1(Object arg) {
+      return arg instanceof String ? ((String) arg).toLowerCase() : null;
+    }
+  };
+
+  /**
+   * Stands in for yail-equal?: strings are equal ignoring case, and any
+   * integer is equal to its decimal string.
+   */
+  private static class Equal extends Procedure2 {
+    int calls = 0;
+
+    @Override
+    public Object apply2(Object a, Object b) {
+      calls++;
+      return String.valueOf(a).equalsIgnoreCase(String.valueOf(b));
+    }
+  }
+
+  private Equal equal;
+
+  @Before
+  public void setUp() {
+    equal = new Equal();
+  }
+
+  /**
+   * Makes a list of the items followed by enough filler to be indexed.
+   */
+  private static YailList list(Object... items) {
+    List<Object> elements = new ArrayList<Object>(Arrays.asList(items));
+    while (elements.size() < YailListIndex.MIN_LENGTH) {
+      elements.add("filler" + elements.size());
+    }
+    return YailList.makeList(elements);
+  }
+
+  private static void append(YailList list, Object item) {
+    Pair last = list;
+    while (last.getCdr() instanceof Pair) {
+      last = (Pair) last.getCdr();
+    }
+    last.setCdr(new Pair(item, LList.Empty));
+    YailListIndex.appended(list);
+  }
+
+  private int indexOf(LList list, Object item) {
+    return YailListIndex.indexOf(list, item, HASH_KEY, equal);
+  }
+
+  @Test
+  public void testFirstSearchIsNotIndexed() {
+    YailList list = list("a", "b");
+    assertEquals(YailListIndex.NOT_INDEXED, indexOf(list, "b"));
+    assertEquals(2, indexOf(list, "b"));
+  }
+
+  @Test
+  public void testFirstMatchWins() {
+    YailList list = list("x", "A", "b", "a");
+    indexOf(list, "a");
+    assertEquals(2, indexOf(list, "a"));
+    assertEquals(3, indexOf(list, "B"));
+    assertEquals(0, indexOf(list, "c"));
+  }
+
+  @Test
+  public void testOnlyCandidatesAreCompared() {
+    Object[] items = new Object[1000];
+    for (int i = 0; i < items.length; i++) {
+      items[i] = "item" + i;
+    }
+    YailList list = YailList.makeList(items);
+    indexOf(list, "item999");
+    equal.calls = 0;
+    assertEquals(1000, indexOf(list, "item999"));
+    assertEquals(1, equal.calls);
+  }
+
+  @Test
+  public void testElementsWithoutKeysAreCheckedInOrder() {
+    YailList list = list(1, "1", "2", 2);
+    indexOf(list, "2");
+    // The integer 1 has no key but equals "1", and comes before the string.
+    assertEquals(1, indexOf(list, "1"));
+    assertEquals(3, indexOf(list, "2"));
+    // An item without a key can only be found by a linear search.
+    assertEquals(YailListIndex.NOT_INDEXED, indexOf(list, 1));
+  }
+
+  @Test
+  public void testShortListsAreNotIndexed() {
+    YailList list = YailList.makeList(new Object[] {"a", "b"});
+    indexOf(list, "b");
+    assertEquals(YailListIndex.NOT_INDEXED, indexOf(list, "b"));
+  }
+
+  @Test
+  public void testInvalidate() {
+    YailList list = list("a", "b");
+    YailList other = list("a", "b");
+    indexOf(list, "a");
+    indexOf(other, "a");
+    assertEquals(0, indexOf(list, "c"));
+    ((Pair) list.getCdr()).setCar("c");
+    YailListIndex.invalidate(list);
+    // A list that has just changed is searched linearly, then indexed again.
+    assertEquals(YailListIndex.NOT_INDEXED, indexOf(list, "c"));
+    assertEquals(1, indexOf(list, "c"));
+    // Other lists keep their indexes.
+    equal.calls = 0;
+    assertEquals(2, indexOf(other, "b"));
+    assertEquals(1, equal.calls);
+  }
+
+  @Test
+  public void testSetValueForKeyPathInvalidates() {
+    YailList list = list("a", "b");
+    YailDictionary dict = new YailDictionary();
+    dict.put("list", list);
+    indexOf(list, "a");
+    assertEquals(1, indexOf(list, "a"));
+    dict.setValueForKeyPath(Arrays.asList("list", 1), "c");
+    assertEquals(YailListIndex.NOT_INDEXED, indexOf(list, "a"));
+    assertEquals(0, indexOf(list, "a"));
+    assertEquals(1, indexOf(list, "c"));
+  }
+
+  @Test
+  public void testSetValueForKeyPathInvalidatesPairs() {
+    YailList pair = YailList.makeList(new Object[] {"k", "v"});
+    YailList table = table(pair);
+    YailListIndex.findPair(table, "k", HASH_KEY, equal);
+    assertSame(pair, YailListIndex.findPair(table, "k", HASH_KEY, equal));
+    YailDictionary dict = new YailDictionary();
+    dict.put("pair", pair);
+    dict.setValueForKeyPath(Arrays.asList("pair", 1), "j");
+    assertSame(YailListIndex.NOT_FOUND_IN_INDEX,
+        YailListIndex.findPair(table, "k", HASH_KEY, equal));
+    assertEquals(Boolean.FALSE, YailListIndex.findPair(table, "k", HASH_KEY, equal));
+  }
+
+  @Test
+  public void testAppendExtendsIndex() {
+    YailList list = list();
+    indexOf(list, "x");
+    assertEquals(0, indexOf(list, "x"));
+    // Adding the items that were not found, as in "if not in list then add"
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(0, indexOf(list, "item" + i));
+      append(list, "item" + i);
+    }
+    equal.calls = 0;
+    assertEquals(YailListIndex.MIN_LENGTH + 1000, indexOf(list, "ITEM999"));
+    assertEquals(1, equal.calls);
+  }
+
+  @Test
+  public void testFindPair() {
+    YailList first = YailList.makeList(new Object[] {"k", "v1"});
+    YailList second = YailList.makeList(new Object[] {"k", "v2"});
+    YailList table = table(first, second);
+    assertSame(YailListIndex.NOT_FOUND_IN_INDEX,
+        YailListIndex.findPair(table, "k", HASH_KEY, equal));
+    assertSame(first, YailListIndex.findPair(table, "K", HASH_KEY, equal));
+    assertEquals(Boolean.FALSE, YailListIndex.findPair(table, "x", HASH_KEY, equal));
+  }
+
+  @Test
+  public void testMalformedPairsAreNotIndexed() {
+    YailList pair = YailList.makeList(new Object[] {"k", "v"});
+    YailList triple = YailList.makeList(new Object[] {"k", "v", "w"});
+    YailList table = table(pair, triple);
+    YailListIndex.findPair(table, "k", HASH_KEY, equal);
+    assertSame(YailListIndex.NOT_FOUND_IN_INDEX,
+        YailListIndex.findPair(table, "k", HASH_KEY, equal));
+  }
+
+  @Test
+  public void testChangedPairDropsTableIndex() {
+    YailList pair = YailList.makeList(new Object[] {"k", "v"});
+    YailList table = table(pair);
+    YailListIndex.findPair(table, "k", HASH_KEY, equal);
+    assertSame(pair, YailListIndex.findPair(table, "k", HASH_KEY, equal));
+    ((Pair) pair.getCdr()).setCar("j");
+    YailListIndex.invalidate(pair);
+    assertSame(YailListIndex.NOT_FOUND_IN_INDEX,
+        YailListIndex.findPair(table, "k", HASH_KEY, equal));
+    assertEquals(Boolean.FALSE, YailListIndex.findPair(table, "k", HASH_KEY, equal));
+    assertSame(pair, YailListIndex.findPair(table, "j", HASH_KEY, equal));
+  }
+
+  /**
+   * Makes a table of the pairs followed by enough filler pairs to be indexed.
+   */
+  private static YailList table(YailList... pairs) {
+    List<Object> elements = new ArrayList<Object>(Arrays.asList(pairs));
+    while (elements.size() < YailListIndex.MIN_LENGTH) {
+      elements.add(YailList.makeList(new Object[] {"filler" + elements.size(), ""}));
+    }
+    return YailList.makeList(elements);
+  }
+}
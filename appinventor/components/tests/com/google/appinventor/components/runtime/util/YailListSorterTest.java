@@ -0,0 +1,124 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+
+import gnu.lists.LList;
+import gnu.lists.Pair;
+import gnu.mapping.Procedure;
+import gnu.mapping.Procedure1;
+import gnu.mapping.Procedure2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests YailListSorter.
+ */
+public class YailListSorterTest {
+
+  /**
+   * Compares the first characters of two strings, so that strings with the
+   * same first character are equal.
+   */
+  private static class FirstChar extends Procedure2 {
+    private final boolean strict;
+    int calls = 0;
+
+    FirstChar(boolean strict) {
+      this.strict = strict;
+    }
+
+    @Override
+    public Object apply2(Object a, Object b) {
+      calls++;
+      char x = ((String) a).charAt(0);
+      char y = ((String) b).charAt(0);
+      return strict ? x < y : x <= y;
+    }
+  }
+
+  private static List<Object> asList(LList list) {
+    return new ArrayList<Object>(Arrays.asList(list.toArray()));
+  }
+
+  private static LList list(Object... items) {
+    return Pair.makeList(items, 0);
+  }
+
+  @Test
+  public void testSortIsStableForStrictComparison() {
+    LList result = YailListSorter.sort(list("b2", "a1", "b1", "a2", "c1"), new FirstChar(true));
+    assertEquals(Arrays.<Object>asList("a1", "a2", "b2", "b1", "c1"), asList(result));
+  }
+
+  @Test
+  public void testSortIsStableForNonStrictComparison() {
+    LList result = YailListSorter.sort(list("b2", "a1", "b1", "a2", "c1"), new FirstChar(false));
+    assertEquals(Arrays.<Object>asList("a1", "a2", "b2", "b1", "c1"), asList(result));
+  }
+
+  @Test
+  public void testSortLargeList() {
+    Random random = new Random(42);
+    Object[] items = new Object[100000];
+    for (int i = 0; i < items.length; i++) {
+      items[i] = String.valueOf((char) ('a' + random.nextInt(26))) + i;
+    }
+    LList result = YailListSorter.sort(list(items), new FirstChar(false));
+    List<Object> sorted = asList(result);
+    assertEquals(items.length, sorted.size());
+    for (int i = 1; i < sorted.size(); i++) {
+      String prev = (String) sorted.get(i - 1);
+      String next = (String) sorted.get(i);
+      if (prev.charAt(0) == next.charAt(0)) {
+        // Stable: the numeric suffix records the original position.
+        assertEquals(true, Integer.parseInt(prev.substring(1))
+            < Integer.parseInt(next.substring(1)));
+      } else {
+        assertEquals(true, prev.charAt(0) < next.charAt(0));
+      }
+    }
+  }
+
+  @Test
+  public void testSortByKeyCallsKeyOncePerElement() {
+    final int[] calls = {0};
+    Procedure length = new Procedure1() {
+      @Override
+      public Object apply1(Object arg) {
+        calls[0]++;
+        return String.valueOf((char) ('a' + ((String) arg).length()));
+      }
+    };
+    LList result = YailListSorter.sortByKey(list("ccc", "a", "bb", "dd", "e"), length,
+        new FirstChar(false));
+    assertEquals(Arrays.<Object>asList("a", "e", "bb", "dd", "ccc"), asList(result));
+    assertEquals(5, calls[0]);
+  }
+
+  @Test
+  public void testInconsistentComparatorStillSorts() {
+    final Random random = new Random(1);
+    Procedure coinFlip = new Procedure2() {
+      @Override
+      public Object apply2(Object a, Object b) {
+        return random.nextBoolean();
+      }
+    };
+    Object[] items = new Object[1000];
+    for (int i = 0; i < items.length; i++) {
+      items[i] = i;
+    }
+    LList result = YailListSorter.sort(list(items), coinFlip);
+    assertEquals(items.length, result.size());
+  }
+}
@@ -0,0 +1,173 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests YailNumberToString against the DecimalFormat based implementation it
+ * replaced, as it behaves on Android.
+ */
+public class YailNumberToStringTest {
+
+  private static final int RANDOM_SAMPLES = 1000000;
+
+  // DecimalFormat is not thread-safe, so each thread has its own.
+  private static final ThreadLocal<DecimalFormat> DECIMAL = new ThreadLocal<DecimalFormat>() {
+    @Override
+    protected DecimalFormat initialValue() {
+      return newFormat("#####0.0####");
+    }
+  };
+
+  private static final ThreadLocal<DecimalFormat> SCIENTIFIC = new ThreadLocal<DecimalFormat>() {
+    @Override
+    protected DecimalFormat initialValue() {
+      return newFormat("0.####E0");
+    }
+  };
+
+  private static DecimalFormat newFormat(String pattern) {
+    DecimalFormat format = new DecimalFormat(pattern, new DecimalFormatSymbols(Locale.US));
+    format.setRoundingMode(RoundingMode.HALF_EVEN);
+    return format;
+  }
+
+  /**
+   * The previous implementation of {@link YailNumberToString#format(double)}.
+   * On Android, DecimalFormat is implemented by ICU, which rounds the
+   * shortest decimal digits of a double rather than its exact binary value
+   * as the JDK does. Formatting those digits as a BigDecimal gives ICU's
+   * result on the JDK.
+   */
+  private static String reference(double number) {
+    if (Double.isInfinite(number)) {
+      return number < 0.0 ? "-infinity" : "+infinity";
+    }
+    if (number == Math.rint(number)) {
+      return String.valueOf((long) number);
+    }
+    BigDecimal digits = new BigDecimal(Double.toString(number));
+    double mag = Math.abs(number);
+    if (mag < 1.e6 && mag > 1.e-6) {
+      return DECIMAL.get().format(digits);
+    } else {
+      return SCIENTIFIC.get().format(digits);
+    }
+  }
+
+  private static void check(double number) {
+    assertEquals("Formatting " + Double.toString(number) + " (bits "
+        + Long.toHexString(Double.doubleToRawLongBits(number)) + ")",
+        reference(number), YailNumberToString.format(number));
+  }
+
+  @Test
+  public void testExamples() {
+    assertEquals("+infinity", YailNumberToString.format(Double.POSITIVE_INFINITY));
+    assertEquals("-infinity", YailNumberToString.format(Double.NEGATIVE_INFINITY));
+    assertEquals("NaN", YailNumberToString.format(Double.NaN));
+    assertEquals("42", YailNumberToString.format(42.0));
+    assertEquals("0", YailNumberToString.format(-0.0));
+    assertEquals("0.5", YailNumberToString.format(0.5));
+    assertEquals("-3.14159", YailNumberToString.format(-Math.PI));
+    assertEquals("0.00001", YailNumberToString.format(0.00001));
+    assertEquals("0.00002", YailNumberToString.format(0.000015));
+    assertEquals("0.00002", YailNumberToString.format(0.000025));
+    assertEquals("1.00002", YailNumberToString.format(1.000015));
+    assertEquals("2.0", YailNumberToString.format(1.999999));
+    assertEquals("1000000.0", YailNumberToString.format(999999.999999));
+    assertEquals("1.2346E6", YailNumberToString.format(1234567.5));
+    assertEquals("1E7", YailNumberToString.format(9999999.5));
+    assertEquals("1.5E-7", YailNumberToString.format(1.5e-7));
+    assertEquals("4.9E-324", YailNumberToString.format(Double.MIN_VALUE));
+  }
+
+  @Test
+  public void testEdgeCases() {
+    double[] values = {
+        1e-6, 1e6, Math.nextUp(1e-6), Math.nextDown(1e-6), Math.nextDown(1e6),
+        0.000015, 0.000025, 0.125, 2.5e-5, 1.00005, 1.000015, 12345.678905, 1.23455e-8,
+        1.23465e100, 9.99995e-7, 9.99995e20, Double.MIN_NORMAL, Double.MIN_VALUE * 3,
+        Math.nextDown(Math.pow(2, 52)), 1e-300, 1e-310
+    };
+    for (double value : values) {
+      check(value);
+      check(-value);
+    }
+  }
+
+  @Test
+  public void testRandomBitPatterns() {
+    Random random = new Random(34);
+    for (int i = 0; i < RANDOM_SAMPLES; i++) {
+      double value = Double.longBitsToDouble(random.nextLong());
+      if (!Double.isNaN(value)) {
+        check(value);
+      }
+    }
+  }
+
+  @Test
+  public void testRandomDecimalRange() {
+    Random random = new Random(35);
+    for (int i = 0; i < RANDOM_SAMPLES; i++) {
+      // Spread the magnitudes evenly over the exponents printed in decimal.
+      check((random.nextBoolean() ? 1 : -1) * Math.pow(10, random.nextDouble() * 12 - 6));
+    }
+  }
+
+  @Test
+  public void testNearTies() {
+    Random random = new Random(36);
+    for (int i = 0; i < RANDOM_SAMPLES; i++) {
+      // Numbers with few decimal digits are most likely to be close to a tie.
+      double value = random.nextInt(100000000) / Math.pow(10, random.nextInt(16));
+      check(value);
+      check(Math.nextUp(value));
+      check(Math.nextDown(value));
+    }
+  }
+
+  @Test
+  public void testConcurrentUse() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      Future<?>[] futures = new Future<?>[4];
+      for (int t = 0; t < futures.length; t++) {
+        final long seed = t;
+        futures[t] = executor.submit(new Runnable() {
+          @Override
+          public void run() {
+            Random random = new Random(seed);
+            for (int i = 0; i < 50000; i++) {
+              check(random.nextDouble() * 1000);
+            }
+          }
+        });
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+}